@@ -0,0 +1,104 @@
+package com.alok.payment.paymentprocessor.benchmark;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.dto.AccountBalanceRequest;
+import com.alok.payment.paymentprocessor.dto.AccountBalanceResponse;
+import com.alok.payment.paymentprocessor.ledger.AccountLedger;
+import com.alok.payment.paymentprocessor.ledger.PrimitiveAccountLedger;
+import com.alok.payment.paymentprocessor.ledger.StripedLockAccountLedger;
+import com.alok.payment.paymentprocessor.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountService balance checks and transfers on each ledger backend
+ * The single-thread and all-cores variants show how throughput scales; run with -t N for other thread counts.
+ * With 5 accounts every thread contends on the same balances; with 100000 contention is rare.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+    private static final BigDecimal CHECK_AMOUNT = new BigDecimal("100.00");
+    private static final BigDecimal TRANSFER_AMOUNT = new BigDecimal("0.01");
+
+    @Param({"STRIPED_LOCK", "PRIMITIVE"})
+    private PaymentProcessorProperties.LedgerBackend backend;
+
+    @Param({"5", "100000"})
+    private int accounts;
+
+    private AccountService accountService;
+    private String[] accountNumbers;
+    private AccountBalanceRequest[] checkRequests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AccountLedger ledger = switch (backend) {
+            case STRIPED_LOCK -> new StripedLockAccountLedger();
+            case PRIMITIVE -> new PrimitiveAccountLedger(accounts);
+        };
+        accountService = new AccountService(ledger);
+
+        accountNumbers = new String[accounts];
+        checkRequests = new AccountBalanceRequest[accounts];
+        for (int i = 0; i < accounts; i++) {
+            // ACC001-ACC005 are preloaded by AccountService
+            accountNumbers[i] = String.format("ACC%03d", i + 1);
+            if (i >= 5) {
+                accountService.addBalance(accountNumbers[i], OPENING_BALANCE);
+            }
+            checkRequests[i] = new AccountBalanceRequest(accountNumbers[i], CHECK_AMOUNT);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public AccountBalanceResponse checkBalance() {
+        return accountService.checkBalance(checkRequests[ThreadLocalRandom.current().nextInt(accounts)]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public AccountBalanceResponse checkBalanceAllThreads() {
+        return accountService.checkBalance(checkRequests[ThreadLocalRandom.current().nextInt(accounts)]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public AccountBalanceResponse transfer() {
+        return randomTransfer();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public AccountBalanceResponse transferAllThreads() {
+        return randomTransfer();
+    }
+
+    private AccountBalanceResponse randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return accountService.transfer(accountNumbers[random.nextInt(accounts)],
+            accountNumbers[random.nextInt(accounts)], TRANSFER_AMOUNT);
+    }
+}
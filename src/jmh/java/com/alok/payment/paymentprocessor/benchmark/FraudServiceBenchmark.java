@@ -0,0 +1,53 @@
+package com.alok.payment.paymentprocessor.benchmark;
+
+import com.alok.payment.paymentprocessor.dto.FraudCheckRequest;
+import com.alok.payment.paymentprocessor.dto.FraudCheckResponse;
+import com.alok.payment.paymentprocessor.service.FraudService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FraudService.checkFraud across the low, high and suspicious amount bands
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FraudServiceBenchmark {
+
+    @Param({"500.00", "25000.00", "75000.00"})
+    private String amount;
+
+    @Param({"false", "true"})
+    private boolean deterministic;
+
+    private FraudService fraudService;
+    private FraudCheckRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fraudService = new FraudService();
+        fraudService.setDeterministicMode(deterministic);
+        request = new FraudCheckRequest("bench-transaction", "ACC001", "ACC002", new BigDecimal(amount), "USD");
+    }
+
+    @Benchmark
+    public FraudCheckResponse checkFraud() {
+        return fraudService.checkFraud(request);
+    }
+}
@@ -0,0 +1,92 @@
+package com.alok.payment.paymentprocessor.benchmark;
+
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory CrudRepository stand-in for benchmarks
+ * Keeps rows in a concurrent map and assigns sequential IDs on first save
+ */
+abstract class InMemoryCrudRepository<T> implements CrudRepository<T, Long> {
+
+    protected final Map<Long, T> rows = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    protected abstract Long idOf(T entity);
+
+    protected abstract void assignId(T entity, Long id);
+
+    @Override
+    public <S extends T> S save(S entity) {
+        if (idOf(entity) == null) {
+            assignId(entity, sequence.incrementAndGet());
+        }
+        rows.put(idOf(entity), entity);
+        return entity;
+    }
+
+    @Override
+    public <S extends T> Iterable<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return Optional.ofNullable(rows.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return rows.containsKey(id);
+    }
+
+    @Override
+    public Iterable<T> findAll() {
+        return new ArrayList<>(rows.values());
+    }
+
+    @Override
+    public Iterable<T> findAllById(Iterable<Long> ids) {
+        List<T> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return rows.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        rows.remove(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        rows.remove(idOf(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(rows::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        rows.clear();
+    }
+}
@@ -0,0 +1,412 @@
+package com.alok.payment.paymentprocessor.benchmark;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import org.HdrHistogram.Histogram;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * In-memory PaymentAuditRepository stand-in
+ * Finders are served from indexes built as rows are added, so analytics benchmarks measure the
+ * service's in-memory processing rather than the stand-in's filtering. Not thread-safe.
+ */
+class InMemoryPaymentAuditRepository extends InMemoryCrudRepository<PaymentAudit> implements PaymentAuditRepository {
+
+    /**
+     * Rows in insertion order; callers add rows in auditedAt order so date ranges can be binary searched
+     */
+    private final List<PaymentAudit> ordered = new ArrayList<>();
+    private final Map<String, PaymentAudit> byTransactionId = new HashMap<>();
+    private final Map<String, List<PaymentAudit>> byFromAccount = new HashMap<>();
+    private final Map<String, List<PaymentAudit>> byToAccount = new HashMap<>();
+    // Stands in for the (account, audited_at, id) indexes; each audit appears once per account it touches
+    private final Map<String, List<PaymentAudit>> byAccount = new HashMap<>();
+    private final Map<PaymentStatus, List<PaymentAudit>> byStatus = new HashMap<>();
+    private final Map<Boolean, List<PaymentAudit>> byFraudCheckPassed = new HashMap<>();
+    // Stands in for the partial high-risk index; IDs are assigned in increasing order
+    private final List<PaymentAudit> highRisk = new ArrayList<>();
+    // Running totals behind the aggregate queries, standing in for the database computing them
+    private final Map<PaymentStatus, long[]> processingTimeTotals = new HashMap<>();
+    private final Map<LocalDate, long[]> dailyTotals = new HashMap<>();
+    private final Map<LocalDate, Map<String, Long>> dailyFailureReasons = new HashMap<>();
+    private final NavigableMap<LocalDateTime, Map<List<Object>, Histogram>> hourlyProcessingTimes = new TreeMap<>();
+
+    @Override
+    protected Long idOf(PaymentAudit audit) {
+        return audit.getId();
+    }
+
+    @Override
+    protected void assignId(PaymentAudit audit, Long id) {
+        audit.setId(id);
+    }
+
+    @Override
+    public <S extends PaymentAudit> S save(S audit) {
+        boolean inserted = audit.getId() == null;
+        S saved = super.save(audit);
+        if (inserted) {
+            index(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public void batchInsert(List<PaymentAudit> audits) {
+        audits.forEach(this::save);
+    }
+
+    @Override
+    public Iterable<PaymentAudit> findAll() {
+        return new ArrayList<>(ordered);
+    }
+
+    @Override
+    public void deleteAll() {
+        super.deleteAll();
+        ordered.clear();
+        byTransactionId.clear();
+        byFromAccount.clear();
+        byToAccount.clear();
+        byAccount.clear();
+        byStatus.clear();
+        byFraudCheckPassed.clear();
+        highRisk.clear();
+        processingTimeTotals.clear();
+        dailyTotals.clear();
+        dailyFailureReasons.clear();
+    }
+
+    @Override
+    public Optional<PaymentAudit> findByTransactionId(String transactionId) {
+        return Optional.ofNullable(byTransactionId.get(transactionId));
+    }
+
+    @Override
+    public List<PaymentAudit> findByFromAccount(String fromAccount) {
+        return copyOf(byFromAccount.get(fromAccount));
+    }
+
+    @Override
+    public List<PaymentAudit> findByToAccount(String toAccount) {
+        return copyOf(byToAccount.get(toAccount));
+    }
+
+    @Override
+    public List<PaymentAudit> findByFinalStatus(PaymentStatus status) {
+        return copyOf(byStatus.get(status));
+    }
+
+    @Override
+    public List<PaymentAudit> findByFraudCheckPassed(Boolean fraudCheckPassed) {
+        return copyOf(byFraudCheckPassed.get(fraudCheckPassed));
+    }
+
+    @Override
+    public List<PaymentAudit> findByAuditedAtBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        int from = firstAuditedAtOrAfter(startDate);
+        int to = firstAuditedAtAfter(endDate);
+        return from < to ? new ArrayList<>(ordered.subList(from, to)) : new ArrayList<>();
+    }
+
+    @Override
+    public Double calculateFraudDetectionRate() {
+        if (ordered.isEmpty()) {
+            return 0.0;
+        }
+        return 100.0 * byFraudCheckPassed.getOrDefault(Boolean.FALSE, List.of()).size() / ordered.size();
+    }
+
+    @Override
+    public Double calculateAverageProcessingTime(PaymentStatus status) {
+        long[] totals = processingTimeTotals.get(status);
+        return totals != null && totals[1] > 0 ? (double) totals[0] / totals[1] : 0.0;
+    }
+
+    @Override
+    public List<StatusTotals> summarizeByStatus() {
+        return summarize(ordered);
+    }
+
+    @Override
+    public List<StatusTotals> summarizeAccountByStatus(String accountNumber) {
+        return summarize(byAccount.getOrDefault(accountNumber, List.of()));
+    }
+
+    @Override
+    public List<PaymentAudit> findByAccountAfter(String account, LocalDateTime afterAuditedAt, long afterId,
+                                                 LocalDateTime before, int limit) {
+        List<PaymentAudit> audits = byAccount.getOrDefault(account, List.of());
+        int low = 0;
+        int high = audits.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            PaymentAudit audit = audits.get(mid);
+            int compared = audit.getAuditedAt().compareTo(afterAuditedAt);
+            if (compared < 0 || (compared == 0 && audit.getId() <= afterId)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        List<PaymentAudit> page = new ArrayList<>();
+        for (int i = low; i < audits.size() && page.size() < limit; i++) {
+            PaymentAudit audit = audits.get(i);
+            if (!audit.getAuditedAt().isBefore(before)) {
+                break;
+            }
+            page.add(audit);
+        }
+        return page;
+    }
+
+    @Override
+    public List<PaymentAudit> findHighRiskAfter(long afterId, int limit) {
+        int low = 0;
+        int high = highRisk.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (highRisk.get(mid).getId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return new ArrayList<>(highRisk.subList(low, Math.min(highRisk.size(), low + limit)));
+    }
+
+    @Override
+    public List<PaymentAudit> findArchivableAfter(LocalDateTime afterAuditedAt, long afterId,
+                                                  LocalDateTime before, int limit) {
+        List<PaymentAudit> chunk = new ArrayList<>();
+        for (int i = firstAuditedAtOrAfter(afterAuditedAt); i < ordered.size() && chunk.size() < limit; i++) {
+            PaymentAudit audit = ordered.get(i);
+            if (!audit.getAuditedAt().isBefore(before)) {
+                break;
+            }
+            if (audit.getAuditedAt().isAfter(afterAuditedAt) || audit.getId() > afterId) {
+                chunk.add(audit);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Benchmarks never archive, so the indexes are not kept up to date for deletes
+     */
+    @Override
+    public int deleteArchivedThrough(LocalDateTime throughAuditedAt, long throughId) {
+        throw new UnsupportedOperationException("Archiving is not benchmarked");
+    }
+
+    @Override
+    public Optional<ArchiveKey> lockArchivedThrough() {
+        throw new UnsupportedOperationException("Archiving is not benchmarked");
+    }
+
+    @Override
+    public Optional<ArchiveKey> holdArchivedThrough() {
+        return Optional.empty();
+    }
+
+    /**
+     * Nothing is ever archived
+     */
+    @Override
+    public Optional<ArchiveKey> findArchivedThrough() {
+        return Optional.empty();
+    }
+
+    @Override
+    public void advanceArchivedThrough(ArchiveKey through) {
+        throw new UnsupportedOperationException("Archiving is not benchmarked");
+    }
+
+    /**
+     * Daily totals are kept up to date as rows are added, standing in for an always caught-up rollup
+     */
+    @Override
+    public int foldNewAudits(int maxAudits) {
+        return 0;
+    }
+
+    @Override
+    public DailyTotals summarizeDay(LocalDate day) {
+        long[] totals = dailyTotals.getOrDefault(day, new long[5]);
+        return new DailyTotals(totals[0], totals[1], totals[2], totals[3], totals[4]);
+    }
+
+    @Override
+    public Map<String, Long> countFailureReasons(LocalDate day) {
+        return new HashMap<>(dailyFailureReasons.getOrDefault(day, Map.of()));
+    }
+
+    @Override
+    public Histogram summarizeProcessingTimes(LocalDateTime from, LocalDateTime to, PaymentType paymentType,
+                                              PaymentStatus status) {
+        LocalDateTime fullStart = from.truncatedTo(ChronoUnit.HOURS);
+        if (fullStart.isBefore(from)) {
+            fullStart = fullStart.plusHours(1);
+        }
+        LocalDateTime fullEnd = to.truncatedTo(ChronoUnit.HOURS);
+        if (fullEnd.isBefore(fullStart)) {
+            fullEnd = fullStart;
+        }
+
+        Histogram histogram = new Histogram(3);
+        for (Map<List<Object>, Histogram> hour : hourlyProcessingTimes.subMap(fullStart, fullEnd).values()) {
+            hour.forEach((key, hourly) -> {
+                if ((paymentType == null || paymentType == key.get(0)) && (status == null || status == key.get(1))) {
+                    histogram.add(hourly);
+                }
+            });
+        }
+        recordProcessingTimes(histogram, from, fullStart, paymentType, status);
+        recordProcessingTimes(histogram, fullEnd, to, paymentType, status);
+        return histogram;
+    }
+
+    private void recordProcessingTimes(Histogram histogram, LocalDateTime from, LocalDateTime to,
+                                       PaymentType paymentType, PaymentStatus status) {
+        for (int i = firstAuditedAtOrAfter(from); i < ordered.size() && ordered.get(i).getAuditedAt().isBefore(to); i++) {
+            PaymentAudit audit = ordered.get(i);
+            if (audit.getProcessingTimeMs() != null
+                    && (paymentType == null || paymentType == audit.getPaymentType())
+                    && (status == null || status == audit.getFinalStatus())) {
+                histogram.recordValue(Math.max(0, audit.getProcessingTimeMs()));
+            }
+        }
+    }
+
+    private void index(PaymentAudit audit) {
+        ordered.add(audit);
+        byTransactionId.put(audit.getTransactionId(), audit);
+        byFromAccount.computeIfAbsent(audit.getFromAccount(), key -> new ArrayList<>()).add(audit);
+        byToAccount.computeIfAbsent(audit.getToAccount(), key -> new ArrayList<>()).add(audit);
+        byAccount.computeIfAbsent(audit.getFromAccount(), key -> new ArrayList<>()).add(audit);
+        if (!audit.getToAccount().equals(audit.getFromAccount())) {
+            byAccount.computeIfAbsent(audit.getToAccount(), key -> new ArrayList<>()).add(audit);
+        }
+        byStatus.computeIfAbsent(audit.getFinalStatus(), key -> new ArrayList<>()).add(audit);
+        if (audit.getFraudCheckPassed() != null) {
+            byFraudCheckPassed.computeIfAbsent(audit.getFraudCheckPassed(), key -> new ArrayList<>()).add(audit);
+        }
+        if (audit.getProcessingTimeMs() != null) {
+            long[] totals = processingTimeTotals.computeIfAbsent(audit.getFinalStatus(), key -> new long[2]);
+            totals[0] += audit.getProcessingTimeMs();
+            totals[1]++;
+        }
+        if (isHighRisk(audit)) {
+            highRisk.add(audit);
+        }
+        rollUp(audit);
+    }
+
+    private static List<StatusTotals> summarize(List<PaymentAudit> audits) {
+        Map<PaymentStatus, long[]> totals = new HashMap<>();
+        for (PaymentAudit audit : audits) {
+            long[] statusTotals = totals.computeIfAbsent(audit.getFinalStatus(), key -> new long[8]);
+            statusTotals[0]++;
+            if (Boolean.FALSE.equals(audit.getFraudCheckPassed())) {
+                statusTotals[1]++;
+            }
+            if (Boolean.FALSE.equals(audit.getSourceAccountValid())) {
+                statusTotals[2]++;
+            }
+            if (Boolean.FALSE.equals(audit.getDestinationAccountValid())) {
+                statusTotals[3]++;
+            }
+            if (Boolean.FALSE.equals(audit.getSufficientBalance())) {
+                statusTotals[4]++;
+            }
+            if (audit.getProcessingTimeMs() != null) {
+                statusTotals[5] += audit.getProcessingTimeMs();
+                statusTotals[6]++;
+                statusTotals[7] = Math.max(statusTotals[7], audit.getProcessingTimeMs());
+            }
+        }
+
+        List<StatusTotals> summary = new ArrayList<>();
+        totals.forEach((status, statusTotals) -> summary.add(new StatusTotals(status, statusTotals[0],
+            statusTotals[1], statusTotals[2], statusTotals[3], statusTotals[4], statusTotals[5], statusTotals[6],
+            statusTotals[7])));
+        return summary;
+    }
+
+    private static boolean isHighRisk(PaymentAudit audit) {
+        return (audit.getRiskScore() != null && audit.getRiskScore() > 0.7)
+            || Boolean.FALSE.equals(audit.getFraudCheckPassed())
+            || (audit.getProcessingTimeMs() != null && audit.getProcessingTimeMs() > 5000);
+    }
+
+    private void rollUp(PaymentAudit audit) {
+        LocalDate day = audit.getAuditedAt().toLocalDate();
+        long[] totals = dailyTotals.computeIfAbsent(day, key -> new long[5]);
+        totals[0]++;
+        if (audit.getFinalStatus() == PaymentStatus.COMPLETED) {
+            totals[1]++;
+        }
+        if (Boolean.FALSE.equals(audit.getFraudCheckPassed())) {
+            totals[2]++;
+        }
+        if (audit.getProcessingTimeMs() != null) {
+            totals[3] += audit.getProcessingTimeMs();
+            totals[4]++;
+        }
+        if (audit.getFailureReason() != null) {
+            dailyFailureReasons.computeIfAbsent(day, key -> new HashMap<>())
+                .merge(audit.getFailureReason(), 1L, Long::sum);
+        }
+        if (audit.getProcessingTimeMs() != null && audit.getPaymentType() != null && audit.getFinalStatus() != null) {
+            hourlyProcessingTimes.computeIfAbsent(audit.getAuditedAt().truncatedTo(ChronoUnit.HOURS), key -> new HashMap<>())
+                .computeIfAbsent(List.of(audit.getPaymentType(), audit.getFinalStatus()), key -> new Histogram(3))
+                .recordValue(Math.max(0, audit.getProcessingTimeMs()));
+        }
+    }
+
+    private int firstAuditedAtOrAfter(LocalDateTime time) {
+        int low = 0;
+        int high = ordered.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ordered.get(mid).getAuditedAt().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstAuditedAtAfter(LocalDateTime time) {
+        int low = 0;
+        int high = ordered.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ordered.get(mid).getAuditedAt().isAfter(time)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static List<PaymentAudit> copyOf(List<PaymentAudit> audits) {
+        return audits != null ? new ArrayList<>(audits) : new ArrayList<>();
+    }
+}
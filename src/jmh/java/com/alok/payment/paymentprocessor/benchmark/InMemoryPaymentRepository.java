@@ -0,0 +1,126 @@
+package com.alok.payment.paymentprocessor.benchmark;
+
+import com.alok.payment.paymentprocessor.dto.PaymentCursor;
+import com.alok.payment.paymentprocessor.dto.PaymentFilter;
+import com.alok.payment.paymentprocessor.model.Payment;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.outbox.OutboxMessage;
+import com.alok.payment.paymentprocessor.outbox.PaymentOutcomeEvent;
+import com.alok.payment.paymentprocessor.repository.PaymentRepository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * In-memory PaymentRepository stand-in so benchmarks measure the service rather than the database
+ */
+class InMemoryPaymentRepository extends InMemoryCrudRepository<Payment> implements PaymentRepository {
+
+    private final ConcurrentSkipListMap<Long, OutboxMessage> outbox = new ConcurrentSkipListMap<>();
+    private final AtomicLong outboxSequence = new AtomicLong();
+
+    @Override
+    protected Long idOf(Payment payment) {
+        return payment.getId();
+    }
+
+    @Override
+    protected void assignId(Payment payment, Long id) {
+        payment.setId(id);
+    }
+
+    @Override
+    public void batchInsert(List<Payment> payments) {
+        payments.forEach(this::save);
+    }
+
+    @Override
+    public void appendOutcomes(List<Payment> payments) {
+        for (Payment payment : payments) {
+            long id = outboxSequence.incrementAndGet();
+            outbox.put(id, new OutboxMessage(id, payment.getTransactionId(),
+                PaymentOutcomeEvent.of(payment).toString(), LocalDateTime.now()));
+        }
+    }
+
+    @Override
+    public List<OutboxMessage> claimOutcomes(int limit) {
+        return outbox.values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public int deleteOutcomes(List<Long> ids) {
+        int deleted = 0;
+        for (Long id : ids) {
+            if (outbox.remove(id) != null) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public void deleteAll() {
+        super.deleteAll();
+        outbox.clear();
+    }
+
+    @Override
+    public Optional<Payment> findByTransactionId(String transactionId) {
+        return rows.values().stream().filter(payment -> transactionId.equals(payment.getTransactionId())).findFirst();
+    }
+
+    @Override
+    public List<Payment> findByFromAccount(String fromAccount) {
+        return filter(payment -> fromAccount.equals(payment.getFromAccount()));
+    }
+
+    @Override
+    public List<Payment> findByToAccount(String toAccount) {
+        return filter(payment -> toAccount.equals(payment.getToAccount()));
+    }
+
+    @Override
+    public List<Payment> findByStatus(PaymentStatus status) {
+        return filter(payment -> payment.getStatus() == status);
+    }
+
+    @Override
+    public List<Payment> findPage(PaymentFilter filter, PaymentCursor after, int limit) {
+        return page(payment -> true, filter, after, limit);
+    }
+
+    @Override
+    public List<Payment> findAccountPage(String account, PaymentFilter filter, PaymentCursor after, int limit) {
+        return page(payment -> account.equals(payment.getFromAccount()) || account.equals(payment.getToAccount()),
+            filter, after, limit);
+    }
+
+    private List<Payment> page(Predicate<Payment> predicate, PaymentFilter filter, PaymentCursor after, int limit) {
+        return rows.values().stream()
+            .filter(predicate)
+            .filter(payment -> filter.status() == null || filter.status() == payment.getStatus())
+            .filter(payment -> filter.paymentType() == null || filter.paymentType() == payment.getPaymentType())
+            .filter(payment -> filter.currency() == null || filter.currency().equals(payment.getCurrency()))
+            .filter(payment -> filter.from() == null || !payment.getCreatedAt().isBefore(filter.from()))
+            .filter(payment -> filter.to() == null || payment.getCreatedAt().isBefore(filter.to()))
+            .filter(payment -> after == null || isAfter(payment, after))
+            .sorted(Comparator.comparing(Payment::getCreatedAt).thenComparing(Payment::getId))
+            .limit(limit)
+            .toList();
+    }
+
+    private static boolean isAfter(Payment payment, PaymentCursor after) {
+        int compared = payment.getCreatedAt().compareTo(after.createdAt());
+        return compared > 0 || (compared == 0 && payment.getId() > after.id());
+    }
+
+    private List<Payment> filter(Predicate<Payment> predicate) {
+        return rows.values().stream().filter(predicate).toList();
+    }
+}
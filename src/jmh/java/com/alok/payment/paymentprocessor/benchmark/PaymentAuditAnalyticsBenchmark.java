@@ -0,0 +1,192 @@
+package com.alok.payment.paymentprocessor.benchmark;
+
+import com.alok.payment.paymentprocessor.archive.AuditArchive;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import com.alok.payment.paymentprocessor.service.AsyncAuditWriter;
+import com.alok.payment.paymentprocessor.service.AuditStatistics;
+import com.alok.payment.paymentprocessor.service.PaymentAuditService;
+import com.alok.payment.paymentprocessor.service.PaymentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PaymentAuditService analytics over synthetic audit tables of 10k to 10M rows
+ * Rows are spread over 30 days and 1000 accounts with a realistic status mix. The 10M case needs
+ * several GB of heap, hence the larger fork heap; pass -p rows=10000 for a quick run.
+ * The statistics and dailySummary parameters compare database aggregates against in-memory
+ * counters and day scans against the daily rollup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PaymentAuditAnalyticsBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final int DAYS = 30;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String[] RISK_SCORES = new String[101];
+    private static final int PAGE_SIZE = 500;
+    private static final BigDecimal[] AMOUNTS = new BigDecimal[100];
+    private static final String[] ACCOUNT_NUMBERS = new String[ACCOUNTS];
+
+    static {
+        for (int i = 0; i < RISK_SCORES.length; i++) {
+            RISK_SCORES[i] = String.valueOf(i / 100.0);
+        }
+        for (int i = 0; i < AMOUNTS.length; i++) {
+            AMOUNTS[i] = BigDecimal.valueOf((i + 1) * 250L, 2);
+        }
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ACCOUNT_NUMBERS[i] = String.format("ACC%03d", i);
+        }
+    }
+
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    @Param({"DATABASE", "IN_MEMORY"})
+    private PaymentProcessorProperties.AuditStatisticsSource statistics;
+
+    @Param({"SCAN", "ROLLUP"})
+    private PaymentProcessorProperties.DailySummarySource dailySummary;
+
+    private PaymentAuditService auditService;
+    private LocalDateTime sampleDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryPaymentAuditRepository auditRepository = new InMemoryPaymentAuditRepository();
+        PaymentProcessorProperties properties = new PaymentProcessorProperties();
+        properties.getAudit().setStatistics(statistics);
+        properties.getAudit().setDailySummary(dailySummary);
+        AuditStatistics auditStatistics = new AuditStatistics(auditRepository, properties);
+        auditService = new PaymentAuditService(auditRepository, properties,
+            new AsyncAuditWriter(auditRepository, properties, new SimpleMeterRegistry()),
+            new PaymentMetrics(new SimpleMeterRegistry()), auditStatistics, new AuditArchive(properties));
+
+        SplittableRandom random = new SplittableRandom(42);
+        long spacingNanos = Duration.ofDays(DAYS).toNanos() / rows;
+        for (int i = 0; i < rows; i++) {
+            auditRepository.save(syntheticAudit(i, START.plusNanos(spacingNanos * i), random));
+        }
+        sampleDay = START.plusDays(DAYS / 2);
+        auditStatistics.start();
+    }
+
+    @Benchmark
+    public Double calculateAverageProcessingTime() {
+        return auditService.calculateAverageProcessingTime();
+    }
+
+    @Benchmark
+    public Double getFraudDetectionRate() {
+        return auditService.getFraudDetectionRate();
+    }
+
+    @Benchmark
+    public Map<String, Object> getAccountAuditAnalytics() {
+        return auditService.getAccountAuditAnalytics(ACCOUNT_NUMBERS[1]);
+    }
+
+    @Benchmark
+    public List<PaymentAudit> getAccountAuditPage() {
+        return auditService.getAuditsByAccount(ACCOUNT_NUMBERS[1], sampleDay, sampleDay.plusDays(1), null,
+            PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<PaymentAudit> getHighRiskTransactionAudits() {
+        return auditService.getHighRiskTransactionAudits();
+    }
+
+    @Benchmark
+    public List<PaymentAudit> getHighRiskTransactionAuditPage() {
+        return auditService.getHighRiskTransactionAudits(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Map<String, Object> getProcessingTimePercentiles() {
+        return auditService.getProcessingTimePercentiles(sampleDay.plusMinutes(30), sampleDay.plusDays(7),
+            PaymentType.DOMESTIC_PAYMENT, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> getDailyAuditSummary() {
+        return auditService.getDailyAuditSummary(sampleDay);
+    }
+
+    private static PaymentAudit syntheticAudit(int index, LocalDateTime auditedAt, SplittableRandom random) {
+        PaymentAudit audit = new PaymentAudit("bench-" + index,
+            ACCOUNT_NUMBERS[random.nextInt(ACCOUNTS)], ACCOUNT_NUMBERS[random.nextInt(ACCOUNTS)],
+            AMOUNTS[random.nextInt(AMOUNTS.length)], "USD", PaymentType.DOMESTIC_PAYMENT);
+        audit.setAuditedAt(auditedAt);
+        audit.setProcessingTimeMs(5L + random.nextInt(300));
+
+        // Roughly 80% completed, 8% insufficient balance, 5% fraud, 4% invalid account, 3% failed
+        int outcome = random.nextInt(100);
+        if (outcome < 80) {
+            passedChecks(audit, random, true);
+            audit.setFinalStatus(PaymentStatus.COMPLETED);
+        } else if (outcome < 88) {
+            passedChecks(audit, random, false);
+            audit.setFinalStatus(PaymentStatus.INSUFFICIENT_BALANCE);
+            audit.setFailureReason("Insufficient balance");
+        } else if (outcome < 93) {
+            audit.setSourceAccountValid(true);
+            audit.setDestinationAccountValid(true);
+            audit.setFraudCheckPassed(false);
+            setRiskScore(audit, 70 + random.nextInt(31));
+            audit.setFinalStatus(PaymentStatus.FRAUD_CHECK_FAILED);
+            audit.setFailureReason("Fraud detected: High risk score");
+        } else if (outcome < 97) {
+            audit.setSourceAccountValid(true);
+            audit.setDestinationAccountValid(false);
+            audit.setFinalStatus(PaymentStatus.ACCOUNT_VALIDATION_FAILED);
+            audit.setFailureReason("Destination account validation failed");
+        } else {
+            passedChecks(audit, random, true);
+            audit.setFinalStatus(PaymentStatus.FAILED);
+            audit.setFailureReason("Payment processing failed");
+            audit.setProcessingTimeMs(5000L + random.nextInt(2000));
+        }
+        return audit;
+    }
+
+    private static void setRiskScore(PaymentAudit audit, int percent) {
+        audit.setFraudRiskScore(RISK_SCORES[percent]);
+        audit.setRiskScore(percent / 100.0);
+    }
+
+    private static void passedChecks(PaymentAudit audit, SplittableRandom random, boolean sufficientBalance) {
+        audit.setSourceAccountValid(true);
+        audit.setDestinationAccountValid(true);
+        audit.setFraudCheckPassed(true);
+        setRiskScore(audit, random.nextInt(75));
+        audit.setSufficientBalance(sufficientBalance);
+    }
+}
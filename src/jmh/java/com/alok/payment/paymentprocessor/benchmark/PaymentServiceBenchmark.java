@@ -0,0 +1,110 @@
+package com.alok.payment.paymentprocessor.benchmark;
+
+import com.alok.payment.paymentprocessor.archive.AuditArchive;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.dto.PaymentRequest;
+import com.alok.payment.paymentprocessor.dto.PaymentResponse;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import com.alok.payment.paymentprocessor.service.AccountService;
+import com.alok.payment.paymentprocessor.service.AsyncAuditWriter;
+import com.alok.payment.paymentprocessor.service.AuditStatistics;
+import com.alok.payment.paymentprocessor.service.FraudService;
+import com.alok.payment.paymentprocessor.service.PaymentAuditService;
+import com.alok.payment.paymentprocessor.service.PaymentMetrics;
+import com.alok.payment.paymentprocessor.service.PaymentService;
+import com.alok.payment.paymentprocessor.service.PaymentStatusCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PaymentService.processPayment end to end against in-memory repositories
+ * Alternates ACC001 -> ACC002 and back so balances never run out. Single-threaded because the
+ * audit stand-in is not thread-safe; contention is covered by AccountServiceBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class PaymentServiceBenchmark {
+
+    @Param({"STAGED", "SINGLE_WRITE"})
+    private PaymentProcessorProperties.WriteMode writeMode;
+
+    @Param({"SEQUENTIAL", "CONCURRENT"})
+    private PaymentProcessorProperties.OrchestrationMode orchestrationMode;
+
+    private InMemoryPaymentRepository paymentRepository;
+    private InMemoryPaymentAuditRepository auditRepository;
+    private AccountService accountService;
+    private ExecutorService stepExecutor;
+    private PaymentService paymentService;
+
+    private PaymentRequest outbound;
+    private PaymentRequest inbound;
+    private boolean nextOutbound;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PaymentProcessorProperties properties = new PaymentProcessorProperties();
+        properties.getProcessing().setWriteMode(writeMode);
+        properties.getOrchestration().setMode(orchestrationMode);
+
+        paymentRepository = new InMemoryPaymentRepository();
+        auditRepository = new InMemoryPaymentAuditRepository();
+        accountService = new AccountService();
+        FraudService fraudService = new FraudService();
+        fraudService.setDeterministicMode(true);
+        PaymentMetrics metrics = new PaymentMetrics(new SimpleMeterRegistry());
+        PaymentAuditService auditService = new PaymentAuditService(auditRepository, properties,
+            new AsyncAuditWriter(auditRepository, properties, new SimpleMeterRegistry()), metrics,
+            new AuditStatistics(auditRepository, properties), new AuditArchive(properties));
+        stepExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        paymentService = new PaymentService(paymentRepository, fraudService, accountService, auditService,
+            properties, metrics, new PaymentStatusCache(properties, new SimpleMeterRegistry()), stepExecutor);
+
+        outbound = new PaymentRequest("ACC001", "ACC002", new BigDecimal("125.50"), "USD",
+            PaymentType.DOMESTIC_PAYMENT, "Benchmark payment");
+        inbound = new PaymentRequest("ACC002", "ACC001", new BigDecimal("125.50"), "USD",
+            PaymentType.DOMESTIC_PAYMENT, "Benchmark payment");
+    }
+
+    @Setup(Level.Iteration)
+    public void resetState() {
+        paymentRepository.deleteAll();
+        auditRepository.deleteAll();
+        accountService.resetBalances();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stepExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public PaymentResponse processPayment() {
+        nextOutbound = !nextOutbound;
+        return paymentService.processPayment(nextOutbound ? outbound : inbound);
+    }
+}
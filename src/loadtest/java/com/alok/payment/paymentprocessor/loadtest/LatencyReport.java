@@ -0,0 +1,157 @@
+package com.alok.payment.paymentprocessor.loadtest;
+
+import com.alok.payment.paymentprocessor.loadtest.LoadTestOptions.Operation;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency Report
+ * Per-operation HdrHistograms of response time measured from each request's intended start time, which
+ * corrects for coordinated omission: a stalled server delays the requests queued behind it and that
+ * delay is counted. Service time, measured from when the request was actually sent, is kept alongside
+ * for comparison. Recorders are drained into running totals at each progress interval.
+ */
+final class LatencyReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    void record(Operation operation, long intendedStartNanos, long sentNanos, long completedNanos, String outcome) {
+        OperationStats operationStats = stats.get(operation);
+        operationStats.responseTime.recordValue(completedNanos - intendedStartNanos);
+        operationStats.serviceTime.recordValue(completedNanos - sentNanos);
+        operationStats.outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Moves everything recorded since the last interval into the totals and returns a one-line progress summary
+     */
+    String interval(Duration elapsed) {
+        StringBuilder line = new StringBuilder(String.format("[%6.1fs]", elapsed.toMillis() / 1000.0));
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram interval = entry.getValue().drain();
+            if (interval.getTotalCount() > 0) {
+                line.append(String.format(" %s n=%d p50=%.1fms p99=%.1fms", entry.getKey().name().toLowerCase(),
+                    interval.getTotalCount(), millis(interval.getValueAtPercentile(50)),
+                    millis(interval.getValueAtPercentile(99))));
+            }
+        }
+        if (dropped.sum() > 0) {
+            line.append(" dropped=").append(dropped.sum());
+        }
+        return line.toString();
+    }
+
+    /**
+     * Writes report.txt and one .hgrm percentile distribution per operation to a new run directory
+     *
+     * @return the directory written
+     */
+    Path write(LoadTestOptions options, long issued, Duration measured, PrintStream console) throws IOException {
+        Path runDirectory = options.reportDirectory.resolve(LocalDateTime.now().format(RUN_ID));
+        Files.createDirectories(runDirectory);
+
+        String summary = summary(options, issued, measured);
+        console.print(summary);
+        Files.writeString(runDirectory.resolve("report.txt"), summary);
+
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram total = entry.getValue().responseTimeTotal;
+            if (total.getTotalCount() == 0) {
+                continue;
+            }
+            Path histogramFile = runDirectory.resolve(entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(histogramFile))) {
+                total.outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+        return runDirectory;
+    }
+
+    private String summary(LoadTestOptions options, long issued, Duration measured) {
+        StringBuilder report = new StringBuilder();
+        report.append("Load test: ").append(options).append('\n');
+        report.append(String.format("Issued %d requests in %s (%.1f req/s), %d dropped at %d in flight%n%n",
+            issued, measured, issued / (measured.toNanos() / 1e9), dropped.sum(), options.maxInFlight));
+
+        report.append("Response time from intended start (coordinated-omission corrected), ms\n");
+        appendTable(report, true);
+        report.append("\nService time from send (uncorrected), ms\n");
+        appendTable(report, false);
+
+        report.append("\nOutcomes\n");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            if (!entry.getValue().outcomes.isEmpty()) {
+                Map<String, Long> outcomes = new TreeMap<>();
+                entry.getValue().outcomes.forEach((outcome, count) -> outcomes.put(outcome, count.sum()));
+                report.append(String.format("  %-8s %s%n", entry.getKey().name().toLowerCase(), outcomes));
+            }
+        }
+        return report.toString();
+    }
+
+    private void appendTable(StringBuilder report, boolean corrected) {
+        report.append(String.format("  %-8s %10s %10s %10s %10s %10s %10s%n",
+            "", "count", "p50", "p90", "p99", "p99.9", "max"));
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram total = corrected ? entry.getValue().responseTimeTotal : entry.getValue().serviceTimeTotal;
+            if (total.getTotalCount() == 0) {
+                continue;
+            }
+            report.append(String.format("  %-8s %10d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                entry.getKey().name().toLowerCase(), total.getTotalCount(),
+                millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(90)),
+                millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+                millis(total.getMaxValue())));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    private static final class OperationStats {
+
+        private final Recorder responseTime = new Recorder(3);
+        private final Recorder serviceTime = new Recorder(3);
+        private final Histogram responseTimeTotal = new Histogram(3);
+        private final Histogram serviceTimeTotal = new Histogram(3);
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        /**
+         * @return response times recorded since the previous call, after adding them to the totals
+         */
+        private Histogram drain() {
+            Histogram interval = responseTime.getIntervalHistogram();
+            responseTimeTotal.add(interval);
+            serviceTimeTotal.add(serviceTime.getIntervalHistogram());
+            return interval;
+        }
+    }
+}
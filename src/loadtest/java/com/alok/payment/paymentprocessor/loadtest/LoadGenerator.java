@@ -0,0 +1,235 @@
+package com.alok.payment.paymentprocessor.loadtest;
+
+import com.alok.payment.paymentprocessor.loadtest.LoadTestOptions.Operation;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Payment API Load Generator
+ * Open-model load: requests start on a fixed schedule (Poisson or uniform arrivals at the target rate)
+ * whether or not earlier requests have completed, each on its own virtual thread. Latency is measured
+ * from the scheduled start, so server stalls are not hidden by the generator slowing down.
+ *
+ * Run against a locally started instance:
+ *   ./mvnw -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="--rate=200 --duration=2m"
+ */
+public final class LoadGenerator {
+
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(5);
+    private static final int KNOWN_TRANSACTION_IDS = 4096;
+
+    private final LoadTestOptions options;
+    private final SplittableRandom random;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyReport report = new LatencyReport();
+    private final Semaphore inFlight;
+    private final AtomicReferenceArray<String> knownTransactionIds = new AtomicReferenceArray<>(KNOWN_TRANSACTION_IDS);
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private LoadGenerator(LoadTestOptions options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.seed);
+        this.inFlight = new Semaphore(options.maxInFlight);
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        new LoadGenerator(options).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        checkReachable();
+        System.out.println("Load test: " + options);
+
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup.toNanos();
+        long end = measureStart + options.duration.toNanos();
+        long nextProgress = start + PROGRESS_INTERVAL.toNanos();
+        long intendedStart = start;
+        long issued = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (intendedStart < end) {
+                parkUntil(intendedStart);
+
+                boolean measured = intendedStart >= measureStart;
+                if (measured) {
+                    issued++;
+                }
+                submit(executor, nextRequest(), intendedStart, measured);
+
+                if (System.nanoTime() >= nextProgress) {
+                    System.out.println(report.interval(Duration.ofNanos(System.nanoTime() - start)));
+                    nextProgress += PROGRESS_INTERVAL.toNanos();
+                }
+                intendedStart += nextGapNanos();
+            }
+            System.out.println("Schedule complete, waiting for in-flight requests");
+        }
+        System.out.println(report.interval(Duration.ofNanos(System.nanoTime() - start)));
+
+        Path runDirectory = report.write(options, issued, options.duration, System.out);
+        System.out.println("\nReport and histograms written to " + runDirectory.toAbsolutePath());
+    }
+
+    private void submit(ExecutorService executor, PlannedRequest planned, long intendedStart, boolean measured) {
+        if (!inFlight.tryAcquire()) {
+            if (measured) {
+                report.recordDropped();
+            }
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                long sent = System.nanoTime();
+                String outcome;
+                try {
+                    HttpResponse<String> response = client.send(planned.request(), HttpResponse.BodyHandlers.ofString());
+                    outcome = "HTTP " + response.statusCode();
+                    if (planned.operation() == Operation.CREATE) {
+                        rememberTransactionId(response.body());
+                    }
+                } catch (IOException e) {
+                    outcome = e.getClass().getSimpleName();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (measured) {
+                    report.record(planned.operation(), intendedStart, sent, System.nanoTime(), outcome);
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Builds the next request on the scheduling thread so a given seed always produces the same sequence
+     */
+    private PlannedRequest nextRequest() {
+        Operation operation = options.operations.next(random);
+        String transactionId = operation == Operation.STATUS ? randomKnownTransactionId() : null;
+        if (operation == Operation.STATUS && transactionId == null) {
+            // Nothing created yet to look up
+            operation = Operation.CREATE;
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder().timeout(options.requestTimeout);
+        switch (operation) {
+            case CREATE -> request.uri(uri("/api/payments"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(paymentJson()));
+            case STATUS -> request.uri(uri("/api/payments/" + transactionId)).GET();
+            case ACCOUNT -> request.uri(uri("/api/payments/account/" + pickAccount())).GET();
+            case ALL -> request.uri(uri("/api/payments")).GET();
+        }
+        return new PlannedRequest(operation, request.build());
+    }
+
+    private String paymentJson() {
+        String fromAccount = pickAccount();
+        String toAccount = pickAccount();
+        while (toAccount.equals(fromAccount)) {
+            toAccount = pickAccount();
+        }
+        PaymentType paymentType = options.paymentTypes.next(random);
+        BigDecimal range = options.maxAmount.subtract(options.minAmount);
+        BigDecimal amount = options.minAmount.add(range.multiply(BigDecimal.valueOf(random.nextDouble())))
+            .setScale(2, RoundingMode.HALF_UP);
+
+        return String.format("{\"fromAccount\":\"%s\",\"toAccount\":\"%s\",\"amount\":%s,\"currency\":\"USD\","
+                + "\"paymentType\":\"%s\",\"description\":\"Load test\"}",
+            fromAccount, toAccount, amount.toPlainString(), paymentType);
+    }
+
+    private String pickAccount() {
+        if (!options.hotAccounts.isEmpty() && random.nextDouble() < options.hotAccountShare) {
+            return options.hotAccounts.get(random.nextInt(options.hotAccounts.size()));
+        }
+        return String.format("ACC%03d", 1 + random.nextInt(options.accounts));
+    }
+
+    private long nextGapNanos() {
+        double meanGapNanos = 1e9 / options.rate;
+        if (options.arrival == LoadTestOptions.Arrival.UNIFORM) {
+            return Math.max(1, Math.round(meanGapNanos));
+        }
+        return Math.max(1, Math.round(-Math.log(1.0 - random.nextDouble()) * meanGapNanos));
+    }
+
+    private void rememberTransactionId(String body) {
+        try {
+            String transactionId = objectMapper.readTree(body).path("transactionId").asText(null);
+            if (transactionId != null) {
+                knownTransactionIds.set((int) (createdCount.getAndIncrement() % KNOWN_TRANSACTION_IDS), transactionId);
+            }
+        } catch (IOException e) {
+            // Not a payment response; nothing to remember
+        }
+    }
+
+    private String randomKnownTransactionId() {
+        long created = createdCount.get();
+        if (created == 0) {
+            return null;
+        }
+        return knownTransactionIds.get(random.nextInt((int) Math.min(created, KNOWN_TRANSACTION_IDS)));
+    }
+
+    private void checkReachable() throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(uri("/api/payments/health")).timeout(Duration.ofSeconds(5)).GET().build();
+        try {
+            HttpResponse<Void> response = client.send(health, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Health check returned HTTP " + response.statusCode());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Service not reachable at " + options.baseUrl
+                + "; start it first, e.g. ./mvnw spring-boot:run", e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(options.baseUrl + path);
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private record PlannedRequest(Operation operation, HttpRequest request) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.alok.payment.paymentprocessor.loadtest;
+
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load Test Options
+ * Parsed from --name=value arguments; durations use the same syntax as application.yaml (500ms, 30s, 2m)
+ */
+final class LoadTestOptions {
+
+    enum Arrival {
+        /**
+         * Exponentially distributed gaps between requests, as from many independent clients
+         */
+        POISSON,
+
+        /**
+         * Evenly spaced requests
+         */
+        UNIFORM
+    }
+
+    enum Operation {
+        /**
+         * POST /api/payments
+         */
+        CREATE,
+
+        /**
+         * GET /api/payments/{transactionId} for a previously created payment
+         */
+        STATUS,
+
+        /**
+         * GET /api/payments/account/{accountNumber}
+         */
+        ACCOUNT,
+
+        /**
+         * GET /api/payments
+         */
+        ALL
+    }
+
+    String baseUrl = "http://localhost:8081";
+    double rate = 100;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    Arrival arrival = Arrival.POISSON;
+    WeightedChoice<Operation> operations = WeightedChoice.parse("create:80,status:15,account:5",
+        name -> Operation.valueOf(name.toUpperCase()));
+    WeightedChoice<PaymentType> paymentTypes = WeightedChoice.parse(
+        "DOMESTIC_PAYMENT:40,DOMESTIC_TRANSFER:20,INTRABANK_TRANSFER:20,INTERBANK_TRANSFER:20", PaymentType::valueOf);
+    int accounts = 1000;
+    List<String> hotAccounts = List.of("ACC001");
+    double hotAccountShare = 0.2;
+    BigDecimal minAmount = new BigDecimal("1.00");
+    BigDecimal maxAmount = new BigDecimal("5000.00");
+    int maxInFlight = 10000;
+    Duration requestTimeout = Duration.ofSeconds(30);
+    Path reportDirectory = Path.of("target", "loadtest");
+    long seed = System.nanoTime();
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                System.out.println(usage());
+                System.exit(0);
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'\n" + usage());
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            switch (entry.getKey()) {
+                case "base-url" -> options.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "duration" -> options.duration = DurationStyle.detectAndParse(value);
+                case "warmup" -> options.warmup = DurationStyle.detectAndParse(value);
+                case "arrival" -> options.arrival = Arrival.valueOf(value.toUpperCase());
+                case "operations" -> options.operations = WeightedChoice.parse(value,
+                    name -> Operation.valueOf(name.toUpperCase()));
+                case "payment-types" -> options.paymentTypes = WeightedChoice.parse(value, PaymentType::valueOf);
+                case "accounts" -> options.accounts = Integer.parseInt(value);
+                case "hot-accounts" -> options.hotAccounts = Arrays.stream(value.split(","))
+                    .map(String::trim).filter(account -> !account.isEmpty()).toList();
+                case "hot-account-share" -> options.hotAccountShare = Double.parseDouble(value);
+                case "min-amount" -> options.minAmount = new BigDecimal(value);
+                case "max-amount" -> options.maxAmount = new BigDecimal(value);
+                case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "request-timeout" -> options.requestTimeout = DurationStyle.detectAndParse(value);
+                case "report-dir" -> options.reportDirectory = Path.of(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + entry.getKey() + "\n" + usage());
+            }
+        }
+        options.validate();
+        return options;
+    }
+
+    private void validate() {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        if (accounts < 2) {
+            throw new IllegalArgumentException("--accounts must be at least 2");
+        }
+        if (hotAccountShare < 0 || hotAccountShare > 1) {
+            throw new IllegalArgumentException("--hot-account-share must be between 0 and 1");
+        }
+        if (hotAccountShare > 0 && hotAccounts.isEmpty()) {
+            throw new IllegalArgumentException("--hot-accounts must not be empty when --hot-account-share is set");
+        }
+        if (minAmount.compareTo(maxAmount) > 0) {
+            throw new IllegalArgumentException("--min-amount must not exceed --max-amount");
+        }
+    }
+
+    static String usage() {
+        return """
+            Usage: LoadGenerator [--name=value ...]
+              --base-url           Service to load (default http://localhost:8081)
+              --rate               Requests started per second, independent of response times (default 100)
+              --duration           Measured run length after warmup (default 60s)
+              --warmup             Unmeasured run-in at the same rate (default 10s)
+              --arrival            POISSON or UNIFORM request spacing (default POISSON)
+              --operations         Mix of create, status, account and all (default create:80,status:15,account:5)
+              --payment-types      Mix of payment types (default DOMESTIC_PAYMENT:40,DOMESTIC_TRANSFER:20,INTRABANK_TRANSFER:20,INTERBANK_TRANSFER:20)
+              --accounts           Accounts ACC001..ACCn used uniformly (default 1000)
+              --hot-accounts       Comma-separated accounts that receive the hot share (default ACC001)
+              --hot-account-share  Fraction of account picks that go to the hot accounts (default 0.2)
+              --min-amount, --max-amount  Payment amount range (default 1.00-5000.00)
+              --max-in-flight      Requests outstanding before new arrivals are dropped and counted (default 10000)
+              --request-timeout    Per-request timeout, recorded as an error (default 30s)
+              --report-dir         Where reports and .hgrm histograms are written (default target/loadtest)
+              --seed               Random seed for a repeatable request sequence
+            """;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s at %.1f req/s (%s) for %s after %s warmup; operations %s; payment types %s; "
+                + "%d accounts, %.0f%% of picks on %s; amounts %s-%s",
+            baseUrl, rate, arrival, duration, warmup, operations, paymentTypes,
+            accounts, hotAccountShare * 100, hotAccounts, minAmount, maxAmount);
+    }
+}
@@ -0,0 +1,70 @@
+package com.alok.payment.paymentprocessor.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Weighted random choice parsed from "name:weight,name:weight"
+ */
+final class WeightedChoice<T> {
+
+    private final List<T> values = new ArrayList<>();
+    private final double[] cumulativeWeights;
+
+    private WeightedChoice(Map<T, Double> weights) {
+        cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        int i = 0;
+        for (Map.Entry<T, Double> entry : weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Negative weight for " + entry.getKey());
+            }
+            total += entry.getValue();
+            values.add(entry.getKey());
+            cumulativeWeights[i++] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive: " + weights);
+        }
+    }
+
+    static <T> WeightedChoice<T> parse(String spec, Function<String, T> parser) {
+        Map<T, Double> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected name:weight but got '" + part + "' in " + spec);
+            }
+            weights.merge(parser.apply(nameAndWeight[0].trim()), Double.parseDouble(nameAndWeight[1].trim()), Double::sum);
+        }
+        return new WeightedChoice<>(weights);
+    }
+
+    T next(SplittableRandom random) {
+        double point = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return values.get(i);
+            }
+        }
+        return values.get(values.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder();
+        double previous = 0;
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                description.append(',');
+            }
+            description.append(values.get(i)).append(':').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.alok.payment.paymentprocessor.archive;
+
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Position of an audit in (auditedAt, id) order, the order audits are archived in
+ */
+public record ArchiveKey(LocalDateTime auditedAt, long id) implements Comparable<ArchiveKey> {
+
+    private static final Comparator<ArchiveKey> ORDER =
+        Comparator.comparing(ArchiveKey::auditedAt).thenComparingLong(ArchiveKey::id);
+
+    public static ArchiveKey of(PaymentAudit audit) {
+        return new ArchiveKey(audit.getAuditedAt(), audit.getId());
+    }
+
+    @Override
+    public int compareTo(ArchiveKey other) {
+        return ORDER.compare(this, other);
+    }
+}
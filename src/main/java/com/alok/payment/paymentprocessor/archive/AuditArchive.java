@@ -0,0 +1,214 @@
+package com.alok.payment.paymentprocessor.archive;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Cold store for audits moved out of payment_audit
+ * Audits are archived in (auditedAt, id) order, so the files cover consecutive, non-overlapping ranges.
+ * The watermark recorded in payment_audit_archive_state is authoritative: every audit at or before it
+ * lives here and every audit after it is still in the database. Files past it belong to an archive run
+ * that rolled back. The file index is loaded at startup, kept in memory, and reloaded when it falls
+ * behind the watermark, so instances sharing the archive directory see files written by the others.
+ */
+@Component
+public class AuditArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchive.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final PaymentProcessorProperties.Audit.Archive settings;
+
+    // Replaced, never modified, so readers can scan without locking
+    private volatile List<AuditArchiveFile> files = List.of();
+
+    public AuditArchive(PaymentProcessorProperties properties) {
+        this.settings = properties.getAudit().getArchive();
+        if (settings.isEnabled()) {
+            files = loadFiles(settings.getDirectory());
+            logger.info("Loaded {} audit archive files from {}", files.size(), settings.getDirectory());
+        }
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Key of the last audit in the archive files, or empty if there are none
+     */
+    public Optional<ArchiveKey> lastArchivedKey() {
+        List<AuditArchiveFile> current = files;
+        return current.isEmpty() ? Optional.empty() : Optional.of(current.get(current.size() - 1).getLastKey());
+    }
+
+    /**
+     * Makes sure the files hold every audit through the watermark recorded in the database, reloading the
+     * file index if no file ends at the watermark. Each archive run's file ends at the watermark it records.
+     *
+     * @throws IllegalStateException if the archive is disabled or its directory lacks some of those audits
+     */
+    public void checkCovers(ArchiveKey archivedThrough) {
+        if (!settings.isEnabled()) {
+            throw new IllegalStateException("Audits through " + archivedThrough
+                + " are archived, but the audit archive is disabled on this instance");
+        }
+        if (!endsAt(archivedThrough)) {
+            synchronized (this) {
+                if (!endsAt(archivedThrough)) {
+                    files = loadFiles(settings.getDirectory());
+                }
+            }
+            if (!endsAt(archivedThrough)) {
+                throw new IllegalStateException("Audits through " + archivedThrough + " are archived, but "
+                    + settings.getDirectory() + " only holds audits through " + lastArchivedKey().orElse(null));
+            }
+        }
+    }
+
+    /**
+     * Brings the files in line with the watermark recorded in the database before an archive run. Files past
+     * it were written by a run that rolled back, leaving its audits in the database, and are deleted. With no
+     * watermark recorded yet, the files' own watermark is kept so the caller can record it.
+     * Callers hold the archive lock, see PaymentAuditArchiveRepository.
+     *
+     * @return the watermark the next run archives after
+     * @throws IllegalStateException if the directory lacks some of the audits through the watermark
+     */
+    public synchronized Optional<ArchiveKey> reconcile(Optional<ArchiveKey> archivedThrough) {
+        if (archivedThrough.isEmpty()) {
+            return lastArchivedKey();
+        }
+
+        checkCovers(archivedThrough.get());
+        List<AuditArchiveFile> kept = new ArrayList<>();
+        for (AuditArchiveFile file : files) {
+            if (file.getLastKey().compareTo(archivedThrough.get()) <= 0) {
+                kept.add(file);
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file.getPath());
+                logger.warn("Deleted {}, written by an archive run that rolled back", file.getPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete audit archive " + file.getPath(), e);
+            }
+        }
+        files = List.copyOf(kept);
+        return archivedThrough;
+    }
+
+    /**
+     * Writes the next batch of audits, which must follow the last archived audit in (auditedAt, id) order
+     *
+     * @return the new watermark
+     */
+    public synchronized ArchiveKey archive(List<PaymentAudit> audits) {
+        ArchiveKey last = ArchiveKey.of(audits.get(audits.size() - 1));
+        Optional<ArchiveKey> watermark = lastArchivedKey();
+        if (watermark.isPresent() && ArchiveKey.of(audits.get(0)).compareTo(watermark.get()) <= 0) {
+            throw new IllegalArgumentException("Audits must follow the archive watermark " + watermark.get());
+        }
+
+        Path path = settings.getDirectory().resolve(
+            "payment_audit_" + last.auditedAt().format(FILE_TIMESTAMP) + "_" + last.id() + AuditArchiveFile.EXTENSION);
+        try {
+            Files.createDirectories(settings.getDirectory());
+            AuditArchiveFile file = AuditArchiveFile.write(path, audits);
+            List<AuditArchiveFile> updated = new ArrayList<>(files);
+            updated.add(file);
+            files = List.copyOf(updated);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write audit archive " + path, e);
+        }
+        return last;
+    }
+
+    /**
+     * Archived audits audited between start and end inclusive, in (auditedAt, id) order
+     */
+    public List<PaymentAudit> findByAuditedAtBetween(LocalDateTime start, LocalDateTime end) {
+        List<PaymentAudit> audits = new ArrayList<>();
+        for (AuditArchiveFile file : files) {
+            if (file.overlaps(start, end)) {
+                audits.addAll(file.read(audit ->
+                    !audit.getAuditedAt().isBefore(start) && !audit.getAuditedAt().isAfter(end)));
+            }
+        }
+        return audits;
+    }
+
+    /**
+     * Archived audits audited in [from, to) that match the filter, in (auditedAt, id) order; a null bound is
+     * open. Files are decoded one at a time as the stream is consumed, so memory use is bounded by one file.
+     */
+    public Stream<PaymentAudit> streamAuditedIn(LocalDateTime from, LocalDateTime to, Predicate<PaymentAudit> filter) {
+        return files.stream()
+            .filter(file -> (from == null || !file.getLastKey().auditedAt().isBefore(from))
+                && (to == null || file.getFirstKey().auditedAt().isBefore(to)))
+            .flatMap(file -> file.read(audit -> (from == null || !audit.getAuditedAt().isBefore(from))
+                && (to == null || audit.getAuditedAt().isBefore(to))
+                && filter.test(audit)).stream());
+    }
+
+    /**
+     * Next page of archived audits sent or received by the account, after the given position and
+     * audited before the given time, in (auditedAt, id) order. Mirrors the database query of the same name.
+     */
+    public List<PaymentAudit> findByAccountAfter(String account, LocalDateTime afterAuditedAt, long afterId,
+                                                 LocalDateTime before, int limit) {
+        ArchiveKey after = new ArchiveKey(afterAuditedAt, afterId);
+        List<PaymentAudit> audits = new ArrayList<>();
+        for (AuditArchiveFile file : files) {
+            if (audits.size() >= limit || !file.getFirstKey().auditedAt().isBefore(before)) {
+                break;
+            }
+            // Min/max keys skip whole files; the dictionaries skip files the account never appears in
+            if (file.getLastKey().compareTo(after) <= 0 || !file.mentionsAccount(account)) {
+                continue;
+            }
+            audits.addAll(file.read(audit ->
+                (account.equals(audit.getFromAccount()) || account.equals(audit.getToAccount()))
+                    && ArchiveKey.of(audit).compareTo(after) > 0
+                    && audit.getAuditedAt().isBefore(before)));
+        }
+        return audits.size() > limit ? new ArrayList<>(audits.subList(0, limit)) : audits;
+    }
+
+    private boolean endsAt(ArchiveKey archivedThrough) {
+        return files.stream().anyMatch(file -> file.getLastKey().equals(archivedThrough));
+    }
+
+    private static List<AuditArchiveFile> loadFiles(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            List<AuditArchiveFile> loaded = new ArrayList<>();
+            for (Path path : paths.filter(p -> p.getFileName().toString().endsWith(AuditArchiveFile.EXTENSION)).toList()) {
+                loaded.add(AuditArchiveFile.open(path));
+            }
+            loaded.sort(Comparator.comparing(AuditArchiveFile::getLastKey));
+            return List.copyOf(loaded);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load audit archive from " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.alok.payment.paymentprocessor.archive;
+
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable file of archived audits, stored column by column
+ * Each column is encoded on its own and deflated: ids and audit times as deltas, the other timestamps as
+ * offsets from the audit time, and low-cardinality strings such as status, currency and failure reason
+ * through a per-file dictionary. The header records the audit time and id range so scans can skip the
+ * file without inflating any column. Files are memory-mapped; a column is only inflated when read.
+ */
+public final class AuditArchiveFile {
+
+    static final String EXTENSION = ".paa";
+
+    private static final int MAGIC = 0x50414131; // "PAA1"
+
+    private static final int ID = 0;
+    private static final int TRANSACTION_ID = 1;
+    private static final int FROM_ACCOUNT = 2;
+    private static final int TO_ACCOUNT = 3;
+    private static final int AMOUNT = 4;
+    private static final int CURRENCY = 5;
+    private static final int PAYMENT_TYPE = 6;
+    private static final int DESCRIPTION = 7;
+    private static final int PAYMENT_INITIATED_AT = 8;
+    private static final int FRAUD_CHECK_PASSED = 9;
+    private static final int FRAUD_REASON = 10;
+    private static final int FRAUD_RISK_SCORE = 11;
+    private static final int RISK_SCORE = 12;
+    private static final int FRAUD_CHECK_AT = 13;
+    private static final int FINAL_STATUS = 14;
+    private static final int FAILURE_REASON = 15;
+    private static final int PROCESSING_TIME_MS = 16;
+    private static final int COMPLETED_AT = 17;
+    private static final int SOURCE_ACCOUNT_VALID = 18;
+    private static final int DESTINATION_ACCOUNT_VALID = 19;
+    private static final int SUFFICIENT_BALANCE = 20;
+    private static final int AUDITED_BY = 21;
+    private static final int AUDITED_AT = 22;
+    private static final int COLUMN_COUNT = 23;
+
+    private static final boolean[] DICTIONARY_COLUMNS = new boolean[COLUMN_COUNT];
+
+    static {
+        for (int column : new int[] {FROM_ACCOUNT, TO_ACCOUNT, CURRENCY, PAYMENT_TYPE, FRAUD_REASON,
+                FRAUD_RISK_SCORE, FINAL_STATUS, FAILURE_REASON, AUDITED_BY}) {
+            DICTIONARY_COLUMNS[column] = true;
+        }
+    }
+
+    // magic, row count, first key, last key, min id, max id, then offset and raw length per column
+    private static final int HEADER_SIZE = 4 + 4 + 16 + 16 + 8 + 8 + COLUMN_COUNT * (8 + 4);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    private final Path path;
+    private final MappedByteBuffer data;
+    private final int rowCount;
+    private final ArchiveKey firstKey;
+    private final ArchiveKey lastKey;
+    private final long minId;
+    private final long maxId;
+    private final long[] columnOffsets = new long[COLUMN_COUNT + 1];
+    private final int[] rawLengths = new int[COLUMN_COUNT];
+
+    private AuditArchiveFile(Path path, MappedByteBuffer data) {
+        this.path = path;
+        this.data = data;
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not an audit archive file: " + path);
+        }
+        ByteBuffer header = data.duplicate().position(4);
+        rowCount = header.getInt();
+        firstKey = new ArchiveKey(fromMicros(header.getLong()), header.getLong());
+        lastKey = new ArchiveKey(fromMicros(header.getLong()), header.getLong());
+        minId = header.getLong();
+        maxId = header.getLong();
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            columnOffsets[column] = header.getLong();
+            rawLengths[column] = header.getInt();
+        }
+        columnOffsets[COLUMN_COUNT] = data.capacity();
+    }
+
+    /**
+     * Maps an existing archive file read-only and reads its header
+     */
+    public static AuditArchiveFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new AuditArchiveFile(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes audits, which must be in (auditedAt, id) order, to a new file. The file is written under a
+     * temporary name, flushed to disk and then renamed, so a crash never leaves a partial archive behind.
+     */
+    public static AuditArchiveFile write(Path path, List<PaymentAudit> audits) throws IOException {
+        if (audits.isEmpty()) {
+            throw new IllegalArgumentException("Cannot archive an empty batch");
+        }
+
+        ColumnEncoder[] columns = new ColumnEncoder[COLUMN_COUNT];
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            columns[column] = DICTIONARY_COLUMNS[column] ? ColumnEncoder.dictionary() : ColumnEncoder.plain();
+        }
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        for (PaymentAudit audit : audits) {
+            long auditedAt = toMicros(audit.getAuditedAt());
+            minId = Math.min(minId, audit.getId());
+            maxId = Math.max(maxId, audit.getId());
+
+            columns[ID].writeDelta(audit.getId());
+            columns[TRANSACTION_ID].writeNullableString(audit.getTransactionId());
+            columns[FROM_ACCOUNT].writeDictionary(audit.getFromAccount());
+            columns[TO_ACCOUNT].writeDictionary(audit.getToAccount());
+            writeAmount(columns[AMOUNT], audit.getAmount());
+            columns[CURRENCY].writeDictionary(audit.getCurrency());
+            columns[PAYMENT_TYPE].writeDictionary(audit.getPaymentType() != null ? audit.getPaymentType().name() : null);
+            columns[DESCRIPTION].writeNullableString(audit.getDescription());
+            columns[PAYMENT_INITIATED_AT].writeNullableLong(offset(audit.getPaymentInitiatedAt(), auditedAt));
+            columns[FRAUD_CHECK_PASSED].writeNullableBoolean(audit.getFraudCheckPassed());
+            columns[FRAUD_REASON].writeDictionary(audit.getFraudReason());
+            columns[FRAUD_RISK_SCORE].writeDictionary(audit.getFraudRiskScore());
+            columns[RISK_SCORE].writeNullableDouble(audit.getRiskScore());
+            columns[FRAUD_CHECK_AT].writeNullableLong(offset(audit.getFraudCheckAt(), auditedAt));
+            columns[FINAL_STATUS].writeDictionary(audit.getFinalStatus() != null ? audit.getFinalStatus().name() : null);
+            columns[FAILURE_REASON].writeDictionary(audit.getFailureReason());
+            columns[PROCESSING_TIME_MS].writeNullableLong(audit.getProcessingTimeMs());
+            columns[COMPLETED_AT].writeNullableLong(offset(audit.getCompletedAt(), auditedAt));
+            columns[SOURCE_ACCOUNT_VALID].writeNullableBoolean(audit.getSourceAccountValid());
+            columns[DESTINATION_ACCOUNT_VALID].writeNullableBoolean(audit.getDestinationAccountValid());
+            columns[SUFFICIENT_BALANCE].writeNullableBoolean(audit.getSufficientBalance());
+            columns[AUDITED_BY].writeDictionary(audit.getAuditedBy());
+            columns[AUDITED_AT].writeDelta(auditedAt);
+        }
+
+        ArchiveKey first = ArchiveKey.of(audits.get(0));
+        ArchiveKey last = ArchiveKey.of(audits.get(audits.size() - 1));
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+            .putInt(MAGIC)
+            .putInt(audits.size())
+            .putLong(toMicros(first.auditedAt())).putLong(first.id())
+            .putLong(toMicros(last.auditedAt())).putLong(last.id())
+            .putLong(minId)
+            .putLong(maxId);
+        List<byte[]> compressed = new ArrayList<>(COLUMN_COUNT);
+        long offset = HEADER_SIZE;
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            for (ColumnEncoder column : columns) {
+                byte[] raw = column.toByteArray();
+                byte[] deflated = deflate(deflater, raw);
+                header.putLong(offset).putInt(raw.length);
+                compressed.add(deflated);
+                offset += deflated.length;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(header.flip());
+            for (byte[] column : compressed) {
+                channel.write(ByteBuffer.wrap(column));
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Earliest audit in the file by (auditedAt, id)
+     */
+    public ArchiveKey getFirstKey() {
+        return firstKey;
+    }
+
+    /**
+     * Latest audit in the file by (auditedAt, id)
+     */
+    public ArchiveKey getLastKey() {
+        return lastKey;
+    }
+
+    public long getMinId() {
+        return minId;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    /**
+     * Whether any audit in the file may have been audited in [start, end]
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return !firstKey.auditedAt().isAfter(end) && !lastKey.auditedAt().isBefore(start);
+    }
+
+    /**
+     * Whether the account sent or received any audit in the file, read from the column dictionaries only
+     */
+    public boolean mentionsAccount(String account) {
+        return ColumnDecoder.dictionary(inflate(FROM_ACCOUNT)).dictionaryContains(account)
+            || ColumnDecoder.dictionary(inflate(TO_ACCOUNT)).dictionaryContains(account);
+    }
+
+    /**
+     * Decodes every audit in the file and returns those matching the filter, in (auditedAt, id) order
+     */
+    public List<PaymentAudit> read(Predicate<PaymentAudit> filter) {
+        ColumnDecoder[] columns = new ColumnDecoder[COLUMN_COUNT];
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            ByteBuffer raw = inflate(column);
+            columns[column] = DICTIONARY_COLUMNS[column] ? ColumnDecoder.dictionary(raw) : ColumnDecoder.plain(raw);
+        }
+
+        List<PaymentAudit> audits = new ArrayList<>();
+        for (int row = 0; row < rowCount; row++) {
+            // Every column is read on every row so the decoders stay aligned
+            PaymentAudit audit = new PaymentAudit();
+            audit.setId(columns[ID].readDelta());
+            audit.setTransactionId(columns[TRANSACTION_ID].readNullableString());
+            audit.setFromAccount(columns[FROM_ACCOUNT].readDictionary());
+            audit.setToAccount(columns[TO_ACCOUNT].readDictionary());
+            audit.setAmount(readAmount(columns[AMOUNT]));
+            audit.setCurrency(columns[CURRENCY].readDictionary());
+            String paymentType = columns[PAYMENT_TYPE].readDictionary();
+            audit.setPaymentType(paymentType != null ? PaymentType.valueOf(paymentType) : null);
+            audit.setDescription(columns[DESCRIPTION].readNullableString());
+            Long paymentInitiatedAt = columns[PAYMENT_INITIATED_AT].readNullableLong();
+            audit.setFraudCheckPassed(columns[FRAUD_CHECK_PASSED].readNullableBoolean());
+            audit.setFraudReason(columns[FRAUD_REASON].readDictionary());
+            audit.setFraudRiskScore(columns[FRAUD_RISK_SCORE].readDictionary());
+            audit.setRiskScore(columns[RISK_SCORE].readNullableDouble());
+            Long fraudCheckAt = columns[FRAUD_CHECK_AT].readNullableLong();
+            String finalStatus = columns[FINAL_STATUS].readDictionary();
+            audit.setFinalStatus(finalStatus != null ? PaymentStatus.valueOf(finalStatus) : null);
+            audit.setFailureReason(columns[FAILURE_REASON].readDictionary());
+            audit.setProcessingTimeMs(columns[PROCESSING_TIME_MS].readNullableLong());
+            Long completedAt = columns[COMPLETED_AT].readNullableLong();
+            audit.setSourceAccountValid(columns[SOURCE_ACCOUNT_VALID].readNullableBoolean());
+            audit.setDestinationAccountValid(columns[DESTINATION_ACCOUNT_VALID].readNullableBoolean());
+            audit.setSufficientBalance(columns[SUFFICIENT_BALANCE].readNullableBoolean());
+            audit.setAuditedBy(columns[AUDITED_BY].readDictionary());
+            long auditedAt = columns[AUDITED_AT].readDelta();
+            audit.setAuditedAt(fromMicros(auditedAt));
+            audit.setPaymentInitiatedAt(fromOffset(paymentInitiatedAt, auditedAt));
+            audit.setFraudCheckAt(fromOffset(fraudCheckAt, auditedAt));
+            audit.setCompletedAt(fromOffset(completedAt, auditedAt));
+
+            if (filter.test(audit)) {
+                audits.add(audit);
+            }
+        }
+        return audits;
+    }
+
+    private ByteBuffer inflate(int column) {
+        ByteBuffer compressed = data.slice((int) columnOffsets[column],
+            (int) (columnOffsets[column + 1] - columnOffsets[column]));
+        ByteBuffer raw = ByteBuffer.allocate(rawLengths[column]);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            while (raw.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(raw) == 0 && inflater.needsInput()) {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt column " + column + " in " + path, e);
+        } finally {
+            inflater.end();
+        }
+        if (raw.hasRemaining()) {
+            throw new IllegalStateException("Truncated column " + column + " in " + path);
+        }
+        return raw.flip();
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] buffer = new byte[Math.max(64, raw.length / 2)];
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private static void writeAmount(ColumnEncoder column, BigDecimal amount) {
+        if (amount == null) {
+            column.writeNullableLong(null);
+            return;
+        }
+        column.writeNullableLong((long) amount.scale());
+        column.writeBytes(amount.unscaledValue().toByteArray());
+    }
+
+    private static BigDecimal readAmount(ColumnDecoder column) {
+        Long scale = column.readNullableLong();
+        if (scale == null) {
+            return null;
+        }
+        return new BigDecimal(new BigInteger(column.readBytes()), scale.intValue());
+    }
+
+    private static Long offset(LocalDateTime time, long auditedAtMicros) {
+        return time != null ? toMicros(time) - auditedAtMicros : null;
+    }
+
+    private static LocalDateTime fromOffset(Long offset, long auditedAtMicros) {
+        return offset != null ? fromMicros(auditedAtMicros + offset) : null;
+    }
+
+    // PostgreSQL timestamps carry microseconds, so nothing is lost
+    private static long toMicros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(EPOCH, time);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
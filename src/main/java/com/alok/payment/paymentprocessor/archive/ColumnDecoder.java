@@ -0,0 +1,107 @@
+package com.alok.payment.paymentprocessor.archive;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads one inflated column written by {@link ColumnEncoder}
+ */
+class ColumnDecoder {
+
+    private final ByteBuffer in;
+    private final String[] dictionary;
+    private long previous;
+
+    private ColumnDecoder(ByteBuffer in, boolean dictionaryEncoded) {
+        this.in = in;
+        if (dictionaryEncoded) {
+            dictionary = new String[(int) readVarLong()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readNullableString();
+            }
+        } else {
+            dictionary = null;
+        }
+    }
+
+    static ColumnDecoder plain(ByteBuffer in) {
+        return new ColumnDecoder(in, false);
+    }
+
+    static ColumnDecoder dictionary(ByteBuffer in) {
+        return new ColumnDecoder(in, true);
+    }
+
+    long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readDelta() {
+        previous += readSignedVarLong();
+        return previous;
+    }
+
+    Long readNullableLong() {
+        long value = readVarLong();
+        if (value == 0) {
+            return null;
+        }
+        value--;
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    Boolean readNullableBoolean() {
+        byte value = in.get();
+        return value == 0 ? null : value == 2;
+    }
+
+    Double readNullableDouble() {
+        return in.get() == 0 ? null : in.getDouble();
+    }
+
+    String readNullableString() {
+        int length = (int) readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    byte[] readBytes() {
+        byte[] bytes = new byte[(int) readVarLong()];
+        in.get(bytes);
+        return bytes;
+    }
+
+    String readDictionary() {
+        int code = (int) readVarLong();
+        return code == 0 ? null : dictionary[code - 1];
+    }
+
+    /**
+     * Whether the column's dictionary holds the value, without reading any codes
+     */
+    boolean dictionaryContains(String value) {
+        for (String entry : dictionary) {
+            if (entry.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
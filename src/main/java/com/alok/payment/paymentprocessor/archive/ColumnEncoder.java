@@ -0,0 +1,124 @@
+package com.alok.payment.paymentprocessor.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffers one column of an archive file. Integers are written as unsigned LEB128 varints after zigzag
+ * encoding, so small deltas take one byte. Nullable values reserve 0 for null.
+ */
+class ColumnEncoder {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // Dictionary columns collect codes first and write the dictionary ahead of them in toByteArray
+    private final Map<String, Integer> dictionary;
+    private final List<String> dictionaryValues;
+    private final ColumnEncoder codes;
+    private long previous;
+
+    private ColumnEncoder(boolean dictionaryEncoded) {
+        this.dictionary = dictionaryEncoded ? new HashMap<>() : null;
+        this.dictionaryValues = dictionaryEncoded ? new ArrayList<>() : null;
+        this.codes = dictionaryEncoded ? new ColumnEncoder(false) : null;
+    }
+
+    static ColumnEncoder plain() {
+        return new ColumnEncoder(false);
+    }
+
+    static ColumnEncoder dictionary() {
+        return new ColumnEncoder(true);
+    }
+
+    void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Difference from the previous value written with this method; ids and audit times grow slowly
+     */
+    void writeDelta(long value) {
+        writeSignedVarLong(value - previous);
+        previous = value;
+    }
+
+    void writeNullableLong(Long value) {
+        if (value == null) {
+            writeVarLong(0);
+        } else {
+            writeVarLong(((value << 1) ^ (value >> 63)) + 1);
+        }
+    }
+
+    void writeNullableBoolean(Boolean value) {
+        out.write(value == null ? 0 : value ? 2 : 1);
+    }
+
+    void writeNullableDouble(Double value) {
+        if (value == null) {
+            out.write(0);
+            return;
+        }
+        out.write(1);
+        long bits = Double.doubleToRawLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (bits >>> shift));
+        }
+    }
+
+    void writeNullableString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    void writeBytes(byte[] bytes) {
+        writeVarLong(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes the value's dictionary code, adding it to the dictionary the first time it is seen
+     */
+    void writeDictionary(String value) {
+        if (value == null) {
+            codes.writeVarLong(0);
+            return;
+        }
+        Integer code = dictionary.get(value);
+        if (code == null) {
+            dictionaryValues.add(value);
+            code = dictionaryValues.size();
+            dictionary.put(value, code);
+        }
+        codes.writeVarLong(code);
+    }
+
+    byte[] toByteArray() {
+        if (dictionary == null) {
+            return out.toByteArray();
+        }
+        ColumnEncoder column = plain();
+        column.writeVarLong(dictionaryValues.size());
+        dictionaryValues.forEach(column::writeNullableString);
+        byte[] codeBytes = codes.toByteArray();
+        column.out.write(codeBytes, 0, codeBytes.length);
+        return column.out.toByteArray();
+    }
+}
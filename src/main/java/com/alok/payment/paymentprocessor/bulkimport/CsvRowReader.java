@@ -0,0 +1,162 @@
+package com.alok.payment.paymentprocessor.bulkimport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads a header row and then one row per CSV record. Fields are matched to columns by the header;
+ * fields the table does not load, such as id, are skipped. Blank lines are ignored.
+ */
+class CsvRowReader implements ImportRowReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    /**
+     * Column index of each header field, or -1 for fields that are not loaded
+     */
+    private final int[] columnOfField;
+    private final int columnCount;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+
+    CsvRowReader(InputStream in, ImportTable table) throws IOException {
+        this.reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        this.columnCount = table.getColumns().size();
+
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input has no header row");
+        }
+        this.columnOfField = new int[header.size()];
+        Arrays.fill(columnOfField, -1);
+        boolean[] present = new boolean[columnCount];
+        for (int i = 0; i < header.size(); i++) {
+            for (int column = 0; column < columnCount; column++) {
+                if (table.getColumns().get(column).field().equals(header.get(i))) {
+                    if (present[column]) {
+                        throw new IllegalArgumentException("CSV header repeats field " + header.get(i));
+                    }
+                    present[column] = true;
+                    columnOfField[i] = column;
+                }
+            }
+        }
+        for (int column = 0; column < columnCount; column++) {
+            ImportColumn importColumn = table.getColumns().get(column);
+            if (!present[column] && importColumn.required()) {
+                throw new IllegalArgumentException("CSV header lacks required field " + importColumn.field());
+            }
+        }
+    }
+
+    @Override
+    public String[] next() throws IOException {
+        List<String> record = readRecord();
+        if (record == null) {
+            return null;
+        }
+        if (record.size() != columnOfField.length) {
+            throw new IllegalArgumentException("Expected " + columnOfField.length + " fields but found " + record.size());
+        }
+
+        String[] row = new String[columnCount];
+        for (int i = 0; i < columnOfField.length; i++) {
+            if (columnOfField[i] >= 0) {
+                row[columnOfField[i]] = record.get(i);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Fields of the next non-blank record, or null at the end of the input. The list is reused by the next call.
+     */
+    private List<String> readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        boolean quoted = false;
+        while (true) {
+            if (c == '"' && field.isEmpty() && !quoted) {
+                quoted = true;
+                readQuoted();
+            } else if (c == ',') {
+                endField();
+                quoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                endField();
+                return new ArrayList<>(fields);
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Reads a quoted field's content up to and including its closing quote
+     */
+    private void readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            if (c == '"') {
+                if (peek() != '"') {
+                    return;
+                }
+                read();
+            }
+            field.append((char) c);
+        }
+    }
+
+    private void endField() {
+        fields.add(field.toString());
+        field.setLength(0);
+    }
+
+    private int read() throws IOException {
+        return fill() ? buffer[position++] : -1;
+    }
+
+    private int peek() throws IOException {
+        return fill() ? buffer[position] : -1;
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
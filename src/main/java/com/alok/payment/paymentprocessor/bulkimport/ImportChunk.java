@@ -0,0 +1,165 @@
+package com.alok.payment.paymentprocessor.bulkimport;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Import Chunk
+ * A run of consecutive input rows, validated and encoded in COPY text format. Rows for staged months are
+ * kept apart from the rows copied straight into the table, one block per month.
+ */
+public final class ImportChunk {
+
+    private final int rowsRead;
+    private final List<ImportResult.Rejection> rejections;
+    private final byte[] tableRows;
+    private final int tableRowCount;
+    private final Map<YearMonth, byte[]> stagedRows;
+    private final int stagedRowCount;
+
+    private ImportChunk(int rowsRead, List<ImportResult.Rejection> rejections, byte[] tableRows, int tableRowCount,
+                        Map<YearMonth, byte[]> stagedRows, int stagedRowCount) {
+        this.rowsRead = rowsRead;
+        this.rejections = rejections;
+        this.tableRows = tableRows;
+        this.tableRowCount = tableRowCount;
+        this.stagedRows = stagedRows;
+        this.stagedRowCount = stagedRowCount;
+    }
+
+    /**
+     * Validates and encodes rows read from the input. Thread-safe, so chunks can be encoded in parallel.
+     *
+     * @param firstRow Input position of the first row
+     * @param rows Rows in column order; null for rows the reader already rejected
+     * @param unreadable Rejections for the null rows
+     * @param archivedThrough Rows partitioned at or before this time are rejected, or null to accept any time
+     * @param staged Months whose rows go to a staging table rather than the table itself
+     */
+    public static ImportChunk encode(ImportTable table, long firstRow, List<String[]> rows,
+                                     List<ImportResult.Rejection> unreadable, LocalDateTime archivedThrough,
+                                     Predicate<YearMonth> staged) {
+        List<ImportResult.Rejection> rejections = new ArrayList<>(unreadable);
+        StringBuilder tableRows = new StringBuilder();
+        int tableRowCount = 0;
+        Map<YearMonth, StringBuilder> stagedRows = new TreeMap<>();
+        int stagedRowCount = 0;
+
+        for (int i = 0; i < rows.size(); i++) {
+            String[] row = rows.get(i);
+            if (row == null) {
+                continue;
+            }
+
+            Object[] values;
+            try {
+                values = table.convert(row);
+            } catch (IllegalArgumentException e) {
+                rejections.add(new ImportResult.Rejection(firstRow + i, e.getMessage()));
+                continue;
+            }
+
+            LocalDateTime partitionTime = table.partitionTime(values);
+            if (archivedThrough != null && !partitionTime.isAfter(archivedThrough)) {
+                rejections.add(new ImportResult.Rejection(firstRow + i, table.getPartitionColumn().field() + " "
+                    + partitionTime + " is not after the archive watermark " + archivedThrough));
+                continue;
+            }
+
+            YearMonth month = YearMonth.from(partitionTime);
+            if (staged.test(month)) {
+                appendRow(stagedRows.computeIfAbsent(month, m -> new StringBuilder()), values);
+                stagedRowCount++;
+            } else {
+                appendRow(tableRows, values);
+                tableRowCount++;
+            }
+        }
+
+        rejections.sort(Comparator.comparingLong(ImportResult.Rejection::row));
+        Map<YearMonth, byte[]> stagedBytes = new TreeMap<>();
+        stagedRows.forEach((month, encoded) -> stagedBytes.put(month, encoded.toString().getBytes(StandardCharsets.UTF_8)));
+        return new ImportChunk(rows.size(), rejections, tableRows.toString().getBytes(StandardCharsets.UTF_8),
+            tableRowCount, stagedBytes, stagedRowCount);
+    }
+
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public List<ImportResult.Rejection> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Encoded rows to copy into the table itself
+     */
+    public byte[] getTableRows() {
+        return tableRows;
+    }
+
+    public int getTableRowCount() {
+        return tableRowCount;
+    }
+
+    /**
+     * Encoded rows to copy into each month's staging table
+     */
+    public Map<YearMonth, byte[]> getStagedRows() {
+        return stagedRows;
+    }
+
+    public int getStagedRowCount() {
+        return stagedRowCount;
+    }
+
+    /**
+     * Appends one row in COPY text format: tab-separated, \N for null, backslash escapes for control characters
+     */
+    static void appendRow(StringBuilder out, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append('\t');
+            }
+            Object value = values[i];
+            if (value == null) {
+                out.append("\\N");
+            } else if (value instanceof String text) {
+                appendEscaped(out, text);
+            } else if (value instanceof BigDecimal decimal) {
+                out.append(decimal.toPlainString());
+            } else if (value instanceof LocalDateTime time) {
+                out.append(time.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            } else if (value instanceof Boolean flag) {
+                out.append(flag ? 't' : 'f');
+            } else if (value instanceof Enum<?> constant) {
+                out.append(constant.name());
+            } else {
+                out.append(value);
+            }
+        }
+        out.append('\n');
+    }
+
+    private static void appendEscaped(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.alok.payment.paymentprocessor.bulkimport;
+
+import com.alok.payment.paymentprocessor.repository.ColumnNames;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+/**
+ * Import Column
+ * One column loaded by a bulk import, with the field name it is read from and how its text is parsed
+ *
+ * @param field Name of the field in the input, in the camelCase used by the exports
+ * @param parser Converts non-empty input text to the column's value, throwing IllegalArgumentException if invalid
+ * @param fallback Column whose value is loaded when this one is empty, or null
+ */
+public record ImportColumn(String column, String field, boolean required, Function<String, Object> parser,
+                           String fallback) {
+
+    // DECIMAL(19, 2)
+    private static final int AMOUNT_SCALE = 2;
+    private static final int AMOUNT_PRECISION = 19;
+
+    public static ImportColumn text(String column, int maxLength) {
+        String field = ColumnNames.fieldName(column);
+        return new ImportColumn(column, field, false, value -> {
+            if (value.length() > maxLength) {
+                throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+            }
+            // PostgreSQL text cannot hold NUL, and COPY would fail the whole chunk on it
+            if (value.indexOf('\0') >= 0) {
+                throw new IllegalArgumentException(field + " contains a NUL character");
+            }
+            return value;
+        }, null);
+    }
+
+    public static ImportColumn text(String column) {
+        return text(column, Integer.MAX_VALUE);
+    }
+
+    public static ImportColumn amount(String column) {
+        String field = ColumnNames.fieldName(column);
+        return new ImportColumn(column, field, false, value -> {
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(field + " is not a number: " + value);
+            }
+            if (amount.scale() > AMOUNT_SCALE || amount.precision() - amount.scale() > AMOUNT_PRECISION - AMOUNT_SCALE) {
+                throw new IllegalArgumentException(field + " does not fit DECIMAL(" + AMOUNT_PRECISION + ", "
+                    + AMOUNT_SCALE + "): " + value);
+            }
+            return amount;
+        }, null);
+    }
+
+    public static ImportColumn timestamp(String column) {
+        String field = ColumnNames.fieldName(column);
+        return new ImportColumn(column, field, false, value -> {
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(field + " is not an ISO-8601 local date-time: " + value);
+            }
+        }, null);
+    }
+
+    public static ImportColumn bool(String column) {
+        String field = ColumnNames.fieldName(column);
+        return new ImportColumn(column, field, false, value -> {
+            if (value.equalsIgnoreCase("true")) {
+                return Boolean.TRUE;
+            }
+            if (value.equalsIgnoreCase("false")) {
+                return Boolean.FALSE;
+            }
+            throw new IllegalArgumentException(field + " is not true or false: " + value);
+        }, null);
+    }
+
+    public static ImportColumn bigint(String column) {
+        String field = ColumnNames.fieldName(column);
+        return new ImportColumn(column, field, false, value -> {
+            try {
+                return Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(field + " is not an integer: " + value);
+            }
+        }, null);
+    }
+
+    public static ImportColumn float8(String column) {
+        String field = ColumnNames.fieldName(column);
+        return new ImportColumn(column, field, false, value -> {
+            double number;
+            try {
+                number = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(field + " is not a number: " + value);
+            }
+            if (!Double.isFinite(number)) {
+                throw new IllegalArgumentException(field + " is not a finite number: " + value);
+            }
+            return number;
+        }, null);
+    }
+
+    public static <E extends Enum<E>> ImportColumn enumerated(String column, Class<E> type) {
+        String field = ColumnNames.fieldName(column);
+        return new ImportColumn(column, field, false, value -> {
+            try {
+                return Enum.valueOf(type, value);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(field + " is not a known " + type.getSimpleName() + ": " + value);
+            }
+        }, null);
+    }
+
+    /**
+     * The same column, rejecting rows where it is empty
+     */
+    public ImportColumn notNull() {
+        return new ImportColumn(column, field, true, parser, fallback);
+    }
+
+    /**
+     * The same column, loading the other column's value when it is empty
+     */
+    public ImportColumn orElse(String fallbackColumn) {
+        return new ImportColumn(column, field, required, parser, fallbackColumn);
+    }
+
+    /**
+     * Parses the input text of this column; null or empty text is null
+     *
+     * @throws IllegalArgumentException if the text is invalid
+     */
+    public Object parse(String value) {
+        return value == null || value.isEmpty() ? null : parser.apply(value);
+    }
+}
@@ -0,0 +1,24 @@
+package com.alok.payment.paymentprocessor.bulkimport;
+
+/**
+ * Import Failed Exception
+ * Thrown when an import fails after it started copying chunks. The chunks copied before the failure stay
+ * imported, in input order, so the input can be imported again from the row after the last one read.
+ */
+public class ImportFailedException extends RuntimeException {
+
+    private final transient ImportResult result;
+
+    public ImportFailedException(ImportResult result, Throwable cause) {
+        super("Import into " + result.table() + " failed after importing " + result.rowsImported()
+            + " rows; import the input again from row " + (result.rowsRead() + 1), cause);
+        this.result = result;
+    }
+
+    /**
+     * The rows committed before the failure; rowsRead counts the input rows up to the last chunk copied
+     */
+    public ImportResult getResult() {
+        return result;
+    }
+}
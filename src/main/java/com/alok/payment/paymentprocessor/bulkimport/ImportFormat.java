@@ -0,0 +1,33 @@
+package com.alok.payment.paymentprocessor.bulkimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Import Format
+ * Input formats accepted by bulk imports; the same layouts the exports write
+ */
+public enum ImportFormat {
+    /**
+     * One JSON object per line, fields named as in the exports
+     */
+    NDJSON,
+    /**
+     * RFC 4180 comma-separated values with a header row naming the fields
+     */
+    CSV;
+
+    /**
+     * Creates a reader that decodes rows of the table in this format from the stream
+     *
+     * @throws IllegalArgumentException if a CSV header lacks a required field
+     */
+    public ImportRowReader newReader(InputStream in, ObjectMapper objectMapper, ImportTable table) throws IOException {
+        return switch (this) {
+            case NDJSON -> new NdjsonRowReader(in, objectMapper.getFactory(), table);
+            case CSV -> new CsvRowReader(in, table);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.alok.payment.paymentprocessor.bulkimport;
+
+import java.util.List;
+
+/**
+ * Import Result
+ * Outcome of a bulk import
+ *
+ * @param rowsRead Rows read from the input, excluding a CSV header and blank lines
+ * @param rowsRejected Rows skipped because they could not be decoded or failed validation
+ * @param rejections The first rejected rows, in input order
+ * @param attachedPartitions Monthly partitions that were loaded detached and attached at the end
+ */
+public record ImportResult(String table, long rowsRead, long rowsImported, long rowsRejected,
+                           List<Rejection> rejections, List<String> attachedPartitions, long elapsedMs) {
+
+    /**
+     * @param row Position of the row in the input, starting at 1
+     */
+    public record Rejection(long row, String reason) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.alok.payment.paymentprocessor.bulkimport;
+
+import java.io.IOException;
+
+/**
+ * Import Row Reader
+ * Decodes input rows one at a time, so nothing but the current row is held in memory.
+ * Rows are returned as text in the import table's column order, with empty or absent fields as null.
+ */
+public interface ImportRowReader {
+
+    /**
+     * Reads the next row
+     *
+     * @return the row's fields, or null at the end of the input
+     * @throws IllegalArgumentException if the row could not be decoded; the next call moves on to the following row
+     */
+    String[] next() throws IOException;
+}
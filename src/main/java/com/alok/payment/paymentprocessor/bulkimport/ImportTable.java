@@ -0,0 +1,132 @@
+package com.alok.payment.paymentprocessor.bulkimport;
+
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import com.alok.payment.paymentprocessor.repository.MonthlyPartitionRepository.PartitionedTable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Import Table
+ * Tables a bulk import can load, with the columns read from the input. Generated columns such as id are
+ * never loaded; the partition column is always required, since the database default would date
+ * historical rows to the time of the import.
+ */
+public enum ImportTable {
+    PAYMENTS(PartitionedTable.PAYMENTS, "created_at", true, List.of(
+        ImportColumn.text("transaction_id", 255).notNull(),
+        ImportColumn.text("from_account", 100).notNull(),
+        ImportColumn.text("to_account", 100).notNull(),
+        ImportColumn.amount("amount").notNull(),
+        ImportColumn.text("currency", 3).notNull(),
+        ImportColumn.enumerated("payment_type", PaymentType.class).notNull(),
+        ImportColumn.enumerated("status", PaymentStatus.class).notNull(),
+        ImportColumn.text("description"),
+        ImportColumn.text("failure_reason"),
+        ImportColumn.timestamp("created_at").notNull(),
+        ImportColumn.timestamp("updated_at").orElse("created_at"))),
+    // Audits must become visible while their chunk holds the archive lock, or an archive run could move
+    // the watermark past them first, so they cannot be loaded into a partition that is attached later
+    PAYMENT_AUDIT(PartitionedTable.PAYMENT_AUDIT, "audited_at", false, List.of(
+        ImportColumn.text("transaction_id", 255).notNull(),
+        ImportColumn.text("from_account", 100).notNull(),
+        ImportColumn.text("to_account", 100).notNull(),
+        ImportColumn.amount("amount").notNull(),
+        ImportColumn.text("currency", 3).notNull(),
+        ImportColumn.enumerated("payment_type", PaymentType.class).notNull(),
+        ImportColumn.text("description"),
+        ImportColumn.timestamp("payment_initiated_at"),
+        ImportColumn.bool("fraud_check_passed"),
+        ImportColumn.text("fraud_reason"),
+        ImportColumn.text("fraud_risk_score", 50),
+        ImportColumn.float8("risk_score"),
+        ImportColumn.timestamp("fraud_check_at"),
+        ImportColumn.enumerated("final_status", PaymentStatus.class),
+        ImportColumn.text("failure_reason"),
+        ImportColumn.bigint("processing_time_ms"),
+        ImportColumn.timestamp("completed_at"),
+        ImportColumn.bool("source_account_valid"),
+        ImportColumn.bool("destination_account_valid"),
+        ImportColumn.bool("sufficient_balance"),
+        ImportColumn.text("audited_by", 100),
+        ImportColumn.timestamp("audited_at").notNull()));
+
+    private final PartitionedTable partitionedTable;
+    private final List<ImportColumn> columns;
+    private final int partitionColumnIndex;
+    private final boolean partitionStagingSafe;
+
+    ImportTable(PartitionedTable partitionedTable, String partitionColumn, boolean partitionStagingSafe,
+                List<ImportColumn> columns) {
+        this.partitionedTable = partitionedTable;
+        this.columns = columns;
+        this.partitionColumnIndex = indexOf(partitionColumn);
+        this.partitionStagingSafe = partitionStagingSafe;
+    }
+
+    public String getTableName() {
+        return partitionedTable.getTableName();
+    }
+
+    public PartitionedTable getPartitionedTable() {
+        return partitionedTable;
+    }
+
+    public List<ImportColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Column the table is partitioned by
+     */
+    public ImportColumn getPartitionColumn() {
+        return columns.get(partitionColumnIndex);
+    }
+
+    /**
+     * Whether rows for a month without a partition may be loaded into a detached table and attached as
+     * the month's partition afterwards, so its indexes are built once instead of maintained per row
+     */
+    public boolean isPartitionStagingSafe() {
+        return partitionStagingSafe;
+    }
+
+    /**
+     * Converts one input row, given as text in column order, into column values
+     *
+     * @throws IllegalArgumentException naming the first invalid or missing field
+     */
+    public Object[] convert(String[] row) {
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            ImportColumn column = columns.get(i);
+            Object value = column.parse(row[i]);
+            if (value == null && column.fallback() != null) {
+                // Fallback columns come first, so their value is already converted
+                value = values[indexOf(column.fallback())];
+            }
+            if (value == null && column.required()) {
+                throw new IllegalArgumentException(column.field() + " is required");
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Value of the partition column in converted values
+     */
+    public LocalDateTime partitionTime(Object[] values) {
+        return (LocalDateTime) values[partitionColumnIndex];
+    }
+
+    private int indexOf(String column) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).column().equals(column)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column " + column);
+    }
+}
@@ -0,0 +1,71 @@
+package com.alok.payment.paymentprocessor.bulkimport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads each line as a JSON object whose fields are matched to columns by name; fields the table does
+ * not load are skipped and absent fields are null. Blank lines are ignored.
+ */
+class NdjsonRowReader implements ImportRowReader {
+
+    private final BufferedReader reader;
+    private final JsonFactory jsonFactory;
+    private final Map<String, Integer> columnOfField = new HashMap<>();
+    private final int columnCount;
+
+    NdjsonRowReader(InputStream in, JsonFactory jsonFactory, ImportTable table) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        this.jsonFactory = jsonFactory;
+        this.columnCount = table.getColumns().size();
+        for (int column = 0; column < columnCount; column++) {
+            columnOfField.put(table.getColumns().get(column).field(), column);
+        }
+    }
+
+    @Override
+    public String[] next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        String[] row = new String[columnCount];
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Row is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Integer column = columnOfField.get(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (column == null) {
+                    parser.skipChildren();
+                } else if (value.isStructStart()) {
+                    throw new IllegalArgumentException(parser.currentName() + " is not a single value");
+                } else if (value != JsonToken.VALUE_NULL) {
+                    // Number text is kept as written, so amounts are not rounded through a double
+                    row[column] = parser.getText();
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after the JSON object");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        return row;
+    }
+}
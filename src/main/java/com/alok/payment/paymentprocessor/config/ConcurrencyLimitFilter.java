@@ -0,0 +1,78 @@
+package com.alok.payment.paymentprocessor.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency Limit Filter
+ * Bounds the number of API requests in flight so that virtual threads queue here,
+ * with a timeout, instead of piling up inside the connection pool
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Counter rejectedRequests;
+    
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeout = acquireTimeout;
+        
+        Gauge.builder("payment.concurrency.limit.available", permits, Semaphore::availablePermits)
+            .description("Request permits currently available")
+            .register(meterRegistry);
+        Gauge.builder("payment.concurrency.limit.waiting", permits, Semaphore::getQueueLength)
+            .description("Requests waiting for a permit")
+            .register(meterRegistry);
+        this.rejectedRequests = Counter.builder("payment.concurrency.limit.rejected")
+            .description("Requests rejected after waiting for a permit")
+            .register(meterRegistry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/health");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        
+        if (!acquired) {
+            logger.warn("Rejecting {} {}: concurrency limit reached", request.getMethod(), request.getRequestURI());
+            rejectedRequests.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+        
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.alok.payment.paymentprocessor.config;
+
+import com.alok.payment.paymentprocessor.ledger.AccountLedger;
+import com.alok.payment.paymentprocessor.ledger.PrimitiveAccountLedger;
+import com.alok.payment.paymentprocessor.ledger.StripedLockAccountLedger;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Ledger Configuration
+ * Selects the in-memory balance store used by the account service from payment.ledger.backend
+ */
+@Configuration(proxyBeanMethods = false)
+public class LedgerConfiguration {
+    
+    @Bean
+    public AccountLedger accountLedger(PaymentProcessorProperties properties) {
+        PaymentProcessorProperties.Ledger ledger = properties.getLedger();
+        return switch (ledger.getBackend()) {
+            case STRIPED_LOCK -> new StripedLockAccountLedger();
+            case PRIMITIVE -> new PrimitiveAccountLedger(ledger.getInitialCapacity());
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.alok.payment.paymentprocessor.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Orchestration Configuration
+ * Runs the concurrent payment screening steps on a virtual thread per task, apart from the application
+ * task executor that also serves streamed exports, so screening never queues behind other work
+ */
+@Configuration(proxyBeanMethods = false)
+public class OrchestrationConfiguration {
+    
+    @Bean
+    public ExecutorService paymentScreeningExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("payment-screening-", 0).factory());
+    }
+}
@@ -0,0 +1,33 @@
+package com.alok.payment.paymentprocessor.config;
+
+import com.alok.payment.paymentprocessor.outbox.FileOutboxPublisher;
+import com.alok.payment.paymentprocessor.outbox.InProcessOutboxPublisher;
+import com.alok.payment.paymentprocessor.outbox.OutboxPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Outbox Configuration
+ * Selects where the outbox relay publishes payment outcome events from payment.outbox.publisher.
+ * Only active when payment.outbox.enabled is true.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "payment.outbox", name = "enabled", havingValue = "true")
+public class OutboxConfiguration {
+
+    @Bean
+    public OutboxPublisher outboxPublisher(PaymentProcessorProperties properties,
+                                           ApplicationEventPublisher eventPublisher,
+                                           ObjectMapper objectMapper) throws IOException {
+        PaymentProcessorProperties.Outbox outbox = properties.getOutbox();
+        return switch (outbox.getPublisher()) {
+            case IN_PROCESS -> new InProcessOutboxPublisher(eventPublisher, objectMapper);
+            case FILE -> new FileOutboxPublisher(outbox.getFile());
+        };
+    }
+}
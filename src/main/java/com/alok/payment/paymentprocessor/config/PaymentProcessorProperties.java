@@ -0,0 +1,899 @@
+package com.alok.payment.paymentprocessor.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Payment Processor Configuration Properties
+ * Tunables for payment processing bound from the "payment" prefix
+ */
+@ConfigurationProperties(prefix = "payment")
+public class PaymentProcessorProperties {
+
+    private final Batch batch = new Batch();
+    private final Processing processing = new Processing();
+    private final Orchestration orchestration = new Orchestration();
+    private final Concurrency concurrency = new Concurrency();
+    private final Audit audit = new Audit();
+    private final Ledger ledger = new Ledger();
+    private final Partitioning partitioning = new Partitioning();
+    private final Export export = new Export();
+    private final StatusCache statusCache = new StatusCache();
+    private final ReadReplica readReplica = new ReadReplica();
+    private final Outbox outbox = new Outbox();
+    private final BulkImport bulkImport = new BulkImport();
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Processing getProcessing() {
+        return processing;
+    }
+
+    public Orchestration getOrchestration() {
+        return orchestration;
+    }
+
+    public Concurrency getConcurrency() {
+        return concurrency;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public Ledger getLedger() {
+        return ledger;
+    }
+
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public StatusCache getStatusCache() {
+        return statusCache;
+    }
+
+    public ReadReplica getReadReplica() {
+        return readReplica;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
+    /**
+     * Batch submission settings
+     */
+    public static class Batch {
+
+        /**
+         * Maximum number of payments accepted in a single batch submission
+         */
+        private int maxSize = 10000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * Single payment processing settings
+     */
+    public static class Processing {
+
+        /**
+         * How payment status transitions are written to the payments table
+         */
+        private WriteMode writeMode = WriteMode.STAGED;
+
+        public WriteMode getWriteMode() {
+            return writeMode;
+        }
+
+        public void setWriteMode(WriteMode writeMode) {
+            this.writeMode = writeMode;
+        }
+    }
+
+    /**
+     * Orchestration of the account validation and fraud check steps
+     */
+    public static class Orchestration {
+
+        /**
+         * Whether source validation, destination validation and the fraud check run one after another or in parallel
+         */
+        private OrchestrationMode mode = OrchestrationMode.SEQUENTIAL;
+
+        /**
+         * Overall time allowed for the parallel steps before the payment fails
+         */
+        private Duration deadline = Duration.ofSeconds(2);
+
+        public OrchestrationMode getMode() {
+            return mode;
+        }
+
+        public void setMode(OrchestrationMode mode) {
+            this.mode = mode;
+        }
+
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Concurrency limits applied when running on virtual threads
+     */
+    public static class Concurrency {
+
+        /**
+         * Maximum number of API requests processed at once, sized to the connection pool
+         */
+        private int maxConcurrentRequests = 10;
+
+        /**
+         * How long a request waits for a permit before being rejected with 503
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+    }
+
+    /**
+     * Audit trail settings
+     */
+    public static class Audit {
+
+        /**
+         * Whether audit records are inserted in the caller's transaction or by a background writer
+         */
+        private AuditWriteMode writeMode = AuditWriteMode.SYNC;
+
+        /**
+         * Where fraud rate and average processing time are computed from
+         */
+        private AuditStatisticsSource statistics = AuditStatisticsSource.DATABASE;
+
+        /**
+         * Whether daily summaries scan the day's audit rows or read the daily rollup
+         */
+        private DailySummarySource dailySummary = DailySummarySource.SCAN;
+
+        private final Async async = new Async();
+
+        private final Rollup rollup = new Rollup();
+
+        private final Archive archive = new Archive();
+
+        public AuditWriteMode getWriteMode() {
+            return writeMode;
+        }
+
+        public void setWriteMode(AuditWriteMode writeMode) {
+            this.writeMode = writeMode;
+        }
+
+        public AuditStatisticsSource getStatistics() {
+            return statistics;
+        }
+
+        public void setStatistics(AuditStatisticsSource statistics) {
+            this.statistics = statistics;
+        }
+
+        public DailySummarySource getDailySummary() {
+            return dailySummary;
+        }
+
+        public void setDailySummary(DailySummarySource dailySummary) {
+            this.dailySummary = dailySummary;
+        }
+
+        public Rollup getRollup() {
+            return rollup;
+        }
+
+        public Async getAsync() {
+            return async;
+        }
+
+        public Archive getArchive() {
+            return archive;
+        }
+
+        /**
+         * Background audit writer settings
+         */
+        public static class Async {
+
+            /**
+             * Maximum number of audit records buffered in memory
+             */
+            private int queueCapacity = 10000;
+
+            /**
+             * Records written per batch insert
+             */
+            private int batchSize = 500;
+
+            /**
+             * Maximum time a buffered record waits before its batch is flushed
+             */
+            private Duration flushInterval = Duration.ofMillis(200);
+
+            /**
+             * How long a caller blocks on a full queue before writing the record itself
+             */
+            private Duration offerTimeout = Duration.ofMillis(100);
+
+            /**
+             * How long shutdown waits for the queue to drain
+             */
+            private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getFlushInterval() {
+                return flushInterval;
+            }
+
+            public void setFlushInterval(Duration flushInterval) {
+                this.flushInterval = flushInterval;
+            }
+
+            public Duration getOfferTimeout() {
+                return offerTimeout;
+            }
+
+            public void setOfferTimeout(Duration offerTimeout) {
+                this.offerTimeout = offerTimeout;
+            }
+
+            public Duration getShutdownTimeout() {
+                return shutdownTimeout;
+            }
+
+            public void setShutdownTimeout(Duration shutdownTimeout) {
+                this.shutdownTimeout = shutdownTimeout;
+            }
+        }
+
+        /**
+         * Daily rollup job settings
+         */
+        public static class Rollup {
+
+            /**
+             * Time between folds of newly inserted audits
+             */
+            private Duration interval = Duration.ofSeconds(10);
+
+            /**
+             * Number of audits folded in one transaction; a transaction's audits are never split across folds
+             */
+            private int batchSize = 50000;
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+
+        /**
+         * Cold archive of old audits in compressed column files
+         */
+        public static class Archive {
+
+            /**
+             * Whether old audits are moved to archive files and read back transparently
+             */
+            private boolean enabled = false;
+
+            /**
+             * Directory the archive files are written to and loaded from
+             */
+            private Path directory = Path.of("audit-archive");
+
+            /**
+             * Age after which an audit is moved out of the database
+             */
+            private Duration minAge = Duration.ofDays(90);
+
+            /**
+             * Time between archive runs
+             */
+            private Duration interval = Duration.ofHours(1);
+
+            /**
+             * Maximum number of audits per archive file
+             */
+            private int batchSize = 10000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Path getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(Path directory) {
+                this.directory = directory;
+            }
+
+            public Duration getMinAge() {
+                return minAge;
+            }
+
+            public void setMinAge(Duration minAge) {
+                this.minAge = minAge;
+            }
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+    }
+
+    /**
+     * In-memory account ledger settings
+     */
+    public static class Ledger {
+
+        /**
+         * Balance store used by the account service
+         */
+        private LedgerBackend backend = LedgerBackend.STRIPED_LOCK;
+
+        /**
+         * Number of accounts the primitive ledger is sized for before it has to grow
+         */
+        private int initialCapacity = 1024;
+
+        public LedgerBackend getBackend() {
+            return backend;
+        }
+
+        public void setBackend(LedgerBackend backend) {
+            this.backend = backend;
+        }
+
+        public int getInitialCapacity() {
+            return initialCapacity;
+        }
+
+        public void setInitialCapacity(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+        }
+    }
+
+    /**
+     * Monthly partition maintenance for the payments and payment_audit tables
+     */
+    public static class Partitioning {
+
+        /**
+         * Whether the maintenance job creates and detaches monthly partitions; when off, rows stay in the default partitions
+         */
+        private boolean enabled = false;
+
+        /**
+         * Time between maintenance runs
+         */
+        private Duration interval = Duration.ofHours(1);
+
+        /**
+         * Number of months after the current one to create partitions for ahead of time
+         */
+        private int monthsAhead = 3;
+
+        /**
+         * Number of past months to keep attached besides the current one; older partitions are detached. 0 keeps all
+         */
+        private int retentionMonths = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public int getMonthsAhead() {
+            return monthsAhead;
+        }
+
+        public void setMonthsAhead(int monthsAhead) {
+            this.monthsAhead = monthsAhead;
+        }
+
+        public int getRetentionMonths() {
+            return retentionMonths;
+        }
+
+        public void setRetentionMonths(int retentionMonths) {
+            this.retentionMonths = retentionMonths;
+        }
+    }
+
+    /**
+     * Streaming export settings
+     */
+    public static class Export {
+
+        /**
+         * Rows fetched from the database cursor per round trip
+         */
+        private int fetchSize = 1000;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    /**
+     * In-process cache of payment status responses
+     */
+    public static class StatusCache {
+
+        /**
+         * Serve status lookups from the cache; when false every lookup reads the database
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of transactions kept in the cache
+         */
+        private long maximumSize = 100000;
+
+        /**
+         * How long a PENDING or PROCESSING status is served before it is read again
+         */
+        private Duration inFlightTtl = Duration.ofSeconds(2);
+
+        /**
+         * How long a terminal status is served before it is read again
+         */
+        private Duration terminalTtl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getInFlightTtl() {
+            return inFlightTtl;
+        }
+
+        public void setInFlightTtl(Duration inFlightTtl) {
+            this.inFlightTtl = inFlightTtl;
+        }
+
+        public Duration getTerminalTtl() {
+            return terminalTtl;
+        }
+
+        public void setTerminalTtl(Duration terminalTtl) {
+            this.terminalTtl = terminalTtl;
+        }
+    }
+
+    /**
+     * Read-only replica that read-only transactions are routed to
+     */
+    public static class ReadReplica {
+
+        /**
+         * Route read-only transactions to the replica; when false every query uses the primary pool
+         */
+        private boolean enabled = false;
+
+        /**
+         * JDBC URL of the replica
+         */
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /**
+         * Connections in the replica pool
+         */
+        private int maximumPoolSize = 10;
+
+        /**
+         * Largest replication lag at which reads still go to the replica; beyond it they fall back to the primary
+         */
+        private Duration maxStaleness = Duration.ofSeconds(1);
+
+        /**
+         * Time between replication lag checks
+         */
+        private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+
+        public Duration getLagCheckInterval() {
+            return lagCheckInterval;
+        }
+
+        public void setLagCheckInterval(Duration lagCheckInterval) {
+            this.lagCheckInterval = lagCheckInterval;
+        }
+    }
+
+    /**
+     * Transactional outbox of payment outcome events and its relay
+     */
+    public static class Outbox {
+
+        /**
+         * Write an outcome event with every final payment status and relay it downstream
+         */
+        private boolean enabled = false;
+
+        /**
+         * Where the relay delivers outcome events
+         */
+        private OutboxPublisherType publisher = OutboxPublisherType.IN_PROCESS;
+
+        /**
+         * NDJSON file the FILE publisher appends to
+         */
+        private Path file = Path.of("outbox", "payment-outcomes.ndjson");
+
+        /**
+         * Time between relay runs once the outbox has been drained
+         */
+        private Duration interval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of events claimed and published per transaction
+         */
+        private int batchSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public OutboxPublisherType getPublisher() {
+            return publisher;
+        }
+
+        public void setPublisher(OutboxPublisherType publisher) {
+            this.publisher = publisher;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public void setFile(Path file) {
+            this.file = file;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Bulk import of historical payments and audits through COPY
+     */
+    public static class BulkImport {
+
+        /**
+         * Rows validated together and copied in one transaction
+         */
+        private int chunkSize = 10000;
+
+        /**
+         * Threads validating and encoding chunks while earlier chunks are copied; 0 uses one per processor
+         */
+        private int parallelism = 0;
+
+        /**
+         * Load payments for past months without a partition into a detached table and attach it as the
+         * month's partition at the end, building its indexes once
+         */
+        private boolean deferIndexes = true;
+
+        /**
+         * Time between progress log lines
+         */
+        private Duration progressInterval = Duration.ofSeconds(10);
+
+        /**
+         * Rejected rows listed in the import result; further rejections are only counted
+         */
+        private int maxReportedRejections = 100;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public boolean isDeferIndexes() {
+            return deferIndexes;
+        }
+
+        public void setDeferIndexes(boolean deferIndexes) {
+            this.deferIndexes = deferIndexes;
+        }
+
+        public Duration getProgressInterval() {
+            return progressInterval;
+        }
+
+        public void setProgressInterval(Duration progressInterval) {
+            this.progressInterval = progressInterval;
+        }
+
+        public int getMaxReportedRejections() {
+            return maxReportedRejections;
+        }
+
+        public void setMaxReportedRejections(int maxReportedRejections) {
+            this.maxReportedRejections = maxReportedRejections;
+        }
+    }
+
+    public enum OutboxPublisherType {
+        /**
+         * Application events in the same JVM
+         */
+        IN_PROCESS,
+
+        /**
+         * Lines appended to a local NDJSON file
+         */
+        FILE
+    }
+
+    public enum LedgerBackend {
+        /**
+         * Concurrent map of per-account balance cells guarded by striped locks
+         */
+        STRIPED_LOCK,
+
+        /**
+         * Segmented open-addressing tables of primitive long balances
+         */
+        PRIMITIVE
+    }
+
+    public enum OrchestrationMode {
+        /**
+         * Validate source, then destination, then run the fraud check
+         */
+        SEQUENTIAL,
+
+        /**
+         * Run all three on the application task executor and stop at the first failure
+         */
+        CONCURRENT
+    }
+
+    public enum AuditWriteMode {
+        /**
+         * Insert each audit record in the caller's transaction
+         */
+        SYNC,
+
+        /**
+         * Queue audit records after commit and insert them in batches from a background writer
+         */
+        ASYNC
+    }
+
+    public enum AuditStatisticsSource {
+        /**
+         * Run an aggregate query on every call
+         */
+        DATABASE,
+
+        /**
+         * Answer from running counters seeded at startup; only sees audits written through this instance
+         */
+        IN_MEMORY
+    }
+
+    public enum DailySummarySource {
+        /**
+         * Load the day's audit rows and aggregate them in memory
+         */
+        SCAN,
+
+        /**
+         * Read the day's rollup row and add the audits not folded into it yet
+         */
+        ROLLUP
+    }
+
+    public enum WriteMode {
+        /**
+         * Insert as PENDING, update to PROCESSING, then update to the terminal status
+         */
+        STAGED,
+
+        /**
+         * Keep in-flight state in memory and insert the payment once in its terminal status
+         */
+        SINGLE_WRITE
+    }
+}
@@ -0,0 +1,127 @@
+package com.alok.payment.paymentprocessor.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replica Lag Monitor
+ * Polls the replica for how far its replay trails the primary. The replica counts as current while the
+ * last check succeeded, found it streaming from the primary and found a lag within the configured staleness;
+ * until the first check, after a failed check, while it is not streaming or while it lags further behind,
+ * read-only transactions fall back to the primary.
+ * The lag is published as payment.read.replica.lag.
+ */
+public class ReplicaLagMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Check the replica before the web server starts accepting requests
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    // NULL (unknown) unless the WAL receiver is streaming: once it disconnects, replay catches up with the last
+    // WAL received and would look current however far the primary has moved on. While streaming, an idle primary
+    // sends no new transactions, so a replica that has replayed everything it received is not behind.
+    // Reading the receiver's status needs pg_read_all_stats; without it the replica is never used.
+    private static final String REPLICATION_LAG_MILLIS = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE CAST(COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) AS BIGINT)
+                   END
+            """;
+
+    private final JdbcTemplate replicaTemplate;
+    private final Duration maxStaleness;
+    private final Duration checkInterval;
+
+    /**
+     * Last measured lag in milliseconds, or -1 when unknown
+     */
+    private volatile long lagMillis = -1;
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxStaleness, Duration checkInterval,
+                             MeterRegistry meterRegistry) {
+        this.replicaTemplate = new JdbcTemplate(replicaDataSource);
+        this.replicaTemplate.setQueryTimeout((int) Math.max(1, checkInterval.toSeconds()));
+        this.maxStaleness = maxStaleness;
+        this.checkInterval = checkInterval;
+
+        TimeGauge.builder("payment.read.replica.lag", this, TimeUnit.MILLISECONDS,
+                monitor -> monitor.lagMillis >= 0 ? monitor.lagMillis : Double.NaN)
+            .description("Replication lag of the read replica at the last check")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Whether read-only transactions may use the replica
+     */
+    public boolean isReplicaCurrent() {
+        long lag = lagMillis;
+        return lag >= 0 && lag <= maxStaleness.toMillis();
+    }
+
+    /**
+     * Measures the replica's lag now, marking it unknown if the replica cannot be reached or is not streaming
+     */
+    public void checkLag() {
+        boolean wasCurrent = isReplicaCurrent();
+        try {
+            Long lag = replicaTemplate.queryForObject(REPLICATION_LAG_MILLIS, Long.class);
+            lagMillis = lag != null ? lag : -1;
+        } catch (Exception e) {
+            lagMillis = -1;
+            logger.warn("Replica lag check failed: {}", e.getMessage());
+        }
+
+        if (wasCurrent != isReplicaCurrent()) {
+            logger.info("Read replica {} (lag={}ms, maxStaleness={})",
+                       isReplicaCurrent() ? "in use" : "bypassed", lagMillis, maxStaleness);
+        }
+    }
+
+    @Override
+    public void start() {
+        checkLag();
+        long intervalMillis = checkInterval.toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-lag-monitor").factory());
+        scheduler.scheduleWithFixedDelay(this::checkLag, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+        logger.info("Replica lag monitor started (interval={}, maxStaleness={})", checkInterval, maxStaleness);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        scheduler.shutdownNow();
+        logger.info("Replica lag monitor stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,59 @@
+package com.alok.payment.paymentprocessor.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Replica Routing Data Source
+ * Connection source for read-only transactions: the replica while it is within the allowed staleness,
+ * otherwise the primary. Callers that must see their own recent writes can force the primary for a
+ * block of reads with {@link #readFromPrimary(Supplier)}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs reads that start their own read-only transactions against the primary. Has no effect on a
+     * transaction that already holds a connection, or when no replica is configured.
+     */
+    public static <T> T readFromPrimary(Supplier<T> reads) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PRIMARY_FORCED.get() != null || !lagMonitor.isReplicaCurrent()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    private enum Route {
+        PRIMARY,
+        REPLICA
+    }
+}
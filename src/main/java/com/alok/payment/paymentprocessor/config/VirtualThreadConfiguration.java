@@ -0,0 +1,31 @@
+package com.alok.payment.paymentprocessor.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Virtual Thread Configuration
+ * Active when spring.threads.virtual.enabled is true, which moves Tomcat request handling
+ * and the application task executor onto virtual threads. Adds a request concurrency limit
+ * sized to the database pool so blocked virtual threads wait here rather than on Hikari.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+    
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(PaymentProcessorProperties properties,
+                                                                                MeterRegistry meterRegistry) {
+        PaymentProcessorProperties.Concurrency concurrency = properties.getConcurrency();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+            concurrency.getMaxConcurrentRequests(), concurrency.getAcquireTimeout(), meterRegistry);
+        
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,154 @@
+package com.alok.payment.paymentprocessor.controller;
+
+import com.alok.payment.paymentprocessor.export.ExportFilter;
+import com.alok.payment.paymentprocessor.export.ExportFormat;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.service.ExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * REST Controller for Data Exports
+ * Streams payments and audit records as NDJSON or CSV, gzip-compressed when the client accepts it
+ */
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Export payments created in [from, to), optionally for one account or status
+     *
+     * @return Streamed export, or 400 if the date range is inverted
+     */
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String account,
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("payments", from, to, account, status, format, acceptEncoding, exportService::exportPayments);
+    }
+
+    /**
+     * Export audit records audited in [from, to), optionally for one account or final status
+     *
+     * @return Streamed export, or 400 if the date range is inverted
+     */
+    @GetMapping("/audits")
+    public ResponseEntity<StreamingResponseBody> exportAudits(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String account,
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("audits", from, to, account, status, format, acceptEncoding, exportService::exportAudits);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, LocalDateTime from, LocalDateTime to,
+                                                         String account, PaymentStatus status, ExportFormat format,
+                                                         String acceptEncoding, Exporter exporter) {
+        ExportFilter filter;
+        try {
+            filter = new ExportFilter(from, to, account, status);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected {} export: {}", name, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // Finishing the gzip stream writes its trailer; the servlet container closes the response
+                GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                exporter.export(filter, format, compressed);
+                compressed.finish();
+            } else {
+                exporter.export(filter, format, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.getFileExtension())
+                .build()
+                .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Whether the Accept-Encoding header allows gzip, either by name or through *, with a q-value above 0
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = qValue(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = accepted;
+            } else if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    private static double qValue(String[] codingParts) {
+        for (int i = 1; i < codingParts.length; i++) {
+            String parameter = codingParts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    @FunctionalInterface
+    private interface Exporter {
+        long export(ExportFilter filter, ExportFormat format, OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,89 @@
+package com.alok.payment.paymentprocessor.controller;
+
+import com.alok.payment.paymentprocessor.bulkimport.ImportFailedException;
+import com.alok.payment.paymentprocessor.bulkimport.ImportFormat;
+import com.alok.payment.paymentprocessor.bulkimport.ImportResult;
+import com.alok.payment.paymentprocessor.service.BulkImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * REST Controller for Bulk Imports
+ * Loads historical payments and audit records streamed in the request body as NDJSON or CSV,
+ * gzip-compressed if the request says so
+ */
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportController.class);
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final BulkImportService importService;
+
+    public ImportController(BulkImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Import payments in the layout of the payment export
+     *
+     * @return Row counts and the first rejected rows, 400 if a CSV header lacks a required field, or 500 with
+     *         the rows imported before a failure
+     */
+    @PostMapping("/payments")
+    public ResponseEntity<ImportResult> importPayments(
+            @RequestParam(defaultValue = "NDJSON") ImportFormat format,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        return importRows("payments", format, contentEncoding, body, importService::importPayments);
+    }
+
+    /**
+     * Import audit records in the layout of the audit export
+     *
+     * @return Row counts and the first rejected rows, 400 if a CSV header lacks a required field, or 500 with
+     *         the rows imported before a failure
+     */
+    @PostMapping("/audits")
+    public ResponseEntity<ImportResult> importAudits(
+            @RequestParam(defaultValue = "NDJSON") ImportFormat format,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        return importRows("audits", format, contentEncoding, body, importService::importAudits);
+    }
+
+    private ResponseEntity<ImportResult> importRows(String name, ImportFormat format, String contentEncoding,
+                                                    InputStream body, Importer importer) throws IOException {
+        InputStream in = contentEncoding != null && contentEncoding.contains("gzip")
+            ? new GZIPInputStream(body, GZIP_BUFFER_SIZE)
+            : body;
+        try {
+            return ResponseEntity.ok(importer.importRows(format, in));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected {} import: {}", name, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (ImportFailedException e) {
+            // The rows copied before the failure stay imported; report them so a retry skips them
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getResult());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Importer {
+        ImportResult importRows(ImportFormat format, InputStream in) throws IOException;
+    }
+}
@@ -1,16 +1,24 @@
 package com.alok.payment.paymentprocessor.controller;
 
+import com.alok.payment.paymentprocessor.dto.BatchPaymentResponse;
+import com.alok.payment.paymentprocessor.dto.PaymentCursor;
+import com.alok.payment.paymentprocessor.dto.PaymentFilter;
 import com.alok.payment.paymentprocessor.dto.PaymentRequest;
 import com.alok.payment.paymentprocessor.dto.PaymentResponse;
 import com.alok.payment.paymentprocessor.model.Payment;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
 import com.alok.payment.paymentprocessor.service.PaymentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.BiFunction;
 
 /**
  * REST Controller for Payment Processing
@@ -22,6 +30,13 @@ public class PaymentController {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
     
+    /**
+     * Response header carrying the cursor for the next page of a listing
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    
     private final PaymentService paymentService;
     
     public PaymentController(PaymentService paymentService) {
@@ -68,6 +83,36 @@ public class PaymentController {
         }
     }
     
+    /**
+     * Process a batch of payment requests
+     * 
+     * @param requests Payment requests to process
+     * @return Batch response with a result for each request, in request order
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchPaymentResponse> processPayments(@RequestBody List<PaymentRequest> requests) {
+        logger.info("Received payment batch with {} requests", requests != null ? requests.size() : 0);
+        
+        try {
+            BatchPaymentResponse response = paymentService.processPayments(requests);
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected payment batch: {}", e.getMessage());
+            
+            BatchPaymentResponse errorResponse = new BatchPaymentResponse();
+            errorResponse.setMessage(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+            
+        } catch (Exception e) {
+            logger.error("Error processing payment batch", e);
+            
+            BatchPaymentResponse errorResponse = new BatchPaymentResponse();
+            errorResponse.setMessage("Internal error: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+    
     /**
      * Get payment status by transaction ID
      * 
@@ -84,30 +129,71 @@ public class PaymentController {
     }
     
     /**
-     * Get all payments for a specific account
+     * Get one page of the payments for a specific account
      * 
      * @param accountNumber Account number to filter by
-     * @return List of payments
+     * @param cursor X-Next-Cursor value from the previous page, or absent for the first page
+     * @param size Page size, between 1 and PaymentService.MAX_PAGE_SIZE
+     * @return Payments in creation order, with X-Next-Cursor set when there may be another page;
+     *         400 for an invalid cursor, page size or time window
      */
     @GetMapping("/account/{accountNumber}")
-    public ResponseEntity<List<Payment>> getPaymentsByAccount(@PathVariable String accountNumber) {
+    public ResponseEntity<List<Payment>> getPaymentsByAccount(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) PaymentType type,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
         logger.info("Retrieving payments for account: {}", accountNumber);
         
-        List<Payment> payments = paymentService.getPaymentsByAccount(accountNumber);
-        return ResponseEntity.ok(payments);
+        return page(status, type, currency, from, to, cursor, size, (filter, after) ->
+            paymentService.getPaymentsByAccount(accountNumber, filter, after, size));
     }
     
     /**
-     * Get all payments (for admin/monitoring purposes)
+     * Get one page of all payments (for admin/monitoring purposes)
      * 
-     * @return List of all payments
+     * @param cursor X-Next-Cursor value from the previous page, or absent for the first page
+     * @param size Page size, between 1 and PaymentService.MAX_PAGE_SIZE
+     * @return Payments in creation order, with X-Next-Cursor set when there may be another page;
+     *         400 for an invalid cursor, page size or time window
      */
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        logger.info("Retrieving all payments");
+    public ResponseEntity<List<Payment>> getPayments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) PaymentType type,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        logger.info("Retrieving payments");
         
-        List<Payment> payments = paymentService.getAllPayments();
-        return ResponseEntity.ok(payments);
+        return page(status, type, currency, from, to, cursor, size, (filter, after) ->
+            paymentService.getPayments(filter, after, size));
+    }
+    
+    private ResponseEntity<List<Payment>> page(PaymentStatus status, PaymentType type, String currency,
+                                               LocalDateTime from, LocalDateTime to, String cursor, int size,
+                                               BiFunction<PaymentFilter, PaymentCursor, List<Payment>> query) {
+        List<Payment> payments;
+        try {
+            PaymentFilter filter = new PaymentFilter(status, type, currency, from, to);
+            payments = query.apply(filter, cursor != null ? PaymentCursor.decode(cursor) : null);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected payment listing: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        
+        // A full page may be followed by more; the client stops at the first page without a cursor
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (payments.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, PaymentCursor.of(payments.get(payments.size() - 1)).encode());
+        }
+        return response.body(payments);
     }
     
     /**
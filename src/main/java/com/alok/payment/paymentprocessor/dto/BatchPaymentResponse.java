@@ -0,0 +1,69 @@
+package com.alok.payment.paymentprocessor.dto;
+
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchPaymentResponse {
+    
+    private int totalCount;
+    private int successfulCount;
+    private int failedCount;
+    private String message;
+    private List<PaymentResponse> results;
+
+    public BatchPaymentResponse() {
+        this.results = new ArrayList<>();
+    }
+
+    public BatchPaymentResponse(List<PaymentResponse> results) {
+        this.results = results;
+        this.totalCount = results.size();
+        this.successfulCount = (int) results.stream()
+            .filter(result -> result.getStatus() == PaymentStatus.COMPLETED)
+            .count();
+        this.failedCount = totalCount - successfulCount;
+        this.message = failedCount == 0 ? "All payments successful" : "Batch processed with failures";
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public int getSuccessfulCount() {
+        return successfulCount;
+    }
+
+    public void setSuccessfulCount(int successfulCount) {
+        this.successfulCount = successfulCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<PaymentResponse> getResults() {
+        return results;
+    }
+
+    public void setResults(List<PaymentResponse> results) {
+        this.results = results;
+    }
+}
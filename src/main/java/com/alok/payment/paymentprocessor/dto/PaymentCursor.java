@@ -0,0 +1,43 @@
+package com.alok.payment.paymentprocessor.dto;
+
+import com.alok.payment.paymentprocessor.model.Payment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Payment Cursor
+ * Position of the last payment on a page in (createdAt, id) order, handed to clients as an opaque token
+ */
+public record PaymentCursor(LocalDateTime createdAt, long id) {
+
+    public static PaymentCursor of(Payment payment) {
+        return new PaymentCursor(payment.getCreatedAt(), payment.getId());
+    }
+
+    /**
+     * URL-safe token for the cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((createdAt + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a token produced by {@link #encode()}
+     *
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static PaymentCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(',');
+            return new PaymentCursor(LocalDateTime.parse(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
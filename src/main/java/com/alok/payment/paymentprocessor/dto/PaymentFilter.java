@@ -0,0 +1,31 @@
+package com.alok.payment.paymentprocessor.dto;
+
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payment Filter
+ * Optional criteria for a payment listing; null fields do not filter
+ *
+ * @param status Payment status
+ * @param paymentType Payment type
+ * @param currency Currency code
+ * @param from Earliest creation time to include
+ * @param to Creation time to stop before
+ */
+public record PaymentFilter(PaymentStatus status, PaymentType paymentType, String currency,
+                            LocalDateTime from, LocalDateTime to) {
+
+    public static final PaymentFilter NONE = new PaymentFilter(null, null, null, null, null);
+
+    public PaymentFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        if (currency != null && currency.isBlank()) {
+            currency = null;
+        }
+    }
+}
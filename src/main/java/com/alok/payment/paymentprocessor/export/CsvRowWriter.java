@@ -0,0 +1,70 @@
+package com.alok.payment.paymentprocessor.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a header row and then one CSV line per row; null values are left empty
+ */
+class CsvRowWriter implements ExportRowWriter {
+
+    private final Writer writer;
+
+    CsvRowWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void start(String[] fields) throws IOException {
+        writeLine(fields);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        writeLine(values);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value instanceof BigDecimal decimal) {
+                writeField(decimal.toPlainString());
+            } else if (value instanceof LocalDateTime time) {
+                writeField(time.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            } else if (value != null) {
+                writeField(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,26 @@
+package com.alok.payment.paymentprocessor.export;
+
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Export Filter
+ * Optional criteria for an export; null fields do not filter
+ *
+ * @param from Earliest creation or audit time to include
+ * @param to Creation or audit time to stop before
+ * @param account Account that sent or received the payment
+ * @param status Payment status, or final status for audits
+ */
+public record ExportFilter(LocalDateTime from, LocalDateTime to, String account, PaymentStatus status) {
+
+    public ExportFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        if (account != null && account.isBlank()) {
+            account = null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.alok.payment.paymentprocessor.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Export Format
+ * Output formats for streamed exports, with the content type and file extension each is served as
+ */
+public enum ExportFormat {
+    /**
+     * One JSON object per line
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * RFC 4180 comma-separated values with a header row
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Creates a writer that encodes rows in this format onto the stream
+     */
+    public ExportRowWriter newWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return switch (this) {
+            case NDJSON -> new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out));
+            case CSV -> new CsvRowWriter(out);
+        };
+    }
+}
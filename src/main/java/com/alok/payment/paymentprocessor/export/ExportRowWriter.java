@@ -0,0 +1,23 @@
+package com.alok.payment.paymentprocessor.export;
+
+import java.io.IOException;
+
+/**
+ * Export Row Writer
+ * Encodes exported rows one at a time, so nothing but the current row is held in memory.
+ * Values are null, String, Boolean, Number or LocalDateTime.
+ */
+public interface ExportRowWriter {
+
+    /**
+     * Called once before any row with the field names, in column order
+     */
+    void start(String[] fields) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * Flushes buffered output; the underlying stream is left open
+     */
+    void finish() throws IOException;
+}
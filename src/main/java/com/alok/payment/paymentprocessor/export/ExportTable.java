@@ -0,0 +1,46 @@
+package com.alok.payment.paymentprocessor.export;
+
+import java.util.Set;
+
+/**
+ * Export Table
+ * Exportable tables with the columns their filters apply to
+ */
+public enum ExportTable {
+    PAYMENTS("payments", "created_at", "status"),
+    PAYMENT_AUDIT("payment_audit", "audited_at", "final_status", "inserted_xid");
+
+    private final String tableName;
+    private final String timeColumn;
+    private final String statusColumn;
+    private final Set<String> internalColumns;
+
+    ExportTable(String tableName, String timeColumn, String statusColumn, String... internalColumns) {
+        this.tableName = tableName;
+        this.timeColumn = timeColumn;
+        this.statusColumn = statusColumn;
+        this.internalColumns = Set.of(internalColumns);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Column the date range applies to and rows are ordered by; also the partition key
+     */
+    public String getTimeColumn() {
+        return timeColumn;
+    }
+
+    public String getStatusColumn() {
+        return statusColumn;
+    }
+
+    /**
+     * Whether the column is bookkeeping maintained by the database and left out of exports
+     */
+    public boolean isInternalColumn(String column) {
+        return internalColumns.contains(column);
+    }
+}
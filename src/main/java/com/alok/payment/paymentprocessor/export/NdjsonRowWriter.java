@@ -0,0 +1,63 @@
+package com.alok.payment.paymentprocessor.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes each row as a JSON object on its own line, leaving out null fields as the API responses do
+ */
+class NdjsonRowWriter implements ExportRowWriter {
+
+    private final JsonGenerator generator;
+    private String[] fields;
+
+    NdjsonRowWriter(JsonGenerator generator) {
+        this.generator = generator;
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Rows are separated by the newline written after each one, not Jackson's default space
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void start(String[] fields) {
+        this.fields = fields;
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < fields.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            generator.writeFieldName(fields[i]);
+            if (value instanceof BigDecimal decimal) {
+                generator.writeNumber(decimal);
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Integer number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Double number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Boolean flag) {
+                generator.writeBoolean(flag);
+            } else if (value instanceof LocalDateTime time) {
+                generator.writeString(time.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.close();
+    }
+}
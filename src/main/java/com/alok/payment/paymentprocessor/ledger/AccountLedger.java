@@ -0,0 +1,43 @@
+package com.alok.payment.paymentprocessor.ledger;
+
+/**
+ * Account Ledger
+ * In-memory account balances held in minor units (cents).
+ * Implementations must be safe for concurrent use; transfer checks and moves funds atomically.
+ */
+public interface AccountLedger {
+
+    /**
+     * Returned in place of a balance when the ledger does not hold the account
+     */
+    long NO_ACCOUNT = Long.MIN_VALUE;
+
+    /**
+     * @return the current balance, or {@link #NO_ACCOUNT} if the account is not held
+     */
+    long balance(String accountNumber);
+
+    /**
+     * Adds the amount to the account, opening it with that balance if it is not held
+     */
+    void credit(String accountNumber, long amount);
+
+    /**
+     * Subtracts the amount from the account without a balance check; does nothing if the account is not held
+     */
+    void debit(String accountNumber, long amount);
+
+    /**
+     * Moves the amount from one account to the other if the source balance covers it.
+     * The check, debit and credit happen as one atomic operation; the destination is opened if not held.
+     *
+     * @return the source balance before the transfer, or {@link #NO_ACCOUNT} if the source is not held
+     *         (in which case nothing is moved)
+     */
+    long transfer(String fromAccount, String toAccount, long amount);
+
+    /**
+     * Removes all accounts
+     */
+    void clear();
+}
@@ -0,0 +1,241 @@
+package com.alok.payment.paymentprocessor.ledger;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Primitive Account Ledger
+ * Stores balances as long minor units in open-addressing tables (parallel key and long arrays with
+ * linear probing), so holding and updating an account allocates nothing beyond its key.
+ * The tables are split into segments, each with its own StampedLock; transfers lock both segments
+ * in index order and reads use optimistic stamps.
+ */
+public class PrimitiveAccountLedger implements AccountLedger {
+
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    public PrimitiveAccountLedger(int expectedAccounts) {
+        this(expectedAccounts, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public PrimitiveAccountLedger(int expectedAccounts, int minimumSegments) {
+        int segmentCount = Math.max(2, Integer.highestOneBit(Math.max(1, minimumSegments - 1)) << 1);
+        this.segments = new Segment[segmentCount];
+        this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+
+        int perSegment = Math.max(1, expectedAccounts / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    @Override
+    public long balance(String accountNumber) {
+        int hash = hash(accountNumber);
+        Segment segment = segmentFor(hash);
+
+        long stamp = segment.lock.tryOptimisticRead();
+        long balance = segment.table.get(accountNumber, hash);
+        if (segment.lock.validate(stamp)) {
+            return balance;
+        }
+
+        stamp = segment.lock.readLock();
+        try {
+            return segment.table.get(accountNumber, hash);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void credit(String accountNumber, long amount) {
+        int hash = hash(accountNumber);
+        Segment segment = segmentFor(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            segment.add(accountNumber, hash, amount);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void debit(String accountNumber, long amount) {
+        int hash = hash(accountNumber);
+        Segment segment = segmentFor(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            Table table = segment.table;
+            int slot = table.find(accountNumber, hash);
+            if (slot >= 0) {
+                table.values[slot] -= amount;
+            }
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long transfer(String fromAccount, String toAccount, long amount) {
+        int sourceHash = hash(fromAccount);
+        int destinationHash = hash(toAccount);
+        int sourceIndex = sourceHash >>> segmentShift;
+        int destinationIndex = destinationHash >>> segmentShift;
+        Segment source = segments[sourceIndex];
+        Segment destination = segments[destinationIndex];
+        Segment first = sourceIndex <= destinationIndex ? source : destination;
+        Segment second = sourceIndex <= destinationIndex ? destination : source;
+
+        long firstStamp = first.lock.writeLock();
+        try {
+            long secondStamp = second != first ? second.lock.writeLock() : 0L;
+            try {
+                Table sourceTable = source.table;
+                int sourceSlot = sourceTable.find(fromAccount, sourceHash);
+                if (sourceSlot < 0) {
+                    return NO_ACCOUNT;
+                }
+
+                long available = sourceTable.values[sourceSlot];
+                if (available >= amount) {
+                    sourceTable.values[sourceSlot] = available - amount;
+                    // May resize the destination table, so the source slot is not reused after this
+                    destination.add(toAccount, destinationHash, amount);
+                }
+                return available;
+            } finally {
+                if (second != first) {
+                    second.lock.unlockWrite(secondStamp);
+                }
+            }
+        } finally {
+            first.lock.unlockWrite(firstStamp);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                segment.table = new Table(segment.table.keys.length);
+                segment.size = 0;
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[hash >>> segmentShift];
+    }
+
+    private static int hash(String accountNumber) {
+        return accountNumber.hashCode() * HASH_MULTIPLIER;
+    }
+
+    /**
+     * One lock and one open-addressing table; the high hash bits pick the segment, the folded hash picks the slot
+     */
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        private Table table;
+        private int size;
+
+        private Segment(int expectedAccounts) {
+            int capacity = Math.max(MIN_SEGMENT_CAPACITY, Integer.highestOneBit(Math.max(1, expectedAccounts * 2 - 1)) << 1);
+            this.table = new Table(capacity);
+        }
+
+        /**
+         * Adds to the account, inserting it if absent; caller holds the write lock
+         */
+        private void add(String accountNumber, int hash, long amount) {
+            Table current = table;
+            int slot = current.find(accountNumber, hash);
+            if (slot >= 0) {
+                current.values[slot] += amount;
+                return;
+            }
+
+            // Keep the load factor at or below one half so probe sequences stay short
+            if ((size + 1) * 2 > current.keys.length) {
+                current = current.resize();
+                table = current;
+            }
+            current.insert(accountNumber, hash, amount);
+            size++;
+        }
+    }
+
+    /**
+     * Parallel key and balance arrays; replaced as a whole on resize so optimistic readers see a consistent pair
+     */
+    private static final class Table {
+
+        private final String[] keys;
+        private final long[] values;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new String[capacity];
+            this.values = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private long get(String accountNumber, int hash) {
+            int slot = find(accountNumber, hash);
+            return slot >= 0 ? values[slot] : NO_ACCOUNT;
+        }
+
+        /**
+         * @return the slot holding the account, or -1; probes at most the table length so a racing
+         *         optimistic reader always terminates
+         */
+        private int find(String accountNumber, int hash) {
+            int slot = slotFor(hash);
+            for (int probes = 0; probes <= mask; probes++) {
+                String key = keys[slot];
+                if (key == null) {
+                    return -1;
+                }
+                if (key.equals(accountNumber)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void insert(String accountNumber, int hash, long amount) {
+            int slot = slotFor(hash);
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = accountNumber;
+            values[slot] = amount;
+        }
+
+        private int slotFor(int hash) {
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+
+        private Table resize() {
+            Table resized = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                String key = keys[i];
+                if (key != null) {
+                    resized.insert(key, hash(key), values[i]);
+                }
+            }
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.alok.payment.paymentprocessor.ledger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped Lock Account Ledger
+ * Keeps one mutable balance cell per account in a concurrent map and guards updates with a fixed
+ * set of lock stripes, so payments touching different accounts rarely contend.
+ * Transfers lock both stripes in index order to avoid deadlock. Reads are lock-free.
+ * Uses ReentrantLock rather than synchronized so virtual threads are not pinned while waiting.
+ */
+public class StripedLockAccountLedger implements AccountLedger {
+
+    private final ConcurrentHashMap<String, Balance> balances = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+
+    public StripedLockAccountLedger() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public StripedLockAccountLedger(int minimumStripes) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, minimumStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    @Override
+    public long balance(String accountNumber) {
+        Balance balance = balances.get(accountNumber);
+        return balance != null ? balance.value : NO_ACCOUNT;
+    }
+
+    @Override
+    public void credit(String accountNumber, long amount) {
+        Balance balance = balances.computeIfAbsent(accountNumber, key -> new Balance());
+        ReentrantLock lock = stripeFor(accountNumber);
+        lock.lock();
+        try {
+            balance.value += amount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void debit(String accountNumber, long amount) {
+        Balance balance = balances.get(accountNumber);
+        if (balance == null) {
+            return;
+        }
+
+        ReentrantLock lock = stripeFor(accountNumber);
+        lock.lock();
+        try {
+            balance.value -= amount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long transfer(String fromAccount, String toAccount, long amount) {
+        Balance source = balances.get(fromAccount);
+        if (source == null) {
+            return NO_ACCOUNT;
+        }
+        Balance destination = balances.computeIfAbsent(toAccount, key -> new Balance());
+
+        int sourceStripe = stripeIndex(fromAccount);
+        int destinationStripe = stripeIndex(toAccount);
+        ReentrantLock first = stripes[Math.min(sourceStripe, destinationStripe)];
+        ReentrantLock second = stripes[Math.max(sourceStripe, destinationStripe)];
+
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                long available = source.value;
+                if (available >= amount) {
+                    source.value = available - amount;
+                    destination.value += amount;
+                }
+                return available;
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        balances.clear();
+    }
+
+    private ReentrantLock stripeFor(String accountNumber) {
+        return stripes[stripeIndex(accountNumber)];
+    }
+
+    private int stripeIndex(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+
+    /**
+     * Written only under the account's stripe lock; volatile so balance() can read without locking
+     */
+    private static final class Balance {
+        private volatile long value;
+    }
+}
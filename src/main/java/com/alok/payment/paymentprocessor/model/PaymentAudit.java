@@ -31,6 +31,8 @@ public class PaymentAudit {
     private Boolean fraudCheckPassed;
     private String fraudReason;
     private String fraudRiskScore;
+    // Numeric copy of fraudRiskScore so high-risk audits can be filtered and indexed in the database
+    private Double riskScore;
     private LocalDateTime fraudCheckAt;
     
     // Processing Details
@@ -161,6 +163,14 @@ public class PaymentAudit {
         this.fraudRiskScore = fraudRiskScore;
     }
 
+    public Double getRiskScore() {
+        return riskScore;
+    }
+
+    public void setRiskScore(Double riskScore) {
+        this.riskScore = riskScore;
+    }
+
     public LocalDateTime getFraudCheckAt() {
         return fraudCheckAt;
     }
@@ -7,5 +7,12 @@ public enum PaymentStatus {
     ACCOUNT_VALIDATION_FAILED,
     PROCESSING,
     COMPLETED,
-    FAILED
+    FAILED;
+
+    /**
+     * Whether the payment has finished processing and this status will not change again
+     */
+    public boolean isTerminal() {
+        return this != PENDING && this != PROCESSING;
+    }
 }
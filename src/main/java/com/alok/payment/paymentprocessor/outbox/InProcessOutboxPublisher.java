@@ -0,0 +1,34 @@
+package com.alok.payment.paymentprocessor.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * In-Process Outbox Publisher
+ * Republishes each message as a {@link PaymentOutcomeEvent} application event, for listeners in the
+ * same JVM. Listeners run synchronously on the relay thread; one that throws fails the batch.
+ */
+public class InProcessOutboxPublisher implements OutboxPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    public InProcessOutboxPublisher(ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            try {
+                eventPublisher.publishEvent(objectMapper.readValue(message.payload(), PaymentOutcomeEvent.class));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable outbox message " + message.id(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.alok.payment.paymentprocessor.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox Message
+ * One row of payment_outbox claimed for publishing
+ *
+ * @param payload Event serialized as JSON when the row was written
+ */
+public record OutboxMessage(long id, String transactionId, String payload, LocalDateTime createdAt) {
+}
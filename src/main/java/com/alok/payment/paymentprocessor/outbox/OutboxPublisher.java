@@ -0,0 +1,17 @@
+package com.alok.payment.paymentprocessor.outbox;
+
+import java.util.List;
+
+/**
+ * Outbox Publisher
+ * Delivers claimed outbox messages downstream. Called inside the transaction that holds the claimed rows;
+ * the rows are only deleted if this returns, so a publisher that throws has the whole batch retried and
+ * consumers must tolerate duplicates.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Publishes the messages in outbox order, throwing if any of them could not be delivered
+     */
+    void publish(List<OutboxMessage> messages);
+}
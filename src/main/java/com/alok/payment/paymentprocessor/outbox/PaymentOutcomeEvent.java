@@ -0,0 +1,25 @@
+package com.alok.payment.paymentprocessor.outbox;
+
+import com.alok.payment.paymentprocessor.model.Payment;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payment Outcome Event
+ * Final status of a payment, as published to downstream systems through the outbox
+ *
+ * @param occurredAt When the payment reached its final status
+ */
+public record PaymentOutcomeEvent(String transactionId, String fromAccount, String toAccount, BigDecimal amount,
+                                  String currency, PaymentType paymentType, PaymentStatus status,
+                                  String failureReason, LocalDateTime occurredAt) {
+
+    public static PaymentOutcomeEvent of(Payment payment) {
+        return new PaymentOutcomeEvent(payment.getTransactionId(), payment.getFromAccount(), payment.getToAccount(),
+            payment.getAmount(), payment.getCurrency(), payment.getPaymentType(), payment.getStatus(),
+            payment.getFailureReason(), payment.getUpdatedAt());
+    }
+}
@@ -0,0 +1,45 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Loads rows through the PostgreSQL COPY protocol
+ * COPY runs on the connection of the surrounding transaction, so several copies commit or roll back together.
+ */
+@Repository
+public class BulkImportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Copies rows encoded in COPY text format into the given columns of a table
+     *
+     * @return number of rows copied
+     */
+    public long copy(String table, List<String> columns, byte[] rows) {
+        // Table and column names come from the import table enum, never from the input
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN";
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                return copyManager.copyIn(sql, new ByteArrayInputStream(rows));
+            } catch (IOException e) {
+                throw new UncheckedIOException("COPY into " + table + " failed", e);
+            }
+        });
+        return copied != null ? copied : 0;
+    }
+}
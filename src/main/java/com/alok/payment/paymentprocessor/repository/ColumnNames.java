@@ -0,0 +1,28 @@
+package com.alok.payment.paymentprocessor.repository;
+
+/**
+ * Column Names
+ * Maps database column names to the camelCase field names used by the entity JSON, exports and imports
+ */
+public final class ColumnNames {
+
+    private ColumnNames() {
+    }
+
+    /**
+     * Column name in camelCase, e.g. transaction_id becomes transactionId
+     */
+    public static String fieldName(String column) {
+        StringBuilder field = new StringBuilder(column.length());
+        boolean upperNext = false;
+        for (char c : column.toCharArray()) {
+            if (c == '_') {
+                upperNext = true;
+            } else {
+                field.append(upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            }
+        }
+        return field.toString();
+    }
+}
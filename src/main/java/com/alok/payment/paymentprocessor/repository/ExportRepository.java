@@ -0,0 +1,180 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.export.ExportFilter;
+import com.alok.payment.paymentprocessor.export.ExportRowWriter;
+import com.alok.payment.paymentprocessor.export.ExportTable;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams table rows to an export writer through a server-side cursor
+ * The PostgreSQL driver only fetches in batches of the fetch size when auto-commit is off, so callers
+ * must run exports inside a transaction; otherwise the whole result is buffered in memory.
+ */
+@Repository
+public class ExportRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ExportRepository(DataSource dataSource, PaymentProcessorProperties properties) {
+        // Separate template so the fetch size, and no query timeout, only apply to exports
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(properties.getExport().getFetchSize());
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+    }
+
+    /**
+     * Writes every row of the table matching the filter, in time column then id order
+     *
+     * @return number of rows written
+     */
+    public long export(ExportTable table, ExportFilter filter, ExportRowWriter writer) {
+        return export(table, filter, null, Stream.empty(), writer);
+    }
+
+    /**
+     * Writes the archived audits given, then the audits in payment_audit after the archive watermark that
+     * match the filter, in (audited_at, id) order. Audits archived but not yet deleted are only written once.
+     *
+     * @param archived archived audits matching the filter, in (auditedAt, id) order and at or before the watermark
+     * @return number of rows written
+     */
+    public long exportAudits(ExportFilter filter, ArchiveKey watermark, Stream<PaymentAudit> archived,
+                             ExportRowWriter writer) {
+        return export(ExportTable.PAYMENT_AUDIT, filter, watermark, archived, writer);
+    }
+
+    private long export(ExportTable table, ExportFilter filter, ArchiveKey after, Stream<PaymentAudit> leading,
+                        ExportRowWriter writer) {
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        // Plain bounds on the partition key let the planner skip monthly partitions outside the range
+        if (filter.from() != null) {
+            conditions.add(table.getTimeColumn() + " >= :from");
+            parameters.addValue("from", filter.from());
+        }
+        if (filter.to() != null) {
+            conditions.add(table.getTimeColumn() + " < :to");
+            parameters.addValue("to", filter.to());
+        }
+        if (filter.account() != null) {
+            conditions.add("(from_account = :account OR to_account = :account)");
+            parameters.addValue("account", filter.account());
+        }
+        if (filter.status() != null) {
+            conditions.add(table.getStatusColumn() + " = :status");
+            parameters.addValue("status", filter.status().name());
+        }
+        if (after != null) {
+            conditions.add(table.getTimeColumn() + " >= :afterTime");
+            conditions.add("(" + table.getTimeColumn() + ", id) > (:afterTime, :afterId)");
+            parameters.addValue("afterTime", after.auditedAt());
+            parameters.addValue("afterId", after.id());
+        }
+
+        // Table and column names come from the enum, never from the request
+        String sql = "SELECT * FROM " + table.getTableName()
+            + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+            + " ORDER BY " + table.getTimeColumn() + ", id";
+        Long written = jdbcTemplate.query(sql, parameters,
+            (ResultSetExtractor<Long>) rs -> writeRows(table, rs, leading, writer));
+        return written != null ? written : 0;
+    }
+
+    private static long writeRows(ExportTable table, ResultSet rs, Stream<PaymentAudit> leading,
+                                  ExportRowWriter writer) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        List<Integer> exported = new ArrayList<>();
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            if (!table.isInternalColumn(metaData.getColumnLabel(column))) {
+                exported.add(column);
+            }
+        }
+        int columnCount = exported.size();
+        int[] columns = new int[columnCount];
+        String[] fields = new String[columnCount];
+        boolean[] timestamps = new boolean[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = exported.get(i);
+            fields[i] = ColumnNames.fieldName(metaData.getColumnLabel(columns[i]));
+            timestamps[i] = metaData.getColumnType(columns[i]) == Types.TIMESTAMP;
+        }
+
+        try {
+            writer.start(fields);
+            long written = 0;
+            Object[] values = new Object[columnCount];
+            // Archived audits are written in the same field order as the rows read from the table
+            for (Iterator<PaymentAudit> audits = leading.iterator(); audits.hasNext(); ) {
+                PaymentAudit audit = audits.next();
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = auditValue(audit, metaData.getColumnLabel(columns[i]));
+                }
+                writer.writeRow(values);
+                written++;
+            }
+            while (rs.next()) {
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = timestamps[i] ? rs.getObject(columns[i], LocalDateTime.class) : rs.getObject(columns[i]);
+                }
+                writer.writeRow(values);
+                written++;
+            }
+            writer.finish();
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export stream failed", e);
+        }
+    }
+
+    /**
+     * Value of an archived audit for a payment_audit column, typed as the JDBC driver returns it
+     */
+    private static Object auditValue(PaymentAudit audit, String column) {
+        return switch (column) {
+            case "id" -> audit.getId();
+            case "transaction_id" -> audit.getTransactionId();
+            case "from_account" -> audit.getFromAccount();
+            case "to_account" -> audit.getToAccount();
+            case "amount" -> audit.getAmount();
+            case "currency" -> audit.getCurrency();
+            case "payment_type" -> audit.getPaymentType() != null ? audit.getPaymentType().name() : null;
+            case "description" -> audit.getDescription();
+            case "payment_initiated_at" -> audit.getPaymentInitiatedAt();
+            case "fraud_check_passed" -> audit.getFraudCheckPassed();
+            case "fraud_reason" -> audit.getFraudReason();
+            case "fraud_risk_score" -> audit.getFraudRiskScore();
+            case "risk_score" -> audit.getRiskScore();
+            case "fraud_check_at" -> audit.getFraudCheckAt();
+            case "final_status" -> audit.getFinalStatus() != null ? audit.getFinalStatus().name() : null;
+            case "failure_reason" -> audit.getFailureReason();
+            case "processing_time_ms" -> audit.getProcessingTimeMs();
+            case "completed_at" -> audit.getCompletedAt();
+            case "source_account_valid" -> audit.getSourceAccountValid();
+            case "destination_account_valid" -> audit.getDestinationAccountValid();
+            case "sufficient_balance" -> audit.getSufficientBalance();
+            case "audited_by" -> audit.getAuditedBy();
+            case "audited_at" -> audit.getAuditedAt();
+            default -> throw new IllegalStateException("Column " + column + " is not kept in the audit archive");
+        };
+    }
+}
@@ -0,0 +1,229 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly partition maintenance for the range-partitioned payments and payment_audit tables
+ * Partitions are named {table}_pYYYY_MM and cover one calendar month of the partition column.
+ * Rows outside every monthly partition land in {table}_default. Bulk imports load months that have no
+ * partition into an unattached {table}_import_pYYYY_MM table first and attach it when the load is done.
+ */
+@Repository
+public class MonthlyPartitionRepository {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+
+    private static final String FIND_PARTITIONS = """
+            SELECT child.relname
+            FROM pg_inherits
+            JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+            JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+            WHERE parent.relname = :table
+            """;
+
+    private static final String IS_PARTITIONED = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM pg_partitioned_table
+                JOIN pg_class ON pg_class.oid = pg_partitioned_table.partrelid
+                WHERE pg_class.relname = :table
+            )
+            """;
+
+    private static final String FIND_STAGING_TABLES = """
+            SELECT relname
+            FROM pg_class
+            WHERE relkind = 'r' AND NOT relispartition AND starts_with(relname, :prefix)
+            """;
+
+    // Serializes maintenance of one table across instances for the rest of the transaction
+    private static final String LOCK_TABLE_MAINTENANCE = """
+            SELECT pg_advisory_xact_lock(hashtext(:table))
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public MonthlyPartitionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Whether the table exists and is partitioned, so monthly partitions can be attached to it
+     */
+    public boolean isPartitioned(PartitionedTable table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Map.of("table", table.tableName),
+            Boolean.class));
+    }
+
+    /**
+     * Months with a partition currently attached to the table
+     */
+    public List<YearMonth> findPartitionMonths(PartitionedTable table) {
+        Pattern partitionName = Pattern.compile(Pattern.quote(table.tableName) + "_p(\\d{4})_(\\d{2})");
+        List<YearMonth> months = new ArrayList<>();
+        for (String partition : jdbcTemplate.queryForList(FIND_PARTITIONS, Map.of("table", table.tableName), String.class)) {
+            Matcher matcher = partitionName.matcher(partition);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Staging tables of the table that exist and are not attached, which only happens after an import whose
+     * attach failed or while another import is loading one
+     */
+    public List<String> findStagingTables(PartitionedTable table) {
+        Pattern stagingName = Pattern.compile(Pattern.quote(table.tableName) + "_import_p\\d{4}_\\d{2}");
+        return jdbcTemplate.queryForList(FIND_STAGING_TABLES, Map.of("prefix", table.tableName + "_import_p"),
+                String.class).stream()
+            .filter(name -> stagingName.matcher(name).matches())
+            .sorted()
+            .toList();
+    }
+
+    /**
+     * Creates and attaches the partition for one month, first moving any rows for that month out of the
+     * default partition so the attach does not fail. Must run in a transaction.
+     *
+     * @return false if another instance attached the partition first
+     */
+    public boolean createPartition(PartitionedTable table, YearMonth month) {
+        lockTableMaintenance(table);
+        if (findPartitionMonths(table).contains(month)) {
+            return false;
+        }
+
+        // Names and bounds come from the enum and the month, never from user input
+        jdbcTemplate.getJdbcOperations().execute("CREATE TABLE " + partitionName(table, month)
+            + " (LIKE " + table.tableName + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        attachPartition(table, month);
+        return true;
+    }
+
+    /**
+     * Creates an empty table for one month's rows that is not attached to the table, so rows can be
+     * loaded into it without index maintenance. Attach it with {@link #attachStagingTable}.
+     *
+     * @return name of the staging table
+     */
+    public String createStagingTable(PartitionedTable table, YearMonth month) {
+        String staging = stagingTableName(table, month);
+        jdbcTemplate.getJdbcOperations().execute(
+            "CREATE TABLE " + staging + " (LIKE " + table.tableName + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        return staging;
+    }
+
+    /**
+     * Attaches a loaded staging table as the partition for its month, which builds the partition's indexes
+     * in one pass. If the month's partition was created in the meantime, the rows are inserted into the
+     * table instead and the staging table is dropped. Must run in a transaction.
+     *
+     * @return false if the month already had a partition
+     */
+    public boolean attachStagingTable(PartitionedTable table, YearMonth month) {
+        lockTableMaintenance(table);
+        String staging = stagingTableName(table, month);
+        if (table.insertedXidColumn != null) {
+            // Staged rows only become visible now; stamp them with this transaction so the audit rollup,
+            // which may already have folded past the transactions that loaded them, still folds them
+            jdbcTemplate.getJdbcOperations().execute(
+                "UPDATE " + staging + " SET " + table.insertedXidColumn + " = pg_current_xact_id()");
+        }
+        if (findPartitionMonths(table).contains(month)) {
+            jdbcTemplate.getJdbcOperations().execute("INSERT INTO " + table.tableName + " SELECT * FROM " + staging);
+            jdbcTemplate.getJdbcOperations().execute("DROP TABLE " + staging);
+            return false;
+        }
+
+        jdbcTemplate.getJdbcOperations().execute(
+            "ALTER TABLE " + staging + " RENAME TO " + partitionName(table, month));
+        attachPartition(table, month);
+        return true;
+    }
+
+    /**
+     * Detaches the partition for one month; the detached table keeps its rows and name.
+     * Must run in a transaction.
+     *
+     * @return false if the month has no attached partition
+     */
+    public boolean detachPartition(PartitionedTable table, YearMonth month) {
+        lockTableMaintenance(table);
+        if (!findPartitionMonths(table).contains(month)) {
+            return false;
+        }
+
+        jdbcTemplate.getJdbcOperations().execute(
+            "ALTER TABLE " + table.tableName + " DETACH PARTITION " + partitionName(table, month));
+        return true;
+    }
+
+    /**
+     * Moves the month's rows out of the default partition into the month's partition table and attaches it
+     */
+    private void attachPartition(PartitionedTable table, YearMonth month) {
+        String partition = partitionName(table, month);
+        String defaultPartition = table.tableName + "_default";
+        String inMonth = table.column + " >= :from AND " + table.column + " < :to";
+        MapSqlParameterSource bounds = new MapSqlParameterSource()
+            .addValue("from", month.atDay(1).atStartOfDay())
+            .addValue("to", month.plusMonths(1).atDay(1).atStartOfDay());
+
+        jdbcTemplate.update("INSERT INTO " + partition + " SELECT * FROM " + defaultPartition + " WHERE " + inMonth, bounds);
+        jdbcTemplate.update("DELETE FROM " + defaultPartition + " WHERE " + inMonth, bounds);
+        jdbcTemplate.getJdbcOperations().execute("ALTER TABLE " + table.tableName + " ATTACH PARTITION " + partition
+            + " FOR VALUES FROM (" + literal(month) + ") TO (" + literal(month.plusMonths(1)) + ")");
+    }
+
+    private void lockTableMaintenance(PartitionedTable table) {
+        jdbcTemplate.query(LOCK_TABLE_MAINTENANCE, Map.of("table", table.tableName), (RowCallbackHandler) rs -> { });
+    }
+
+    public static String partitionName(PartitionedTable table, YearMonth month) {
+        return table.tableName + month.format(PARTITION_SUFFIX);
+    }
+
+    public static String stagingTableName(PartitionedTable table, YearMonth month) {
+        return table.tableName + "_import" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static String literal(YearMonth month) {
+        return "'" + month.atDay(1) + "'";
+    }
+
+    /**
+     * Tables partitioned by month, with the timestamp column they are partitioned on and the column, if any,
+     * recording the inserting transaction
+     */
+    public enum PartitionedTable {
+        PAYMENTS("payments", "created_at", null),
+        PAYMENT_AUDIT("payment_audit", "audited_at", "inserted_xid");
+
+        private final String tableName;
+        private final String column;
+        private final String insertedXidColumn;
+
+        PartitionedTable(String tableName, String column, String insertedXidColumn) {
+            this.tableName = tableName;
+            this.column = column;
+            this.insertedXidColumn = insertedXidColumn;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+
+import java.util.Optional;
+
+/**
+ * Archive watermark operations for payment audit records
+ * Mixed into PaymentAuditRepository as a Spring Data repository fragment. The watermark is the key of the
+ * last audit moved to the audit archive; it is kept in the database so every instance sees the same one,
+ * and moved under a database lock so archive runs and audit imports on different instances serialize.
+ */
+public interface PaymentAuditArchiveRepository {
+
+    /**
+     * Takes the archive lock exclusively until the transaction ends, so no archive run or audit import
+     * on any instance proceeds meanwhile. Must run in a transaction.
+     *
+     * @return the watermark, or empty if nothing has been archived
+     */
+    Optional<ArchiveKey> lockArchivedThrough();
+
+    /**
+     * Takes the archive lock shared until the transaction ends, so the watermark cannot move while other
+     * audit imports still proceed. Must run in a transaction.
+     *
+     * @return the watermark, or empty if nothing has been archived
+     */
+    Optional<ArchiveKey> holdArchivedThrough();
+
+    /**
+     * The watermark without locking, or empty if nothing has been archived
+     */
+    Optional<ArchiveKey> findArchivedThrough();
+
+    /**
+     * Records a new watermark; the caller holds the lock from {@link #lockArchivedThrough}
+     */
+    void advanceArchivedThrough(ArchiveKey through);
+}
@@ -0,0 +1,71 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC implementation of {@link PaymentAuditArchiveRepository}
+ */
+class PaymentAuditArchiveRepositoryImpl implements PaymentAuditArchiveRepository {
+
+    private static final String LOCK_ARCHIVE = """
+            SELECT pg_advisory_xact_lock(hashtext('payment_audit_archive'))
+            """;
+
+    private static final String HOLD_ARCHIVE = """
+            SELECT pg_advisory_xact_lock_shared(hashtext('payment_audit_archive'))
+            """;
+
+    private static final String FIND_ARCHIVED_THROUGH = """
+            SELECT archived_through_audited_at, archived_through_id
+            FROM payment_audit_archive_state
+            WHERE id = 1
+            """;
+
+    private static final String ADVANCE_ARCHIVED_THROUGH = """
+            UPDATE payment_audit_archive_state
+            SET archived_through_audited_at = :auditedAt, archived_through_id = :id
+            WHERE id = 1
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    PaymentAuditArchiveRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<ArchiveKey> lockArchivedThrough() {
+        jdbcTemplate.query(LOCK_ARCHIVE, Map.of(), (RowCallbackHandler) rs -> { });
+        return findArchivedThrough();
+    }
+
+    @Override
+    public Optional<ArchiveKey> holdArchivedThrough() {
+        jdbcTemplate.query(HOLD_ARCHIVE, Map.of(), (RowCallbackHandler) rs -> { });
+        return findArchivedThrough();
+    }
+
+    @Override
+    public Optional<ArchiveKey> findArchivedThrough() {
+        return jdbcTemplate.queryForObject(FIND_ARCHIVED_THROUGH, Map.of(), (rs, rowNum) -> {
+            LocalDateTime auditedAt = rs.getObject("archived_through_audited_at", LocalDateTime.class);
+            return auditedAt != null
+                ? Optional.of(new ArchiveKey(auditedAt, rs.getLong("archived_through_id")))
+                : Optional.<ArchiveKey>empty();
+        });
+    }
+
+    @Override
+    public void advanceArchivedThrough(ArchiveKey through) {
+        jdbcTemplate.update(ADVANCE_ARCHIVED_THROUGH, new MapSqlParameterSource()
+            .addValue("auditedAt", through.auditedAt())
+            .addValue("id", through.id()));
+    }
+}
@@ -0,0 +1,17 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+
+import java.util.List;
+
+/**
+ * Batched write operations for payment audit records
+ * Mixed into PaymentAuditRepository as a Spring Data repository fragment
+ */
+public interface PaymentAuditBatchRepository {
+
+    /**
+     * Inserts new audit records as a single JDBC batch and assigns their generated IDs
+     */
+    void batchInsert(List<PaymentAudit> audits);
+}
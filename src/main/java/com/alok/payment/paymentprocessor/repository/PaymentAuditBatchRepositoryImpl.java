@@ -0,0 +1,83 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link PaymentAuditBatchRepository}
+ */
+class PaymentAuditBatchRepositoryImpl implements PaymentAuditBatchRepository {
+
+    private static final String INSERT_AUDIT = """
+            INSERT INTO payment_audit (transaction_id, from_account, to_account, amount, currency, payment_type,
+                                       description, payment_initiated_at,
+                                       fraud_check_passed, fraud_reason, fraud_risk_score, risk_score, fraud_check_at,
+                                       final_status, failure_reason, processing_time_ms, completed_at,
+                                       source_account_valid, destination_account_valid, sufficient_balance,
+                                       audited_by, audited_at)
+            VALUES (:transactionId, :fromAccount, :toAccount, :amount, :currency, :paymentType,
+                    :description, :paymentInitiatedAt,
+                    :fraudCheckPassed, :fraudReason, :fraudRiskScore, :riskScore, :fraudCheckAt,
+                    :finalStatus, :failureReason, :processingTimeMs, :completedAt,
+                    :sourceAccountValid, :destinationAccountValid, :sufficientBalance,
+                    :auditedBy, :auditedAt)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    PaymentAuditBatchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<PaymentAudit> audits) {
+        if (audits.isEmpty()) {
+            return;
+        }
+
+        SqlParameterSource[] batchArgs = audits.stream()
+            .map(PaymentAuditBatchRepositoryImpl::toParameters)
+            .toArray(SqlParameterSource[]::new);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_AUDIT, batchArgs, keyHolder, new String[] {"id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < keys.size() && i < audits.size(); i++) {
+            audits.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    private static SqlParameterSource toParameters(PaymentAudit audit) {
+        return new MapSqlParameterSource()
+            .addValue("transactionId", audit.getTransactionId())
+            .addValue("fromAccount", audit.getFromAccount())
+            .addValue("toAccount", audit.getToAccount())
+            .addValue("amount", audit.getAmount())
+            .addValue("currency", audit.getCurrency())
+            .addValue("paymentType", audit.getPaymentType() != null ? audit.getPaymentType().name() : null)
+            .addValue("description", audit.getDescription())
+            .addValue("paymentInitiatedAt", audit.getPaymentInitiatedAt())
+            .addValue("fraudCheckPassed", audit.getFraudCheckPassed())
+            .addValue("fraudReason", audit.getFraudReason())
+            .addValue("fraudRiskScore", audit.getFraudRiskScore())
+            .addValue("riskScore", audit.getRiskScore())
+            .addValue("fraudCheckAt", audit.getFraudCheckAt())
+            .addValue("finalStatus", audit.getFinalStatus() != null ? audit.getFinalStatus().name() : null)
+            .addValue("failureReason", audit.getFailureReason())
+            .addValue("processingTimeMs", audit.getProcessingTimeMs())
+            .addValue("completedAt", audit.getCompletedAt())
+            .addValue("sourceAccountValid", audit.getSourceAccountValid())
+            .addValue("destinationAccountValid", audit.getDestinationAccountValid())
+            .addValue("sufficientBalance", audit.getSufficientBalance())
+            .addValue("auditedBy", audit.getAuditedBy())
+            .addValue("auditedAt", audit.getAuditedAt());
+    }
+}
@@ -2,7 +2,10 @@ package com.alok.payment.paymentprocessor.repository;
 
 import com.alok.payment.paymentprocessor.model.PaymentAudit;
 import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -10,7 +13,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PaymentAuditRepository extends CrudRepository<PaymentAudit, Long> {
+public interface PaymentAuditRepository extends CrudRepository<PaymentAudit, Long>, PaymentAuditBatchRepository,
+        PaymentAuditStatisticsRepository, PaymentAuditRollupRepository, PaymentAuditArchiveRepository {
     
     Optional<PaymentAudit> findByTransactionId(String transactionId);
     
@@ -23,4 +27,74 @@ public interface PaymentAuditRepository extends CrudRepository<PaymentAudit, Lon
     List<PaymentAudit> findByFraudCheckPassed(Boolean fraudCheckPassed);
     
     List<PaymentAudit> findByAuditedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    /**
+     * Next page of audits needing compliance review, in ID order after the given ID.
+     * The predicate must match idx_payment_audit_high_risk exactly for the partial index to be used.
+     */
+    @Query("SELECT * FROM payment_audit "
+         + "WHERE (risk_score > 0.7 OR fraud_check_passed = FALSE OR processing_time_ms > 5000) "
+         + "AND id > :afterId ORDER BY id LIMIT :limit")
+    List<PaymentAudit> findHighRiskAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+    
+    /**
+     * Next page of audits sent or received by the account, in (audited_at, id) order after the given
+     * position and audited before the given time. Each branch reads its own (account, audited_at, id)
+     * index and stops after limit rows; a transfer from the account to itself is returned once.
+     * The plain audited_at bounds let the planner prune monthly partitions outside the window.
+     */
+    @Query("SELECT * FROM ("
+         + "(SELECT * FROM payment_audit WHERE from_account = :account "
+         + "AND audited_at >= :afterAuditedAt AND audited_at < :before "
+         + "AND (audited_at, id) > (:afterAuditedAt, :afterId) "
+         + "ORDER BY audited_at, id LIMIT :limit) "
+         + "UNION ALL "
+         + "(SELECT * FROM payment_audit WHERE to_account = :account AND from_account <> :account "
+         + "AND audited_at >= :afterAuditedAt AND audited_at < :before "
+         + "AND (audited_at, id) > (:afterAuditedAt, :afterId) "
+         + "ORDER BY audited_at, id LIMIT :limit)"
+         + ") account_audits ORDER BY audited_at, id LIMIT :limit")
+    List<PaymentAudit> findByAccountAfter(@Param("account") String account,
+                                          @Param("afterAuditedAt") LocalDateTime afterAuditedAt,
+                                          @Param("afterId") long afterId,
+                                          @Param("before") LocalDateTime before,
+                                          @Param("limit") int limit);
+
+    /**
+     * Next chunk of audits to archive, in (audited_at, id) order after the archive watermark and
+     * audited before the cutoff
+     */
+    @Query("SELECT * FROM payment_audit "
+         + "WHERE audited_at >= :afterAuditedAt AND audited_at < :before "
+         + "AND (audited_at, id) > (:afterAuditedAt, :afterId) "
+         + "ORDER BY audited_at, id LIMIT :limit")
+    List<PaymentAudit> findArchivableAfter(@Param("afterAuditedAt") LocalDateTime afterAuditedAt,
+                                           @Param("afterId") long afterId,
+                                           @Param("before") LocalDateTime before,
+                                           @Param("limit") int limit);
+
+    /**
+     * Deletes every audit at or before the archive watermark
+     *
+     * @return number of audits deleted
+     */
+    @Modifying
+    @Query("DELETE FROM payment_audit "
+         + "WHERE audited_at <= :throughAuditedAt AND (audited_at, id) <= (:throughAuditedAt, :throughId)")
+    int deleteArchivedThrough(@Param("throughAuditedAt") LocalDateTime throughAuditedAt,
+                              @Param("throughId") long throughId);
+
+    /**
+     * Percentage of audits whose fraud check failed, or 0 when there are none
+     */
+    @Query("SELECT CAST(COALESCE(100.0 * COUNT(*) FILTER (WHERE fraud_check_passed = FALSE) "
+         + "/ NULLIF(COUNT(*), 0), 0) AS DOUBLE PRECISION) FROM payment_audit")
+    Double calculateFraudDetectionRate();
+    
+    /**
+     * Mean processing time of audits in the given status, ignoring missing times, or 0 when there are none
+     */
+    @Query("SELECT CAST(COALESCE(AVG(processing_time_ms), 0) AS DOUBLE PRECISION) "
+         + "FROM payment_audit WHERE final_status = :status")
+    Double calculateAverageProcessingTime(@Param("status") PaymentStatus status);
 }
@@ -0,0 +1,51 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import org.HdrHistogram.Histogram;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Daily rollup operations for payment audit records
+ * Mixed into PaymentAuditRepository as a Spring Data repository fragment
+ */
+public interface PaymentAuditRollupRepository {
+
+    /**
+     * Folds audits inserted since the last fold into the daily rollups and the hourly processing time
+     * histograms, and advances the watermark.
+     * Only audits whose inserting transaction has ended are folded, so an audit committed late by a
+     * long transaction is folded late rather than skipped. Must run in a transaction.
+     *
+     * @return how many audits were folded, at least maxAudits when more may be waiting; 0 when nothing was folded
+     */
+    int foldNewAudits(int maxAudits);
+
+    /**
+     * Totals for one day: the rollup plus any audits for that day not folded yet
+     */
+    DailyTotals summarizeDay(LocalDate day);
+
+    /**
+     * Failure reason counts for one day: the rollup plus any audits for that day not folded yet
+     */
+    Map<String, Long> countFailureReasons(LocalDate day);
+
+    /**
+     * Processing time histogram of audits in [from, to), optionally of one payment type and final status.
+     * Whole hours come from the folded hourly histograms; the partial hours at either end and audits
+     * not folded yet are read from payment_audit.
+     */
+    Histogram summarizeProcessingTimes(LocalDateTime from, LocalDateTime to, PaymentType paymentType,
+                                       PaymentStatus status);
+
+    record DailyTotals(long totalTransactions,
+                       long successfulTransactions,
+                       long fraudDetected,
+                       long processingTimeSum,
+                       long processingTimeCount) {
+    }
+}
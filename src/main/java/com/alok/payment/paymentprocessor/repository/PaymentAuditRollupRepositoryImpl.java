@@ -0,0 +1,322 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import org.HdrHistogram.Histogram;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+/**
+ * JDBC implementation of {@link PaymentAuditRollupRepository}
+ */
+class PaymentAuditRollupRepositoryImpl implements PaymentAuditRollupRepository {
+
+    private static final String LOCK_WATERMARK = """
+            SELECT CAST(folded_below_xid AS TEXT) FROM payment_audit_rollup_state WHERE id = 1 FOR UPDATE
+            """;
+
+    // Every transaction below the snapshot's xmin has ended, so its audits are all visible now and none can
+    // appear later; audits of transactions still open are left for a later fold however old they are.
+    // The batch ends at a transaction boundary: the first transaction past the next maxAudits audits.
+    private static final String FIND_FOLD_UPPER_BOUND = """
+            WITH horizon AS (
+                SELECT pg_snapshot_xmin(pg_current_snapshot()) AS xmin
+            ),
+            batch AS (
+                SELECT inserted_xid
+                FROM payment_audit
+                WHERE inserted_xid >= CAST(:foldedBelowXid AS xid8)
+                  AND inserted_xid < (SELECT xmin FROM horizon)
+                ORDER BY inserted_xid
+                LIMIT :maxAudits
+            )
+            SELECT CAST(COALESCE(
+                       (SELECT MIN(inserted_xid)
+                        FROM payment_audit
+                        WHERE inserted_xid > (SELECT MAX(inserted_xid) FROM batch)
+                          AND inserted_xid < (SELECT xmin FROM horizon)),
+                       (SELECT xmin FROM horizon)) AS TEXT)
+            """;
+
+    private static final String COUNT_FOLDED = """
+            SELECT COUNT(*)
+            FROM payment_audit
+            WHERE inserted_xid >= CAST(:foldedBelowXid AS xid8) AND inserted_xid < CAST(:upperXid AS xid8)
+            """;
+
+    private static final String FOLD_DAILY_TOTALS = """
+            INSERT INTO payment_audit_daily (audit_date, total_transactions, successful_transactions,
+                                             fraud_detected, processing_time_sum, processing_time_count)
+            SELECT CAST(audited_at AS DATE),
+                   COUNT(*),
+                   COUNT(*) FILTER (WHERE final_status = 'COMPLETED'),
+                   COUNT(*) FILTER (WHERE fraud_check_passed = FALSE),
+                   COALESCE(SUM(processing_time_ms), 0),
+                   COUNT(processing_time_ms)
+            FROM payment_audit
+            WHERE inserted_xid >= CAST(:foldedBelowXid AS xid8) AND inserted_xid < CAST(:upperXid AS xid8)
+            GROUP BY CAST(audited_at AS DATE)
+            ON CONFLICT (audit_date) DO UPDATE SET
+                total_transactions = payment_audit_daily.total_transactions + EXCLUDED.total_transactions,
+                successful_transactions = payment_audit_daily.successful_transactions + EXCLUDED.successful_transactions,
+                fraud_detected = payment_audit_daily.fraud_detected + EXCLUDED.fraud_detected,
+                processing_time_sum = payment_audit_daily.processing_time_sum + EXCLUDED.processing_time_sum,
+                processing_time_count = payment_audit_daily.processing_time_count + EXCLUDED.processing_time_count
+            """;
+
+    private static final String FOLD_FAILURE_REASONS = """
+            INSERT INTO payment_audit_daily_failure_reason (audit_date, failure_reason, failures)
+            SELECT CAST(audited_at AS DATE), failure_reason, COUNT(*)
+            FROM payment_audit
+            WHERE inserted_xid >= CAST(:foldedBelowXid AS xid8) AND inserted_xid < CAST(:upperXid AS xid8)
+              AND failure_reason IS NOT NULL
+            GROUP BY CAST(audited_at AS DATE), failure_reason
+            ON CONFLICT (audit_date, failure_reason) DO UPDATE SET
+                failures = payment_audit_daily_failure_reason.failures + EXCLUDED.failures
+            """;
+
+    // Negative times from clock adjustments are recorded as 0, since histograms only hold non-negative values
+    private static final String FIND_NEW_PROCESSING_TIMES = """
+            SELECT date_trunc('hour', audited_at) AS bucket_start, payment_type, final_status,
+                   GREATEST(processing_time_ms, 0) AS processing_time_ms, COUNT(*) AS audits
+            FROM payment_audit
+            WHERE inserted_xid >= CAST(:foldedBelowXid AS xid8) AND inserted_xid < CAST(:upperXid AS xid8)
+              AND processing_time_ms IS NOT NULL AND payment_type IS NOT NULL AND final_status IS NOT NULL
+            GROUP BY 1, 2, 3, 4
+            """;
+
+    private static final String FIND_LATENCY_BUCKETS = """
+            SELECT bucket_start, payment_type, final_status, histogram
+            FROM payment_audit_latency
+            WHERE bucket_start >= :firstBucket AND bucket_start <= :lastBucket
+            """;
+
+    private static final String SAVE_LATENCY_BUCKET = """
+            INSERT INTO payment_audit_latency (bucket_start, payment_type, final_status, histogram)
+            VALUES (:bucketStart, :paymentType, :finalStatus, :histogram)
+            ON CONFLICT (bucket_start, payment_type, final_status) DO UPDATE SET histogram = EXCLUDED.histogram
+            """;
+
+    private static final String ADVANCE_WATERMARK = """
+            UPDATE payment_audit_rollup_state SET folded_below_xid = CAST(:upperXid AS xid8) WHERE id = 1
+            """;
+
+    // One statement each, so the rollup and the unfolded tail are read from the same snapshot
+    private static final String SUMMARIZE_DAY = """
+            WITH state AS (
+                SELECT folded_below_xid FROM payment_audit_rollup_state WHERE id = 1
+            ),
+            tail AS (
+                SELECT COUNT(*) AS total_transactions,
+                       COUNT(*) FILTER (WHERE final_status = 'COMPLETED') AS successful_transactions,
+                       COUNT(*) FILTER (WHERE fraud_check_passed = FALSE) AS fraud_detected,
+                       COALESCE(SUM(processing_time_ms), 0) AS processing_time_sum,
+                       COUNT(processing_time_ms) AS processing_time_count
+                FROM payment_audit
+                WHERE inserted_xid >= (SELECT folded_below_xid FROM state)
+                  AND audited_at >= :dayStart AND audited_at < :nextDayStart
+            )
+            SELECT tail.total_transactions + COALESCE(daily.total_transactions, 0) AS total_transactions,
+                   tail.successful_transactions + COALESCE(daily.successful_transactions, 0) AS successful_transactions,
+                   tail.fraud_detected + COALESCE(daily.fraud_detected, 0) AS fraud_detected,
+                   tail.processing_time_sum + COALESCE(daily.processing_time_sum, 0) AS processing_time_sum,
+                   tail.processing_time_count + COALESCE(daily.processing_time_count, 0) AS processing_time_count
+            FROM tail
+            LEFT JOIN payment_audit_daily daily ON daily.audit_date = :day
+            """;
+
+    private static final String COUNT_FAILURE_REASONS = """
+            WITH state AS (
+                SELECT folded_below_xid FROM payment_audit_rollup_state WHERE id = 1
+            )
+            SELECT failure_reason, SUM(failures) AS failures
+            FROM (
+                SELECT failure_reason, failures
+                FROM payment_audit_daily_failure_reason
+                WHERE audit_date = :day
+                UNION ALL
+                SELECT failure_reason, COUNT(*)
+                FROM payment_audit
+                WHERE inserted_xid >= (SELECT folded_below_xid FROM state)
+                  AND audited_at >= :dayStart AND audited_at < :nextDayStart
+                  AND failure_reason IS NOT NULL
+                GROUP BY failure_reason
+            ) reasons
+            GROUP BY failure_reason
+            """;
+
+    // One statement, so the hourly histograms and the unfolded tail are read from the same snapshot
+    private static final String SUMMARIZE_PROCESSING_TIMES = """
+            WITH state AS (
+                SELECT folded_below_xid FROM payment_audit_rollup_state WHERE id = 1
+            )
+            SELECT histogram, CAST(NULL AS BIGINT) AS processing_time_ms, CAST(NULL AS BIGINT) AS audits
+            FROM payment_audit_latency
+            WHERE bucket_start >= :fullStart AND bucket_start < :fullEnd
+              AND (CAST(:paymentType AS VARCHAR) IS NULL OR payment_type = :paymentType)
+              AND (CAST(:finalStatus AS VARCHAR) IS NULL OR final_status = :finalStatus)
+            UNION ALL
+            SELECT NULL, GREATEST(processing_time_ms, 0), COUNT(*)
+            FROM payment_audit
+            WHERE audited_at >= :from AND audited_at < :to
+              AND (audited_at < :fullStart OR audited_at >= :fullEnd OR inserted_xid >= (SELECT folded_below_xid FROM state))
+              AND processing_time_ms IS NOT NULL AND payment_type IS NOT NULL AND final_status IS NOT NULL
+              AND (CAST(:paymentType AS VARCHAR) IS NULL OR payment_type = :paymentType)
+              AND (CAST(:finalStatus AS VARCHAR) IS NULL OR final_status = :finalStatus)
+            GROUP BY GREATEST(processing_time_ms, 0)
+            """;
+
+    /**
+     * Histograms keep three significant digits, so percentiles are within 0.1% of the recorded value
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    PaymentAuditRollupRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int foldNewAudits(int maxAudits) {
+        String foldedBelowXid = jdbcTemplate.queryForObject(LOCK_WATERMARK, Map.of(), String.class);
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("foldedBelowXid", foldedBelowXid)
+            .addValue("maxAudits", maxAudits);
+        String upperXid = jdbcTemplate.queryForObject(FIND_FOLD_UPPER_BOUND, parameters, String.class);
+        parameters.addValue("upperXid", upperXid);
+        Long folded = jdbcTemplate.queryForObject(COUNT_FOLDED, parameters, Long.class);
+        if (folded != null && folded > 0) {
+            jdbcTemplate.update(FOLD_DAILY_TOTALS, parameters);
+            jdbcTemplate.update(FOLD_FAILURE_REASONS, parameters);
+            foldProcessingTimes(parameters);
+        }
+        // Advanced even when nothing was folded, so later folds start past the ended transactions
+        jdbcTemplate.update(ADVANCE_WATERMARK, parameters);
+        return folded != null ? Math.toIntExact(folded) : 0;
+    }
+
+    @Override
+    public DailyTotals summarizeDay(LocalDate day) {
+        return jdbcTemplate.queryForObject(SUMMARIZE_DAY, dayParameters(day), (rs, rowNum) -> new DailyTotals(
+            rs.getLong("total_transactions"),
+            rs.getLong("successful_transactions"),
+            rs.getLong("fraud_detected"),
+            rs.getLong("processing_time_sum"),
+            rs.getLong("processing_time_count")));
+    }
+
+    @Override
+    public Map<String, Long> countFailureReasons(LocalDate day) {
+        Map<String, Long> failureReasons = new LinkedHashMap<>();
+        jdbcTemplate.query(COUNT_FAILURE_REASONS, dayParameters(day), (RowCallbackHandler) rs ->
+            failureReasons.put(rs.getString("failure_reason"), rs.getLong("failures")));
+        return failureReasons;
+    }
+
+    @Override
+    public Histogram summarizeProcessingTimes(LocalDateTime from, LocalDateTime to, PaymentType paymentType,
+                                              PaymentStatus status) {
+        // Whole hours inside the window; a window within one hour has none and is read from the audits
+        LocalDateTime fullStart = from.truncatedTo(ChronoUnit.HOURS);
+        if (fullStart.isBefore(from)) {
+            fullStart = fullStart.plusHours(1);
+        }
+        LocalDateTime fullEnd = to.truncatedTo(ChronoUnit.HOURS);
+        if (fullEnd.isBefore(fullStart)) {
+            fullEnd = fullStart;
+        }
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("from", from)
+            .addValue("to", to)
+            .addValue("fullStart", fullStart)
+            .addValue("fullEnd", fullEnd)
+            .addValue("paymentType", paymentType != null ? paymentType.name() : null, Types.VARCHAR)
+            .addValue("finalStatus", status != null ? status.name() : null, Types.VARCHAR);
+        Histogram histogram = new Histogram(SIGNIFICANT_DIGITS);
+        jdbcTemplate.query(SUMMARIZE_PROCESSING_TIMES, parameters, (RowCallbackHandler) rs -> {
+            byte[] encoded = rs.getBytes("histogram");
+            if (encoded != null) {
+                histogram.add(decode(encoded));
+            } else {
+                histogram.recordValueWithCount(rs.getLong("processing_time_ms"), rs.getLong("audits"));
+            }
+        });
+        return histogram;
+    }
+
+    /**
+     * Merges the folded range's processing times into the stored hourly histograms. The caller holds the
+     * watermark lock, so no other fold can write the same buckets between the read and the write.
+     */
+    private void foldProcessingTimes(MapSqlParameterSource parameters) {
+        Map<LatencyBucket, Histogram> histograms = new HashMap<>();
+        jdbcTemplate.query(FIND_NEW_PROCESSING_TIMES, parameters, (RowCallbackHandler) rs ->
+            histograms.computeIfAbsent(new LatencyBucket(rs.getObject("bucket_start", LocalDateTime.class),
+                    rs.getString("payment_type"), rs.getString("final_status")),
+                    bucket -> new Histogram(SIGNIFICANT_DIGITS))
+                .recordValueWithCount(rs.getLong("processing_time_ms"), rs.getLong("audits")));
+        if (histograms.isEmpty()) {
+            return;
+        }
+
+        List<LocalDateTime> bucketStarts = histograms.keySet().stream().map(LatencyBucket::bucketStart).sorted().toList();
+        MapSqlParameterSource bucketRange = new MapSqlParameterSource()
+            .addValue("firstBucket", bucketStarts.get(0))
+            .addValue("lastBucket", bucketStarts.get(bucketStarts.size() - 1));
+        jdbcTemplate.query(FIND_LATENCY_BUCKETS, bucketRange, (RowCallbackHandler) rs -> {
+            Histogram folded = histograms.get(new LatencyBucket(rs.getObject("bucket_start", LocalDateTime.class),
+                rs.getString("payment_type"), rs.getString("final_status")));
+            if (folded != null) {
+                folded.add(decode(rs.getBytes("histogram")));
+            }
+        });
+
+        jdbcTemplate.batchUpdate(SAVE_LATENCY_BUCKET, histograms.entrySet().stream()
+            .map(entry -> new MapSqlParameterSource()
+                .addValue("bucketStart", entry.getKey().bucketStart())
+                .addValue("paymentType", entry.getKey().paymentType())
+                .addValue("finalStatus", entry.getKey().finalStatus())
+                .addValue("histogram", encode(entry.getValue())))
+            .toArray(MapSqlParameterSource[]::new));
+    }
+
+    private static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    private static Histogram decode(byte[] encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt processing time histogram", e);
+        }
+    }
+
+    private record LatencyBucket(LocalDateTime bucketStart, String paymentType, String finalStatus) {
+    }
+
+    private static MapSqlParameterSource dayParameters(LocalDate day) {
+        return new MapSqlParameterSource()
+            .addValue("day", day)
+            .addValue("dayStart", day.atStartOfDay())
+            .addValue("nextDayStart", day.plusDays(1).atStartOfDay());
+    }
+}
@@ -0,0 +1,38 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+
+import java.util.List;
+
+/**
+ * Aggregate read operations for payment audit records
+ * Mixed into PaymentAuditRepository as a Spring Data repository fragment
+ */
+public interface PaymentAuditStatisticsRepository {
+
+    /**
+     * Totals for every final status, computed in a single grouped scan
+     */
+    List<StatusTotals> summarizeByStatus();
+
+    /**
+     * Totals for every final status over audits sent or received by the account, read through the
+     * account indexes; a transfer from the account to itself is counted once
+     */
+    List<StatusTotals> summarizeAccountByStatus(String accountNumber);
+
+    /**
+     * Audit totals for one final status; the failure counts only include checks that recorded a result,
+     * and processing time sum, count and max cover rows that recorded a time
+     */
+    record StatusTotals(PaymentStatus status,
+                        long audits,
+                        long fraudDetected,
+                        long sourceValidationFailures,
+                        long destinationValidationFailures,
+                        long insufficientBalance,
+                        long processingTimeSum,
+                        long processingTimeCount,
+                        long processingTimeMax) {
+    }
+}
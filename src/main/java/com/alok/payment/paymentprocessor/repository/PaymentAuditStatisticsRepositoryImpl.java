@@ -0,0 +1,77 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link PaymentAuditStatisticsRepository}
+ */
+class PaymentAuditStatisticsRepositoryImpl implements PaymentAuditStatisticsRepository {
+
+    private static final String STATUS_TOTALS = """
+            SELECT final_status,
+                   COUNT(*) AS audits,
+                   COUNT(*) FILTER (WHERE fraud_check_passed = FALSE) AS fraud_detected,
+                   COUNT(*) FILTER (WHERE source_account_valid = FALSE) AS source_validation_failures,
+                   COUNT(*) FILTER (WHERE destination_account_valid = FALSE) AS destination_validation_failures,
+                   COUNT(*) FILTER (WHERE sufficient_balance = FALSE) AS insufficient_balance,
+                   COALESCE(SUM(processing_time_ms), 0) AS processing_time_sum,
+                   COUNT(processing_time_ms) AS processing_time_count,
+                   COALESCE(MAX(processing_time_ms), 0) AS processing_time_max
+            """;
+
+    private static final String SUMMARIZE_BY_STATUS = STATUS_TOTALS + """
+            FROM payment_audit
+            GROUP BY final_status
+            """;
+
+    // Each branch can use its own account index; the second skips self-transfers already in the first
+    private static final String SUMMARIZE_ACCOUNT_BY_STATUS = STATUS_TOTALS + """
+            FROM (
+                SELECT final_status, fraud_check_passed, source_account_valid, destination_account_valid,
+                       sufficient_balance, processing_time_ms
+                FROM payment_audit
+                WHERE from_account = :account
+                UNION ALL
+                SELECT final_status, fraud_check_passed, source_account_valid, destination_account_valid,
+                       sufficient_balance, processing_time_ms
+                FROM payment_audit
+                WHERE to_account = :account AND from_account <> :account
+            ) account_audits
+            GROUP BY final_status
+            """;
+
+    private static final RowMapper<StatusTotals> STATUS_TOTALS_MAPPER = (rs, rowNum) -> {
+        String status = rs.getString("final_status");
+        return new StatusTotals(
+            status != null ? PaymentStatus.valueOf(status) : null,
+            rs.getLong("audits"),
+            rs.getLong("fraud_detected"),
+            rs.getLong("source_validation_failures"),
+            rs.getLong("destination_validation_failures"),
+            rs.getLong("insufficient_balance"),
+            rs.getLong("processing_time_sum"),
+            rs.getLong("processing_time_count"),
+            rs.getLong("processing_time_max"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    PaymentAuditStatisticsRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<StatusTotals> summarizeByStatus() {
+        return jdbcTemplate.query(SUMMARIZE_BY_STATUS, STATUS_TOTALS_MAPPER);
+    }
+
+    @Override
+    public List<StatusTotals> summarizeAccountByStatus(String accountNumber) {
+        return jdbcTemplate.query(SUMMARIZE_ACCOUNT_BY_STATUS, Map.of("account", accountNumber), STATUS_TOTALS_MAPPER);
+    }
+}
@@ -0,0 +1,17 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.Payment;
+
+import java.util.List;
+
+/**
+ * Batched write operations for payments
+ * Mixed into PaymentRepository as a Spring Data repository fragment
+ */
+public interface PaymentBatchRepository {
+
+    /**
+     * Inserts new payments as a single JDBC batch and assigns their generated IDs
+     */
+    void batchInsert(List<Payment> payments);
+}
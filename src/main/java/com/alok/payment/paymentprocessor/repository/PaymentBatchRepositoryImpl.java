@@ -0,0 +1,64 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.Payment;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link PaymentBatchRepository}
+ */
+class PaymentBatchRepositoryImpl implements PaymentBatchRepository {
+
+    private static final String INSERT_PAYMENT = """
+            INSERT INTO payments (transaction_id, from_account, to_account, amount, currency, payment_type,
+                                  status, description, failure_reason, created_at, updated_at)
+            VALUES (:transactionId, :fromAccount, :toAccount, :amount, :currency, :paymentType,
+                    :status, :description, :failureReason, :createdAt, :updatedAt)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    PaymentBatchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+
+        SqlParameterSource[] batchArgs = payments.stream()
+            .map(PaymentBatchRepositoryImpl::toParameters)
+            .toArray(SqlParameterSource[]::new);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT, batchArgs, keyHolder, new String[] {"id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < keys.size() && i < payments.size(); i++) {
+            payments.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    private static SqlParameterSource toParameters(Payment payment) {
+        return new MapSqlParameterSource()
+            .addValue("transactionId", payment.getTransactionId())
+            .addValue("fromAccount", payment.getFromAccount())
+            .addValue("toAccount", payment.getToAccount())
+            .addValue("amount", payment.getAmount())
+            .addValue("currency", payment.getCurrency())
+            .addValue("paymentType", payment.getPaymentType() != null ? payment.getPaymentType().name() : null)
+            .addValue("status", payment.getStatus() != null ? payment.getStatus().name() : null)
+            .addValue("description", payment.getDescription())
+            .addValue("failureReason", payment.getFailureReason())
+            .addValue("createdAt", payment.getCreatedAt())
+            .addValue("updatedAt", payment.getUpdatedAt());
+    }
+}
@@ -0,0 +1,32 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.Payment;
+import com.alok.payment.paymentprocessor.outbox.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Transactional outbox of payment outcome events
+ * Mixed into PaymentRepository as a Spring Data repository fragment
+ */
+public interface PaymentOutboxRepository {
+
+    /**
+     * Adds an outcome event for each payment in its current status; call in the transaction that
+     * saves the payments so events exist exactly for committed outcomes
+     */
+    void appendOutcomes(List<Payment> payments);
+
+    /**
+     * Locks up to limit of the oldest outbox messages for the current transaction, skipping messages
+     * another relay has locked. Must run in a transaction.
+     */
+    List<OutboxMessage> claimOutcomes(int limit);
+
+    /**
+     * Removes published messages
+     *
+     * @return number of messages deleted
+     */
+    int deleteOutcomes(List<Long> ids);
+}
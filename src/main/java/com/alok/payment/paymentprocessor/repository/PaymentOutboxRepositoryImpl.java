@@ -0,0 +1,85 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.model.Payment;
+import com.alok.payment.paymentprocessor.outbox.OutboxMessage;
+import com.alok.payment.paymentprocessor.outbox.PaymentOutcomeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link PaymentOutboxRepository}
+ */
+class PaymentOutboxRepositoryImpl implements PaymentOutboxRepository {
+
+    private static final String INSERT_OUTCOME = """
+            INSERT INTO payment_outbox (transaction_id, payload)
+            VALUES (:transactionId, CAST(:payload AS JSONB))
+            """;
+
+    // SKIP LOCKED lets several relays drain the outbox concurrently without waiting on each other
+    private static final String CLAIM_OUTCOMES = """
+            SELECT id, transaction_id, payload, created_at
+            FROM payment_outbox
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String DELETE_OUTCOMES = """
+            DELETE FROM payment_outbox WHERE id IN (:ids)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    PaymentOutboxRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void appendOutcomes(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+
+        SqlParameterSource[] batchArgs = payments.stream()
+            .map(payment -> new MapSqlParameterSource()
+                .addValue("transactionId", payment.getTransactionId())
+                .addValue("payload", toJson(PaymentOutcomeEvent.of(payment))))
+            .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_OUTCOME, batchArgs);
+    }
+
+    @Override
+    public List<OutboxMessage> claimOutcomes(int limit) {
+        return jdbcTemplate.query(CLAIM_OUTCOMES, Map.of("limit", limit), (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("transaction_id"),
+            rs.getString("payload"),
+            rs.getObject("created_at", LocalDateTime.class)));
+    }
+
+    @Override
+    public int deleteOutcomes(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(DELETE_OUTCOMES, Map.of("ids", ids));
+    }
+
+    private String toJson(PaymentOutcomeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outcome of payment " + event.transactionId(), e);
+        }
+    }
+}
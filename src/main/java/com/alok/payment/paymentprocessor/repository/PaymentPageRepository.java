@@ -0,0 +1,30 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.dto.PaymentCursor;
+import com.alok.payment.paymentprocessor.dto.PaymentFilter;
+import com.alok.payment.paymentprocessor.model.Payment;
+
+import java.util.List;
+
+/**
+ * Keyset-paged payment listings in (created_at, id) order
+ * Mixed into PaymentRepository as a Spring Data repository fragment
+ */
+public interface PaymentPageRepository {
+
+    /**
+     * Next page of payments matching the filter, after the given position
+     *
+     * @param after Last payment on the previous page, or null for the first page
+     */
+    List<Payment> findPage(PaymentFilter filter, PaymentCursor after, int limit);
+
+    /**
+     * Next page of payments sent or received by the account and matching the filter, after the given position.
+     * Each branch reads its own (account, created_at, id) index and stops after limit rows; a transfer
+     * from the account to itself is returned once.
+     *
+     * @param after Last payment on the previous page, or null for the first page
+     */
+    List<Payment> findAccountPage(String account, PaymentFilter filter, PaymentCursor after, int limit);
+}
@@ -0,0 +1,89 @@
+package com.alok.payment.paymentprocessor.repository;
+
+import com.alok.payment.paymentprocessor.dto.PaymentCursor;
+import com.alok.payment.paymentprocessor.dto.PaymentFilter;
+import com.alok.payment.paymentprocessor.model.Payment;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link PaymentPageRepository}
+ */
+class PaymentPageRepositoryImpl implements PaymentPageRepository {
+
+    private static final RowMapper<Payment> PAYMENT_MAPPER = BeanPropertyRowMapper.newInstance(Payment.class);
+
+    private static final String PAGE_ORDER = " ORDER BY created_at, id LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    PaymentPageRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Payment> findPage(PaymentFilter filter, PaymentCursor after, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit);
+        String sql = "SELECT * FROM payments" + where(filterConditions(filter, after, parameters)) + PAGE_ORDER;
+        return jdbcTemplate.query(sql, parameters, PAYMENT_MAPPER);
+    }
+
+    @Override
+    public List<Payment> findAccountPage(String account, PaymentFilter filter, PaymentCursor after, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit).addValue("account", account);
+        List<String> conditions = filterConditions(filter, after, parameters);
+
+        List<String> fromConditions = new ArrayList<>(conditions);
+        fromConditions.add(0, "from_account = :account");
+        List<String> toConditions = new ArrayList<>(conditions);
+        toConditions.add(0, "to_account = :account AND from_account <> :account");
+
+        String sql = "SELECT * FROM ("
+            + "(SELECT * FROM payments" + where(fromConditions) + PAGE_ORDER + ") "
+            + "UNION ALL "
+            + "(SELECT * FROM payments" + where(toConditions) + PAGE_ORDER + ")"
+            + ") account_payments" + PAGE_ORDER;
+        return jdbcTemplate.query(sql, parameters, PAYMENT_MAPPER);
+    }
+
+    private static List<String> filterConditions(PaymentFilter filter, PaymentCursor after,
+                                                 MapSqlParameterSource parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.status() != null) {
+            conditions.add("status = :status");
+            parameters.addValue("status", filter.status().name());
+        }
+        if (filter.paymentType() != null) {
+            conditions.add("payment_type = :paymentType");
+            parameters.addValue("paymentType", filter.paymentType().name());
+        }
+        if (filter.currency() != null) {
+            conditions.add("currency = :currency");
+            parameters.addValue("currency", filter.currency());
+        }
+        // Plain bounds on the partition key let the planner skip monthly partitions outside the window
+        if (filter.from() != null) {
+            conditions.add("created_at >= :from");
+            parameters.addValue("from", filter.from());
+        }
+        if (filter.to() != null) {
+            conditions.add("created_at < :to");
+            parameters.addValue("to", filter.to());
+        }
+        if (after != null) {
+            conditions.add("created_at >= :afterCreatedAt AND (created_at, id) > (:afterCreatedAt, :afterId)");
+            parameters.addValue("afterCreatedAt", after.createdAt());
+            parameters.addValue("afterId", after.id());
+        }
+        return conditions;
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
@@ -2,35 +2,50 @@ package com.alok.payment.paymentprocessor.service;
 
 import com.alok.payment.paymentprocessor.dto.AccountBalanceRequest;
 import com.alok.payment.paymentprocessor.dto.AccountBalanceResponse;
+import com.alok.payment.paymentprocessor.ledger.AccountLedger;
+import com.alok.payment.paymentprocessor.ledger.StripedLockAccountLedger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Mock Account Service
- * Simulates account validation and balance checking
+ * Simulates account validation and balance checking.
+ * Balances are kept in a thread-safe {@link AccountLedger} in minor units and converted to BigDecimal only for responses.
  */
 @Service
 public class AccountService {
     
     private static final Logger logger = LoggerFactory.getLogger(AccountService.class);
-    private final Map<String, BigDecimal> mockAccountBalances;
-    private final Random random = new Random();
+    private static final Map<String, BigDecimal> INITIAL_BALANCES = Map.of(
+        "ACC001", new BigDecimal("100000.00"),
+        "ACC002", new BigDecimal("50000.00"),
+        "ACC003", new BigDecimal("25000.00"),
+        "ACC004", new BigDecimal("5000.00"),
+        "ACC005", new BigDecimal("1000.00")
+    );
+    private static final int MINOR_UNIT_SCALE = 2;
+    // Simulated balances for unknown accounts, between 1K and 100K in minor units
+    private static final long MIN_SIMULATED_BALANCE = 100_000L;
+    private static final long MAX_SIMULATED_BALANCE = 10_000_000L;
+    
+    private final AccountLedger ledger;
     
     public AccountService() {
+        this(new StripedLockAccountLedger());
+    }
+    
+    @Autowired
+    public AccountService(AccountLedger ledger) {
+        this.ledger = ledger;
         // Initialize some mock accounts with balances
-        mockAccountBalances = new HashMap<>();
-        mockAccountBalances.put("ACC001", new BigDecimal("100000.00"));
-        mockAccountBalances.put("ACC002", new BigDecimal("50000.00"));
-        mockAccountBalances.put("ACC003", new BigDecimal("25000.00"));
-        mockAccountBalances.put("ACC004", new BigDecimal("5000.00"));
-        mockAccountBalances.put("ACC005", new BigDecimal("1000.00"));
+        loadInitialBalances();
     }
     
     public AccountBalanceResponse validateAccount(String accountNumber) {
@@ -44,7 +59,7 @@ public class AccountService {
         response.setValid(isValid);
         
         if (isValid) {
-            BigDecimal balance = getAccountBalance(accountNumber);
+            BigDecimal balance = fromMinorUnits(getAccountBalance(accountNumber));
             response.setAvailableBalance(balance);
             response.setSufficientBalance(true); // Just validation, not checking amount yet
             response.setMessage("Account is valid");
@@ -74,12 +89,17 @@ public class AccountService {
             return response;
         }
         
+        if (!isAmountInMinorUnits(request.getAmount())) {
+            return rejectAmount(response, request.getAmount());
+        }
+        
         response.setValid(true);
-        BigDecimal balance = getAccountBalance(request.getAccountNumber());
+        long balanceMinor = getAccountBalance(request.getAccountNumber());
+        BigDecimal balance = fromMinorUnits(balanceMinor);
         response.setAvailableBalance(balance);
         
         // Check if sufficient balance
-        if (balance.compareTo(request.getAmount()) >= 0) {
+        if (balanceMinor >= toMinorUnits(request.getAmount())) {
             response.setSufficientBalance(true);
             response.setMessage("Sufficient balance available");
             logger.info("Sufficient balance check passed for account: {}", request.getAccountNumber());
@@ -94,13 +114,103 @@ public class AccountService {
         return response;
     }
     
+    /**
+     * Checks the source balance and moves the amount to the destination account as one atomic step.
+     * Accounts not held in the ledger but matching the account pattern are checked against a simulated
+     * balance and are not debited, as in checkBalance.
+     *
+     * @return the source account check; sufficientBalance is true only if the funds were moved, and valid is
+     *         false for an invalid source account or an amount with more decimal places than the minor unit
+     */
+    public AccountBalanceResponse transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        logger.info("Transferring {} from account: {} to account: {}", amount, fromAccount, toAccount);
+        
+        AccountBalanceResponse response = new AccountBalanceResponse();
+        response.setAccountNumber(fromAccount);
+        
+        if (!isAccountValid(fromAccount)) {
+            response.setValid(false);
+            response.setSufficientBalance(false);
+            response.setMessage("Invalid account number");
+            logger.warn("Invalid account: {}", fromAccount);
+            return response;
+        }
+        
+        if (!isAmountInMinorUnits(amount)) {
+            return rejectAmount(response, amount);
+        }
+        
+        response.setValid(true);
+        long requiredMinor = toMinorUnits(amount);
+        long availableMinor = ledger.transfer(fromAccount, toAccount, requiredMinor);
+        boolean sufficient;
+        if (availableMinor == AccountLedger.NO_ACCOUNT) {
+            availableMinor = simulatedBalance();
+            sufficient = availableMinor >= requiredMinor;
+            if (sufficient) {
+                ledger.credit(toAccount, requiredMinor);
+            }
+        } else {
+            sufficient = availableMinor >= requiredMinor;
+        }
+        
+        BigDecimal balance = fromMinorUnits(availableMinor);
+        response.setAvailableBalance(balance);
+        response.setSufficientBalance(sufficient);
+        if (sufficient) {
+            response.setMessage("Transfer completed");
+            logger.info("Transferred {} from account: {} to account: {}", amount, fromAccount, toAccount);
+        } else {
+            response.setMessage(String.format("Insufficient balance. Available: %s, Required: %s", 
+                                             balance, amount));
+            logger.warn("Insufficient balance for account: {}. Available: {}, Required: {}", 
+                       fromAccount, balance, amount);
+        }
+        
+        return response;
+    }
+    
+    /**
+     * Undoes a completed transfer whose payment was not persisted, debiting the destination without a
+     * balance check and crediting the source if the ledger holds it
+     */
+    public void reverseTransfer(String fromAccount, String toAccount, BigDecimal amount) {
+        logger.info("Reversing transfer of {} from account: {} to account: {}", amount, fromAccount, toAccount);
+        long amountMinor = toMinorUnits(amount);
+        ledger.debit(toAccount, amountMinor);
+        // Sources not held were checked against a simulated balance and never debited
+        if (ledger.balance(fromAccount) != AccountLedger.NO_ACCOUNT) {
+            ledger.credit(fromAccount, amountMinor);
+        }
+    }
+    
+    /**
+     * Amounts are held exactly in minor units, so one with a finer fraction is rejected rather than rounded
+     */
+    private static boolean isAmountInMinorUnits(BigDecimal amount) {
+        try {
+            toMinorUnits(amount);
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+    
+    private static AccountBalanceResponse rejectAmount(AccountBalanceResponse response, BigDecimal amount) {
+        response.setValid(false);
+        response.setSufficientBalance(false);
+        response.setMessage(String.format("Amount has more than %d decimal places: %s", MINOR_UNIT_SCALE, amount));
+        logger.warn("Rejected amount {} for account: {}", amount, response.getAccountNumber());
+        return response;
+    }
+    
     private boolean isAccountValid(String accountNumber) {
         if (accountNumber == null || accountNumber.trim().isEmpty()) {
             return false;
         }
         
         // Check if account exists in mock data
-        if (mockAccountBalances.containsKey(accountNumber)) {
+        if (ledger.balance(accountNumber) != AccountLedger.NO_ACCOUNT) {
             return true;
         }
         
@@ -109,33 +219,29 @@ public class AccountService {
         return accountNumber.matches("ACC\\d{3,}");
     }
     
-    private BigDecimal getAccountBalance(String accountNumber) {
+    private long getAccountBalance(String accountNumber) {
         // Return balance from mock data if exists
-        if (mockAccountBalances.containsKey(accountNumber)) {
-            return mockAccountBalances.get(accountNumber);
+        long balance = ledger.balance(accountNumber);
+        if (balance != AccountLedger.NO_ACCOUNT) {
+            return balance;
         }
         
+        return simulatedBalance();
+    }
+    
+    private long simulatedBalance() {
         // Generate a random balance for unknown accounts
-        double randomBalance = 1000 + (random.nextDouble() * 99000); // Between 1K and 100K
-        return BigDecimal.valueOf(randomBalance).setScale(2, RoundingMode.HALF_UP);
+        return ThreadLocalRandom.current().nextLong(MIN_SIMULATED_BALANCE, MAX_SIMULATED_BALANCE + 1);
     }
     
     public void deductBalance(String accountNumber, BigDecimal amount) {
         logger.info("Deducting {} from account: {}", amount, accountNumber);
-        if (mockAccountBalances.containsKey(accountNumber)) {
-            BigDecimal currentBalance = mockAccountBalances.get(accountNumber);
-            mockAccountBalances.put(accountNumber, currentBalance.subtract(amount));
-        }
+        ledger.debit(accountNumber, toMinorUnits(amount));
     }
     
     public void addBalance(String accountNumber, BigDecimal amount) {
         logger.info("Adding {} to account: {}", amount, accountNumber);
-        if (mockAccountBalances.containsKey(accountNumber)) {
-            BigDecimal currentBalance = mockAccountBalances.get(accountNumber);
-            mockAccountBalances.put(accountNumber, currentBalance.add(amount));
-        } else {
-            mockAccountBalances.put(accountNumber, amount);
-        }
+        ledger.credit(accountNumber, toMinorUnits(amount));
     }
     
     /**
@@ -144,11 +250,19 @@ public class AccountService {
      */
     public void resetBalances() {
         logger.info("Resetting account balances to initial state");
-        mockAccountBalances.clear();
-        mockAccountBalances.put("ACC001", new BigDecimal("100000.00"));
-        mockAccountBalances.put("ACC002", new BigDecimal("50000.00"));
-        mockAccountBalances.put("ACC003", new BigDecimal("25000.00"));
-        mockAccountBalances.put("ACC004", new BigDecimal("5000.00"));
-        mockAccountBalances.put("ACC005", new BigDecimal("1000.00"));
+        ledger.clear();
+        loadInitialBalances();
+    }
+    
+    private void loadInitialBalances() {
+        INITIAL_BALANCES.forEach((accountNumber, balance) -> ledger.credit(accountNumber, toMinorUnits(balance)));
+    }
+    
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(MINOR_UNIT_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+    
+    private static BigDecimal fromMinorUnits(long amount) {
+        return BigDecimal.valueOf(amount, MINOR_UNIT_SCALE);
     }
 }
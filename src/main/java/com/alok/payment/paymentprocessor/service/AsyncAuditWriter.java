@@ -0,0 +1,206 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous Audit Writer
+ * Buffers audit records in a bounded queue and inserts them in batches from a background thread,
+ * flushing every batch-size records or every flush-interval, whichever comes first.
+ * Only started when payment.audit.write-mode is ASYNC; drains the queue on shutdown.
+ */
+@Component
+public class AsyncAuditWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAuditWriter.class);
+
+    /**
+     * Stop after the web server has finished draining in-flight requests
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final PaymentAuditRepository auditRepository;
+    private final PaymentProcessorProperties.Audit settings;
+    private final BlockingQueue<PaymentAudit> queue;
+    private final Counter writtenRecords;
+    private final Counter failedRecords;
+    private final Counter callerWrites;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AsyncAuditWriter(PaymentAuditRepository auditRepository,
+                           PaymentProcessorProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.auditRepository = auditRepository;
+        this.settings = properties.getAudit();
+        this.queue = new ArrayBlockingQueue<>(settings.getAsync().getQueueCapacity());
+
+        Gauge.builder("payment.audit.async.queue.size", queue, BlockingQueue::size)
+            .description("Audit records waiting to be written")
+            .register(meterRegistry);
+        this.writtenRecords = Counter.builder("payment.audit.async.written")
+            .description("Audit records written by the background writer")
+            .register(meterRegistry);
+        this.failedRecords = Counter.builder("payment.audit.async.failed")
+            .description("Audit records the background writer could not persist")
+            .register(meterRegistry);
+        this.callerWrites = Counter.builder("payment.audit.async.caller.writes")
+            .description("Audit records written by the caller because the queue was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queues an audit record for background insertion, blocking up to the offer timeout when the queue is full
+     *
+     * @return false if the record was not accepted and must be written by the caller
+     */
+    public boolean submit(PaymentAudit audit) {
+        if (!running) {
+            return false;
+        }
+
+        try {
+            boolean accepted = queue.offer(audit, settings.getAsync().getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (!accepted) {
+                logger.warn("Audit queue full, writing audit for transaction {} on caller thread",
+                           audit.getTransactionId());
+                callerWrites.increment();
+            }
+            return accepted;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            callerWrites.increment();
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (settings.getWriteMode() != PaymentProcessorProperties.AuditWriteMode.ASYNC) {
+            return;
+        }
+
+        running = true;
+        writerThread = Thread.ofPlatform()
+            .name("audit-writer")
+            .daemon(false)
+            .start(this::writeLoop);
+        logger.info("Async audit writer started (capacity={}, batchSize={}, flushInterval={})",
+                   settings.getAsync().getQueueCapacity(), settings.getAsync().getBatchSize(),
+                   settings.getAsync().getFlushInterval());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+
+        logger.info("Stopping async audit writer, draining {} queued records", queue.size());
+        running = false;
+        try {
+            writerThread.join(settings.getAsync().getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writerThread.isAlive() || !queue.isEmpty()) {
+            logger.error("Async audit writer did not drain within {}; {} records not written",
+                        settings.getAsync().getShutdownTimeout(), queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void writeLoop() {
+        int batchSize = settings.getAsync().getBatchSize();
+        long flushIntervalNanos = settings.getAsync().getFlushInterval().toNanos();
+        List<PaymentAudit> batch = new ArrayList<>(batchSize);
+        long flushDeadline = 0;
+
+        while (true) {
+            try {
+                if (batch.isEmpty()) {
+                    if (!running && queue.isEmpty()) {
+                        break;
+                    }
+                    PaymentAudit first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    flushDeadline = System.nanoTime() + flushIntervalNanos;
+                }
+
+                queue.drainTo(batch, batchSize - batch.size());
+
+                long remaining = flushDeadline - System.nanoTime();
+                if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                    flush(batch);
+                    batch.clear();
+                    continue;
+                }
+
+                PaymentAudit next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next != null) {
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                logger.warn("Async audit writer interrupted, flushing {} pending records", batch.size() + queue.size());
+                queue.drainTo(batch);
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        logger.info("Async audit writer stopped");
+    }
+
+    private void flush(List<PaymentAudit> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            auditRepository.batchInsert(batch);
+            writtenRecords.increment(batch.size());
+            logger.debug("Flushed {} audit records", batch.size());
+        } catch (Exception e) {
+            logger.error("Batch insert of {} audit records failed, retrying individually", batch.size(), e);
+            for (PaymentAudit audit : batch) {
+                try {
+                    auditRepository.save(audit);
+                    writtenRecords.increment();
+                } catch (Exception recordException) {
+                    logger.error("Failed to write audit record for transaction: {}",
+                                audit.getTransactionId(), recordException);
+                    failedRecords.increment();
+                }
+            }
+        }
+    }
+}
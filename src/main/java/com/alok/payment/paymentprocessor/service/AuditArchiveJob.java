@@ -0,0 +1,137 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.archive.AuditArchive;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment Audit Archive Job
+ * Moves audits older than the minimum age out of payment_audit into archive files, one batch-size file
+ * per transaction until it has caught up. Each transaction takes the archive lock, writes and syncs the
+ * file, then deletes its audits and records the new watermark, so a run that fails in between leaves a
+ * file past the watermark that the next run deletes before archiving those audits again.
+ * Only started when payment.audit.archive.enabled is true. Runs on different instances serialize on the
+ * database lock; every instance with the archive enabled must share the archive directory.
+ */
+@Component
+public class AuditArchiveJob implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiveJob.class);
+
+    private final PaymentAuditRepository auditRepository;
+    private final AuditArchive archive;
+    private final PaymentProcessorProperties.Audit.Archive settings;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public AuditArchiveJob(PaymentAuditRepository auditRepository,
+                           AuditArchive archive,
+                           PaymentProcessorProperties properties,
+                           PlatformTransactionManager transactionManager) {
+        this.auditRepository = auditRepository;
+        this.archive = archive;
+        this.settings = properties.getAudit().getArchive();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Archives every audit older than the minimum age that is not yet archived
+     *
+     * @return number of audits archived
+     */
+    public long archiveOldAudits() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(settings.getMinAge());
+
+        long archived = 0;
+        int batch;
+        do {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            batch = moved != null ? moved : 0;
+            archived += batch;
+        } while (batch >= settings.getBatchSize());
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        Optional<ArchiveKey> archivedThrough = auditRepository.lockArchivedThrough();
+        Optional<ArchiveKey> written = archive.reconcile(archivedThrough);
+        if (archivedThrough.isEmpty() && written.isPresent()) {
+            // Files from before the watermark was recorded in the database; adopt theirs
+            int deleted = auditRepository.deleteArchivedThrough(written.get().auditedAt(), written.get().id());
+            auditRepository.advanceArchivedThrough(written.get());
+            logger.info("Recorded archive watermark {} from the archive files, deleting {} audits", written.get(),
+                       deleted);
+        }
+
+        ArchiveKey watermark = written.orElse(new ArchiveKey(LocalDateTime.of(1, 1, 1, 0, 0), 0L));
+        List<PaymentAudit> audits = auditRepository.findArchivableAfter(
+            watermark.auditedAt(), watermark.id(), cutoff, settings.getBatchSize());
+        if (audits.isEmpty()) {
+            return 0;
+        }
+
+        ArchiveKey through = archive.archive(audits);
+        auditRepository.deleteArchivedThrough(through.auditedAt(), through.id());
+        auditRepository.advanceArchivedThrough(through);
+        return audits.size();
+    }
+
+    @Override
+    public void start() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        long intervalMillis = settings.getInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("audit-archive").factory());
+        scheduler.scheduleWithFixedDelay(this::runArchive, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+        logger.info("Audit archive job started (interval={}, minAge={}, batchSize={}, directory={})",
+                   settings.getInterval(), settings.getMinAge(), settings.getBatchSize(), settings.getDirectory());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        scheduler.shutdownNow();
+        logger.info("Audit archive job stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runArchive() {
+        try {
+            long archived = archiveOldAudits();
+            if (archived > 0) {
+                logger.info("Archived {} audits", archived);
+            }
+        } catch (Exception e) {
+            // Keep the schedule alive; the next run resumes from the archive watermark
+            logger.error("Audit archive failed", e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditStatisticsRepository.StatusTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Audit Statistics
+ * Running audit totals kept in LongAdders so concurrent writers do not contend on a single counter:
+ * audits per final status, failed fraud checks, and processing time sum, count and max per status.
+ * Only active when payment.audit.statistics is IN_MEMORY; the counters are seeded from one grouped
+ * query before the web server starts and then fed by every audit written through this instance.
+ */
+@Component
+public class AuditStatistics implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditStatistics.class);
+
+    /**
+     * Seed before the web server starts accepting requests
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final PaymentAuditRepository auditRepository;
+    private final PaymentProcessorProperties.Audit settings;
+    private final Map<PaymentStatus, StatusCounters> byStatus = new EnumMap<>(PaymentStatus.class);
+    private final LongAdder totalAudits = new LongAdder();
+    private final LongAdder fraudDetected = new LongAdder();
+
+    private volatile boolean running;
+
+    public AuditStatistics(PaymentAuditRepository auditRepository, PaymentProcessorProperties properties) {
+        this.auditRepository = auditRepository;
+        this.settings = properties.getAudit();
+        for (PaymentStatus status : PaymentStatus.values()) {
+            byStatus.put(status, new StatusCounters());
+        }
+    }
+
+    /**
+     * Whether analytics should be answered from these counters instead of the database
+     */
+    public boolean isEnabled() {
+        return settings.getStatistics() == PaymentProcessorProperties.AuditStatisticsSource.IN_MEMORY;
+    }
+
+    /**
+     * Adds one written audit record to the running totals
+     */
+    public void record(PaymentAudit audit) {
+        totalAudits.increment();
+        if (Boolean.FALSE.equals(audit.getFraudCheckPassed())) {
+            fraudDetected.increment();
+        }
+
+        StatusCounters counters = audit.getFinalStatus() != null ? byStatus.get(audit.getFinalStatus()) : null;
+        if (counters == null) {
+            return;
+        }
+        counters.audits.increment();
+        Long processingTimeMs = audit.getProcessingTimeMs();
+        if (processingTimeMs != null) {
+            counters.processingTimeSum.add(processingTimeMs);
+            counters.processingTimeCount.increment();
+            counters.processingTimeMax.accumulate(processingTimeMs);
+        }
+    }
+
+    /**
+     * Adds totals loaded from the database to the running totals
+     */
+    public void seed(Iterable<StatusTotals> totals) {
+        for (StatusTotals statusTotals : totals) {
+            totalAudits.add(statusTotals.audits());
+            fraudDetected.add(statusTotals.fraudDetected());
+
+            StatusCounters counters = statusTotals.status() != null ? byStatus.get(statusTotals.status()) : null;
+            if (counters == null) {
+                continue;
+            }
+            counters.audits.add(statusTotals.audits());
+            counters.processingTimeSum.add(statusTotals.processingTimeSum());
+            counters.processingTimeCount.add(statusTotals.processingTimeCount());
+            if (statusTotals.processingTimeCount() > 0) {
+                counters.processingTimeMax.accumulate(statusTotals.processingTimeMax());
+            }
+        }
+    }
+
+    public long getTotalAudits() {
+        return totalAudits.sum();
+    }
+
+    public long getAuditCount(PaymentStatus status) {
+        return byStatus.get(status).audits.sum();
+    }
+
+    public long getFraudDetectedCount() {
+        return fraudDetected.sum();
+    }
+
+    /**
+     * Percentage of audits whose fraud check failed, or 0 when there are none
+     */
+    public double getFraudDetectionRate() {
+        long total = totalAudits.sum();
+        return total == 0 ? 0.0 : (double) fraudDetected.sum() / total * 100;
+    }
+
+    /**
+     * Mean processing time of audits in the given status that recorded one, or 0 when there are none
+     */
+    public double getAverageProcessingTime(PaymentStatus status) {
+        StatusCounters counters = byStatus.get(status);
+        long count = counters.processingTimeCount.sum();
+        return count == 0 ? 0.0 : (double) counters.processingTimeSum.sum() / count;
+    }
+
+    /**
+     * Longest processing time recorded for the given status, or 0 when there is none
+     */
+    public long getMaxProcessingTime(PaymentStatus status) {
+        return byStatus.get(status).processingTimeMax.get();
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        seed(auditRepository.summarizeByStatus());
+        running = true;
+        logger.info("Audit statistics seeded with {} audits ({} failed fraud checks)",
+                   totalAudits.sum(), fraudDetected.sum());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private static final class StatusCounters {
+
+        private final LongAdder audits = new LongAdder();
+        private final LongAdder processingTimeSum = new LongAdder();
+        private final LongAdder processingTimeCount = new LongAdder();
+        private final LongAccumulator processingTimeMax = new LongAccumulator(Math::max, 0L);
+    }
+}
@@ -0,0 +1,176 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditStatisticsRepository.StatusTotals;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Audit Statistics Accumulator
+ * Collects every audit analytics metric in a single pass: counts per final status, failed fraud,
+ * validation and balance checks, processing time sum, count and max, and failure reasons.
+ * Accumulators over separate partitions can be merged, so {@link #collector()} works with parallel
+ * streams. Not thread-safe; each partition needs its own instance.
+ */
+public final class AuditStatisticsAccumulator {
+
+    private final Map<PaymentStatus, Long> statusBreakdown = new EnumMap<>(PaymentStatus.class);
+    private final Map<String, Long> failureReasons = new HashMap<>();
+    private long audits;
+    private long fraudDetected;
+    private long sourceValidationFailures;
+    private long destinationValidationFailures;
+    private long insufficientBalance;
+    private long processingTimeSum;
+    private long processingTimeCount;
+    private long processingTimeMax;
+
+    /**
+     * Collects a stream of audits into one accumulator
+     */
+    public static Collector<PaymentAudit, ?, AuditStatisticsAccumulator> collector() {
+        return Collector.of(AuditStatisticsAccumulator::new, AuditStatisticsAccumulator::accept,
+            AuditStatisticsAccumulator::merge, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Adds one audit record
+     */
+    public void accept(PaymentAudit audit) {
+        audits++;
+        if (audit.getFinalStatus() != null) {
+            statusBreakdown.merge(audit.getFinalStatus(), 1L, Long::sum);
+        }
+        if (Boolean.FALSE.equals(audit.getFraudCheckPassed())) {
+            fraudDetected++;
+        }
+        if (Boolean.FALSE.equals(audit.getSourceAccountValid())) {
+            sourceValidationFailures++;
+        }
+        if (Boolean.FALSE.equals(audit.getDestinationAccountValid())) {
+            destinationValidationFailures++;
+        }
+        if (Boolean.FALSE.equals(audit.getSufficientBalance())) {
+            insufficientBalance++;
+        }
+        Long processingTimeMs = audit.getProcessingTimeMs();
+        if (processingTimeMs != null) {
+            processingTimeSum += processingTimeMs;
+            processingTimeCount++;
+            processingTimeMax = Math.max(processingTimeMax, processingTimeMs);
+        }
+        if (audit.getFailureReason() != null) {
+            failureReasons.merge(audit.getFailureReason(), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Adds totals already aggregated for one final status, such as a grouped database row.
+     * Failure reasons are not part of the totals and are left unchanged.
+     */
+    public void add(StatusTotals totals) {
+        audits += totals.audits();
+        if (totals.status() != null) {
+            statusBreakdown.merge(totals.status(), totals.audits(), Long::sum);
+        }
+        fraudDetected += totals.fraudDetected();
+        sourceValidationFailures += totals.sourceValidationFailures();
+        destinationValidationFailures += totals.destinationValidationFailures();
+        insufficientBalance += totals.insufficientBalance();
+        processingTimeSum += totals.processingTimeSum();
+        processingTimeCount += totals.processingTimeCount();
+        if (totals.processingTimeCount() > 0) {
+            processingTimeMax = Math.max(processingTimeMax, totals.processingTimeMax());
+        }
+    }
+
+    /**
+     * Adds everything collected by another accumulator
+     *
+     * @return this accumulator
+     */
+    public AuditStatisticsAccumulator merge(AuditStatisticsAccumulator other) {
+        audits += other.audits;
+        other.statusBreakdown.forEach((status, count) -> statusBreakdown.merge(status, count, Long::sum));
+        other.failureReasons.forEach((reason, count) -> failureReasons.merge(reason, count, Long::sum));
+        fraudDetected += other.fraudDetected;
+        sourceValidationFailures += other.sourceValidationFailures;
+        destinationValidationFailures += other.destinationValidationFailures;
+        insufficientBalance += other.insufficientBalance;
+        processingTimeSum += other.processingTimeSum;
+        processingTimeCount += other.processingTimeCount;
+        processingTimeMax = Math.max(processingTimeMax, other.processingTimeMax);
+        return this;
+    }
+
+    public long getAudits() {
+        return audits;
+    }
+
+    public long getAuditCount(PaymentStatus status) {
+        return statusBreakdown.getOrDefault(status, 0L);
+    }
+
+    /**
+     * Audits per final status; audits without a status are only included in the total
+     */
+    public Map<PaymentStatus, Long> getStatusBreakdown() {
+        return new EnumMap<>(statusBreakdown);
+    }
+
+    public long getFraudDetected() {
+        return fraudDetected;
+    }
+
+    /**
+     * Percentage of audits whose fraud check failed, or 0 when there are none
+     */
+    public double getFraudPercentage() {
+        return percentageOf(fraudDetected);
+    }
+
+    /**
+     * Percentage of audits in the given final status, or 0 when there are none
+     */
+    public double getStatusPercentage(PaymentStatus status) {
+        return percentageOf(getAuditCount(status));
+    }
+
+    public long getSourceValidationFailures() {
+        return sourceValidationFailures;
+    }
+
+    public long getDestinationValidationFailures() {
+        return destinationValidationFailures;
+    }
+
+    public long getInsufficientBalance() {
+        return insufficientBalance;
+    }
+
+    /**
+     * Mean processing time of audits that recorded one, or 0 when there are none
+     */
+    public double getAverageProcessingTime() {
+        return processingTimeCount == 0 ? 0.0 : (double) processingTimeSum / processingTimeCount;
+    }
+
+    /**
+     * Longest processing time recorded, or 0 when there is none
+     */
+    public long getMaxProcessingTime() {
+        return processingTimeMax;
+    }
+
+    public Map<String, Long> getFailureReasons() {
+        return new HashMap<>(failureReasons);
+    }
+
+    private double percentageOf(long count) {
+        return audits == 0 ? 0.0 : (double) count / audits * 100;
+    }
+}
@@ -0,0 +1,356 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.bulkimport.ImportChunk;
+import com.alok.payment.paymentprocessor.bulkimport.ImportColumn;
+import com.alok.payment.paymentprocessor.bulkimport.ImportFailedException;
+import com.alok.payment.paymentprocessor.bulkimport.ImportFormat;
+import com.alok.payment.paymentprocessor.bulkimport.ImportResult;
+import com.alok.payment.paymentprocessor.bulkimport.ImportRowReader;
+import com.alok.payment.paymentprocessor.bulkimport.ImportTable;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.repository.BulkImportRepository;
+import com.alok.payment.paymentprocessor.repository.MonthlyPartitionRepository;
+import com.alok.payment.paymentprocessor.repository.MonthlyPartitionRepository.PartitionedTable;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Bulk Import Service
+ * Loads historical payments and audit records from NDJSON or CSV through COPY. The input is read as a
+ * stream and cut into chunks that are validated and encoded on a pool of threads while earlier chunks are
+ * copied, in input order and each in its own transaction, so memory use is bounded by the chunks in flight.
+ * Invalid rows are skipped and reported. Progress is logged and published as payment.import.rows.
+ * A failure keeps the chunks copied before it and reports them, so the rest of the input can be imported again.
+ * Audits at or before the archive watermark are rejected, since the archive job would delete them
+ * without archiving them; each audit chunk holds the archive lock while it is copied.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    private final BulkImportRepository importRepository;
+    private final MonthlyPartitionRepository partitionRepository;
+    private final PaymentAuditRepository auditRepository;
+    private final ObjectMapper objectMapper;
+    private final PaymentProcessorProperties.BulkImport settings;
+    private final PaymentProcessorProperties.Partitioning partitioning;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public BulkImportService(BulkImportRepository importRepository,
+                             MonthlyPartitionRepository partitionRepository,
+                             PaymentAuditRepository auditRepository,
+                             ObjectMapper objectMapper,
+                             PaymentProcessorProperties properties,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.importRepository = importRepository;
+        this.partitionRepository = partitionRepository;
+        this.auditRepository = auditRepository;
+        this.objectMapper = objectMapper;
+        this.settings = properties.getBulkImport();
+        this.partitioning = properties.getPartitioning();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Imports payments; transaction IDs must not collide with existing payments created at the same time
+     *
+     * @throws IllegalArgumentException if a CSV header lacks a required field
+     * @throws IllegalStateException if a staging table left by an earlier import still exists
+     * @throws ImportFailedException if the import failed after it started copying
+     */
+    public ImportResult importPayments(ImportFormat format, InputStream in) throws IOException {
+        return importRows(ImportTable.PAYMENTS, format, in, null);
+    }
+
+    /**
+     * Imports audit records. Audits audited at or before the archive watermark are rejected, and each chunk
+     * holds the archive lock while it is copied, so an archive run on any instance waits for it.
+     *
+     * @throws IllegalArgumentException if a CSV header lacks a required field
+     * @throws ImportFailedException if the import failed after it started copying, for example because an
+     *         archive run moved the watermark
+     */
+    public ImportResult importAudits(ImportFormat format, InputStream in) throws IOException {
+        LocalDateTime archivedThrough = auditRepository.findArchivedThrough().map(ArchiveKey::auditedAt).orElse(null);
+        return importRows(ImportTable.PAYMENT_AUDIT, format, in, archivedThrough);
+    }
+
+    private ImportResult importRows(ImportTable table, ImportFormat format, InputStream in,
+                                    LocalDateTime archivedThrough) throws IOException {
+        long started = System.nanoTime();
+        ImportRowReader reader = format.newReader(in, objectMapper, table);
+        Predicate<YearMonth> staged = stagedMonths(table);
+        logger.info("Importing {} as {} (chunkSize={}, parallelism={}, deferIndexes={})", table.getTableName(),
+                   format, settings.getChunkSize(), settings.getParallelism(), settings.isDeferIndexes());
+
+        Progress progress = new Progress(table);
+        Set<YearMonth> stagingTables = new TreeSet<>();
+        try {
+            copyChunks(table, reader, archivedThrough, staged, stagingTables, progress);
+        } catch (RuntimeException | IOException e) {
+            // Chunks copied so far stay imported, so the staged ones are made visible as well
+            List<String> attached = attachStagingTables(table, stagingTables, e);
+            ImportResult imported = result(table, progress, attached, started);
+            logger.error("Import into {} failed after importing {} of {} rows", table.getTableName(),
+                        imported.rowsImported(), imported.rowsRead(), e);
+            throw new ImportFailedException(imported, e);
+        }
+        List<String> attached = attachStagingTables(table, stagingTables, null);
+
+        ImportResult imported = result(table, progress, attached, started);
+        logger.info("Imported {} of {} rows into {} in {} ms ({} rejected, partitions attached: {})",
+                   imported.rowsImported(), imported.rowsRead(), table.getTableName(), imported.elapsedMs(),
+                   imported.rowsRejected(), attached);
+        return imported;
+    }
+
+    private static ImportResult result(ImportTable table, Progress progress, List<String> attached, long started) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        return new ImportResult(table.getTableName(), progress.rowsRead, progress.rowsImported, progress.rowsRejected,
+            progress.rejections, attached, elapsedMs);
+    }
+
+    /**
+     * Months whose rows are loaded into a staging table and attached as a partition at the end instead of
+     * being copied into the table, so the partition's indexes are built once rather than maintained per row
+     */
+    private Predicate<YearMonth> stagedMonths(ImportTable table) {
+        if (!settings.isDeferIndexes() || !table.isPartitionStagingSafe()) {
+            return month -> false;
+        }
+
+        YearMonth currentMonth = YearMonth.now();
+        Set<YearMonth> partitioned = Set.copyOf(partitionRepository.findPartitionMonths(table.getPartitionedTable()));
+        // Attaching scans and locks the default partition, which must not hold the live payments
+        if (!partitioned.contains(currentMonth)) {
+            return month -> false;
+        }
+        // A leftover staging table holds the rows of a failed attach; creating it again would fail mid-import
+        List<String> leftover = partitionRepository.findStagingTables(table.getPartitionedTable());
+        if (!leftover.isEmpty()) {
+            throw new IllegalStateException("Staging tables left by an earlier import must be attached or dropped "
+                + "before importing " + table.getTableName() + ": " + String.join(", ", leftover));
+        }
+        // Months older than the retention period would be detached again by the partition maintenance job
+        YearMonth oldestKept = partitioning.getRetentionMonths() > 0
+            ? currentMonth.minusMonths(partitioning.getRetentionMonths())
+            : YearMonth.of(0, 1);
+        return month -> month.isBefore(currentMonth) && !month.isBefore(oldestKept) && !partitioned.contains(month);
+    }
+
+    private void copyChunks(ImportTable table, ImportRowReader reader, LocalDateTime archivedThrough,
+                            Predicate<YearMonth> staged, Set<YearMonth> stagingTables, Progress progress)
+            throws IOException {
+        int chunkSize = Math.max(1, settings.getChunkSize());
+        int parallelism = settings.getParallelism() > 0
+            ? settings.getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        ExecutorService encoders = Executors.newFixedThreadPool(parallelism,
+            Thread.ofPlatform().name("bulk-import-", 0).factory());
+        Deque<Future<ImportChunk>> inFlight = new ArrayDeque<>();
+        try {
+            long firstRow = 1;
+            List<String[]> rows = new ArrayList<>(chunkSize);
+            List<ImportResult.Rejection> unreadable = new ArrayList<>();
+            while (true) {
+                String[] row;
+                try {
+                    row = reader.next();
+                    if (row == null) {
+                        break;
+                    }
+                } catch (IllegalArgumentException e) {
+                    row = null;
+                    unreadable.add(new ImportResult.Rejection(firstRow + rows.size(), e.getMessage()));
+                }
+                rows.add(row);
+
+                if (rows.size() == chunkSize) {
+                    inFlight.add(submit(encoders, table, firstRow, rows, unreadable, archivedThrough, staged));
+                    firstRow += rows.size();
+                    rows = new ArrayList<>(chunkSize);
+                    unreadable = new ArrayList<>();
+                    // Copy the oldest chunk while the others are encoded, holding at most one queued chunk per thread
+                    while (inFlight.size() > parallelism) {
+                        copyChunk(table, await(inFlight.poll()), archivedThrough, stagingTables, progress);
+                    }
+                }
+            }
+            if (!rows.isEmpty()) {
+                inFlight.add(submit(encoders, table, firstRow, rows, unreadable, archivedThrough, staged));
+            }
+            while (!inFlight.isEmpty()) {
+                copyChunk(table, await(inFlight.poll()), archivedThrough, stagingTables, progress);
+            }
+        } finally {
+            encoders.shutdownNow();
+        }
+    }
+
+    private static Future<ImportChunk> submit(ExecutorService encoders, ImportTable table, long firstRow,
+                                              List<String[]> rows, List<ImportResult.Rejection> unreadable,
+                                              LocalDateTime archivedThrough, Predicate<YearMonth> staged) {
+        return encoders.submit(() -> ImportChunk.encode(table, firstRow, rows, unreadable, archivedThrough, staged));
+    }
+
+    private void copyChunk(ImportTable table, ImportChunk chunk, LocalDateTime archivedThrough,
+                           Set<YearMonth> stagingTables, Progress progress) {
+        PartitionedTable partitionedTable = table.getPartitionedTable();
+        List<String> columns = table.getColumns().stream().map(ImportColumn::column).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (table == ImportTable.PAYMENT_AUDIT) {
+                // The rows were checked against the watermark read when the import started
+                LocalDateTime current = auditRepository.holdArchivedThrough().map(ArchiveKey::auditedAt).orElse(null);
+                if (!Objects.equals(current, archivedThrough)) {
+                    throw new IllegalStateException("Audits were archived through " + current
+                        + " while the import ran");
+                }
+            }
+            if (chunk.getTableRowCount() > 0) {
+                importRepository.copy(table.getTableName(), columns, chunk.getTableRows());
+            }
+            chunk.getStagedRows().forEach((month, rows) -> {
+                if (!stagingTables.contains(month)) {
+                    partitionRepository.createStagingTable(partitionedTable, month);
+                }
+                importRepository.copy(MonthlyPartitionRepository.stagingTableName(partitionedTable, month), columns, rows);
+            });
+        });
+        // Only after commit, so a rolled back chunk does not leave a staging table recorded that does not exist
+        stagingTables.addAll(chunk.getStagedRows().keySet());
+        progress.add(chunk);
+    }
+
+    /**
+     * Attaches every staging table as its month's partition. Failures are added to the import's failure if
+     * there is one, and thrown otherwise once every table has been tried.
+     *
+     * @return names of the partitions attached
+     */
+    private List<String> attachStagingTables(ImportTable table, Set<YearMonth> months, Exception importFailure) {
+        PartitionedTable partitionedTable = table.getPartitionedTable();
+        List<String> attached = new ArrayList<>();
+        RuntimeException attachFailure = null;
+        for (YearMonth month : months) {
+            try {
+                Boolean created = transactionTemplate.execute(status ->
+                    partitionRepository.attachStagingTable(partitionedTable, month));
+                if (Boolean.TRUE.equals(created)) {
+                    attached.add(MonthlyPartitionRepository.partitionName(partitionedTable, month));
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to attach {}; its rows stay in that table",
+                            MonthlyPartitionRepository.stagingTableName(partitionedTable, month), e);
+                if (importFailure != null) {
+                    importFailure.addSuppressed(e);
+                } else if (attachFailure == null) {
+                    attachFailure = e;
+                } else {
+                    attachFailure.addSuppressed(e);
+                }
+            }
+        }
+        if (attachFailure != null) {
+            throw attachFailure;
+        }
+        return attached;
+    }
+
+    private static ImportChunk await(Future<ImportChunk> chunk) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Import chunk could not be encoded", e.getCause());
+        }
+    }
+
+    /**
+     * Running totals of one import, updated as chunks are copied
+     */
+    private final class Progress {
+
+        private final ImportTable table;
+        private final Counter importedRows;
+        private final Counter rejectedRows;
+        private final long started = System.nanoTime();
+        private long lastLogged = started;
+
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private final List<ImportResult.Rejection> rejections = new ArrayList<>();
+
+        private Progress(ImportTable table) {
+            this.table = table;
+            this.importedRows = Counter.builder("payment.import.rows")
+                .description("Rows loaded or rejected by bulk imports")
+                .tag("table", table.getTableName())
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+            this.rejectedRows = Counter.builder("payment.import.rows")
+                .description("Rows loaded or rejected by bulk imports")
+                .tag("table", table.getTableName())
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        }
+
+        private void add(ImportChunk chunk) {
+            int imported = chunk.getTableRowCount() + chunk.getStagedRowCount();
+            rowsRead += chunk.getRowsRead();
+            rowsImported += imported;
+            rowsRejected += chunk.getRejections().size();
+            importedRows.increment(imported);
+            rejectedRows.increment(chunk.getRejections().size());
+            for (ImportResult.Rejection rejection : chunk.getRejections()) {
+                if (rejections.size() >= settings.getMaxReportedRejections()) {
+                    break;
+                }
+                rejections.add(rejection);
+            }
+
+            long now = System.nanoTime();
+            if (now - lastLogged >= settings.getProgressInterval().toNanos()) {
+                lastLogged = now;
+                long rate = rowsRead * 1_000_000_000L / Math.max(1, now - started);
+                logger.info("Import into {}: {} rows read, {} imported, {} rejected ({} rows/s)",
+                           table.getTableName(), rowsRead, rowsImported, rowsRejected, rate);
+            }
+        }
+    }
+}
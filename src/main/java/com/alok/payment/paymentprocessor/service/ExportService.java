@@ -0,0 +1,115 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.archive.AuditArchive;
+import com.alok.payment.paymentprocessor.export.ExportFilter;
+import com.alok.payment.paymentprocessor.export.ExportFormat;
+import com.alok.payment.paymentprocessor.export.ExportRowWriter;
+import com.alok.payment.paymentprocessor.export.ExportTable;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.repository.ExportRepository;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Export Service
+ * Streams payments and audit records to an output stream as NDJSON or CSV. Rows are read through a
+ * database cursor in a read-only transaction and written as they arrive, so memory use does not grow
+ * with the size of the export. Audit exports read audits moved to the archive as well, one archive file
+ * at a time, ahead of the audits still in the database after the archive watermark.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private final ExportRepository exportRepository;
+    private final PaymentAuditRepository auditRepository;
+    private final AuditArchive auditArchive;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(ExportRepository exportRepository,
+                         PaymentAuditRepository auditRepository,
+                         AuditArchive auditArchive,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.exportRepository = exportRepository;
+        this.auditRepository = auditRepository;
+        this.auditArchive = auditArchive;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // One snapshot for the whole export, so an audit export reads the archive watermark and the rows
+        // after it as of the same archive run
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Writes the payments matching the filter, oldest first
+     *
+     * @return number of payments written
+     */
+    public long exportPayments(ExportFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        return export(ExportTable.PAYMENTS, filter, format, out);
+    }
+
+    /**
+     * Writes the audit records matching the filter, oldest first, archived audits included
+     *
+     * @return number of audit records written
+     */
+    public long exportAudits(ExportFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        ExportTable table = ExportTable.PAYMENT_AUDIT;
+        logger.info("Exporting {} as {} with filter {}", table.getTableName(), format, filter);
+
+        ExportRowWriter writer = format.newWriter(out, objectMapper);
+        Long written = readOnlyTransaction.execute(status -> {
+            Optional<ArchiveKey> watermark = auditRepository.findArchivedThrough();
+            if (watermark.isEmpty() || (filter.from() != null && filter.from().isAfter(watermark.get().auditedAt()))) {
+                return exportRepository.export(table, filter, writer);
+            }
+
+            // Files past the watermark belong to an archive run that rolled back
+            ArchiveKey through = watermark.get();
+            auditArchive.checkCovers(through);
+            try (Stream<PaymentAudit> archived = auditArchive.streamAuditedIn(filter.from(), filter.to(),
+                    audit -> ArchiveKey.of(audit).compareTo(through) <= 0 && matches(filter, audit))) {
+                return exportRepository.exportAudits(filter, through, archived, writer);
+            }
+        });
+
+        logger.info("Exported {} rows from {}", written, table.getTableName());
+        return written != null ? written : 0;
+    }
+
+    /**
+     * Applies the filter's account and status to an archived audit; the date range is applied by the archive
+     */
+    private static boolean matches(ExportFilter filter, PaymentAudit audit) {
+        return (filter.account() == null
+                || filter.account().equals(audit.getFromAccount()) || filter.account().equals(audit.getToAccount()))
+            && (filter.status() == null || filter.status() == audit.getFinalStatus());
+    }
+
+    private long export(ExportTable table, ExportFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        logger.info("Exporting {} as {} with filter {}", table.getTableName(), format, filter);
+
+        ExportRowWriter writer = format.newWriter(out, objectMapper);
+        Long written = readOnlyTransaction.execute(status -> exportRepository.export(table, filter, writer));
+
+        logger.info("Exported {} rows from {}", written, table.getTableName());
+        return written != null ? written : 0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.outbox.OutboxMessage;
+import com.alok.payment.paymentprocessor.outbox.OutboxPublisher;
+import com.alok.payment.paymentprocessor.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox Relay Job
+ * Drains payment_outbox every relay interval: each transaction claims a batch of the oldest events with
+ * FOR UPDATE SKIP LOCKED, publishes them and deletes them, so several instances can relay concurrently
+ * and an event is only removed once published. Delivery is at least once, in outbox order within a batch.
+ * Only started when payment.outbox.enabled is true.
+ */
+@Component
+public class OutboxRelayJob implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelayJob.class);
+
+    private final PaymentRepository paymentRepository;
+    private final ObjectProvider<OutboxPublisher> publisher;
+    private final PaymentProcessorProperties.Outbox settings;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public OutboxRelayJob(PaymentRepository paymentRepository,
+                          ObjectProvider<OutboxPublisher> publisher,
+                          PaymentProcessorProperties properties,
+                          PlatformTransactionManager transactionManager) {
+        this.paymentRepository = paymentRepository;
+        this.publisher = publisher;
+        this.settings = properties.getOutbox();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Publishes every event in the outbox that no other relay has claimed
+     *
+     * @return number of events published
+     */
+    public long relayOutcomes() {
+        OutboxPublisher outboxPublisher = publisher.getObject();
+        long published = 0;
+        int relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> {
+                List<OutboxMessage> messages = paymentRepository.claimOutcomes(settings.getBatchSize());
+                if (messages.isEmpty()) {
+                    return 0;
+                }
+                outboxPublisher.publish(messages);
+                paymentRepository.deleteOutcomes(messages.stream().map(OutboxMessage::id).toList());
+                return messages.size();
+            });
+            published += relayed;
+        } while (relayed >= settings.getBatchSize());
+        return published;
+    }
+
+    @Override
+    public void start() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        long intervalMillis = settings.getInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("outbox-relay").factory());
+        scheduler.scheduleWithFixedDelay(this::runRelay, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+        logger.info("Outbox relay started (publisher={}, interval={}, batchSize={})",
+                   settings.getPublisher(), settings.getInterval(), settings.getBatchSize());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        scheduler.shutdownNow();
+        logger.info("Outbox relay stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runRelay() {
+        try {
+            long published = relayOutcomes();
+            if (published > 0) {
+                logger.debug("Published {} payment outcome events", published);
+            }
+        } catch (Exception e) {
+            // Keep the schedule alive; unpublished events stay in the outbox for the next run
+            logger.error("Outbox relay failed", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.repository.MonthlyPartitionRepository;
+import com.alok.payment.paymentprocessor.repository.MonthlyPartitionRepository.PartitionedTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partition Maintenance Job
+ * Keeps a monthly partition of payments and payment_audit for the current month and the configured
+ * months ahead, and detaches partitions older than the retention period. Each partition is created or
+ * detached in its own transaction. Only started when payment.partitioning.enabled is true; the first
+ * run happens before the web server starts so the current month never lands in the default partition.
+ */
+@Component
+public class PartitionMaintenanceJob implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+    /**
+     * Create this month's partitions before the web server starts accepting requests
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final MonthlyPartitionRepository partitionRepository;
+    private final PaymentProcessorProperties.Partitioning settings;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public PartitionMaintenanceJob(MonthlyPartitionRepository partitionRepository,
+                                  PaymentProcessorProperties properties,
+                                  PlatformTransactionManager transactionManager) {
+        this.partitionRepository = partitionRepository;
+        this.settings = properties.getPartitioning();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates missing partitions from the current month through the months ahead and detaches expired ones.
+     * Tables that are not partitioned in the database are skipped; a failure on one table does not stop
+     * maintenance of the others.
+     *
+     * @throws IllegalStateException naming every table whose maintenance failed
+     */
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        IllegalStateException failure = null;
+        for (PartitionedTable table : PartitionedTable.values()) {
+            try {
+                if (!partitionRepository.isPartitioned(table)) {
+                    logger.warn("Skipping partition maintenance for {}: the table is not partitioned",
+                               table.getTableName());
+                    continue;
+                }
+                maintainPartitions(table, currentMonth);
+            } catch (RuntimeException e) {
+                String message = "Partition maintenance failed for " + table.getTableName() + ": " + e.getMessage();
+                if (failure == null) {
+                    failure = new IllegalStateException(message, e);
+                } else {
+                    failure.addSuppressed(new IllegalStateException(message, e));
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void maintainPartitions(PartitionedTable table, YearMonth currentMonth) {
+        List<YearMonth> attached = partitionRepository.findPartitionMonths(table);
+
+        for (int ahead = 0; ahead <= settings.getMonthsAhead(); ahead++) {
+            YearMonth month = currentMonth.plusMonths(ahead);
+            if (!attached.contains(month)
+                    && Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                        partitionRepository.createPartition(table, month)))) {
+                logger.info("Created partition {}", MonthlyPartitionRepository.partitionName(table, month));
+            }
+        }
+
+        if (settings.getRetentionMonths() > 0) {
+            YearMonth oldestKept = currentMonth.minusMonths(settings.getRetentionMonths());
+            for (YearMonth month : attached) {
+                if (month.isBefore(oldestKept)
+                        && Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                            partitionRepository.detachPartition(table, month)))) {
+                    logger.info("Detached expired partition {}", MonthlyPartitionRepository.partitionName(table, month));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        maintainPartitions();
+        long intervalMillis = settings.getInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("partition-maintenance").factory());
+        scheduler.scheduleWithFixedDelay(this::runMaintenance, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+        logger.info("Partition maintenance job started (interval={}, monthsAhead={}, retentionMonths={})",
+                   settings.getInterval(), settings.getMonthsAhead(), settings.getRetentionMonths());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        scheduler.shutdownNow();
+        logger.info("Partition maintenance job stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runMaintenance() {
+        try {
+            maintainPartitions();
+        } catch (Exception e) {
+            // Keep the schedule alive; partitions are created well ahead, so the next run can catch up
+            logger.error("Partition maintenance failed", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment Audit Rollup Job
+ * Folds audits of ended transactions into the payment_audit_daily rollups every rollup interval, about
+ * batch-size audits per transaction until it has caught up.
+ * Only started when payment.audit.daily-summary is ROLLUP. The watermark row is locked while
+ * folding, so several instances can run the job without double counting.
+ */
+@Component
+public class PaymentAuditRollupJob implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentAuditRollupJob.class);
+
+    private final PaymentAuditRepository auditRepository;
+    private final PaymentProcessorProperties.Audit settings;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public PaymentAuditRollupJob(PaymentAuditRepository auditRepository,
+                                PaymentProcessorProperties properties,
+                                PlatformTransactionManager transactionManager) {
+        this.auditRepository = auditRepository;
+        this.settings = properties.getAudit();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Folds every audit of an ended transaction not yet in the rollups
+     *
+     * @return how many audits were folded
+     */
+    public long foldNewAudits() {
+        PaymentProcessorProperties.Audit.Rollup rollup = settings.getRollup();
+        long total = 0;
+        int folded;
+        do {
+            folded = transactionTemplate.execute(status ->
+                auditRepository.foldNewAudits(rollup.getBatchSize()));
+            total += folded;
+        } while (folded >= rollup.getBatchSize());
+        return total;
+    }
+
+    @Override
+    public void start() {
+        if (settings.getDailySummary() != PaymentProcessorProperties.DailySummarySource.ROLLUP) {
+            return;
+        }
+
+        long intervalMillis = settings.getRollup().getInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("audit-rollup").factory());
+        scheduler.scheduleWithFixedDelay(this::runFold, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+        logger.info("Audit rollup job started (interval={}, batchSize={})",
+                   settings.getRollup().getInterval(), settings.getRollup().getBatchSize());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        scheduler.shutdownNow();
+        logger.info("Audit rollup job stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runFold() {
+        try {
+            long folded = foldNewAudits();
+            if (folded > 0) {
+                logger.debug("Folded {} audits into daily rollups", folded);
+            }
+        } catch (Exception e) {
+            // Keep the schedule alive; the next run retries from the same watermark
+            logger.error("Audit rollup failed", e);
+        }
+    }
+}
@@ -1,22 +1,33 @@
 package com.alok.payment.paymentprocessor.service;
 
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.archive.AuditArchive;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
 import com.alok.payment.paymentprocessor.dto.FraudCheckResponse;
 import com.alok.payment.paymentprocessor.model.Payment;
 import com.alok.payment.paymentprocessor.model.PaymentAudit;
 import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
 import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRollupRepository.DailyTotals;
+import org.HdrHistogram.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Payment Audit Service
@@ -28,10 +39,34 @@ public class PaymentAuditService {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentAuditService.class);
     
+    /**
+     * Largest page of audits returned by one paged query
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+    
+    // Stand-ins for an open-ended account lookup window; audited_at is never null
+    private static final LocalDateTime EARLIEST_AUDITED_AT = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_AUDITED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    
     private final PaymentAuditRepository auditRepository;
+    private final PaymentProcessorProperties properties;
+    private final AsyncAuditWriter asyncAuditWriter;
+    private final PaymentMetrics metrics;
+    private final AuditStatistics statistics;
+    private final AuditArchive archive;
     
-    public PaymentAuditService(PaymentAuditRepository auditRepository) {
+    public PaymentAuditService(PaymentAuditRepository auditRepository,
+                              PaymentProcessorProperties properties,
+                              AsyncAuditWriter asyncAuditWriter,
+                              PaymentMetrics metrics,
+                              AuditStatistics statistics,
+                              AuditArchive archive) {
         this.auditRepository = auditRepository;
+        this.properties = properties;
+        this.asyncAuditWriter = asyncAuditWriter;
+        this.metrics = metrics;
+        this.statistics = statistics;
+        this.archive = archive;
     }
     
     /**
@@ -53,6 +88,123 @@ public class PaymentAuditService {
                                     boolean sufficientBalance,
                                     LocalDateTime processingStartTime) {
         
+        PaymentAudit audit = createAuditRecord(payment, fraudCheckResponse, sourceAccountValid,
+            destinationAccountValid, sufficientBalance, processingStartTime);
+        
+        PaymentAudit savedAudit = writeAudit(audit);
+        
+        logger.info("Audit record created successfully for transaction: {} with status: {}", 
+                   payment.getTransactionId(), audit.getFinalStatus());
+        
+        return savedAudit;
+    }
+    
+    /**
+     * Creates audit record for failed payment (before fraud check)
+     */
+    @Transactional
+    public PaymentAudit auditFailedPayment(Payment payment,
+                                          boolean sourceAccountValid,
+                                          boolean destinationAccountValid,
+                                          LocalDateTime processingStartTime) {
+        
+        PaymentAudit audit = createFailedAuditRecord(payment, sourceAccountValid,
+            destinationAccountValid, processingStartTime);
+        
+        return writeAudit(audit);
+    }
+    
+    /**
+     * Inserts the audit record in the current transaction, or in ASYNC mode hands it to the
+     * background writer once the current transaction commits. If the writer's queue stays full
+     * the record is inserted directly so nothing is dropped.
+     * In ASYNC mode the returned record has no ID yet.
+     * In-memory statistics count the record once the current transaction commits.
+     */
+    private PaymentAudit writeAudit(PaymentAudit audit) {
+        return metrics.time(PaymentMetrics.Step.AUDIT_WRITE, audit.getPaymentType(), () -> persistAudit(audit));
+    }
+    
+    private PaymentAudit persistAudit(PaymentAudit audit) {
+        if (properties.getAudit().getWriteMode() != PaymentProcessorProperties.AuditWriteMode.ASYNC) {
+            PaymentAudit savedAudit = auditRepository.save(audit);
+            recordStatisticsAfterCommit(List.of(savedAudit));
+            return savedAudit;
+        }
+        
+        afterCommit(() -> {
+            enqueueAudit(audit);
+            recordStatistics(List.of(audit));
+        });
+        return audit;
+    }
+    
+    private void recordStatisticsAfterCommit(List<PaymentAudit> audits) {
+        if (statistics.isEnabled()) {
+            afterCommit(() -> recordStatistics(audits));
+        }
+    }
+    
+    private void recordStatistics(List<PaymentAudit> audits) {
+        if (statistics.isEnabled()) {
+            audits.forEach(statistics::record);
+        }
+    }
+    
+    /**
+     * Runs the action once the current transaction commits, or immediately outside a transaction
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private void enqueueAudit(PaymentAudit audit) {
+        if (!asyncAuditWriter.submit(audit)) {
+            auditRepository.save(audit);
+        }
+    }
+    
+    /**
+     * Persists already-built audit records in a single JDBC batch
+     * 
+     * @param audits Audit records built with createAuditRecord or createFailedAuditRecord
+     * @return The same records with their generated IDs assigned
+     */
+    @Transactional
+    public List<PaymentAudit> saveAuditRecords(List<PaymentAudit> audits) {
+        logger.info("Saving {} audit records in batch", audits.size());
+        auditRepository.batchInsert(audits);
+        recordStatisticsAfterCommit(audits);
+        return audits;
+    }
+    
+    /**
+     * Builds the audit record for a payment that reached the fraud check, without persisting it
+     * 
+     * @param payment The payment entity
+     * @param fraudCheckResponse Fraud check results
+     * @param sourceAccountValid Whether source account validation passed
+     * @param destinationAccountValid Whether destination account validation passed
+     * @param sufficientBalance Whether balance check passed
+     * @param processingStartTime When processing started
+     * @return Unsaved audit record
+     */
+    public PaymentAudit createAuditRecord(Payment payment,
+                                         FraudCheckResponse fraudCheckResponse,
+                                         boolean sourceAccountValid,
+                                         boolean destinationAccountValid,
+                                         boolean sufficientBalance,
+                                         LocalDateTime processingStartTime) {
+        
         logger.info("Creating audit record for transaction: {}", payment.getTransactionId());
         
         if (payment == null || payment.getTransactionId() == null) {
@@ -77,6 +229,7 @@ public class PaymentAuditService {
             audit.setFraudCheckPassed(!fraudCheckResponse.isFraudulent());
             audit.setFraudReason(fraudCheckResponse.getReason());
             audit.setFraudRiskScore(String.valueOf(fraudCheckResponse.getRiskScore()));
+            audit.setRiskScore(fraudCheckResponse.getRiskScore());
             audit.setFraudCheckAt(LocalDateTime.now());
         } else {
             audit.setFraudCheckPassed(null);
@@ -99,22 +252,16 @@ public class PaymentAuditService {
             audit.setProcessingTimeMs(processingTimeMs);
         }
         
-        PaymentAudit savedAudit = auditRepository.save(audit);
-        
-        logger.info("Audit record created successfully for transaction: {} with status: {}", 
-                   payment.getTransactionId(), audit.getFinalStatus());
-        
-        return savedAudit;
+        return audit;
     }
     
     /**
-     * Creates audit record for failed payment (before fraud check)
+     * Builds the audit record for a payment that failed before the fraud check, without persisting it
      */
-    @Transactional
-    public PaymentAudit auditFailedPayment(Payment payment,
-                                          boolean sourceAccountValid,
-                                          boolean destinationAccountValid,
-                                          LocalDateTime processingStartTime) {
+    public PaymentAudit createFailedAuditRecord(Payment payment,
+                                               boolean sourceAccountValid,
+                                               boolean destinationAccountValid,
+                                               LocalDateTime processingStartTime) {
         
         logger.info("Creating audit record for failed transaction: {}", payment.getTransactionId());
         
@@ -141,12 +288,13 @@ public class PaymentAuditService {
             audit.setProcessingTimeMs(processingTimeMs);
         }
         
-        return auditRepository.save(audit);
+        return audit;
     }
     
     /**
      * Retrieves audit record by transaction ID
      */
+    @Transactional(readOnly = true)
     public Optional<PaymentAudit> getAuditByTransactionId(String transactionId) {
         logger.debug("Retrieving audit record for transaction: {}", transactionId);
         
@@ -158,25 +306,84 @@ public class PaymentAuditService {
     }
     
     /**
-     * Retrieves all audit records for a specific account (sender or receiver)
+     * Retrieves all audit records for a specific account (sender or receiver), oldest first.
+     * Loads every match; use streamAuditsByAccount for busy accounts.
      */
+    @Transactional(readOnly = true)
     public List<PaymentAudit> getAuditsByAccount(String accountNumber) {
         logger.debug("Retrieving audit records for account: {}", accountNumber);
         
+        return streamAuditsByAccount(accountNumber, null, null, MAX_PAGE_SIZE)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Retrieves one page of the audit records for an account (sender or receiver)
+     * 
+     * @param accountNumber Account that sent or received the payments
+     * @param from Earliest audit time to include, or null for no lower bound
+     * @param to Audit time to stop before, or null for no upper bound
+     * @param after Last audit on the previous page, or null for the first page
+     * @param pageSize Number of audits to return, between 1 and MAX_PAGE_SIZE
+     * @return Audits in (auditedAt, id) order; fewer than pageSize means the window is exhausted
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentAudit> getAuditsByAccount(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                                 PaymentAudit after, int pageSize) {
         if (accountNumber == null || accountNumber.trim().isEmpty()) {
             throw new IllegalArgumentException("Account number must not be null or empty");
         }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
         
-        List<PaymentAudit> fromAudits = auditRepository.findByFromAccount(accountNumber);
-        List<PaymentAudit> toAudits = auditRepository.findByToAccount(accountNumber);
+        // Start just before the window; a cursor inside the window moves the start past it
+        LocalDateTime afterAuditedAt = from != null ? from : EARLIEST_AUDITED_AT;
+        long afterId = 0L;
+        if (after != null && !after.getAuditedAt().isBefore(afterAuditedAt)) {
+            afterAuditedAt = after.getAuditedAt();
+            afterId = after.getId();
+        }
+        LocalDateTime before = to != null ? to : LATEST_AUDITED_AT;
+        ArchiveKey position = new ArchiveKey(afterAuditedAt, afterId);
+        Optional<ArchiveKey> watermark = auditRepository.findArchivedThrough();
+        if (watermark.isEmpty() || position.compareTo(watermark.get()) >= 0) {
+            return auditRepository.findByAccountAfter(accountNumber, afterAuditedAt, afterId, before, pageSize);
+        }
         
-        fromAudits.addAll(toAudits);
-        return fromAudits;
+        // Archived audits all precede the watermark, so the page starts in the archive and continues
+        // in the database after the watermark. Files past the watermark belong to a run that rolled back.
+        archive.checkCovers(watermark.get());
+        List<PaymentAudit> page = new ArrayList<>(
+            archive.findByAccountAfter(accountNumber, afterAuditedAt, afterId, before, pageSize));
+        page.removeIf(audit -> ArchiveKey.of(audit).compareTo(watermark.get()) > 0);
+        if (page.size() < pageSize) {
+            page.addAll(auditRepository.findByAccountAfter(accountNumber, watermark.get().auditedAt(),
+                watermark.get().id(), before, pageSize - page.size()));
+        }
+        return page;
+    }
+    
+    /**
+     * Streams the audit records for an account page by page, so only one page is held in memory at a time
+     */
+    public Stream<PaymentAudit> streamAuditsByAccount(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                                      int pageSize) {
+        List<PaymentAudit> firstPage = getAuditsByAccount(accountNumber, from, to, null, pageSize);
+        return Stream.iterate(firstPage, page -> !page.isEmpty(),
+                page -> page.size() < pageSize
+                    ? List.of()
+                    : getAuditsByAccount(accountNumber, from, to, page.get(page.size() - 1), pageSize))
+            .flatMap(List::stream);
     }
     
     /**
      * Retrieves all audit records with specific final status
      */
+    @Transactional(readOnly = true)
     public List<PaymentAudit> getAuditsByStatus(PaymentStatus status) {
         logger.debug("Retrieving audit records with status: {}", status);
         
@@ -190,6 +397,7 @@ public class PaymentAuditService {
     /**
      * Retrieves all audit records where fraud check failed
      */
+    @Transactional(readOnly = true)
     public List<PaymentAudit> getFraudulentPaymentAudits() {
         logger.debug("Retrieving audit records for fraudulent payments");
         return auditRepository.findByFraudCheckPassed(false);
@@ -198,6 +406,7 @@ public class PaymentAuditService {
     /**
      * Retrieves audit records within a date range
      */
+    @Transactional(readOnly = true)
     public List<PaymentAudit> getAuditsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         logger.debug("Retrieving audit records between {} and {}", startDate, endDate);
         
@@ -209,49 +418,91 @@ public class PaymentAuditService {
             throw new IllegalArgumentException("Start date must be before end date");
         }
         
-        return auditRepository.findByAuditedAtBetween(startDate, endDate);
+        Optional<ArchiveKey> watermark = auditRepository.findArchivedThrough();
+        if (watermark.isEmpty() || startDate.isAfter(watermark.get().auditedAt())) {
+            return auditRepository.findByAuditedAtBetween(startDate, endDate);
+        }
+        
+        // Archived audits through the watermark first, then database rows past it
+        archive.checkCovers(watermark.get());
+        List<PaymentAudit> audits = new ArrayList<>(archive.findByAuditedAtBetween(startDate, endDate));
+        audits.removeIf(audit -> ArchiveKey.of(audit).compareTo(watermark.get()) > 0);
+        if (!endDate.isBefore(watermark.get().auditedAt())) {
+            auditRepository.findByAuditedAtBetween(startDate, endDate).stream()
+                .filter(audit -> ArchiveKey.of(audit).compareTo(watermark.get()) > 0)
+                .forEach(audits::add);
+        }
+        return audits;
     }
     
     /**
      * Calculates average processing time for successful payments
      */
+    @Transactional(readOnly = true)
     public Double calculateAverageProcessingTime() {
         logger.debug("Calculating average processing time");
         
-        List<PaymentAudit> successfulAudits = auditRepository.findByFinalStatus(PaymentStatus.COMPLETED);
+        // Running counters when enabled, otherwise aggregated in the database; neither loads audit rows
+        Double averageTime = statistics.isEnabled()
+            ? Double.valueOf(statistics.getAverageProcessingTime(PaymentStatus.COMPLETED))
+            : auditRepository.calculateAverageProcessingTime(PaymentStatus.COMPLETED);
+        if (averageTime == null) {
+            averageTime = 0.0;
+        }
+        
+        logger.info("Average processing time: {} ms", averageTime);
+        return averageTime;
+    }
+    
+    /**
+     * Processing time percentiles of audits in [from, to), optionally of one payment type and final status.
+     * Whole hours come from the histograms the rollup job folds audits into, so with the ROLLUP daily
+     * summary only the partial hours at either end and audits not folded yet are read from payment_audit.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProcessingTimePercentiles(LocalDateTime from, LocalDateTime to,
+                                                            PaymentType paymentType, PaymentStatus status) {
+        logger.debug("Calculating processing time percentiles between {} and {} (type={}, status={})",
+                    from, to, paymentType, status);
         
-        if (successfulAudits.isEmpty()) {
-            return 0.0;
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
         }
         
-        double totalTime = successfulAudits.stream()
-            .filter(audit -> audit.getProcessingTimeMs() != null)
-            .mapToLong(PaymentAudit::getProcessingTimeMs)
-            .average()
-            .orElse(0.0);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
         
-        logger.info("Average processing time: {} ms", totalTime);
-        return totalTime;
+        Histogram histogram = auditRepository.summarizeProcessingTimes(from, to, paymentType, status);
+        
+        Map<String, Object> percentiles = new HashMap<>();
+        percentiles.put("from", from);
+        percentiles.put("to", to);
+        percentiles.put("paymentType", paymentType);
+        percentiles.put("status", status);
+        percentiles.put("count", histogram.getTotalCount());
+        percentiles.put("p50ProcessingTimeMs", histogram.getValueAtPercentile(50));
+        percentiles.put("p95ProcessingTimeMs", histogram.getValueAtPercentile(95));
+        percentiles.put("p99ProcessingTimeMs", histogram.getValueAtPercentile(99));
+        percentiles.put("maxProcessingTimeMs", histogram.getMaxValue());
+        percentiles.put("averageProcessingTimeMs", histogram.getMean());
+        return percentiles;
     }
     
     /**
      * Gets fraud detection success rate
      */
+    @Transactional(readOnly = true)
     public Double getFraudDetectionRate() {
         logger.debug("Calculating fraud detection rate");
         
-        List<PaymentAudit> allAudits = (List<PaymentAudit>) auditRepository.findAll();
-        
-        if (allAudits.isEmpty()) {
-            return 0.0;
+        Double rate = statistics.isEnabled()
+            ? Double.valueOf(statistics.getFraudDetectionRate())
+            : auditRepository.calculateFraudDetectionRate();
+        if (rate == null) {
+            rate = 0.0;
         }
         
-        long fraudulentCount = allAudits.stream()
-            .filter(audit -> audit.getFraudCheckPassed() != null && !audit.getFraudCheckPassed())
-            .count();
-        
-        double rate = (double) fraudulentCount / allAudits.size() * 100;
-        
         logger.info("Fraud detection rate: {}%", rate);
         return rate;
     }
@@ -260,6 +511,7 @@ public class PaymentAuditService {
      * NEW: Get comprehensive audit analytics for a specific account
      * Provides detailed metrics for compliance and monitoring
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getAccountAuditAnalytics(String accountNumber) {
         logger.info("Generating audit analytics for account: {}", accountNumber);
         
@@ -267,108 +519,84 @@ public class PaymentAuditService {
             throw new IllegalArgumentException("Account number must not be null or empty");
         }
         
-        List<PaymentAudit> accountAudits = getAuditsByAccount(accountNumber);
+        // One grouped query; only a row per final status comes back however busy the account is
+        AuditStatisticsAccumulator totals = new AuditStatisticsAccumulator();
+        auditRepository.summarizeAccountByStatus(accountNumber).forEach(totals::add);
         
         Map<String, Object> analytics = new HashMap<>();
         analytics.put("accountNumber", accountNumber);
-        analytics.put("totalTransactions", accountAudits.size());
-        
-        // Status breakdown
-        Map<PaymentStatus, Long> statusBreakdown = accountAudits.stream()
-            .collect(Collectors.groupingBy(PaymentAudit::getFinalStatus, Collectors.counting()));
-        analytics.put("statusBreakdown", statusBreakdown);
+        analytics.put("totalTransactions", Math.toIntExact(totals.getAudits()));
+        analytics.put("statusBreakdown", totals.getStatusBreakdown());
         
         // Fraud statistics
-        long fraudDetected = accountAudits.stream()
-            .filter(audit -> audit.getFraudCheckPassed() != null && !audit.getFraudCheckPassed())
-            .count();
-        analytics.put("fraudDetectedCount", fraudDetected);
-        analytics.put("fraudPercentage", accountAudits.isEmpty() ? 0.0 : (double) fraudDetected / accountAudits.size() * 100);
+        analytics.put("fraudDetectedCount", totals.getFraudDetected());
+        analytics.put("fraudPercentage", totals.getFraudPercentage());
         
         // Account validation failures
-        long sourceValidationFailures = accountAudits.stream()
-            .filter(audit -> audit.getSourceAccountValid() != null && !audit.getSourceAccountValid())
-            .count();
-        long destinationValidationFailures = accountAudits.stream()
-            .filter(audit -> audit.getDestinationAccountValid() != null && !audit.getDestinationAccountValid())
-            .count();
-        analytics.put("sourceValidationFailures", sourceValidationFailures);
-        analytics.put("destinationValidationFailures", destinationValidationFailures);
+        analytics.put("sourceValidationFailures", totals.getSourceValidationFailures());
+        analytics.put("destinationValidationFailures", totals.getDestinationValidationFailures());
         
         // Balance issues
-        long insufficientBalanceCount = accountAudits.stream()
-            .filter(audit -> audit.getSufficientBalance() != null && !audit.getSufficientBalance())
-            .count();
-        analytics.put("insufficientBalanceCount", insufficientBalanceCount);
+        analytics.put("insufficientBalanceCount", totals.getInsufficientBalance());
         
         // Performance metrics
-        Double avgProcessingTime = accountAudits.stream()
-            .filter(audit -> audit.getProcessingTimeMs() != null)
-            .mapToLong(PaymentAudit::getProcessingTimeMs)
-            .average()
-            .orElse(0.0);
-        analytics.put("averageProcessingTimeMs", avgProcessingTime);
-        
-        Long maxProcessingTime = accountAudits.stream()
-            .filter(audit -> audit.getProcessingTimeMs() != null)
-            .mapToLong(PaymentAudit::getProcessingTimeMs)
-            .max()
-            .orElse(0L);
-        analytics.put("maxProcessingTimeMs", maxProcessingTime);
-        
-        logger.info("Analytics generated for account {}: {} total transactions", accountNumber, accountAudits.size());
+        analytics.put("averageProcessingTimeMs", totals.getAverageProcessingTime());
+        analytics.put("maxProcessingTimeMs", totals.getMaxProcessingTime());
+        
+        logger.info("Analytics generated for account {}: {} total transactions", accountNumber, totals.getAudits());
         return analytics;
     }
     
     /**
      * NEW: Get high-risk transaction audits for compliance review
-     * Returns audits that require manual review based on risk criteria
+     * Returns audits that require manual review based on risk criteria:
+     * fraud risk score > 0.7, failed fraud check, or processing time > 5000ms.
+     * Loads every match; use streamHighRiskTransactionAudits for large tables.
      */
+    @Transactional(readOnly = true)
     public List<PaymentAudit> getHighRiskTransactionAudits() {
         logger.info("Retrieving high-risk transaction audits for compliance review");
         
-        List<PaymentAudit> allAudits = (List<PaymentAudit>) auditRepository.findAll();
-        
-        // Filter for high-risk criteria:
-        // 1. Fraud risk score > 0.7
-        // 2. Failed fraud check
-        // 3. Processing time > 5000ms (potential timeout issues)
-        List<PaymentAudit> highRiskAudits = allAudits.stream()
-            .filter(audit -> {
-                // High fraud risk score
-                if (audit.getFraudRiskScore() != null) {
-                    try {
-                        double riskScore = Double.parseDouble(audit.getFraudRiskScore());
-                        if (riskScore > 0.7) {
-                            return true;
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid fraud risk score format: {}", audit.getFraudRiskScore());
-                    }
-                }
-                
-                // Failed fraud check
-                if (audit.getFraudCheckPassed() != null && !audit.getFraudCheckPassed()) {
-                    return true;
-                }
-                
-                // Long processing time (potential issues)
-                if (audit.getProcessingTimeMs() != null && audit.getProcessingTimeMs() > 5000) {
-                    return true;
-                }
-                
-                return false;
-            })
+        List<PaymentAudit> highRiskAudits = streamHighRiskTransactionAudits(MAX_PAGE_SIZE)
             .collect(Collectors.toList());
         
         logger.info("Found {} high-risk transactions requiring review", highRiskAudits.size());
         return highRiskAudits;
     }
     
+    /**
+     * Retrieves one page of the compliance review queue
+     * 
+     * @param afterId ID of the last audit on the previous page, or null for the first page
+     * @param pageSize Number of audits to return, between 1 and MAX_PAGE_SIZE
+     * @return High-risk audits in ID order; fewer than pageSize means the queue is exhausted
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentAudit> getHighRiskTransactionAudits(Long afterId, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
+        return auditRepository.findHighRiskAfter(afterId != null ? afterId : 0L, pageSize);
+    }
+    
+    /**
+     * Streams the compliance review queue page by page, so only one page is held in memory at a time
+     */
+    public Stream<PaymentAudit> streamHighRiskTransactionAudits(int pageSize) {
+        List<PaymentAudit> firstPage = getHighRiskTransactionAudits(null, pageSize);
+        return Stream.iterate(firstPage, page -> !page.isEmpty(),
+                page -> page.size() < pageSize
+                    ? List.of()
+                    : getHighRiskTransactionAudits(page.get(page.size() - 1).getId(), pageSize))
+            .flatMap(List::stream);
+    }
+    
     /**
      * NEW: Generate daily audit summary for reporting
      * Provides aggregated statistics for a specific date
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getDailyAuditSummary(LocalDateTime date) {
         logger.info("Generating daily audit summary for date: {}", date);
         
@@ -376,46 +604,64 @@ public class PaymentAuditService {
             throw new IllegalArgumentException("Date must not be null");
         }
         
+        if (properties.getAudit().getDailySummary() == PaymentProcessorProperties.DailySummarySource.ROLLUP) {
+            return getDailyAuditSummaryFromRollup(date.toLocalDate());
+        }
+        
         LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
         LocalDateTime endOfDay = startOfDay.plusDays(1).minusNanos(1);
         
-        List<PaymentAudit> dailyAudits = getAuditsByDateRange(startOfDay, endOfDay);
+        // Every metric in one pass over the day's audits
+        AuditStatisticsAccumulator totals = getAuditsByDateRange(startOfDay, endOfDay).stream()
+            .collect(AuditStatisticsAccumulator.collector());
         
         Map<String, Object> summary = new HashMap<>();
         summary.put("date", date.toLocalDate());
-        summary.put("totalTransactions", dailyAudits.size());
+        summary.put("totalTransactions", Math.toIntExact(totals.getAudits()));
         
         // Success/failure counts
-        long successCount = dailyAudits.stream()
-            .filter(audit -> audit.getFinalStatus() == PaymentStatus.COMPLETED)
-            .count();
-        long failureCount = dailyAudits.size() - successCount;
+        long successCount = totals.getAuditCount(PaymentStatus.COMPLETED);
         summary.put("successfulTransactions", successCount);
-        summary.put("failedTransactions", failureCount);
-        summary.put("successRate", dailyAudits.isEmpty() ? 0.0 : (double) successCount / dailyAudits.size() * 100);
+        summary.put("failedTransactions", totals.getAudits() - successCount);
+        summary.put("successRate", totals.getStatusPercentage(PaymentStatus.COMPLETED));
         
         // Fraud statistics
-        long fraudCount = dailyAudits.stream()
-            .filter(audit -> audit.getFraudCheckPassed() != null && !audit.getFraudCheckPassed())
-            .count();
-        summary.put("fraudDetectedCount", fraudCount);
+        summary.put("fraudDetectedCount", totals.getFraudDetected());
         
         // Performance metrics
-        Double avgTime = dailyAudits.stream()
-            .filter(audit -> audit.getProcessingTimeMs() != null)
-            .mapToLong(PaymentAudit::getProcessingTimeMs)
-            .average()
-            .orElse(0.0);
-        summary.put("averageProcessingTimeMs", avgTime);
+        summary.put("averageProcessingTimeMs", totals.getAverageProcessingTime());
         
         // Top failure reasons
-        Map<String, Long> failureReasons = dailyAudits.stream()
-            .filter(audit -> audit.getFailureReason() != null)
-            .collect(Collectors.groupingBy(PaymentAudit::getFailureReason, Collectors.counting()));
-        summary.put("topFailureReasons", failureReasons);
+        summary.put("topFailureReasons", totals.getFailureReasons());
         
         logger.info("Daily summary generated: {} transactions, {}% success rate", 
-                   dailyAudits.size(), summary.get("successRate"));
+                   totals.getAudits(), summary.get("successRate"));
+        
+        return summary;
+    }
+    
+    /**
+     * Builds the daily summary from the day's rollup plus the audits not folded into it yet,
+     * without loading any audit rows
+     */
+    private Map<String, Object> getDailyAuditSummaryFromRollup(LocalDate day) {
+        DailyTotals totals = auditRepository.summarizeDay(day);
+        long total = totals.totalTransactions();
+        long successCount = totals.successfulTransactions();
+        
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("date", day);
+        summary.put("totalTransactions", Math.toIntExact(total));
+        summary.put("successfulTransactions", successCount);
+        summary.put("failedTransactions", total - successCount);
+        summary.put("successRate", total == 0 ? 0.0 : (double) successCount / total * 100);
+        summary.put("fraudDetectedCount", totals.fraudDetected());
+        summary.put("averageProcessingTimeMs", totals.processingTimeCount() == 0
+            ? 0.0 : (double) totals.processingTimeSum() / totals.processingTimeCount());
+        summary.put("topFailureReasons", auditRepository.countFailureReasons(day));
+        
+        logger.info("Daily summary generated from rollup: {} transactions, {}% success rate", 
+                   total, summary.get("successRate"));
         
         return summary;
     }
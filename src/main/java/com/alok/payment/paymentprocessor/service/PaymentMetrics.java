@@ -0,0 +1,88 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Payment Pipeline Metrics
+ * Times each processing step as payment.processing.step, tagged with step, payment type and outcome.
+ * Histogram buckets are configured under management.metrics.distribution in application.yaml.
+ */
+@Component
+public class PaymentMetrics {
+
+    public static final String STEP_TIMER = "payment.processing.step";
+
+    private final MeterRegistry meterRegistry;
+
+    public PaymentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Times a step whose result decides the outcome: success when the predicate accepts it, failure otherwise.
+     * Exceptions are recorded as error and rethrown.
+     */
+    public <T> T time(Step step, PaymentType paymentType, Supplier<T> action, Predicate<T> succeeded) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = action.get();
+            outcome = succeeded.test(result) ? Outcome.SUCCESS : Outcome.FAILURE;
+            return result;
+        } finally {
+            sample.stop(stepTimer(step, paymentType, outcome));
+        }
+    }
+
+    /**
+     * Times a step that either completes (success) or throws (error)
+     */
+    public <T> T time(Step step, PaymentType paymentType, Supplier<T> action) {
+        return time(step, paymentType, action, result -> true);
+    }
+
+    private Timer stepTimer(Step step, PaymentType paymentType, Outcome outcome) {
+        return Timer.builder(STEP_TIMER)
+            .description("Time spent in each stage of payment processing")
+            .tag("step", step.tagValue)
+            .tag("type", paymentType != null ? paymentType.name() : "UNKNOWN")
+            .tag("outcome", outcome.tagValue)
+            .register(meterRegistry);
+    }
+
+    public enum Step {
+        SOURCE_VALIDATION("source_validation"),
+        DESTINATION_VALIDATION("destination_validation"),
+        FRAUD_CHECK("fraud_check"),
+        /**
+         * Balance check and ledger update, which run as one atomic ledger transfer
+         */
+        LEDGER_TRANSFER("ledger_transfer"),
+        STATUS_PERSISTENCE("status_persistence"),
+        AUDIT_WRITE("audit_write");
+
+        private final String tagValue;
+
+        Step(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS("success"),
+        FAILURE("failure"),
+        ERROR("error");
+
+        private final String tagValue;
+
+        Outcome(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+}
@@ -1,18 +1,35 @@
 package com.alok.payment.paymentprocessor.service;
 
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.config.ReplicaRoutingDataSource;
 import com.alok.payment.paymentprocessor.dto.*;
 import com.alok.payment.paymentprocessor.model.Payment;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
 import com.alok.payment.paymentprocessor.model.PaymentStatus;
 import com.alok.payment.paymentprocessor.repository.PaymentRepository;
+import com.alok.payment.paymentprocessor.service.PaymentMetrics.Step;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * Payment Processing Service
@@ -23,19 +40,36 @@ public class PaymentService {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
     
+    /**
+     * Largest page of payments returned by one listing query
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+    
     private final PaymentRepository paymentRepository;
     private final FraudService fraudService;
     private final AccountService accountService;
     private final PaymentAuditService auditService;
+    private final PaymentProcessorProperties properties;
+    private final PaymentMetrics metrics;
+    private final PaymentStatusCache statusCache;
+    private final ExecutorService stepExecutor;
     
     public PaymentService(PaymentRepository paymentRepository, 
                          FraudService fraudService,
                          AccountService accountService,
-                         PaymentAuditService auditService) {
+                         PaymentAuditService auditService,
+                         PaymentProcessorProperties properties,
+                         PaymentMetrics metrics,
+                         PaymentStatusCache statusCache,
+                         @Qualifier("paymentScreeningExecutor") ExecutorService stepExecutor) {
         this.paymentRepository = paymentRepository;
         this.fraudService = fraudService;
         this.accountService = accountService;
         this.auditService = auditService;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.statusCache = statusCache;
+        this.stepExecutor = stepExecutor;
     }
     
     @Transactional
@@ -45,6 +79,10 @@ public class PaymentService {
         
         LocalDateTime processingStartTime = LocalDateTime.now();
         
+        if (properties.getProcessing().getWriteMode() == PaymentProcessorProperties.WriteMode.SINGLE_WRITE) {
+            return processPaymentSingleWrite(request, processingStartTime);
+        }
+        
         // Generate transaction ID
         String transactionId = UUID.randomUUID().toString();
         
@@ -60,87 +98,57 @@ public class PaymentService {
         );
         
         // Save initial payment record
-        payment = paymentRepository.save(payment);
+        payment = savePayment(payment);
         
         // Track validation results for audit
-        boolean sourceAccountValid = false;
-        boolean destinationAccountValid = false;
+        PaymentScreening screening = new PaymentScreening();
         boolean sufficientBalance = false;
-        FraudCheckResponse fraudCheck = null;
         
         try {
-            // Step 1: Validate source account
-            logger.info("Step 1: Validating source account {}", request.getFromAccount());
-            AccountBalanceResponse sourceAccountValidation = accountService.validateAccount(request.getFromAccount());
-            sourceAccountValid = sourceAccountValidation.isValid();
-            if (!sourceAccountValid) {
-                PaymentResponse response = handlePaymentFailure(payment, PaymentStatus.ACCOUNT_VALIDATION_FAILED, 
-                    "Source account validation failed: " + sourceAccountValidation.getMessage());
-                auditService.auditFailedPayment(payment, sourceAccountValid, false, processingStartTime);
-                return response;
-            }
+            // Steps 1-3: Validate accounts and perform fraud check
+            screenPayment(payment, screening);
+            FraudCheckResponse fraudCheck = screening.fraudCheck;
             
-            // Step 2: Validate destination account
-            logger.info("Step 2: Validating destination account {}", request.getToAccount());
-            AccountBalanceResponse destAccountValidation = accountService.validateAccount(request.getToAccount());
-            destinationAccountValid = destAccountValidation.isValid();
-            if (!destinationAccountValid) {
-                PaymentResponse response = handlePaymentFailure(payment, PaymentStatus.ACCOUNT_VALIDATION_FAILED, 
-                    "Destination account validation failed: " + destAccountValidation.getMessage());
-                auditService.auditFailedPayment(payment, sourceAccountValid, destinationAccountValid, processingStartTime);
-                return response;
-            }
-            
-            // Step 3: Fraud check
-            logger.info("Step 3: Performing fraud check");
-            FraudCheckRequest fraudRequest = new FraudCheckRequest(
-                transactionId,
-                request.getFromAccount(),
-                request.getToAccount(),
-                request.getAmount(),
-                request.getCurrency()
-            );
-            fraudCheck = fraudService.checkFraud(fraudRequest);
-            
-            if (fraudCheck.isFraudulent()) {
-                PaymentResponse response = handlePaymentFailure(payment, PaymentStatus.FRAUD_CHECK_FAILED, 
-                    "Fraud detected: " + fraudCheck.getReason());
-                auditService.auditPayment(payment, fraudCheck, sourceAccountValid, destinationAccountValid, false, processingStartTime);
+            if (screening.failed()) {
+                PaymentResponse response = handlePaymentFailure(payment, screening.failureStatus, 
+                    screening.failureReason);
+                if (fraudCheck == null) {
+                    auditService.auditFailedPayment(payment, screening.sourceAccountValid, 
+                        screening.destinationAccountValid, processingStartTime);
+                } else {
+                    auditService.auditPayment(payment, fraudCheck, screening.sourceAccountValid, 
+                        screening.destinationAccountValid, false, processingStartTime);
+                }
                 return response;
             }
             
-            // Step 4: Check balance
-            logger.info("Step 4: Checking account balance");
-            AccountBalanceRequest balanceRequest = new AccountBalanceRequest(
-                request.getFromAccount(),
-                request.getAmount()
-            );
-            AccountBalanceResponse balanceCheck = accountService.checkBalance(balanceRequest);
+            // Step 4: Check balance and move funds atomically
+            logger.info("Step 4: Checking account balance and transferring funds");
+            AccountBalanceResponse balanceCheck = transferFunds(payment);
             sufficientBalance = balanceCheck.isSufficientBalance();
             
             if (!sufficientBalance) {
-                PaymentResponse response = handlePaymentFailure(payment, PaymentStatus.INSUFFICIENT_BALANCE, 
+                PaymentResponse response = handlePaymentFailure(payment, balanceFailureStatus(balanceCheck), 
                     balanceCheck.getMessage());
-                auditService.auditPayment(payment, fraudCheck, sourceAccountValid, destinationAccountValid, sufficientBalance, processingStartTime);
+                auditService.auditPayment(payment, fraudCheck, screening.sourceAccountValid, 
+                    screening.destinationAccountValid, sufficientBalance, processingStartTime);
                 return response;
             }
+            reverseTransfersOnRollback(List.of(payment));
             
             // Step 5: Process payment
             logger.info("Step 5: Processing payment");
             payment.setStatus(PaymentStatus.PROCESSING);
-            paymentRepository.save(payment);
-            
-            // Deduct from source account and credit to destination account
-            accountService.deductBalance(request.getFromAccount(), request.getAmount());
-            accountService.addBalance(request.getToAccount(), request.getAmount());
+            savePayment(payment);
             
             // Step 6: Complete payment
             payment.setStatus(PaymentStatus.COMPLETED);
-            payment = paymentRepository.save(payment);
+            payment = savePayment(payment);
             
             // Step 7: Create audit record
             logger.info("Step 7: Creating audit record");
-            auditService.auditPayment(payment, fraudCheck, sourceAccountValid, destinationAccountValid, sufficientBalance, processingStartTime);
+            auditService.auditPayment(payment, fraudCheck, screening.sourceAccountValid, 
+                screening.destinationAccountValid, sufficientBalance, processingStartTime);
             
             logger.info("Payment completed successfully: {}", transactionId);
             
@@ -153,7 +161,8 @@ public class PaymentService {
             
             // Audit the failed payment
             try {
-                auditService.auditFailedPayment(payment, sourceAccountValid, destinationAccountValid, processingStartTime);
+                auditService.auditFailedPayment(payment, screening.sourceAccountValid, 
+                    screening.destinationAccountValid, processingStartTime);
             } catch (Exception auditException) {
                 logger.error("Failed to create audit record for failed payment: {}", transactionId, auditException);
             }
@@ -162,14 +171,45 @@ public class PaymentService {
         }
     }
     
+    /**
+     * Processes a payment keeping its in-flight state in memory and writing the row once,
+     * already in its terminal status, instead of PENDING -> PROCESSING -> terminal re-saves
+     */
+    private PaymentResponse processPaymentSingleWrite(PaymentRequest request, LocalDateTime processingStartTime) {
+        Payment payment = createPayment(request);
+        PaymentEvaluation evaluation = evaluatePayment(payment);
+        
+        if (payment.getStatus() == PaymentStatus.COMPLETED) {
+            reverseTransfersOnRollback(List.of(payment));
+        }
+        savePayment(payment);
+        
+        if (evaluation.fraudCheck == null || evaluation.processingError) {
+            auditService.auditFailedPayment(payment, evaluation.sourceAccountValid, 
+                evaluation.destinationAccountValid, processingStartTime);
+        } else {
+            auditService.auditPayment(payment, evaluation.fraudCheck, evaluation.sourceAccountValid, 
+                evaluation.destinationAccountValid, evaluation.sufficientBalance, processingStartTime);
+        }
+        
+        if (payment.getStatus() == PaymentStatus.COMPLETED) {
+            logger.info("Payment completed successfully: {}", payment.getTransactionId());
+        }
+        return evaluation.toResponse();
+    }
+    
     private PaymentResponse handlePaymentFailure(Payment payment, PaymentStatus status, String reason) {
         logger.warn("Payment failed - Transaction: {}, Status: {}, Reason: {}", 
                    payment.getTransactionId(), status, reason);
         
         payment.setStatus(status);
         payment.setFailureReason(reason);
-        payment = paymentRepository.save(payment);
+        payment = savePayment(payment);
         
+        return buildFailureResponse(payment, status, reason);
+    }
+    
+    private PaymentResponse buildFailureResponse(Payment payment, PaymentStatus status, String reason) {
         PaymentResponse response = new PaymentResponse();
         response.setTransactionId(payment.getTransactionId());
         response.setFromAccount(payment.getFromAccount());
@@ -198,39 +238,478 @@ public class PaymentService {
         return response;
     }
     
+    /**
+     * Process a batch of payment requests
+     * Runs the same validation, fraud and balance pipeline as processPayment for every item,
+     * keeping intermediate state in memory, then writes all payments and audit records
+     * as two JDBC batches within a single transaction.
+     * 
+     * @param requests Payment requests to process
+     * @return Per-item results in request order
+     */
+    @Transactional
+    public BatchPaymentResponse processPayments(List<PaymentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one payment");
+        }
+        
+        int maxSize = properties.getBatch().getMaxSize();
+        if (requests.size() > maxSize) {
+            throw new IllegalArgumentException(
+                String.format("Batch size %d exceeds maximum of %d", requests.size(), maxSize));
+        }
+        
+        logger.info("Processing payment batch of {} requests", requests.size());
+        
+        List<Payment> payments = new ArrayList<>(requests.size());
+        List<PaymentAudit> audits = new ArrayList<>(requests.size());
+        List<PaymentResponse> results = new ArrayList<>(requests.size());
+        
+        for (PaymentRequest request : requests) {
+            String validationError = validateRequest(request);
+            if (validationError != null) {
+                logger.warn("Rejecting batch item: {}", validationError);
+                PaymentResponse rejected = new PaymentResponse();
+                if (request != null) {
+                    rejected.setFromAccount(request.getFromAccount());
+                    rejected.setToAccount(request.getToAccount());
+                    rejected.setAmount(request.getAmount());
+                    rejected.setCurrency(request.getCurrency());
+                    rejected.setPaymentType(request.getPaymentType());
+                }
+                rejected.setStatus(PaymentStatus.FAILED);
+                rejected.setMessage("Payment unsuccessful");
+                rejected.setFailureReason("Invalid payment request: " + validationError);
+                results.add(rejected);
+                continue;
+            }
+            
+            LocalDateTime processingStartTime = LocalDateTime.now();
+            Payment payment = createPayment(request);
+            PaymentEvaluation evaluation = evaluatePayment(payment);
+            
+            payments.add(payment);
+            audits.add(buildAuditRecord(evaluation, processingStartTime));
+            results.add(evaluation.toResponse());
+        }
+        
+        reverseTransfersOnRollback(payments.stream()
+            .filter(payment -> payment.getStatus() == PaymentStatus.COMPLETED)
+            .toList());
+        paymentRepository.batchInsert(payments);
+        if (properties.getOutbox().isEnabled()) {
+            paymentRepository.appendOutcomes(payments);
+        }
+        auditService.saveAuditRecords(audits);
+        payments.forEach(this::cacheStatus);
+        
+        BatchPaymentResponse response = new BatchPaymentResponse(results);
+        logger.info("Payment batch processed: {} successful, {} failed", 
+                   response.getSuccessfulCount(), response.getFailedCount());
+        return response;
+    }
+    
+    /**
+     * Funds for these payments moved in the ledger before their final status was written; if the transaction
+     * rolls back, that status does not exist, so their transfers are reversed
+     */
+    private void reverseTransfersOnRollback(List<Payment> transferred) {
+        if (transferred.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    logger.warn("Payment transaction rolled back, reversing {} ledger transfers", transferred.size());
+                    transferred.forEach(payment -> accountService.reverseTransfer(
+                        payment.getFromAccount(), payment.getToAccount(), payment.getAmount()));
+                }
+            }
+        });
+    }
+    
+    private String validateRequest(PaymentRequest request) {
+        if (request == null) {
+            return "request must not be null";
+        }
+        if (request.getFromAccount() == null || request.getToAccount() == null) {
+            return "source and destination accounts are required";
+        }
+        if (request.getAmount() == null) {
+            return "amount is required";
+        }
+        if (request.getCurrency() == null) {
+            return "currency is required";
+        }
+        if (request.getPaymentType() == null) {
+            return "payment type is required";
+        }
+        return null;
+    }
+    
+    private Payment createPayment(PaymentRequest request) {
+        return new Payment(
+            UUID.randomUUID().toString(),
+            request.getFromAccount(),
+            request.getToAccount(),
+            request.getAmount(),
+            request.getCurrency(),
+            request.getPaymentType(),
+            request.getDescription()
+        );
+    }
+    
+    /**
+     * Runs validation, fraud check, balance check and ledger update without persisting anything.
+     * The payment is left in its terminal status with the failure reason set.
+     */
+    private PaymentEvaluation evaluatePayment(Payment payment) {
+        PaymentEvaluation evaluation = new PaymentEvaluation(payment);
+        
+        try {
+            screenPayment(payment, evaluation);
+            if (evaluation.failed()) {
+                return evaluation.fail(evaluation.failureStatus, evaluation.failureReason);
+            }
+            
+            AccountBalanceResponse balanceCheck = transferFunds(payment);
+            evaluation.sufficientBalance = balanceCheck.isSufficientBalance();
+            if (!evaluation.sufficientBalance) {
+                return evaluation.fail(balanceFailureStatus(balanceCheck), balanceCheck.getMessage());
+            }
+            
+            payment.setStatus(PaymentStatus.COMPLETED);
+            return evaluation;
+            
+        } catch (Exception e) {
+            logger.error("Error processing payment: {}", payment.getTransactionId(), e);
+            evaluation.processingError = true;
+            return evaluation.fail(PaymentStatus.FAILED, "Payment processing failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Runs source validation, destination validation and the fraud check (steps 1-3),
+     * recording results into the given screening as they become known
+     */
+    private void screenPayment(Payment payment, PaymentScreening screening) {
+        if (properties.getOrchestration().getMode() == PaymentProcessorProperties.OrchestrationMode.CONCURRENT) {
+            screenPaymentConcurrently(payment, screening);
+        } else {
+            screenPaymentSequentially(payment, screening);
+        }
+    }
+    
+    private void screenPaymentSequentially(Payment payment, PaymentScreening screening) {
+        // Step 1: Validate source account
+        logger.info("Step 1: Validating source account {}", payment.getFromAccount());
+        AccountBalanceResponse sourceAccountValidation = validateSourceAccount(payment);
+        screening.sourceAccountValid = sourceAccountValidation.isValid();
+        if (!screening.sourceAccountValid) {
+            screening.reject(PaymentStatus.ACCOUNT_VALIDATION_FAILED, 
+                "Source account validation failed: " + sourceAccountValidation.getMessage());
+            return;
+        }
+        
+        // Step 2: Validate destination account
+        logger.info("Step 2: Validating destination account {}", payment.getToAccount());
+        AccountBalanceResponse destAccountValidation = validateDestinationAccount(payment);
+        screening.destinationAccountValid = destAccountValidation.isValid();
+        if (!screening.destinationAccountValid) {
+            screening.reject(PaymentStatus.ACCOUNT_VALIDATION_FAILED, 
+                "Destination account validation failed: " + destAccountValidation.getMessage());
+            return;
+        }
+        
+        // Step 3: Fraud check
+        logger.info("Step 3: Performing fraud check");
+        screening.fraudCheck = checkFraud(payment);
+        if (screening.fraudCheck.isFraudulent()) {
+            screening.reject(PaymentStatus.FRAUD_CHECK_FAILED, "Fraud detected: " + screening.fraudCheck.getReason());
+        }
+    }
+    
+    /**
+     * Runs steps 1-3 in parallel and returns as soon as one of them fails, all of them pass,
+     * or the orchestration deadline expires. Failures are reported with the same precedence and
+     * audit flags as the sequential path: a flag is only true for a check that completed and passed,
+     * and the fraud result is dropped when an account check failed.
+     */
+    private void screenPaymentConcurrently(Payment payment, PaymentScreening screening) {
+        logger.info("Steps 1-3: Validating accounts and performing fraud check concurrently");
+        
+        List<Future<?>> tasks = new ArrayList<>(3);
+        CompletableFuture<AccountBalanceResponse> source = runStep(() -> validateSourceAccount(payment), tasks);
+        CompletableFuture<AccountBalanceResponse> destination = runStep(() -> validateDestinationAccount(payment), tasks);
+        CompletableFuture<FraudCheckResponse> fraud = runStep(() -> checkFraud(payment), tasks);
+        
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        source.thenAccept(result -> { if (!result.isValid()) firstFailure.complete(null); });
+        destination.thenAccept(result -> { if (!result.isValid()) firstFailure.complete(null); });
+        fraud.thenAccept(result -> { if (result.isFraudulent()) firstFailure.complete(null); });
+        CompletableFuture<Void> allPassed = CompletableFuture.allOf(source, destination, fraud);
+        
+        Duration deadline = properties.getOrchestration().getDeadline();
+        try {
+            CompletableFuture.anyOf(firstFailure, allPassed).get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Validation deadline of " + deadline.toMillis() + " ms exceeded");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            throw cause instanceof RuntimeException runtimeException 
+                ? runtimeException : new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating payment", e);
+        } finally {
+            // Cancelling a CompletableFuture only fixes its outcome; cancelling the task interrupts the step
+            source.cancel(false);
+            destination.cancel(false);
+            fraud.cancel(false);
+            tasks.forEach(task -> task.cancel(true));
+            recordScreeningResults(screening, completedResult(source), completedResult(destination), 
+                completedResult(fraud));
+        }
+    }
+    
+    /**
+     * Submits one screening step; the returned future completes with its result, and the task is added to
+     * the given list so it can be cancelled
+     */
+    private <T> CompletableFuture<T> runStep(Supplier<T> step, List<Future<?>> tasks) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        tasks.add(stepExecutor.submit(() -> {
+            try {
+                result.complete(step.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }));
+        return result;
+    }
+    
+    private void recordScreeningResults(PaymentScreening screening,
+                                        AccountBalanceResponse sourceResult,
+                                        AccountBalanceResponse destinationResult,
+                                        FraudCheckResponse fraudResult) {
+        screening.sourceAccountValid = sourceResult != null && sourceResult.isValid();
+        screening.destinationAccountValid = destinationResult != null && destinationResult.isValid();
+        
+        if (sourceResult != null && !sourceResult.isValid()) {
+            screening.destinationAccountValid = false;
+            screening.reject(PaymentStatus.ACCOUNT_VALIDATION_FAILED, 
+                "Source account validation failed: " + sourceResult.getMessage());
+        } else if (destinationResult != null && !destinationResult.isValid()) {
+            screening.reject(PaymentStatus.ACCOUNT_VALIDATION_FAILED, 
+                "Destination account validation failed: " + destinationResult.getMessage());
+        } else {
+            screening.fraudCheck = fraudResult;
+            if (fraudResult != null && fraudResult.isFraudulent()) {
+                screening.reject(PaymentStatus.FRAUD_CHECK_FAILED, "Fraud detected: " + fraudResult.getReason());
+            }
+        }
+    }
+    
+    private static <T> T completedResult(CompletableFuture<T> future) {
+        return future.state() == Future.State.SUCCESS ? future.resultNow() : null;
+    }
+    
+    private AccountBalanceResponse validateSourceAccount(Payment payment) {
+        return metrics.time(Step.SOURCE_VALIDATION, payment.getPaymentType(),
+            () -> accountService.validateAccount(payment.getFromAccount()), AccountBalanceResponse::isValid);
+    }
+    
+    private AccountBalanceResponse validateDestinationAccount(Payment payment) {
+        return metrics.time(Step.DESTINATION_VALIDATION, payment.getPaymentType(),
+            () -> accountService.validateAccount(payment.getToAccount()), AccountBalanceResponse::isValid);
+    }
+    
+    private FraudCheckResponse checkFraud(Payment payment) {
+        return metrics.time(Step.FRAUD_CHECK, payment.getPaymentType(),
+            () -> fraudService.checkFraud(createFraudCheckRequest(payment)), result -> !result.isFraudulent());
+    }
+    
+    private AccountBalanceResponse transferFunds(Payment payment) {
+        return metrics.time(Step.LEDGER_TRANSFER, payment.getPaymentType(),
+            () -> accountService.transfer(payment.getFromAccount(), payment.getToAccount(), payment.getAmount()),
+            AccountBalanceResponse::isSufficientBalance);
+    }
+    
+    /**
+     * A transfer refused for an invalid amount or account is a failed payment, not a balance shortfall
+     */
+    private static PaymentStatus balanceFailureStatus(AccountBalanceResponse balanceCheck) {
+        return balanceCheck.isValid() ? PaymentStatus.INSUFFICIENT_BALANCE : PaymentStatus.FAILED;
+    }
+    
+    private Payment savePayment(Payment payment) {
+        Payment saved = metrics.time(Step.STATUS_PERSISTENCE, payment.getPaymentType(), 
+            () -> paymentRepository.save(payment));
+        // Same transaction as the save, so an outcome event exists exactly when the final status commits
+        if (properties.getOutbox().isEnabled() && saved.getStatus().isTerminal()) {
+            paymentRepository.appendOutcomes(List.of(saved));
+        }
+        cacheStatus(saved);
+        return saved;
+    }
+    
+    private void cacheStatus(Payment payment) {
+        if (statusCache.isEnabled()) {
+            statusCache.put(buildStatusResponse(payment));
+        }
+    }
+    
+    private FraudCheckRequest createFraudCheckRequest(Payment payment) {
+        return new FraudCheckRequest(
+            payment.getTransactionId(),
+            payment.getFromAccount(),
+            payment.getToAccount(),
+            payment.getAmount(),
+            payment.getCurrency()
+        );
+    }
+    
+    /**
+     * Outcome of steps 1-3: account validation flags, fraud check result and the first failure, if any
+     */
+    private static class PaymentScreening {
+        
+        boolean sourceAccountValid;
+        boolean destinationAccountValid;
+        FraudCheckResponse fraudCheck;
+        PaymentStatus failureStatus;
+        String failureReason;
+        
+        void reject(PaymentStatus status, String reason) {
+            this.failureStatus = status;
+            this.failureReason = reason;
+        }
+        
+        boolean failed() {
+            return failureStatus != null;
+        }
+    }
+    
+    private PaymentAudit buildAuditRecord(PaymentEvaluation evaluation, LocalDateTime processingStartTime) {
+        if (evaluation.fraudCheck == null || evaluation.processingError) {
+            return auditService.createFailedAuditRecord(evaluation.payment, 
+                evaluation.sourceAccountValid, evaluation.destinationAccountValid, processingStartTime);
+        }
+        return auditService.createAuditRecord(evaluation.payment, evaluation.fraudCheck, 
+            evaluation.sourceAccountValid, evaluation.destinationAccountValid, 
+            evaluation.sufficientBalance, processingStartTime);
+    }
+    
+    /**
+     * In-memory result of running a payment through the processing pipeline
+     */
+    private final class PaymentEvaluation extends PaymentScreening {
+        
+        private final Payment payment;
+        private boolean sufficientBalance;
+        private boolean processingError;
+        
+        private PaymentEvaluation(Payment payment) {
+            this.payment = payment;
+        }
+        
+        private PaymentEvaluation fail(PaymentStatus status, String reason) {
+            logger.warn("Payment failed - Transaction: {}, Status: {}, Reason: {}", 
+                       payment.getTransactionId(), status, reason);
+            payment.setStatus(status);
+            payment.setFailureReason(reason);
+            return this;
+        }
+        
+        private PaymentResponse toResponse() {
+            if (payment.getStatus() == PaymentStatus.COMPLETED) {
+                return buildSuccessResponse(payment);
+            }
+            return buildFailureResponse(payment, payment.getStatus(), payment.getFailureReason());
+        }
+    }
+    
     public Optional<PaymentResponse> getPaymentStatus(String transactionId) {
         logger.info("Retrieving payment status for transaction: {}", transactionId);
         
-        return paymentRepository.findByTransactionId(transactionId)
-            .map(payment -> {
-                PaymentResponse response = new PaymentResponse();
-                response.setTransactionId(payment.getTransactionId());
-                response.setFromAccount(payment.getFromAccount());
-                response.setToAccount(payment.getToAccount());
-                response.setAmount(payment.getAmount());
-                response.setCurrency(payment.getCurrency());
-                response.setPaymentType(payment.getPaymentType());
-                response.setStatus(payment.getStatus());
-                response.setTimestamp(payment.getUpdatedAt());
-                
-                if (payment.getStatus() == PaymentStatus.COMPLETED) {
-                    response.setMessage("Payment successful");
-                } else {
-                    response.setMessage("Payment unsuccessful");
-                    response.setFailureReason(payment.getFailureReason());
-                }
-                
-                return response;
-            });
+        return statusCache.get(transactionId, id -> findPayment(id).map(PaymentService::buildStatusResponse));
     }
     
-    public List<Payment> getPaymentsByAccount(String accountNumber) {
+    /**
+     * Looks the payment up on the read replica, if configured, and falls back to the primary when the
+     * replica has not replayed its insert yet, so a client polling right after submitting never gets a 404
+     */
+    private Optional<Payment> findPayment(String transactionId) {
+        Optional<Payment> payment = paymentRepository.findByTransactionId(transactionId);
+        if (payment.isEmpty() && properties.getReadReplica().isEnabled()) {
+            return ReplicaRoutingDataSource.readFromPrimary(() -> paymentRepository.findByTransactionId(transactionId));
+        }
+        return payment;
+    }
+    
+    private static PaymentResponse buildStatusResponse(Payment payment) {
+        PaymentResponse response = new PaymentResponse();
+        response.setTransactionId(payment.getTransactionId());
+        response.setFromAccount(payment.getFromAccount());
+        response.setToAccount(payment.getToAccount());
+        response.setAmount(payment.getAmount());
+        response.setCurrency(payment.getCurrency());
+        response.setPaymentType(payment.getPaymentType());
+        response.setStatus(payment.getStatus());
+        response.setTimestamp(payment.getUpdatedAt());
+        
+        if (payment.getStatus() == PaymentStatus.COMPLETED) {
+            response.setMessage("Payment successful");
+        } else {
+            response.setMessage("Payment unsuccessful");
+            response.setFailureReason(payment.getFailureReason());
+        }
+        
+        return response;
+    }
+    
+    /**
+     * Retrieves one page of the payments sent or received by an account
+     * 
+     * @param accountNumber Account that sent or received the payments
+     * @param filter Optional status, type, currency and creation time criteria
+     * @param after Position of the last payment on the previous page, or null for the first page
+     * @param pageSize Number of payments to return, between 1 and MAX_PAGE_SIZE
+     * @return Payments in (createdAt, id) order; fewer than pageSize means there are no more
+     */
+    @Transactional(readOnly = true)
+    public List<Payment> getPaymentsByAccount(String accountNumber, PaymentFilter filter, PaymentCursor after,
+                                              int pageSize) {
         logger.info("Retrieving payments for account: {}", accountNumber);
-        return (List<Payment>) paymentRepository.findByAccount(accountNumber);
+        
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number must not be null or empty");
+        }
+        checkPageSize(pageSize);
+        return paymentRepository.findAccountPage(accountNumber, filter, after, pageSize);
     }
     
-    public List<Payment> getAllPayments() {
-        logger.info("Retrieving all payments");
-        return (List<Payment>) paymentRepository.findAll();
+    /**
+     * Retrieves one page of all payments (for admin/monitoring purposes)
+     * 
+     * @param filter Optional status, type, currency and creation time criteria
+     * @param after Position of the last payment on the previous page, or null for the first page
+     * @param pageSize Number of payments to return, between 1 and MAX_PAGE_SIZE
+     * @return Payments in (createdAt, id) order; fewer than pageSize means there are no more
+     */
+    @Transactional(readOnly = true)
+    public List<Payment> getPayments(PaymentFilter filter, PaymentCursor after, int pageSize) {
+        logger.info("Retrieving payments matching {}", filter);
+        
+        checkPageSize(pageSize);
+        return paymentRepository.findPage(filter, after, pageSize);
+    }
+    
+    private static void checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 }
@@ -0,0 +1,113 @@
+package com.alok.payment.paymentprocessor.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.dto.PaymentResponse;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Payment Status Cache
+ * Bounded in-process cache of payment status responses by transaction ID. Statuses saved by this
+ * instance are written through after their transaction commits; anything else is read through on a
+ * miss. PENDING and PROCESSING responses expire after the in-flight TTL so a status written by another
+ * instance is picked up quickly, final statuses after the longer terminal TTL. Only active when
+ * payment.status-cache.enabled is true; hits and misses are published as cache.gets{cache=payment.status}.
+ */
+@Component
+public class PaymentStatusCache {
+
+    public static final String CACHE_NAME = "payment.status";
+
+    private final Cache<String, PaymentResponse> cache;
+
+    public PaymentStatusCache(PaymentProcessorProperties properties, MeterRegistry meterRegistry) {
+        PaymentProcessorProperties.StatusCache settings = properties.getStatusCache();
+        if (!settings.isEnabled()) {
+            this.cache = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(settings.getMaximumSize())
+            .expireAfter(new StatusExpiry(settings.getInFlightTtl(), settings.getTerminalTtl()))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Cached status of the transaction, loading it on a miss. Concurrent misses for the same
+     * transaction share one load; a transaction the loader does not find is not cached.
+     */
+    public Optional<PaymentResponse> get(String transactionId, Function<String, Optional<PaymentResponse>> loader) {
+        if (cache == null) {
+            return loader.apply(transactionId);
+        }
+        return Optional.ofNullable(cache.get(transactionId, id -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Caches a saved status once the current transaction commits, or immediately outside a transaction,
+     * so a rolled back status is never served
+     */
+    public void put(PaymentResponse response) {
+        if (cache == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(response.getTransactionId(), response);
+                }
+            });
+        } else {
+            cache.put(response.getTransactionId(), response);
+        }
+    }
+
+    /**
+     * Expires in-flight statuses after the short TTL and final statuses after the long one, timed from
+     * the last write so a PROCESSING entry overwritten by COMPLETED gets the terminal TTL
+     */
+    private record StatusExpiry(Duration inFlightTtl, Duration terminalTtl) implements Expiry<String, PaymentResponse> {
+
+        @Override
+        public long expireAfterCreate(String transactionId, PaymentResponse response, long currentTime) {
+            return ttl(response).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String transactionId, PaymentResponse response, long currentTime,
+                                      long currentDuration) {
+            return ttl(response).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String transactionId, PaymentResponse response, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+
+        private Duration ttl(PaymentResponse response) {
+            PaymentStatus status = response.getStatus();
+            return status != null && status.isTerminal() ? terminalTtl : inFlightTtl;
+        }
+    }
+}
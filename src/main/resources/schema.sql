@@ -1,12 +1,13 @@
 -- Payment Processor Database Schema
 
--- Drop table if exists
-DROP TABLE IF EXISTS payments;
+-- Drop table if exists (drops its partitions too)
+DROP TABLE IF EXISTS payments CASCADE;
 
--- Create payments table
+-- Create payments table, range partitioned by month of created_at.
+-- Unique constraints must include the partition key, so transaction_id is unique per creation time.
 CREATE TABLE payments (
-    id BIGSERIAL PRIMARY KEY,
-    transaction_id VARCHAR(255) NOT NULL UNIQUE,
+    id BIGSERIAL,
+    transaction_id VARCHAR(255) NOT NULL,
     from_account VARCHAR(100) NOT NULL,
     to_account VARCHAR(100) NOT NULL,
     amount DECIMAL(19, 2) NOT NULL,
@@ -16,15 +17,21 @@ CREATE TABLE payments (
     description TEXT,
     failure_reason TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at),
+    UNIQUE (transaction_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside the monthly partitions created by the partition maintenance job
+CREATE TABLE payments_default PARTITION OF payments DEFAULT;
 
--- Create indexes for better query performance
+-- Create indexes for better query performance (created on every partition)
 CREATE INDEX idx_payments_transaction_id ON payments(transaction_id);
-CREATE INDEX idx_payments_from_account ON payments(from_account);
-CREATE INDEX idx_payments_to_account ON payments(to_account);
-CREATE INDEX idx_payments_status ON payments(status);
-CREATE INDEX idx_payments_created_at ON payments(created_at);
+-- (column, created_at, id) indexes serve the keyset-paged listings in page order
+CREATE INDEX idx_payments_from_account ON payments(from_account, created_at, id);
+CREATE INDEX idx_payments_to_account ON payments(to_account, created_at, id);
+CREATE INDEX idx_payments_status ON payments(status, created_at, id);
+CREATE INDEX idx_payments_created_at ON payments(created_at, id);
 
 -- Comments for documentation
 COMMENT ON TABLE payments IS 'Stores payment transaction records';
@@ -39,3 +46,138 @@ COMMENT ON COLUMN payments.description IS 'Payment description or memo';
 COMMENT ON COLUMN payments.failure_reason IS 'Reason for payment failure if applicable';
 COMMENT ON COLUMN payments.created_at IS 'Timestamp when payment was initiated';
 COMMENT ON COLUMN payments.updated_at IS 'Timestamp of last status update';
+
+-- Drop table if exists (drops its partitions too)
+DROP TABLE IF EXISTS payment_audit CASCADE;
+
+-- Create payment_audit table, range partitioned by month of audited_at
+CREATE TABLE payment_audit (
+    id BIGSERIAL,
+    transaction_id VARCHAR(255) NOT NULL,
+    from_account VARCHAR(100) NOT NULL,
+    to_account VARCHAR(100) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    payment_type VARCHAR(50) NOT NULL,
+    
+    -- Original Payment Details
+    description TEXT,
+    payment_initiated_at TIMESTAMP,
+    
+    -- Fraud Decision Details
+    fraud_check_passed BOOLEAN,
+    fraud_reason TEXT,
+    fraud_risk_score VARCHAR(50),
+    risk_score DOUBLE PRECISION,
+    fraud_check_at TIMESTAMP,
+    
+    -- Processing Details
+    final_status VARCHAR(50),
+    failure_reason TEXT,
+    processing_time_ms BIGINT,
+    completed_at TIMESTAMP,
+    
+    -- Account Validation Details
+    source_account_valid BOOLEAN,
+    destination_account_valid BOOLEAN,
+    sufficient_balance BOOLEAN,
+    
+    -- Audit Metadata
+    audited_by VARCHAR(100),
+    audited_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Set by the database to the inserting transaction; the daily rollup only folds rows of ended transactions
+    inserted_xid XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    PRIMARY KEY (id, audited_at)
+) PARTITION BY RANGE (audited_at);
+
+-- Catches rows outside the monthly partitions created by the partition maintenance job
+CREATE TABLE payment_audit_default PARTITION OF payment_audit DEFAULT;
+
+-- Create indexes for better query performance (created on every partition)
+CREATE INDEX idx_payment_audit_transaction_id ON payment_audit(transaction_id);
+-- Account lookups page through these in audited_at order without sorting
+CREATE INDEX idx_payment_audit_from_account ON payment_audit(from_account, audited_at, id);
+CREATE INDEX idx_payment_audit_to_account ON payment_audit(to_account, audited_at, id);
+CREATE INDEX idx_payment_audit_final_status ON payment_audit(final_status);
+CREATE INDEX idx_payment_audit_fraud_check_passed ON payment_audit(fraud_check_passed);
+-- Exports stream date ranges in (audited_at, id) order without sorting
+CREATE INDEX idx_payment_audit_audited_at ON payment_audit(audited_at, id);
+-- The daily rollup folds ranges of inserting transactions
+CREATE INDEX idx_payment_audit_inserted_xid ON payment_audit(inserted_xid);
+-- Compliance review queue; only high-risk rows are indexed, keyed by id for keyset paging
+CREATE INDEX idx_payment_audit_high_risk ON payment_audit(id)
+    WHERE risk_score > 0.7 OR fraud_check_passed = FALSE OR processing_time_ms > 5000;
+
+-- Comments for documentation
+COMMENT ON TABLE payment_audit IS 'Stores comprehensive audit trail for payment transactions';
+COMMENT ON COLUMN payment_audit.transaction_id IS 'Transaction identifier from the payment';
+COMMENT ON COLUMN payment_audit.inserted_xid IS 'Transaction that inserted the row, used by the daily rollup';
+
+-- Daily audit rollups, folded in from payment_audit by the background rollup job
+DROP TABLE IF EXISTS payment_audit_daily CASCADE;
+DROP TABLE IF EXISTS payment_audit_daily_failure_reason CASCADE;
+DROP TABLE IF EXISTS payment_audit_rollup_state CASCADE;
+DROP TABLE IF EXISTS payment_audit_archive_state CASCADE;
+DROP TABLE IF EXISTS payment_audit_latency CASCADE;
+
+CREATE TABLE payment_audit_daily (
+    audit_date DATE PRIMARY KEY,
+    total_transactions BIGINT NOT NULL,
+    successful_transactions BIGINT NOT NULL,
+    fraud_detected BIGINT NOT NULL,
+    processing_time_sum BIGINT NOT NULL,
+    processing_time_count BIGINT NOT NULL
+);
+
+CREATE TABLE payment_audit_daily_failure_reason (
+    audit_date DATE NOT NULL,
+    failure_reason TEXT NOT NULL,
+    failures BIGINT NOT NULL,
+    PRIMARY KEY (audit_date, failure_reason)
+);
+
+-- Processing time histograms per hour of audited_at, payment type and final status, in HdrHistogram's
+-- compressed encoding; buckets merge, so percentiles over any run of hours need no audit rows
+CREATE TABLE payment_audit_latency (
+    bucket_start TIMESTAMP NOT NULL,
+    payment_type VARCHAR(50) NOT NULL,
+    final_status VARCHAR(50) NOT NULL,
+    histogram BYTEA NOT NULL,
+    PRIMARY KEY (bucket_start, payment_type, final_status)
+);
+
+-- Single row holding the transaction ID below which every inserted payment_audit row is folded into the rollups
+CREATE TABLE payment_audit_rollup_state (
+    id INT PRIMARY KEY CHECK (id = 1),
+    folded_below_xid XID8 NOT NULL
+);
+
+INSERT INTO payment_audit_rollup_state (id, folded_below_xid) VALUES (1, CAST('0' AS xid8));
+
+-- Single row holding the last payment_audit row moved to the audit archive in (audited_at, id) order;
+-- null until the first archive run
+CREATE TABLE payment_audit_archive_state (
+    id INT PRIMARY KEY CHECK (id = 1),
+    archived_through_audited_at TIMESTAMP,
+    archived_through_id BIGINT
+);
+
+INSERT INTO payment_audit_archive_state (id) VALUES (1);
+
+COMMENT ON TABLE payment_audit_daily IS 'Per-day audit totals by audited_at date';
+COMMENT ON TABLE payment_audit_daily_failure_reason IS 'Per-day failure reason counts by audited_at date';
+COMMENT ON TABLE payment_audit_latency IS 'Hourly processing time histograms by payment type and final status';
+
+-- Payment outcome events written in the same transaction as the final payment status and deleted once
+-- the outbox relay has published them, so the table only holds the undelivered backlog
+DROP TABLE IF EXISTS payment_outbox CASCADE;
+
+CREATE TABLE payment_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    transaction_id VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE payment_outbox IS 'Payment outcome events awaiting publication by the outbox relay';
+COMMENT ON COLUMN payment_outbox.payload IS 'Outcome event as published downstream';
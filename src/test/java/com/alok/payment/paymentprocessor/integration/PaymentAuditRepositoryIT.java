@@ -5,6 +5,7 @@
  */
 package com.alok.payment.paymentprocessor.integration;
 
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
 import com.alok.payment.paymentprocessor.model.PaymentAudit;
 import com.alok.payment.paymentprocessor.model.PaymentStatus;
 import com.alok.payment.paymentprocessor.model.PaymentType;
@@ -17,10 +18,18 @@ import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.utility.DockerImageName;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -60,6 +69,12 @@ class PaymentAuditRepositoryIT {
     @Autowired
     private PaymentAuditRepository auditRepository;
 
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
         auditRepository.deleteAll();
@@ -302,6 +317,67 @@ class PaymentAuditRepositoryIT {
         assertEquals(3, count);
     }
 
+    @Test
+    @DisplayName("Should record the archive watermark under the archive lock")
+    void testAdvanceArchivedThrough() {
+        assertEquals(Optional.empty(), auditRepository.lockArchivedThrough());
+
+        ArchiveKey through = new ArchiveKey(LocalDateTime.of(2025, 1, 31, 12, 0), 42L);
+        auditRepository.advanceArchivedThrough(through);
+
+        assertEquals(Optional.of(through), auditRepository.findArchivedThrough());
+        assertEquals(Optional.of(through), auditRepository.holdArchivedThrough());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should fold committed audits in batches of whole transactions")
+    void testFoldNewAuditsInBatches() {
+        try {
+            fold(10);
+            auditRepository.save(createSampleAudit("TXN-001", "ACC001", "ACC002"));
+            auditRepository.save(createSampleAudit("TXN-002", "ACC001", "ACC003"));
+            auditRepository.save(createSampleAudit("TXN-003", "ACC002", "ACC003"));
+
+            assertEquals(2, fold(2));
+            assertEquals(1, fold(2));
+            assertEquals(0, fold(2));
+        } finally {
+            auditRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should not fold past an open transaction until it commits")
+    void testFoldNewAuditsWaitsForOpenTransaction() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            fold(10);
+            auditRepository.save(createSampleAudit("TXN-001", "ACC001", "ACC002"));
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("""
+                    INSERT INTO payment_audit (transaction_id, from_account, to_account, amount, currency,
+                                               payment_type, final_status, audited_at)
+                    VALUES ('TXN-002', 'ACC001', 'ACC003', 1000.00, 'USD', 'DOMESTIC_TRANSFER', 'COMPLETED', NOW())
+                    """);
+            }
+            auditRepository.save(createSampleAudit("TXN-003", "ACC002", "ACC003"));
+
+            assertEquals(1, fold(10));
+
+            connection.commit();
+
+            assertEquals(2, fold(10));
+        } finally {
+            auditRepository.deleteAll();
+        }
+    }
+
+    private int fold(int maxAudits) {
+        return new TransactionTemplate(transactionManager).execute(status -> auditRepository.foldNewAudits(maxAudits));
+    }
+
     private PaymentAudit createSampleAudit(String transactionId, String fromAccount, String toAccount) {
         PaymentAudit audit = new PaymentAudit(
             transactionId,
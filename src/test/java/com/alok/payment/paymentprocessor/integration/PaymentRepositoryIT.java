@@ -1,14 +1,18 @@
 package com.alok.payment.paymentprocessor.integration;
 
+import com.alok.payment.paymentprocessor.dto.PaymentCursor;
+import com.alok.payment.paymentprocessor.dto.PaymentFilter;
 import com.alok.payment.paymentprocessor.model.Payment;
 import com.alok.payment.paymentprocessor.model.PaymentStatus;
 import com.alok.payment.paymentprocessor.model.PaymentType;
+import com.alok.payment.paymentprocessor.outbox.OutboxMessage;
 import com.alok.payment.paymentprocessor.repository.PaymentRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -103,7 +107,7 @@ class PaymentRepositoryIT extends AbstractIntegrationTest {
     @Test
     @DisplayName("Should find payments by account (from or to)")
     void testFindByAccount() {
-        List<Payment> payments = (List<Payment>) paymentRepository.findByAccount("ACC001");
+        List<Payment> payments = paymentRepository.findAccountPage("ACC001", PaymentFilter.NONE, null, 100);
         
         assertNotNull(payments);
         assertTrue(payments.size() > 0);
@@ -115,6 +119,30 @@ class PaymentRepositoryIT extends AbstractIntegrationTest {
         }
     }
 
+    @Test
+    @DisplayName("Should page through payments in (createdAt, id) order without gaps or repeats")
+    void testFindPageWithCursor() {
+        List<Payment> all = paymentRepository.findPage(PaymentFilter.NONE, null, 1000);
+        assertTrue(all.size() >= 2);
+
+        List<Payment> paged = new ArrayList<>();
+        PaymentCursor after = null;
+        List<Payment> page;
+        do {
+            page = paymentRepository.findPage(PaymentFilter.NONE, after, 2);
+            paged.addAll(page);
+            if (!page.isEmpty()) {
+                after = PaymentCursor.of(page.get(page.size() - 1));
+            }
+        } while (page.size() == 2);
+
+        assertEquals(all.stream().map(Payment::getId).toList(), paged.stream().map(Payment::getId).toList());
+
+        PaymentFilter completed = new PaymentFilter(PaymentStatus.COMPLETED, null, null, null, null);
+        assertTrue(paymentRepository.findPage(completed, null, 100).stream()
+            .allMatch(payment -> payment.getStatus() == PaymentStatus.COMPLETED));
+    }
+
     @Test
     @DisplayName("Should update payment status")
     void testUpdatePaymentStatus() {
@@ -226,4 +254,32 @@ class PaymentRepositoryIT extends AbstractIntegrationTest {
         assertNotNull(payments);
         assertTrue(payments.isEmpty());
     }
+
+    @Test
+    @DisplayName("Should append, claim and delete payment outcome events")
+    void testOutboxRoundTrip() {
+        Payment payment = new Payment(
+            "TEST-TXN-OUTBOX-001",
+            "ACC001",
+            "ACC002",
+            new BigDecimal("75.25"),
+            "USD",
+            PaymentType.DOMESTIC_TRANSFER,
+            "Outbox test payment"
+        );
+        payment.setStatus(PaymentStatus.COMPLETED);
+
+        paymentRepository.appendOutcomes(List.of(paymentRepository.save(payment)));
+
+        List<OutboxMessage> claimed = paymentRepository.claimOutcomes(1000).stream()
+            .filter(message -> message.transactionId().equals("TEST-TXN-OUTBOX-001"))
+            .toList();
+        assertEquals(1, claimed.size());
+        assertTrue(claimed.get(0).payload().contains("\"status\": \"COMPLETED\""));
+
+        paymentRepository.deleteOutcomes(List.of(claimed.get(0).id()));
+
+        assertTrue(paymentRepository.claimOutcomes(1000).stream()
+            .noneMatch(message -> message.transactionId().equals("TEST-TXN-OUTBOX-001")));
+    }
 }
@@ -0,0 +1,247 @@
+package com.alok.payment.paymentprocessor.unit.archive;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.archive.AuditArchive;
+import com.alok.payment.paymentprocessor.archive.AuditArchiveFile;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AuditArchive Unit Tests")
+class AuditArchiveTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 9, 0, 0, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    private PaymentProcessorProperties properties;
+    private AuditArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentProcessorProperties();
+        properties.getAudit().getArchive().setEnabled(true);
+        properties.getAudit().getArchive().setDirectory(directory);
+        archive = new AuditArchive(properties);
+    }
+
+    @Test
+    @DisplayName("Should read back every field, including nulls, exactly as written")
+    void testRoundTrip() throws Exception {
+        PaymentAudit full = audit(1, START, "ACC001", "ACC002", PaymentStatus.COMPLETED);
+        full.setFraudReason("Velocity");
+        full.setFraudRiskScore("HIGH");
+        full.setFailureReason(null);
+        PaymentAudit sparse = new PaymentAudit();
+        sparse.setId(2L);
+        sparse.setAuditedAt(START.plusSeconds(1));
+
+        AuditArchiveFile file = AuditArchiveFile.write(directory.resolve("round-trip.paa"), List.of(full, sparse));
+        List<PaymentAudit> read = AuditArchiveFile.open(file.getPath()).read(audit -> true);
+
+        assertEquals(2, read.size());
+        assertAuditEquals(full, read.get(0));
+        assertAuditEquals(sparse, read.get(1));
+        assertEquals(new ArchiveKey(START, 1), file.getFirstKey());
+        assertEquals(new ArchiveKey(START.plusSeconds(1), 2), file.getLastKey());
+    }
+
+    @Test
+    @DisplayName("Should store repetitive audits in a few bytes each")
+    void testCompresses() throws Exception {
+        List<PaymentAudit> audits = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            audits.add(audit(i, START.plusSeconds(i), "ACC00" + (i % 5), "ACC10" + (i % 7),
+                i % 10 == 0 ? PaymentStatus.FAILED : PaymentStatus.COMPLETED));
+        }
+
+        AuditArchiveFile file = AuditArchiveFile.write(directory.resolve("compressed.paa"), audits);
+
+        assertTrue(Files.size(file.getPath()) < 5000 * 16, "archive is " + Files.size(file.getPath()) + " bytes");
+        assertEquals(5000, file.read(audit -> true).size());
+    }
+
+    @Test
+    @DisplayName("Should track the watermark and reload the file index from the directory")
+    void testWatermarkAndReload() {
+        assertEquals(Optional.empty(), archive.lastArchivedKey());
+
+        archive.archive(List.of(audit(1, START, "ACC001", "ACC002", PaymentStatus.COMPLETED),
+            audit(2, START.plusMinutes(1), "ACC001", "ACC003", PaymentStatus.COMPLETED)));
+        ArchiveKey watermark = archive.archive(List.of(audit(3, START.plusMinutes(2), "ACC002", "ACC003", PaymentStatus.FAILED)));
+
+        assertEquals(new ArchiveKey(START.plusMinutes(2), 3), watermark);
+        assertEquals(Optional.of(watermark), new AuditArchive(properties).lastArchivedKey());
+    }
+
+    @Test
+    @DisplayName("Should reject audits at or before the watermark")
+    void testRejectsOutOfOrderBatch() {
+        archive.archive(List.of(audit(5, START, "ACC001", "ACC002", PaymentStatus.COMPLETED)));
+
+        assertThrows(IllegalArgumentException.class, () ->
+            archive.archive(List.of(audit(4, START, "ACC001", "ACC002", PaymentStatus.COMPLETED))));
+    }
+
+    @Test
+    @DisplayName("Should return archived audits within an inclusive date range across files")
+    void testFindByAuditedAtBetween() {
+        archive.archive(List.of(audit(1, START, "ACC001", "ACC002", PaymentStatus.COMPLETED),
+            audit(2, START.plusHours(1), "ACC001", "ACC002", PaymentStatus.COMPLETED)));
+        archive.archive(List.of(audit(3, START.plusHours(2), "ACC001", "ACC002", PaymentStatus.COMPLETED),
+            audit(4, START.plusHours(3), "ACC001", "ACC002", PaymentStatus.COMPLETED)));
+
+        List<PaymentAudit> audits = archive.findByAuditedAtBetween(START.plusHours(1), START.plusHours(2));
+
+        assertEquals(List.of(2L, 3L), ids(audits));
+    }
+
+    @Test
+    @DisplayName("Should stream filtered archived audits within a half-open date range across files")
+    void testStreamAuditedIn() {
+        archive.archive(List.of(audit(1, START, "ACC001", "ACC002", PaymentStatus.COMPLETED),
+            audit(2, START.plusHours(1), "ACC001", "ACC002", PaymentStatus.FAILED)));
+        archive.archive(List.of(audit(3, START.plusHours(2), "ACC001", "ACC002", PaymentStatus.COMPLETED),
+            audit(4, START.plusHours(3), "ACC001", "ACC002", PaymentStatus.COMPLETED)));
+
+        try (Stream<PaymentAudit> audits = archive.streamAuditedIn(START.plusHours(1), START.plusHours(3),
+                audit -> true)) {
+            assertEquals(List.of(2L, 3L), ids(audits.toList()));
+        }
+        try (Stream<PaymentAudit> audits = archive.streamAuditedIn(null, null,
+                audit -> audit.getFinalStatus() == PaymentStatus.COMPLETED)) {
+            assertEquals(List.of(1L, 3L, 4L), ids(audits.toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should page an account's archived audits after a position and before an end time")
+    void testFindByAccountAfter() {
+        archive.archive(List.of(audit(1, START, "ACC001", "ACC002", PaymentStatus.COMPLETED),
+            audit(2, START.plusHours(1), "ACC003", "ACC004", PaymentStatus.COMPLETED),
+            audit(3, START.plusHours(2), "ACC002", "ACC001", PaymentStatus.FAILED)));
+        archive.archive(List.of(audit(4, START.plusHours(3), "ACC005", "ACC006", PaymentStatus.COMPLETED)));
+        archive.archive(List.of(audit(5, START.plusHours(4), "ACC001", "ACC001", PaymentStatus.COMPLETED),
+            audit(6, START.plusHours(5), "ACC001", "ACC002", PaymentStatus.COMPLETED)));
+
+        assertEquals(List.of(1L, 3L), ids(archive.findByAccountAfter("ACC001", START.minusDays(1), 0L,
+            START.plusDays(1), 2)));
+        assertEquals(List.of(5L), ids(archive.findByAccountAfter("ACC001", START.plusHours(2), 3L,
+            START.plusHours(5), 10)));
+        assertTrue(archive.findByAccountAfter("ACC999", START.minusDays(1), 0L, START.plusDays(1), 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should pick up files another instance archived and fail when the watermark is not covered")
+    void testCheckCovers() {
+        AuditArchive other = new AuditArchive(properties);
+        ArchiveKey watermark = other.archive(List.of(audit(1, START, "ACC001", "ACC002", PaymentStatus.COMPLETED)));
+
+        archive.checkCovers(watermark);
+
+        assertEquals(Optional.of(watermark), archive.lastArchivedKey());
+        assertThrows(IllegalStateException.class, () -> archive.checkCovers(new ArchiveKey(START.plusHours(1), 2)));
+        properties.getAudit().getArchive().setEnabled(false);
+        assertThrows(IllegalStateException.class, () -> new AuditArchive(properties).checkCovers(watermark));
+    }
+
+    @Test
+    @DisplayName("Should delete files past the database watermark and keep the file watermark when none is recorded")
+    void testReconcile() throws Exception {
+        ArchiveKey committed = archive.archive(List.of(audit(1, START, "ACC001", "ACC002", PaymentStatus.COMPLETED)));
+        ArchiveKey rolledBack = archive.archive(List.of(audit(2, START.plusHours(1), "ACC001", "ACC002", PaymentStatus.COMPLETED)));
+
+        assertEquals(Optional.of(rolledBack), archive.reconcile(Optional.empty()));
+        assertEquals(Optional.of(committed), archive.reconcile(Optional.of(committed)));
+
+        assertEquals(Optional.of(committed), archive.lastArchivedKey());
+        assertEquals(List.of(1L), ids(archive.findByAuditedAtBetween(START, START.plusDays(1))));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should ignore temporary files left by an interrupted write")
+    void testIgnoresTemporaryFiles() throws Exception {
+        Files.writeString(directory.resolve("payment_audit_partial.paa.tmp"), "partial");
+
+        assertEquals(Optional.empty(), new AuditArchive(properties).lastArchivedKey());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private static PaymentAudit audit(long id, LocalDateTime auditedAt, String from, String to, PaymentStatus status) {
+        PaymentAudit audit = new PaymentAudit();
+        audit.setId(id);
+        audit.setTransactionId("TXN-" + id);
+        audit.setFromAccount(from);
+        audit.setToAccount(to);
+        audit.setAmount(new BigDecimal("1250.75"));
+        audit.setCurrency("USD");
+        audit.setPaymentType(PaymentType.DOMESTIC_TRANSFER);
+        audit.setDescription("Invoice " + id);
+        audit.setPaymentInitiatedAt(auditedAt.minusNanos(250_000_000));
+        audit.setFraudCheckPassed(status != PaymentStatus.FAILED);
+        audit.setRiskScore(0.25);
+        audit.setFraudCheckAt(auditedAt.minusNanos(100_000_000));
+        audit.setFinalStatus(status);
+        audit.setFailureReason(status == PaymentStatus.FAILED ? "Insufficient balance" : null);
+        audit.setProcessingTimeMs(250L);
+        audit.setCompletedAt(auditedAt);
+        audit.setSourceAccountValid(true);
+        audit.setDestinationAccountValid(true);
+        audit.setSufficientBalance(status != PaymentStatus.FAILED);
+        audit.setAuditedBy("SYSTEM");
+        audit.setAuditedAt(auditedAt);
+        return audit;
+    }
+
+    private static List<Long> ids(List<PaymentAudit> audits) {
+        return audits.stream().map(PaymentAudit::getId).toList();
+    }
+
+    private static void assertAuditEquals(PaymentAudit expected, PaymentAudit actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTransactionId(), actual.getTransactionId());
+        assertEquals(expected.getFromAccount(), actual.getFromAccount());
+        assertEquals(expected.getToAccount(), actual.getToAccount());
+        assertEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getCurrency(), actual.getCurrency());
+        assertEquals(expected.getPaymentType(), actual.getPaymentType());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getPaymentInitiatedAt(), actual.getPaymentInitiatedAt());
+        assertEquals(expected.getFraudCheckPassed(), actual.getFraudCheckPassed());
+        assertEquals(expected.getFraudReason(), actual.getFraudReason());
+        assertEquals(expected.getFraudRiskScore(), actual.getFraudRiskScore());
+        assertEquals(expected.getRiskScore(), actual.getRiskScore());
+        assertEquals(expected.getFraudCheckAt(), actual.getFraudCheckAt());
+        assertEquals(expected.getFinalStatus(), actual.getFinalStatus());
+        assertEquals(expected.getFailureReason(), actual.getFailureReason());
+        assertEquals(expected.getProcessingTimeMs(), actual.getProcessingTimeMs());
+        assertEquals(expected.getCompletedAt(), actual.getCompletedAt());
+        assertEquals(expected.getSourceAccountValid(), actual.getSourceAccountValid());
+        assertEquals(expected.getDestinationAccountValid(), actual.getDestinationAccountValid());
+        assertEquals(expected.getSufficientBalance(), actual.getSufficientBalance());
+        assertEquals(expected.getAuditedBy(), actual.getAuditedBy());
+        assertEquals(expected.getAuditedAt(), actual.getAuditedAt());
+    }
+}
@@ -0,0 +1,128 @@
+package com.alok.payment.paymentprocessor.unit.bulkimport;
+
+import com.alok.payment.paymentprocessor.bulkimport.ImportChunk;
+import com.alok.payment.paymentprocessor.bulkimport.ImportResult;
+import com.alok.payment.paymentprocessor.bulkimport.ImportTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImportChunk Unit Tests")
+class ImportChunkTest {
+
+    @Test
+    @DisplayName("Should encode valid rows as COPY text, escaping control characters")
+    void testEncode() {
+        ImportChunk chunk = ImportChunk.encode(ImportTable.PAYMENTS, 1, List.of(
+            payment("TXN-001", "1000.00", "Rent\tMarch\\April\nsecond line", "2024-03-14T10:30:00", null),
+            payment("TXN-002", "5.5", null, "2024-03-15T09:00:00", "2024-03-15T09:00:01")),
+            List.of(), null, month -> false);
+
+        assertEquals(2, chunk.getRowsRead());
+        assertEquals(2, chunk.getTableRowCount());
+        assertTrue(chunk.getRejections().isEmpty());
+        assertEquals("""
+            TXN-001\tACC001\tACC002\t1000.00\tUSD\tDOMESTIC_TRANSFER\tCOMPLETED\tRent\\tMarch\\\\April\\nsecond line\t\\N\t2024-03-14T10:30:00\t2024-03-14T10:30:00
+            TXN-002\tACC001\tACC002\t5.5\tUSD\tDOMESTIC_TRANSFER\tCOMPLETED\t\\N\t\\N\t2024-03-15T09:00:00\t2024-03-15T09:00:01
+            """, new String(chunk.getTableRows(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid rows with their input position, in input order")
+    void testRejections() {
+        String[] missingCreatedAt = payment("TXN-002", "10.00", null, null, null);
+        String[] tooPrecise = payment("TXN-003", "10.001", null, "2024-03-14T10:30:00", null);
+        String[] unknownStatus = payment("TXN-005", "10.00", null, "2024-03-14T10:30:00", null);
+        unknownStatus[6] = "SETTLED";
+        String[] nul = payment("TXN-006", "10.00", "Rent\0", "2024-03-14T10:30:00", null);
+
+        ImportChunk chunk = ImportChunk.encode(ImportTable.PAYMENTS, 101, Arrays.asList(
+                payment("TXN-001", "10.00", null, "2024-03-14T10:30:00", null),
+                missingCreatedAt, tooPrecise, null, unknownStatus, nul),
+            List.of(new ImportResult.Rejection(104, "Malformed JSON")), null, month -> false);
+
+        assertEquals(6, chunk.getRowsRead());
+        assertEquals(1, chunk.getTableRowCount());
+        assertEquals(List.of(
+            new ImportResult.Rejection(102, "createdAt is required"),
+            new ImportResult.Rejection(103, "amount does not fit DECIMAL(19, 2): 10.001"),
+            new ImportResult.Rejection(104, "Malformed JSON"),
+            new ImportResult.Rejection(105, "status is not a known PaymentStatus: SETTLED"),
+            new ImportResult.Rejection(106, "description contains a NUL character")), chunk.getRejections());
+    }
+
+    @Test
+    @DisplayName("Should keep rows for staged months apart, one block per month")
+    void testStagedMonths() {
+        YearMonth staged = YearMonth.of(2023, 1);
+        ImportChunk chunk = ImportChunk.encode(ImportTable.PAYMENTS, 1, List.of(
+                payment("TXN-001", "10.00", null, "2023-01-31T23:59:59", null),
+                payment("TXN-002", "10.00", null, "2023-02-01T00:00:00", null),
+                payment("TXN-003", "10.00", null, "2023-01-01T00:00:00", null)),
+            List.of(), null, staged::equals);
+
+        assertEquals(1, chunk.getTableRowCount());
+        assertEquals(2, chunk.getStagedRowCount());
+        Map<YearMonth, byte[]> stagedRows = chunk.getStagedRows();
+        assertEquals(List.of(staged), List.copyOf(stagedRows.keySet()));
+        String stagedText = new String(stagedRows.get(staged), StandardCharsets.UTF_8);
+        assertTrue(stagedText.startsWith("TXN-001\t"));
+        assertTrue(stagedText.contains("\nTXN-003\t"));
+        assertTrue(new String(chunk.getTableRows(), StandardCharsets.UTF_8).startsWith("TXN-002\t"));
+    }
+
+    @Test
+    @DisplayName("Should encode audit booleans and numbers in COPY text form")
+    void testEncodeAudit() {
+        String[] audit = new String[ImportTable.PAYMENT_AUDIT.getColumns().size()];
+        audit[0] = "TXN-001";
+        audit[1] = "ACC001";
+        audit[2] = "ACC002";
+        audit[3] = "250.00";
+        audit[4] = "EUR";
+        audit[5] = "INTERBANK_TRANSFER";
+        audit[8] = "false";
+        audit[11] = "0.85";
+        audit[13] = "FRAUD_CHECK_FAILED";
+        audit[15] = "1200";
+        audit[21] = "2024-06-01T12:00:00";
+
+        ImportChunk chunk = ImportChunk.encode(ImportTable.PAYMENT_AUDIT, 1, List.<String[]>of(audit), List.of(),
+            null, month -> false);
+
+        assertEquals(1, chunk.getTableRowCount());
+        assertEquals("TXN-001\tACC001\tACC002\t250.00\tEUR\tINTERBANK_TRANSFER\t\\N\t\\N\tf\t\\N\t\\N\t0.85\t\\N"
+            + "\tFRAUD_CHECK_FAILED\t\\N\t1200\t\\N\t\\N\t\\N\t\\N\t\\N\t2024-06-01T12:00:00\n",
+            new String(chunk.getTableRows(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should reject rows at or before the archive watermark")
+    void testArchivedThrough() {
+        LocalDateTime archivedThrough = LocalDateTime.of(2023, 1, 31, 12, 0);
+        ImportChunk chunk = ImportChunk.encode(ImportTable.PAYMENTS, 1, List.of(
+                payment("TXN-001", "10.00", null, "2023-01-31T11:59:59", null),
+                payment("TXN-002", "10.00", null, "2023-01-31T12:00:00", null),
+                payment("TXN-003", "10.00", null, "2023-01-31T12:00:01", null)),
+            List.of(), archivedThrough, month -> false);
+
+        assertEquals(1, chunk.getTableRowCount());
+        assertEquals(List.of(1L, 2L), chunk.getRejections().stream().map(ImportResult.Rejection::row).toList());
+        assertEquals("createdAt 2023-01-31T12:00 is not after the archive watermark 2023-01-31T12:00",
+            chunk.getRejections().get(1).reason());
+    }
+
+    private static String[] payment(String transactionId, String amount, String description, String createdAt,
+                                    String updatedAt) {
+        return new String[] {transactionId, "ACC001", "ACC002", amount, "USD", "DOMESTIC_TRANSFER", "COMPLETED",
+            description, null, createdAt, updatedAt};
+    }
+}
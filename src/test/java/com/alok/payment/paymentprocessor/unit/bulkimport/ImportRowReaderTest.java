@@ -0,0 +1,132 @@
+package com.alok.payment.paymentprocessor.unit.bulkimport;
+
+import com.alok.payment.paymentprocessor.bulkimport.ImportFormat;
+import com.alok.payment.paymentprocessor.bulkimport.ImportRowReader;
+import com.alok.payment.paymentprocessor.bulkimport.ImportTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImportRowReader Unit Tests")
+class ImportRowReaderTest {
+
+    // Column positions in ImportTable.PAYMENTS
+    private static final int TRANSACTION_ID = 0;
+    private static final int AMOUNT = 3;
+    private static final int DESCRIPTION = 7;
+    private static final int CREATED_AT = 9;
+    private static final int UPDATED_AT = 10;
+
+    private static final String CSV_HEADER =
+        "id,transactionId,fromAccount,toAccount,amount,currency,paymentType,status,description,failureReason,createdAt,updatedAt\r\n";
+
+    @Test
+    @DisplayName("Should read CSV rows by header, skipping unloaded fields and unquoting values")
+    void testCsv() throws IOException {
+        ImportRowReader reader = reader(ImportFormat.CSV, CSV_HEADER
+            + "1,TXN-001,ACC001,ACC002,1000.00,USD,DOMESTIC_TRANSFER,COMPLETED,,,2024-03-14T10:30:00,\r\n"
+            + "\r\n"
+            + "2,TXN-002,ACC001,ACC002,5.50,USD,DOMESTIC_TRANSFER,COMPLETED,\"Rent, \"\"March\"\"\nsecond line\",,"
+            + "2024-03-15T09:00:00,2024-03-15T09:00:01\n");
+
+        String[] first = reader.next();
+        assertEquals("TXN-001", first[TRANSACTION_ID]);
+        assertEquals("1000.00", first[AMOUNT]);
+        assertEquals("", first[DESCRIPTION]);
+        assertEquals("2024-03-14T10:30:00", first[CREATED_AT]);
+
+        String[] second = reader.next();
+        assertEquals("TXN-002", second[TRANSACTION_ID]);
+        assertEquals("Rent, \"March\"\nsecond line", second[DESCRIPTION]);
+        assertEquals("2024-03-15T09:00:01", second[UPDATED_AT]);
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should accept CSV headers in any order and without optional fields")
+    void testCsvReorderedHeader() throws IOException {
+        ImportRowReader reader = reader(ImportFormat.CSV,
+            "createdAt,status,paymentType,currency,amount,toAccount,fromAccount,transactionId\n"
+            + "2024-03-14T10:30:00,COMPLETED,DOMESTIC_TRANSFER,USD,1000.00,ACC002,ACC001,TXN-001\n");
+
+        String[] row = reader.next();
+        assertEquals("TXN-001", row[TRANSACTION_ID]);
+        assertEquals("2024-03-14T10:30:00", row[CREATED_AT]);
+        assertNull(row[DESCRIPTION]);
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should reject a CSV header that lacks a required field")
+    void testCsvMissingRequiredField() {
+        assertThrows(IllegalArgumentException.class, () ->
+            reader(ImportFormat.CSV, "transactionId,fromAccount,toAccount,amount,currency,paymentType,status\n"));
+        assertThrows(IllegalArgumentException.class, () -> reader(ImportFormat.CSV, ""));
+    }
+
+    @Test
+    @DisplayName("Should reject a CSV row with the wrong number of fields and carry on with the next")
+    void testCsvWrongFieldCount() throws IOException {
+        ImportRowReader reader = reader(ImportFormat.CSV, CSV_HEADER
+            + "1,TXN-001,ACC001\n"
+            + "2,TXN-002,ACC001,ACC002,5.50,USD,DOMESTIC_TRANSFER,COMPLETED,,,2024-03-15T09:00:00,\n");
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals("TXN-002", reader.next()[TRANSACTION_ID]);
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should read NDJSON rows by field name, keeping number text as written")
+    void testNdjson() throws IOException {
+        ImportRowReader reader = reader(ImportFormat.NDJSON, """
+            {"id":1,"transactionId":"TXN-001","amount":1000.00,"description":null,"createdAt":"2024-03-14T10:30:00","extra":{"nested":[1,2]}}
+
+            {"transactionId":"TXN-002","amount":0.10,"description":"Line one\\nline two"}
+            """);
+
+        String[] first = reader.next();
+        assertEquals("TXN-001", first[TRANSACTION_ID]);
+        assertEquals("1000.00", first[AMOUNT]);
+        assertNull(first[DESCRIPTION]);
+        assertEquals("2024-03-14T10:30:00", first[CREATED_AT]);
+
+        String[] second = reader.next();
+        assertEquals("0.10", second[AMOUNT]);
+        assertEquals("Line one\nline two", second[DESCRIPTION]);
+        assertNull(second[CREATED_AT]);
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed NDJSON lines and carry on with the next")
+    void testNdjsonMalformedLines() throws IOException {
+        ImportRowReader reader = reader(ImportFormat.NDJSON, """
+            {"transactionId":"TXN-001",
+            ["TXN-002"]
+            {"transactionId":{"id":"TXN-003"}}
+            {"transactionId":"TXN-004"} trailing
+            {"transactionId":"TXN-005"}
+            """);
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals("TXN-005", reader.next()[TRANSACTION_ID]);
+        assertNull(reader.next());
+    }
+
+    private static ImportRowReader reader(ImportFormat format, String input) throws IOException {
+        return format.newReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), new ObjectMapper(),
+            ImportTable.PAYMENTS);
+    }
+}
@@ -0,0 +1,71 @@
+package com.alok.payment.paymentprocessor.unit.config;
+
+import com.alok.payment.paymentprocessor.config.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConcurrencyLimitFilter Unit Tests")
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should pass request through and release permit")
+    void testRequestWithinLimit() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/payments/TXN-001"), response,
+            (req, res) -> invocations.incrementAndGet());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/payments/TXN-001"), new MockHttpServletResponse(),
+            (req, res) -> invocations.incrementAndGet());
+
+        assertEquals(2, invocations.get());
+        assertEquals(200, response.getStatus());
+        assertEquals(1.0, meterRegistry.get("payment.concurrency.limit.available").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reject request with 503 when no permit is available")
+    void testRequestRejectedWhenLimitReached() throws Exception {
+        MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/payments"), new MockHttpServletResponse(),
+            (req, res) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/payments"), nestedResponse,
+                (nestedReq, nestedRes) -> fail("Request over the limit should not reach the controller")));
+
+        assertEquals(503, nestedResponse.getStatus());
+        assertEquals("1", nestedResponse.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("payment.concurrency.limit.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not limit health check endpoint")
+    void testHealthCheckNotLimited() throws Exception {
+        MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+        AtomicInteger invocations = new AtomicInteger();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/payments"), new MockHttpServletResponse(),
+            (req, res) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/payments/health"), nestedResponse,
+                (nestedReq, nestedRes) -> invocations.incrementAndGet()));
+
+        assertEquals(1, invocations.get());
+        assertEquals(200, nestedResponse.getStatus());
+    }
+}
@@ -0,0 +1,135 @@
+package com.alok.payment.paymentprocessor.unit.config;
+
+import com.alok.payment.paymentprocessor.config.ReplicaLagMonitor;
+import com.alok.payment.paymentprocessor.config.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReplicaRoutingDataSource Unit Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+    }
+
+    @Test
+    @DisplayName("Should use the replica while it is within the allowed staleness")
+    void testReplicaWhenCurrent() throws SQLException {
+        when(lagMonitor.isReplicaCurrent()).thenReturn(true);
+
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary while the replica lags behind")
+    void testPrimaryWhenStale() throws SQLException {
+        when(lagMonitor.isReplicaCurrent()).thenReturn(false);
+
+        assertSame(primaryConnection, routing.getConnection());
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should use the primary for reads forced onto it, and only for those")
+    void testReadFromPrimary() throws SQLException {
+        when(lagMonitor.isReplicaCurrent()).thenReturn(true);
+
+        Connection forced = ReplicaRoutingDataSource.readFromPrimary(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertSame(primaryConnection, forced);
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    @DisplayName("Should treat an unreachable replica as stale")
+    void testLagMonitorUnreachableReplica() throws SQLException {
+        DataSource unreachable = mock(DataSource.class);
+        when(unreachable.getConnection()).thenThrow(new SQLException("Connection refused"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(unreachable, Duration.ofSeconds(1), Duration.ofSeconds(1),
+            meterRegistry);
+
+        monitor.checkLag();
+
+        assertFalse(monitor.isReplicaCurrent());
+        assertTrue(Double.isNaN(meterRegistry.get("payment.read.replica.lag").timeGauge().value()));
+    }
+
+    @Test
+    @DisplayName("Should use a streaming replica whose lag is within the allowed staleness")
+    void testLagMonitorStreamingReplica() throws SQLException {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaReporting(0L), Duration.ofSeconds(1),
+            Duration.ofSeconds(1), new SimpleMeterRegistry());
+
+        monitor.checkLag();
+
+        assertTrue(monitor.isReplicaCurrent());
+    }
+
+    @Test
+    @DisplayName("Should treat a replica that is not streaming as stale")
+    void testLagMonitorReplicaNotStreaming() throws SQLException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaReporting(null), Duration.ofSeconds(1),
+            Duration.ofSeconds(1), meterRegistry);
+
+        monitor.checkLag();
+
+        assertFalse(monitor.isReplicaCurrent());
+        assertTrue(Double.isNaN(meterRegistry.get("payment.read.replica.lag").timeGauge().value()));
+    }
+
+    /**
+     * A replica whose lag query returns the given lag, where null is what it reports while not streaming
+     */
+    private static DataSource replicaReporting(Long lagMillis) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.getLong(1)).thenReturn(lagMillis != null ? lagMillis : 0L);
+        when(resultSet.wasNull()).thenReturn(lagMillis == null);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,139 @@
+package com.alok.payment.paymentprocessor.unit.controller;
+
+import com.alok.payment.paymentprocessor.controller.ExportController;
+import com.alok.payment.paymentprocessor.export.ExportFilter;
+import com.alok.payment.paymentprocessor.export.ExportFormat;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.service.ExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExportController.class)
+@DisplayName("ExportController Unit Tests")
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    @DisplayName("Should stream a gzip-compressed payment export with the requested filter")
+    void testExportPaymentsGzip() throws Exception {
+        ExportFilter filter = new ExportFilter(LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0),
+            "ACC001", PaymentStatus.COMPLETED);
+        when(exportService.exportPayments(eq(filter), eq(ExportFormat.CSV), any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/exports/payments")
+                .param("from", "2025-03-01T00:00:00")
+                .param("to", "2025-04-01T00:00:00")
+                .param("account", "ACC001")
+                .param("status", "COMPLETED")
+                .param("format", "CSV")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments.csv\""))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("id\r\n1\r\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream an uncompressed NDJSON audit export by default")
+    void testExportAuditsDefaults() throws Exception {
+        when(exportService.exportAudits(eq(new ExportFilter(null, null, null, null)), eq(ExportFormat.NDJSON),
+                any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/exports/audits"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    @DisplayName("Should not compress when the client refuses gzip with q=0")
+    void testExportRefusedGzip() throws Exception {
+        when(exportService.exportAudits(any(), eq(ExportFormat.NDJSON), any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/exports/audits")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *;q=0.5"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    @DisplayName("Should compress when the client accepts any encoding")
+    void testExportWildcardGzip() throws Exception {
+        when(exportService.exportPayments(any(), eq(ExportFormat.NDJSON), any(OutputStream.class))).thenReturn(0L);
+
+        MvcResult result = mockMvc.perform(get("/api/exports/payments")
+                .header(HttpHeaders.ACCEPT_ENCODING, "identity;q=0.5, *"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    @DisplayName("Should reject an inverted date range before streaming")
+    void testExportRejectsInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/exports/audits")
+                .param("from", "2025-04-01T00:00:00")
+                .param("to", "2025-03-01T00:00:00"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(exportService);
+    }
+}
@@ -0,0 +1,105 @@
+package com.alok.payment.paymentprocessor.unit.controller;
+
+import com.alok.payment.paymentprocessor.bulkimport.ImportFailedException;
+import com.alok.payment.paymentprocessor.bulkimport.ImportFormat;
+import com.alok.payment.paymentprocessor.bulkimport.ImportResult;
+import com.alok.payment.paymentprocessor.controller.ImportController;
+import com.alok.payment.paymentprocessor.service.BulkImportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportController.class)
+@DisplayName("ImportController Unit Tests")
+class ImportControllerTest {
+
+    private static final String CSV = "transactionId,amount\r\nTXN-001,100.00\r\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BulkImportService importService;
+
+    @Test
+    @DisplayName("Should import a gzip-compressed CSV body and return the row counts")
+    void testImportPaymentsGzip() throws Exception {
+        when(importService.importPayments(eq(ImportFormat.CSV), any(InputStream.class))).thenAnswer(invocation -> {
+            assertEquals(CSV, new String(invocation.getArgument(1, InputStream.class).readAllBytes(),
+                StandardCharsets.UTF_8));
+            return new ImportResult("payments", 2, 1, 1, List.of(new ImportResult.Rejection(2, "createdAt is required")),
+                List.of(), 12);
+        });
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(body)) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(post("/api/imports/payments")
+                .param("format", "CSV")
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .content(body.toByteArray()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.table").value("payments"))
+            .andExpect(jsonPath("$.rowsImported").value(1))
+            .andExpect(jsonPath("$.rejections[0].row").value(2))
+            .andExpect(jsonPath("$.rejections[0].reason").value("createdAt is required"));
+    }
+
+    @Test
+    @DisplayName("Should import an uncompressed NDJSON audit body by default")
+    void testImportAuditsDefaults() throws Exception {
+        String ndjson = "{\"transactionId\":\"TXN-001\"}\n";
+        when(importService.importAudits(eq(ImportFormat.NDJSON), any(InputStream.class))).thenAnswer(invocation -> {
+            assertEquals(ndjson, new String(invocation.getArgument(1, InputStream.class).readAllBytes(),
+                StandardCharsets.UTF_8));
+            return new ImportResult("payment_audit", 1, 1, 0, List.of(), List.of(), 3);
+        });
+
+        mockMvc.perform(post("/api/imports/audits").content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.table").value("payment_audit"))
+            .andExpect(jsonPath("$.rowsRead").value(1));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a CSV header that lacks a required field")
+    void testImportBadHeader() throws Exception {
+        when(importService.importPayments(eq(ImportFormat.CSV), any(InputStream.class)))
+            .thenThrow(new IllegalArgumentException("CSV header lacks required field createdAt"));
+
+        mockMvc.perform(post("/api/imports/payments").param("format", "CSV").content(CSV))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return 500 with the rows imported before a failure")
+    void testImportFailureReportsImportedRows() throws Exception {
+        ImportResult imported = new ImportResult("payment_audit", 20000, 19999, 1, List.of(), List.of(), 900);
+        when(importService.importAudits(eq(ImportFormat.NDJSON), any(InputStream.class)))
+            .thenThrow(new ImportFailedException(imported, new IllegalStateException("watermark moved")));
+
+        mockMvc.perform(post("/api/imports/audits").content("{}\n"))
+            .andExpect(status().isInternalServerError())
+            .andExpect(jsonPath("$.rowsRead").value(20000))
+            .andExpect(jsonPath("$.rowsImported").value(19999));
+    }
+}
@@ -1,6 +1,9 @@
 package com.alok.payment.paymentprocessor.unit.controller;
 
 import com.alok.payment.paymentprocessor.controller.PaymentController;
+import com.alok.payment.paymentprocessor.dto.BatchPaymentResponse;
+import com.alok.payment.paymentprocessor.dto.PaymentCursor;
+import com.alok.payment.paymentprocessor.dto.PaymentFilter;
 import com.alok.payment.paymentprocessor.dto.PaymentRequest;
 import com.alok.payment.paymentprocessor.dto.PaymentResponse;
 import com.alok.payment.paymentprocessor.model.Payment;
@@ -18,12 +21,18 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -160,10 +169,12 @@ class PaymentControllerTest {
         List<Payment> payments = new ArrayList<>();
         payments.add(payment);
 
-        when(paymentService.getPaymentsByAccount("ACC001")).thenReturn(payments);
+        when(paymentService.getPaymentsByAccount(eq("ACC001"), eq(PaymentFilter.NONE), isNull(), eq(100)))
+            .thenReturn(payments);
 
         mockMvc.perform(get("/api/payments/account/ACC001"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PaymentController.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].transactionId").value("TXN-001"))
                 .andExpect(jsonPath("$[0].fromAccount").value("ACC001"));
@@ -175,7 +186,7 @@ class PaymentControllerTest {
         List<Payment> payments = new ArrayList<>();
         payments.add(payment);
 
-        when(paymentService.getAllPayments()).thenReturn(payments);
+        when(paymentService.getPayments(eq(PaymentFilter.NONE), isNull(), eq(100))).thenReturn(payments);
 
         mockMvc.perform(get("/api/payments"))
                 .andExpect(status().isOk())
@@ -183,6 +194,43 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$[0].transactionId").value("TXN-001"));
     }
 
+    @Test
+    @DisplayName("Should pass filters and cursor through and return the next cursor for a full page")
+    void testGetPaymentsNextPage() throws Exception {
+        PaymentCursor after = new PaymentCursor(LocalDateTime.of(2025, 3, 1, 9, 0), 40L);
+        PaymentFilter filter = new PaymentFilter(PaymentStatus.COMPLETED, PaymentType.DOMESTIC_TRANSFER, "USD",
+            LocalDateTime.of(2025, 3, 1, 0, 0), null);
+        payment.setCreatedAt(LocalDateTime.of(2025, 3, 1, 10, 30, 15));
+
+        when(paymentService.getPayments(filter, after, 1)).thenReturn(List.of(payment));
+
+        mockMvc.perform(get("/api/payments")
+                        .param("status", "COMPLETED")
+                        .param("type", "DOMESTIC_TRANSFER")
+                        .param("currency", "USD")
+                        .param("from", "2025-03-01T00:00:00")
+                        .param("cursor", after.encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PaymentController.NEXT_CURSOR_HEADER,
+                    new PaymentCursor(payment.getCreatedAt(), 1L).encode()))
+                .andExpect(jsonPath("$[0].transactionId").value("TXN-001"));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor or an inverted date range")
+    void testGetPaymentsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/payments").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/payments/account/ACC001")
+                        .param("from", "2025-03-02T00:00:00")
+                        .param("to", "2025-03-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(paymentService);
+    }
+
     @Test
     @DisplayName("Should check health status")
     void testHealthCheck() throws Exception {
@@ -194,7 +242,7 @@ class PaymentControllerTest {
     @Test
     @DisplayName("Should return empty list when no payments for account")
     void testGetPaymentsByAccountEmpty() throws Exception {
-        when(paymentService.getPaymentsByAccount(anyString())).thenReturn(new ArrayList<>());
+        when(paymentService.getPaymentsByAccount(eq("ACC999"), any(), any(), anyInt())).thenReturn(new ArrayList<>());
 
         mockMvc.perform(get("/api/payments/account/ACC999"))
                 .andExpect(status().isOk())
@@ -216,4 +264,48 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.message").value("Payment unsuccessful"))
                 .andExpect(jsonPath("$.failureReason").value("Invalid payment request or service error"));
     }
+
+    @Test
+    @DisplayName("Should process payment batch via API")
+    void testProcessPaymentBatch() throws Exception {
+        PaymentResponse fraudResponse = new PaymentResponse();
+        fraudResponse.setTransactionId("TXN-002");
+        fraudResponse.setStatus(PaymentStatus.FRAUD_CHECK_FAILED);
+        fraudResponse.setMessage("Payment unsuccessful");
+
+        when(paymentService.processPayments(anyList()))
+            .thenReturn(new BatchPaymentResponse(List.of(successResponse, fraudResponse)));
+
+        mockMvc.perform(post("/api/payments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(validPaymentRequest, validPaymentRequest))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCount").value(2))
+                .andExpect(jsonPath("$.successfulCount").value(1))
+                .andExpect(jsonPath("$.failedCount").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.results[1].status").value("FRAUD_CHECK_FAILED"));
+    }
+
+    @Test
+    @DisplayName("Should reject oversized payment batch via API")
+    void testProcessPaymentBatchTooLarge() throws Exception {
+        when(paymentService.processPayments(anyList()))
+            .thenThrow(new IllegalArgumentException("Batch size 2 exceeds maximum of 1"));
+
+        mockMvc.perform(post("/api/payments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(validPaymentRequest, validPaymentRequest))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch size 2 exceeds maximum of 1"));
+    }
+
+    @Test
+    @DisplayName("Should reject a null payment batch via API")
+    void testProcessPaymentBatchNull() throws Exception {
+        mockMvc.perform(post("/api/payments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("null"))
+                .andExpect(status().isBadRequest());
+    }
 }
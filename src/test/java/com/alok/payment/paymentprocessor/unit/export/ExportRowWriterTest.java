@@ -0,0 +1,65 @@
+package com.alok.payment.paymentprocessor.unit.export;
+
+import com.alok.payment.paymentprocessor.export.ExportFormat;
+import com.alok.payment.paymentprocessor.export.ExportRowWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExportRowWriter Unit Tests")
+class ExportRowWriterTest {
+
+    private static final String[] FIELDS = {"id", "transactionId", "amount", "fraudCheckPassed", "description", "createdAt"};
+
+    @Test
+    @DisplayName("Should write one JSON object per line without null fields")
+    void testNdjson() throws IOException {
+        String output = write(ExportFormat.NDJSON,
+            new Object[] {1L, "TXN-001", new BigDecimal("1000.00"), true, null, LocalDateTime.of(2025, 3, 14, 10, 30)},
+            new Object[] {2L, "TXN-002", new BigDecimal("5.50"), false, "Line one\nline two", null});
+
+        assertEquals("""
+            {"id":1,"transactionId":"TXN-001","amount":1000.00,"fraudCheckPassed":true,"createdAt":"2025-03-14T10:30:00"}
+            {"id":2,"transactionId":"TXN-002","amount":5.50,"fraudCheckPassed":false,"description":"Line one\\nline two"}
+            """, output);
+        assertEquals(2, new ObjectMapper().readerFor(Object.class).readValues(output).readAll().size());
+    }
+
+    @Test
+    @DisplayName("Should write a header row and quote fields that need it")
+    void testCsv() throws IOException {
+        String output = write(ExportFormat.CSV,
+            new Object[] {1L, "TXN-001", new BigDecimal("1E+3"), true, null, LocalDateTime.of(2025, 3, 14, 10, 30)},
+            new Object[] {2L, "TXN-002", new BigDecimal("5.50"), false, "Rent, \"March\"", null});
+
+        assertEquals("id,transactionId,amount,fraudCheckPassed,description,createdAt\r\n"
+            + "1,TXN-001,1000,true,,2025-03-14T10:30:00\r\n"
+            + "2,TXN-002,5.50,false,\"Rent, \"\"March\"\"\",\r\n", output);
+    }
+
+    @Test
+    @DisplayName("Should write only the CSV header when there are no rows")
+    void testEmptyCsv() throws IOException {
+        assertEquals("id,transactionId,amount,fraudCheckPassed,description,createdAt\r\n", write(ExportFormat.CSV));
+        assertEquals("", write(ExportFormat.NDJSON));
+    }
+
+    private static String write(ExportFormat format, Object[]... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportRowWriter writer = format.newWriter(out, new ObjectMapper());
+        writer.start(FIELDS);
+        for (Object[] row : rows) {
+            writer.writeRow(row);
+        }
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,119 @@
+package com.alok.payment.paymentprocessor.unit.ledger;
+
+import com.alok.payment.paymentprocessor.ledger.AccountLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contract tests shared by all AccountLedger implementations
+ */
+abstract class AbstractAccountLedgerTest {
+
+    protected static final int ACCOUNTS = 8;
+    protected static final long OPENING_BALANCE = 10_000;
+
+    protected AccountLedger ledger;
+
+    protected abstract AccountLedger createLedger();
+
+    @BeforeEach
+    void setUp() {
+        ledger = createLedger();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ledger.credit(account(i), OPENING_BALANCE);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report missing accounts")
+    void testMissingAccount() {
+        assertEquals(AccountLedger.NO_ACCOUNT, ledger.balance("ACC999"));
+        assertEquals(AccountLedger.NO_ACCOUNT, ledger.transfer("ACC999", account(0), 100));
+        assertEquals(AccountLedger.NO_ACCOUNT, ledger.balance("ACC999"));
+        assertEquals(OPENING_BALANCE, ledger.balance(account(0)));
+    }
+
+    @Test
+    @DisplayName("Should open destination account on transfer")
+    void testTransferOpensDestination() {
+        long available = ledger.transfer(account(0), "ACC999", 250);
+
+        assertEquals(OPENING_BALANCE, available);
+        assertEquals(OPENING_BALANCE - 250, ledger.balance(account(0)));
+        assertEquals(250, ledger.balance("ACC999"));
+    }
+
+    @Test
+    @DisplayName("Should only transfer when balance covers the amount")
+    void testTransferRequiresSufficientBalance() {
+        long available = ledger.transfer(account(0), account(1), OPENING_BALANCE + 1);
+
+        assertEquals(OPENING_BALANCE, available);
+        assertEquals(OPENING_BALANCE, ledger.balance(account(0)));
+        assertEquals(OPENING_BALANCE, ledger.balance(account(1)));
+    }
+
+    @Test
+    @DisplayName("Should conserve total balance and never overdraw under concurrent transfers")
+    void testConcurrentTransfers() throws Exception {
+        int threads = 8;
+        int transfersPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        // Both directions between the same pairs exercise the lock ordering
+                        ledger.transfer(account(random.nextInt(ACCOUNTS)), account(random.nextInt(ACCOUNTS)),
+                            random.nextLong(1, 500));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long total = 0;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            long balance = ledger.balance(account(i));
+            assertTrue(balance >= 0, "Account " + account(i) + " overdrawn: " + balance);
+            total += balance;
+        }
+        assertEquals(ACCOUNTS * OPENING_BALANCE, total);
+    }
+
+    @Test
+    @DisplayName("Should remove all accounts on clear")
+    void testClear() {
+        ledger.clear();
+
+        assertEquals(AccountLedger.NO_ACCOUNT, ledger.balance(account(0)));
+        ledger.credit(account(0), 5);
+        assertEquals(5, ledger.balance(account(0)));
+    }
+
+    protected static String account(int index) {
+        return String.format("ACC%03d", index + 1);
+    }
+}
@@ -0,0 +1,36 @@
+package com.alok.payment.paymentprocessor.unit.ledger;
+
+import com.alok.payment.paymentprocessor.ledger.AccountLedger;
+import com.alok.payment.paymentprocessor.ledger.PrimitiveAccountLedger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PrimitiveAccountLedger Unit Tests")
+class PrimitiveAccountLedgerTest extends AbstractAccountLedgerTest {
+
+    @Override
+    protected AccountLedger createLedger() {
+        // Deliberately undersized so the tests exercise table growth
+        return new PrimitiveAccountLedger(4, 2);
+    }
+
+    @Test
+    @DisplayName("Should keep all balances when tables grow")
+    void testGrowth() {
+        int accounts = 50_000;
+        for (int i = 0; i < accounts; i++) {
+            ledger.credit("GROW" + i, i);
+        }
+        for (int i = 0; i < accounts; i += 2) {
+            ledger.transfer("GROW" + i, "GROW" + (i + 1), i);
+        }
+
+        for (int i = 0; i < accounts; i += 2) {
+            assertEquals(0, ledger.balance("GROW" + i));
+            assertEquals(2L * i + 1, ledger.balance("GROW" + (i + 1)));
+        }
+        assertEquals(OPENING_BALANCE, ledger.balance(account(0)));
+    }
+}
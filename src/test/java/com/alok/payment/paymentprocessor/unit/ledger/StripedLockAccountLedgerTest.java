@@ -0,0 +1,14 @@
+package com.alok.payment.paymentprocessor.unit.ledger;
+
+import com.alok.payment.paymentprocessor.ledger.AccountLedger;
+import com.alok.payment.paymentprocessor.ledger.StripedLockAccountLedger;
+import org.junit.jupiter.api.DisplayName;
+
+@DisplayName("StripedLockAccountLedger Unit Tests")
+class StripedLockAccountLedgerTest extends AbstractAccountLedgerTest {
+
+    @Override
+    protected AccountLedger createLedger() {
+        return new StripedLockAccountLedger(4);
+    }
+}
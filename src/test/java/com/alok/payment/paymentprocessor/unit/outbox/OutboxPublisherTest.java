@@ -0,0 +1,90 @@
+package com.alok.payment.paymentprocessor.unit.outbox;
+
+import com.alok.payment.paymentprocessor.model.Payment;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.model.PaymentType;
+import com.alok.payment.paymentprocessor.outbox.FileOutboxPublisher;
+import com.alok.payment.paymentprocessor.outbox.InProcessOutboxPublisher;
+import com.alok.payment.paymentprocessor.outbox.OutboxMessage;
+import com.alok.payment.paymentprocessor.outbox.PaymentOutcomeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Outbox Publisher Unit Tests")
+class OutboxPublisherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should republish messages as outcome events in outbox order")
+    void testInProcessPublisher() throws Exception {
+        List<Object> published = new ArrayList<>();
+        InProcessOutboxPublisher publisher = new InProcessOutboxPublisher(published::add, objectMapper);
+        PaymentOutcomeEvent completed = PaymentOutcomeEvent.of(payment("TXN-001", PaymentStatus.COMPLETED, null));
+        PaymentOutcomeEvent failed = PaymentOutcomeEvent.of(
+            payment("TXN-002", PaymentStatus.FRAUD_CHECK_FAILED, "Fraud detected: High amount"));
+
+        publisher.publish(List.of(message(1, completed), message(2, failed)));
+
+        assertEquals(List.of(completed, failed), published);
+    }
+
+    @Test
+    @DisplayName("Should fail the batch on an unreadable message")
+    void testInProcessPublisherUnreadableMessage() {
+        InProcessOutboxPublisher publisher = new InProcessOutboxPublisher(event -> { }, objectMapper);
+
+        assertThrows(IllegalStateException.class, () -> publisher.publish(
+            List.of(new OutboxMessage(7, "TXN-007", "not json", LocalDateTime.now()))));
+    }
+
+    @Test
+    @DisplayName("Should append one line per message across batches")
+    void testFilePublisher() throws Exception {
+        Path file = directory.resolve("outbox").resolve("payment-outcomes.ndjson");
+        PaymentOutcomeEvent first = PaymentOutcomeEvent.of(payment("TXN-001", PaymentStatus.COMPLETED, null));
+        PaymentOutcomeEvent second = PaymentOutcomeEvent.of(
+            payment("TXN-002", PaymentStatus.INSUFFICIENT_BALANCE, "Insufficient balance"));
+
+        try (FileOutboxPublisher publisher = new FileOutboxPublisher(file)) {
+            publisher.publish(List.of(message(1, first)));
+        }
+        try (FileOutboxPublisher publisher = new FileOutboxPublisher(file)) {
+            publisher.publish(List.of(message(2, second)));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals(first, objectMapper.readValue(lines.get(0), PaymentOutcomeEvent.class));
+        assertEquals(second, objectMapper.readValue(lines.get(1), PaymentOutcomeEvent.class));
+    }
+
+    private OutboxMessage message(long id, PaymentOutcomeEvent event) throws Exception {
+        return new OutboxMessage(id, event.transactionId(), objectMapper.writeValueAsString(event), LocalDateTime.now());
+    }
+
+    private static Payment payment(String transactionId, PaymentStatus status, String failureReason) {
+        Payment payment = new Payment(transactionId, "ACC001", "ACC002", new BigDecimal("250.00"), "USD",
+            PaymentType.DOMESTIC_TRANSFER, "Outbox test");
+        payment.setStatus(status);
+        payment.setFailureReason(failureReason);
+        return payment;
+    }
+}
@@ -2,6 +2,7 @@ package com.alok.payment.paymentprocessor.unit.service;
 
 import com.alok.payment.paymentprocessor.dto.AccountBalanceRequest;
 import com.alok.payment.paymentprocessor.dto.AccountBalanceResponse;
+import com.alok.payment.paymentprocessor.ledger.PrimitiveAccountLedger;
 import com.alok.payment.paymentprocessor.service.AccountService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -129,4 +130,105 @@ class AccountServiceTest {
         assertTrue(response.isValid());
         assertTrue(response.isSufficientBalance());
     }
+
+    @Test
+    @DisplayName("Should move funds between accounts on transfer")
+    void testTransfer() {
+        AccountBalanceResponse response = accountService.transfer("ACC004", "ACC005", new BigDecimal("1500.00"));
+
+        assertTrue(response.isValid());
+        assertTrue(response.isSufficientBalance());
+        assertEquals(new BigDecimal("5000.00"), response.getAvailableBalance());
+        assertEquals(new BigDecimal("3500.00"), accountService.validateAccount("ACC004").getAvailableBalance());
+        assertEquals(new BigDecimal("2500.00"), accountService.validateAccount("ACC005").getAvailableBalance());
+    }
+
+    @Test
+    @DisplayName("Should leave balances unchanged when transfer exceeds balance")
+    void testTransferInsufficientBalance() {
+        AccountBalanceResponse response = accountService.transfer("ACC005", "ACC001", new BigDecimal("1000.01"));
+
+        assertTrue(response.isValid());
+        assertFalse(response.isSufficientBalance());
+        assertTrue(response.getMessage().contains("Insufficient balance"));
+        assertEquals(new BigDecimal("1000.00"), accountService.validateAccount("ACC005").getAvailableBalance());
+        assertEquals(new BigDecimal("100000.00"), accountService.validateAccount("ACC001").getAvailableBalance());
+    }
+
+    @Test
+    @DisplayName("Should reject transfer from invalid account")
+    void testTransferFromInvalidAccount() {
+        AccountBalanceResponse response = accountService.transfer("INVALID", "ACC001", new BigDecimal("10.00"));
+
+        assertFalse(response.isValid());
+        assertFalse(response.isSufficientBalance());
+        assertEquals(new BigDecimal("100000.00"), accountService.validateAccount("ACC001").getAvailableBalance());
+    }
+
+    @Test
+    @DisplayName("Should reject a transfer amount finer than the minor unit instead of rounding it")
+    void testTransferRejectsSubMinorAmount() {
+        AccountBalanceResponse response = accountService.transfer("ACC005", "ACC001", new BigDecimal("1000.004"));
+
+        assertFalse(response.isValid());
+        assertFalse(response.isSufficientBalance());
+        assertEquals("Amount has more than 2 decimal places: 1000.004", response.getMessage());
+        assertEquals(new BigDecimal("1000.00"), accountService.validateAccount("ACC005").getAvailableBalance());
+        assertEquals(new BigDecimal("100000.00"), accountService.validateAccount("ACC001").getAvailableBalance());
+    }
+
+    @Test
+    @DisplayName("Should accept trailing zeros beyond the minor unit")
+    void testTransferAcceptsTrailingZeros() {
+        AccountBalanceResponse response = accountService.transfer("ACC004", "ACC005", new BigDecimal("1500.000"));
+
+        assertTrue(response.isSufficientBalance());
+        assertEquals(new BigDecimal("3500.00"), accountService.validateAccount("ACC004").getAvailableBalance());
+    }
+
+    @Test
+    @DisplayName("Should reject a balance check amount finer than the minor unit")
+    void testCheckBalanceRejectsSubMinorAmount() {
+        AccountBalanceResponse response = accountService.checkBalance(
+            new AccountBalanceRequest("ACC005", new BigDecimal("999.995")));
+
+        assertFalse(response.isValid());
+        assertFalse(response.isSufficientBalance());
+    }
+
+    @Test
+    @DisplayName("Should restore both balances when a transfer is reversed")
+    void testReverseTransfer() {
+        accountService.transfer("ACC004", "ACC005", new BigDecimal("1500.00"));
+
+        accountService.reverseTransfer("ACC004", "ACC005", new BigDecimal("1500.00"));
+
+        assertEquals(new BigDecimal("5000.00"), accountService.validateAccount("ACC004").getAvailableBalance());
+        assertEquals(new BigDecimal("1000.00"), accountService.validateAccount("ACC005").getAvailableBalance());
+    }
+
+    @Test
+    @DisplayName("Should restore initial balances on reset")
+    void testResetBalances() {
+        accountService.transfer("ACC001", "ACC002", new BigDecimal("100.00"));
+
+        accountService.resetBalances();
+
+        assertEquals(new BigDecimal("100000.00"), accountService.validateAccount("ACC001").getAvailableBalance());
+        assertEquals(new BigDecimal("50000.00"), accountService.validateAccount("ACC002").getAvailableBalance());
+    }
+
+    @Test
+    @DisplayName("Should behave the same on the primitive ledger backend")
+    void testPrimitiveLedgerBackend() {
+        AccountService primitiveAccountService = new AccountService(new PrimitiveAccountLedger(16));
+
+        AccountBalanceResponse response = primitiveAccountService.transfer("ACC004", "ACC005", new BigDecimal("1500.00"));
+
+        assertTrue(response.isSufficientBalance());
+        assertEquals(new BigDecimal("3500.00"), primitiveAccountService.validateAccount("ACC004").getAvailableBalance());
+        assertEquals(new BigDecimal("2500.00"), primitiveAccountService.validateAccount("ACC005").getAvailableBalance());
+        assertFalse(primitiveAccountService.checkBalance(
+            new AccountBalanceRequest("ACC004", new BigDecimal("3500.01"))).isSufficientBalance());
+    }
 }
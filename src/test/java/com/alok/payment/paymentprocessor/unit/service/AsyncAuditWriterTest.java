@@ -0,0 +1,119 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.alok.payment.paymentprocessor.service.AsyncAuditWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AsyncAuditWriter Unit Tests")
+class AsyncAuditWriterTest {
+
+    @Mock
+    private PaymentAuditRepository auditRepository;
+
+    private PaymentProcessorProperties properties;
+    private AsyncAuditWriter writer;
+    private List<Integer> flushedBatchSizes;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentProcessorProperties();
+        properties.getAudit().setWriteMode(PaymentProcessorProperties.AuditWriteMode.ASYNC);
+        properties.getAudit().getAsync().setQueueCapacity(10);
+        properties.getAudit().getAsync().setBatchSize(3);
+        properties.getAudit().getAsync().setFlushInterval(Duration.ofMillis(50));
+        properties.getAudit().getAsync().setOfferTimeout(Duration.ofMillis(10));
+
+        flushedBatchSizes = new CopyOnWriteArrayList<>();
+        lenient().doAnswer(invocation -> {
+            flushedBatchSizes.add(invocation.<List<?>>getArgument(0).size());
+            return null;
+        }).when(auditRepository).batchInsert(anyList());
+
+        writer = new AsyncAuditWriter(auditRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    @DisplayName("Should not accept records when not started")
+    void testSubmitWhenNotRunning() {
+        assertFalse(writer.submit(createAudit("TXN-001")));
+        verifyNoInteractions(auditRepository);
+    }
+
+    @Test
+    @DisplayName("Should not start writer thread in SYNC mode")
+    void testNotStartedInSyncMode() {
+        properties.getAudit().setWriteMode(PaymentProcessorProperties.AuditWriteMode.SYNC);
+
+        writer.start();
+
+        assertFalse(writer.isRunning());
+    }
+
+    @Test
+    @DisplayName("Should flush records in batches of configured size")
+    void testFlushesInBatches() {
+        writer.start();
+
+        for (int i = 0; i < 7; i++) {
+            assertTrue(writer.submit(createAudit("TXN-" + i)));
+        }
+
+        verify(auditRepository, timeout(2000).atLeast(3)).batchInsert(anyList());
+        assertEquals(7, flushedBatchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(flushedBatchSizes.stream().allMatch(size -> size <= 3));
+    }
+
+    @Test
+    @DisplayName("Should flush partial batch after flush interval")
+    void testFlushesPartialBatchAfterInterval() {
+        writer.start();
+
+        writer.submit(createAudit("TXN-001"));
+
+        verify(auditRepository, timeout(2000)).batchInsert(anyList());
+        assertEquals(List.of(1), flushedBatchSizes);
+    }
+
+    @Test
+    @DisplayName("Should drain queued records on stop")
+    void testDrainsOnStop() {
+        properties.getAudit().getAsync().setFlushInterval(Duration.ofSeconds(10));
+        writer.start();
+
+        writer.submit(createAudit("TXN-001"));
+        writer.submit(createAudit("TXN-002"));
+        writer.stop();
+
+        assertFalse(writer.isRunning());
+        assertEquals(2, flushedBatchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    private PaymentAudit createAudit(String transactionId) {
+        PaymentAudit audit = new PaymentAudit();
+        audit.setTransactionId(transactionId);
+        return audit;
+    }
+}
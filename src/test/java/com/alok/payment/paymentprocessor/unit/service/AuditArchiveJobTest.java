@@ -0,0 +1,139 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.archive.AuditArchive;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.alok.payment.paymentprocessor.service.AuditArchiveJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditArchiveJob Unit Tests")
+class AuditArchiveJobTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Mock
+    private PaymentAuditRepository auditRepository;
+
+    @Mock
+    private AuditArchive archive;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuditArchiveJob job;
+
+    @BeforeEach
+    void setUp() {
+        PaymentProcessorProperties properties = new PaymentProcessorProperties();
+        properties.getAudit().getArchive().setBatchSize(2);
+        job = new AuditArchiveJob(auditRepository, archive, properties, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should archive, delete and record full batches under the archive lock until caught up")
+    void testArchivesUntilCaughtUp() {
+        List<PaymentAudit> first = List.of(audit(1, START), audit(2, START.plusMinutes(1)));
+        List<PaymentAudit> second = List.of(audit(3, START.plusMinutes(2)));
+        ArchiveKey firstKey = new ArchiveKey(START.plusMinutes(1), 2);
+        ArchiveKey secondKey = new ArchiveKey(START.plusMinutes(2), 3);
+        when(auditRepository.lockArchivedThrough()).thenReturn(Optional.empty(), Optional.of(firstKey));
+        when(archive.reconcile(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(auditRepository.findArchivableAfter(any(), anyLong(), any(), eq(2))).thenReturn(first, second);
+        when(archive.archive(first)).thenReturn(firstKey);
+        when(archive.archive(second)).thenReturn(secondKey);
+
+        assertEquals(3, job.archiveOldAudits());
+
+        verify(auditRepository).findArchivableAfter(eq(LocalDateTime.of(1, 1, 1, 0, 0)), eq(0L), any(), eq(2));
+        verify(auditRepository).findArchivableAfter(eq(firstKey.auditedAt()), eq(2L), any(), eq(2));
+        InOrder inOrder = inOrder(auditRepository, archive);
+        inOrder.verify(auditRepository).lockArchivedThrough();
+        inOrder.verify(archive).archive(first);
+        inOrder.verify(auditRepository).deleteArchivedThrough(firstKey.auditedAt(), 2L);
+        inOrder.verify(auditRepository).advanceArchivedThrough(firstKey);
+        inOrder.verify(auditRepository).lockArchivedThrough();
+        inOrder.verify(archive).archive(second);
+        inOrder.verify(auditRepository).deleteArchivedThrough(secondKey.auditedAt(), 3L);
+        inOrder.verify(auditRepository).advanceArchivedThrough(secondKey);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should record the archive files' watermark when the database has none")
+    void testAdoptsFileWatermark() {
+        ArchiveKey watermark = new ArchiveKey(START, 7);
+        when(auditRepository.lockArchivedThrough()).thenReturn(Optional.empty());
+        when(archive.reconcile(Optional.empty())).thenReturn(Optional.of(watermark));
+        when(auditRepository.deleteArchivedThrough(START, 7L)).thenReturn(3);
+        when(auditRepository.findArchivableAfter(eq(START), eq(7L), any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, job.archiveOldAudits());
+
+        verify(auditRepository).advanceArchivedThrough(watermark);
+        verify(archive, never()).archive(any());
+    }
+
+    @Test
+    @DisplayName("Should archive after the database watermark once the archive is reconciled to it")
+    void testReconcilesToDatabaseWatermark() {
+        ArchiveKey watermark = new ArchiveKey(START, 7);
+        when(auditRepository.lockArchivedThrough()).thenReturn(Optional.of(watermark));
+        when(archive.reconcile(Optional.of(watermark))).thenReturn(Optional.of(watermark));
+        when(auditRepository.findArchivableAfter(eq(START), eq(7L), any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, job.archiveOldAudits());
+
+        verify(auditRepository, never()).deleteArchivedThrough(any(), anyLong());
+        verify(auditRepository, never()).advanceArchivedThrough(any());
+    }
+
+    @Test
+    @DisplayName("Should only archive audits older than the minimum age")
+    void testUsesMinimumAgeCutoff() {
+        when(archive.reconcile(any())).thenReturn(Optional.empty());
+        when(auditRepository.findArchivableAfter(any(), anyLong(), any(), anyInt())).thenReturn(List.of());
+
+        job.archiveOldAudits();
+
+        verify(auditRepository).findArchivableAfter(any(), anyLong(), argThat(cutoff ->
+            cutoff.isBefore(LocalDateTime.now().minusDays(89)) && cutoff.isAfter(LocalDateTime.now().minusDays(91))),
+            anyInt());
+    }
+
+    @Test
+    @DisplayName("Should not start when archiving is disabled")
+    void testNotStartedWhenDisabled() {
+        job.start();
+
+        assertFalse(job.isRunning());
+        verifyNoInteractions(auditRepository, archive);
+    }
+
+    private static PaymentAudit audit(long id, LocalDateTime auditedAt) {
+        PaymentAudit audit = new PaymentAudit();
+        audit.setId(id);
+        audit.setAuditedAt(auditedAt);
+        return audit;
+    }
+}
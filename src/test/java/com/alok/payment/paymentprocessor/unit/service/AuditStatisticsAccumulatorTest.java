@@ -0,0 +1,108 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditStatisticsRepository.StatusTotals;
+import com.alok.payment.paymentprocessor.service.AuditStatisticsAccumulator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AuditStatisticsAccumulator Unit Tests")
+class AuditStatisticsAccumulatorTest {
+
+    @Test
+    @DisplayName("Should return zero rates when nothing has been collected")
+    void testEmptyAccumulator() {
+        AuditStatisticsAccumulator totals = new AuditStatisticsAccumulator();
+
+        assertEquals(0, totals.getAudits());
+        assertEquals(0.0, totals.getFraudPercentage(), 0.01);
+        assertEquals(0.0, totals.getStatusPercentage(PaymentStatus.COMPLETED), 0.01);
+        assertEquals(0.0, totals.getAverageProcessingTime(), 0.01);
+        assertEquals(0, totals.getMaxProcessingTime());
+        assertTrue(totals.getStatusBreakdown().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should collect every metric in one pass")
+    void testAccept() {
+        AuditStatisticsAccumulator totals = List.of(
+                audit(PaymentStatus.COMPLETED, true, true, true, true, 1000L, null),
+                audit(PaymentStatus.COMPLETED, true, true, true, true, null, null),
+                audit(PaymentStatus.FRAUD_CHECK_FAILED, false, true, true, null, 200L, "Fraud detected"),
+                audit(PaymentStatus.INSUFFICIENT_BALANCE, true, true, true, false, 3000L, "Insufficient balance"),
+                audit(PaymentStatus.ACCOUNT_VALIDATION_FAILED, null, false, false, null, 50L, "Invalid account"),
+                audit(null, null, null, null, null, null, "Invalid account"))
+            .stream()
+            .collect(AuditStatisticsAccumulator.collector());
+
+        assertEquals(6, totals.getAudits());
+        assertEquals(Map.of(PaymentStatus.COMPLETED, 2L, PaymentStatus.FRAUD_CHECK_FAILED, 1L,
+            PaymentStatus.INSUFFICIENT_BALANCE, 1L, PaymentStatus.ACCOUNT_VALIDATION_FAILED, 1L),
+            totals.getStatusBreakdown());
+        assertEquals(1, totals.getFraudDetected());
+        assertEquals(1, totals.getSourceValidationFailures());
+        assertEquals(1, totals.getDestinationValidationFailures());
+        assertEquals(1, totals.getInsufficientBalance());
+        assertEquals(1062.5, totals.getAverageProcessingTime(), 0.01);
+        assertEquals(3000, totals.getMaxProcessingTime());
+        assertEquals(Map.of("Fraud detected", 1L, "Insufficient balance", 1L, "Invalid account", 2L),
+            totals.getFailureReasons());
+    }
+
+    @Test
+    @DisplayName("Should add grouped status totals")
+    void testAddStatusTotals() {
+        AuditStatisticsAccumulator totals = new AuditStatisticsAccumulator();
+        totals.add(new StatusTotals(PaymentStatus.COMPLETED, 8, 0, 0, 0, 0, 8000, 8, 2500));
+        totals.add(new StatusTotals(PaymentStatus.FRAUD_CHECK_FAILED, 2, 2, 0, 0, 0, 0, 0, 0));
+
+        assertEquals(10, totals.getAudits());
+        assertEquals(80.0, totals.getStatusPercentage(PaymentStatus.COMPLETED), 0.01);
+        assertEquals(20.0, totals.getFraudPercentage(), 0.01);
+        assertEquals(1000.0, totals.getAverageProcessingTime(), 0.01);
+        assertEquals(2500, totals.getMaxProcessingTime());
+    }
+
+    @Test
+    @DisplayName("Should give the same totals from a parallel stream as from a sequential one")
+    void testParallelCollectMatchesSequential() {
+        List<PaymentAudit> audits = IntStream.range(0, 10_000)
+            .mapToObj(i -> audit(PaymentStatus.values()[i % PaymentStatus.values().length],
+                i % 7 != 0, i % 11 != 0, i % 13 != 0, i % 5 != 0, (long) i, i % 3 == 0 ? "Reason " + i % 4 : null))
+            .toList();
+
+        AuditStatisticsAccumulator sequential = audits.stream().collect(AuditStatisticsAccumulator.collector());
+        AuditStatisticsAccumulator parallel = audits.parallelStream().collect(AuditStatisticsAccumulator.collector());
+
+        assertEquals(sequential.getAudits(), parallel.getAudits());
+        assertEquals(sequential.getStatusBreakdown(), parallel.getStatusBreakdown());
+        assertEquals(sequential.getFraudDetected(), parallel.getFraudDetected());
+        assertEquals(sequential.getSourceValidationFailures(), parallel.getSourceValidationFailures());
+        assertEquals(sequential.getDestinationValidationFailures(), parallel.getDestinationValidationFailures());
+        assertEquals(sequential.getInsufficientBalance(), parallel.getInsufficientBalance());
+        assertEquals(sequential.getAverageProcessingTime(), parallel.getAverageProcessingTime(), 0.0001);
+        assertEquals(9_999, parallel.getMaxProcessingTime());
+        assertEquals(sequential.getFailureReasons(), parallel.getFailureReasons());
+    }
+
+    private static PaymentAudit audit(PaymentStatus status, Boolean fraudCheckPassed, Boolean sourceValid,
+                                      Boolean destinationValid, Boolean sufficientBalance, Long processingTimeMs,
+                                      String failureReason) {
+        PaymentAudit audit = new PaymentAudit();
+        audit.setFinalStatus(status);
+        audit.setFraudCheckPassed(fraudCheckPassed);
+        audit.setSourceAccountValid(sourceValid);
+        audit.setDestinationAccountValid(destinationValid);
+        audit.setSufficientBalance(sufficientBalance);
+        audit.setProcessingTimeMs(processingTimeMs);
+        audit.setFailureReason(failureReason);
+        return audit;
+    }
+}
@@ -0,0 +1,130 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditStatisticsRepository.StatusTotals;
+import com.alok.payment.paymentprocessor.service.AuditStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditStatistics Unit Tests")
+class AuditStatisticsTest {
+
+    @Mock
+    private PaymentAuditRepository auditRepository;
+
+    private PaymentProcessorProperties properties;
+    private AuditStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentProcessorProperties();
+        properties.getAudit().setStatistics(PaymentProcessorProperties.AuditStatisticsSource.IN_MEMORY);
+        statistics = new AuditStatistics(auditRepository, properties);
+    }
+
+    @Test
+    @DisplayName("Should return zero rates when nothing has been recorded")
+    void testEmptyStatistics() {
+        assertEquals(0, statistics.getTotalAudits());
+        assertEquals(0.0, statistics.getFraudDetectionRate(), 0.01);
+        assertEquals(0.0, statistics.getAverageProcessingTime(PaymentStatus.COMPLETED), 0.01);
+        assertEquals(0, statistics.getMaxProcessingTime(PaymentStatus.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("Should maintain status, fraud and processing time totals")
+    void testRecord() {
+        statistics.record(audit(PaymentStatus.COMPLETED, true, 1000L));
+        statistics.record(audit(PaymentStatus.COMPLETED, true, 3000L));
+        statistics.record(audit(PaymentStatus.COMPLETED, true, null));
+        statistics.record(audit(PaymentStatus.FRAUD_CHECK_FAILED, false, 200L));
+        statistics.record(audit(PaymentStatus.ACCOUNT_VALIDATION_FAILED, null, 50L));
+
+        assertEquals(5, statistics.getTotalAudits());
+        assertEquals(3, statistics.getAuditCount(PaymentStatus.COMPLETED));
+        assertEquals(1, statistics.getFraudDetectedCount());
+        assertEquals(20.0, statistics.getFraudDetectionRate(), 0.01);
+        assertEquals(2000.0, statistics.getAverageProcessingTime(PaymentStatus.COMPLETED), 0.01);
+        assertEquals(3000L, statistics.getMaxProcessingTime(PaymentStatus.COMPLETED));
+        assertEquals(200.0, statistics.getAverageProcessingTime(PaymentStatus.FRAUD_CHECK_FAILED), 0.01);
+    }
+
+    @Test
+    @DisplayName("Should seed totals from the database on start")
+    void testStartSeedsFromDatabase() {
+        when(auditRepository.summarizeByStatus()).thenReturn(List.of(
+            new StatusTotals(PaymentStatus.COMPLETED, 8, 0, 0, 0, 0, 8000, 8, 2500),
+            new StatusTotals(PaymentStatus.FRAUD_CHECK_FAILED, 2, 2, 0, 0, 0, 400, 2, 300)));
+
+        statistics.start();
+        statistics.record(audit(PaymentStatus.COMPLETED, true, 3000L));
+
+        assertTrue(statistics.isRunning());
+        assertEquals(11, statistics.getTotalAudits());
+        assertEquals(9, statistics.getAuditCount(PaymentStatus.COMPLETED));
+        assertEquals(2.0 / 11 * 100, statistics.getFraudDetectionRate(), 0.01);
+        assertEquals(11000.0 / 9, statistics.getAverageProcessingTime(PaymentStatus.COMPLETED), 0.01);
+        assertEquals(3000L, statistics.getMaxProcessingTime(PaymentStatus.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("Should not seed or enable when statistics come from the database")
+    void testDisabledInDatabaseMode() {
+        properties.getAudit().setStatistics(PaymentProcessorProperties.AuditStatisticsSource.DATABASE);
+
+        statistics.start();
+
+        assertFalse(statistics.isEnabled());
+        assertFalse(statistics.isRunning());
+        verify(auditRepository, never()).summarizeByStatus();
+    }
+
+    @Test
+    @DisplayName("Should not lose updates under concurrent recording")
+    void testConcurrentRecord() throws InterruptedException {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        statistics.record(audit(PaymentStatus.COMPLETED, i % 4 != 0, (long) i));
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals((long) threads * perThread, statistics.getTotalAudits());
+        assertEquals((long) threads * perThread / 4, statistics.getFraudDetectedCount());
+        assertEquals((perThread - 1) / 2.0, statistics.getAverageProcessingTime(PaymentStatus.COMPLETED), 0.01);
+        assertEquals(perThread - 1, statistics.getMaxProcessingTime(PaymentStatus.COMPLETED));
+    }
+
+    private static PaymentAudit audit(PaymentStatus status, Boolean fraudCheckPassed, Long processingTimeMs) {
+        PaymentAudit audit = new PaymentAudit();
+        audit.setFinalStatus(status);
+        audit.setFraudCheckPassed(fraudCheckPassed);
+        audit.setProcessingTimeMs(processingTimeMs);
+        return audit;
+    }
+}
@@ -0,0 +1,269 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.bulkimport.ImportFailedException;
+import com.alok.payment.paymentprocessor.bulkimport.ImportFormat;
+import com.alok.payment.paymentprocessor.bulkimport.ImportResult;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.repository.BulkImportRepository;
+import com.alok.payment.paymentprocessor.repository.MonthlyPartitionRepository;
+import com.alok.payment.paymentprocessor.repository.MonthlyPartitionRepository.PartitionedTable;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.alok.payment.paymentprocessor.service.BulkImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkImportService Unit Tests")
+class BulkImportServiceTest {
+
+    @Mock
+    private BulkImportRepository importRepository;
+
+    @Mock
+    private MonthlyPartitionRepository partitionRepository;
+
+    @Mock
+    private PaymentAuditRepository auditRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PaymentProcessorProperties properties;
+    private BulkImportService importService;
+    private YearMonth currentMonth;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentProcessorProperties();
+        properties.getBulkImport().setChunkSize(2);
+        properties.getBulkImport().setParallelism(2);
+        importService = new BulkImportService(importRepository, partitionRepository, auditRepository, new ObjectMapper(), properties,
+            transactionManager, meterRegistry);
+        currentMonth = YearMonth.now();
+    }
+
+    @Test
+    @DisplayName("Should copy chunks in input order, each in its own transaction")
+    void testCopiesChunksInOrder() throws IOException {
+        when(partitionRepository.findPartitionMonths(PartitionedTable.PAYMENTS)).thenReturn(List.of());
+        YearMonth month = currentMonth.minusMonths(6);
+
+        ImportResult result = importService.importPayments(ImportFormat.NDJSON, input(
+            payment("TXN-001", month), payment("TXN-002", month), payment("TXN-003", month),
+            payment("TXN-004", month), payment("TXN-005", month)));
+
+        ArgumentCaptor<byte[]> rows = ArgumentCaptor.forClass(byte[].class);
+        verify(importRepository, times(3)).copy(eq("payments"), anyList(), rows.capture());
+        String copied = rows.getAllValues().stream()
+            .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+            .reduce("", String::concat);
+        assertTrue(copied.matches("(?s)TXN-001\t.*\nTXN-002\t.*\nTXN-003\t.*\nTXN-004\t.*\nTXN-005\t.*\n"));
+        verify(transactionManager, times(3)).commit(any());
+        verify(partitionRepository, never()).createStagingTable(any(), any());
+
+        assertEquals("payments", result.table());
+        assertEquals(5, result.rowsRead());
+        assertEquals(5, result.rowsImported());
+        assertEquals(0, result.rowsRejected());
+        assertEquals(5.0, meterRegistry.get("payment.import.rows").tag("outcome", "imported").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should skip invalid rows and report the first ones with their positions")
+    void testReportsRejections() throws IOException {
+        properties.getBulkImport().setMaxReportedRejections(2);
+        when(partitionRepository.findPartitionMonths(PartitionedTable.PAYMENTS)).thenReturn(List.of());
+        YearMonth month = currentMonth.minusMonths(6);
+
+        ImportResult result = importService.importPayments(ImportFormat.NDJSON, input(
+            payment("TXN-001", month),
+            "{\"transactionId\":\"TXN-002\"\n",
+            payment("TXN-003", month).replace("100.00", "\"abc\""),
+            payment("TXN-004", month),
+            payment("TXN-005", month).replace("COMPLETED", "SETTLED")));
+
+        assertEquals(5, result.rowsRead());
+        assertEquals(2, result.rowsImported());
+        assertEquals(3, result.rowsRejected());
+        assertEquals(List.of(2L, 3L), result.rejections().stream().map(ImportResult.Rejection::row).toList());
+        assertEquals("amount is not a number: abc", result.rejections().get(1).reason());
+        assertEquals(3.0, meterRegistry.get("payment.import.rows").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should load past months without a partition detached and attach them at the end")
+    void testStagesPastMonths() throws IOException {
+        YearMonth past = currentMonth.minusMonths(2);
+        YearMonth partitioned = currentMonth.minusMonths(1);
+        when(partitionRepository.findPartitionMonths(PartitionedTable.PAYMENTS))
+            .thenReturn(List.of(partitioned, currentMonth));
+        when(partitionRepository.attachStagingTable(PartitionedTable.PAYMENTS, past)).thenReturn(true);
+
+        ImportResult result = importService.importPayments(ImportFormat.NDJSON, input(
+            payment("TXN-001", past), payment("TXN-002", partitioned),
+            payment("TXN-003", past), payment("TXN-004", currentMonth)));
+
+        String staging = MonthlyPartitionRepository.stagingTableName(PartitionedTable.PAYMENTS, past);
+        verify(partitionRepository, times(1)).createStagingTable(PartitionedTable.PAYMENTS, past);
+        verify(importRepository, times(2)).copy(eq(staging), anyList(), any());
+        verify(importRepository, times(2)).copy(eq("payments"), anyList(), any());
+        verify(partitionRepository).attachStagingTable(PartitionedTable.PAYMENTS, past);
+
+        assertEquals(4, result.rowsImported());
+        assertEquals(List.of(MonthlyPartitionRepository.partitionName(PartitionedTable.PAYMENTS, past)),
+            result.attachedPartitions());
+    }
+
+    @Test
+    @DisplayName("Should copy every month directly while live payments go to the default partition")
+    void testNoStagingWithoutCurrentPartition() throws IOException {
+        when(partitionRepository.findPartitionMonths(PartitionedTable.PAYMENTS)).thenReturn(List.of());
+
+        ImportResult result = importService.importPayments(ImportFormat.NDJSON, input(
+            payment("TXN-001", currentMonth.minusMonths(2))));
+
+        verify(importRepository).copy(eq("payments"), anyList(), any());
+        verify(partitionRepository, never()).createStagingTable(any(), any());
+        assertTrue(result.attachedPartitions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should copy audits directly without consulting partitions")
+    void testAuditsNeverStaged() throws IOException {
+        ImportResult result = importService.importAudits(ImportFormat.CSV, input(
+            "transactionId,fromAccount,toAccount,amount,currency,paymentType,finalStatus,auditedAt\n",
+            "TXN-001,ACC001,ACC002,100.00,USD,DOMESTIC_TRANSFER,COMPLETED,2020-01-15T12:00:00\n"));
+
+        verify(importRepository).copy(eq("payment_audit"), anyList(), any());
+        verifyNoInteractions(partitionRepository);
+        assertEquals(1, result.rowsImported());
+    }
+
+    @Test
+    @DisplayName("Should reject audits at or before the archive watermark and copy under the archive lock")
+    void testRejectsArchivedAudits() throws IOException {
+        Optional<ArchiveKey> watermark = Optional.of(new ArchiveKey(LocalDateTime.of(2020, 1, 31, 23, 59), 42));
+        when(auditRepository.findArchivedThrough()).thenReturn(watermark);
+        when(auditRepository.holdArchivedThrough()).thenReturn(watermark);
+
+        ImportResult result = importService.importAudits(ImportFormat.CSV, input(
+            "transactionId,fromAccount,toAccount,amount,currency,paymentType,finalStatus,auditedAt\n",
+            "TXN-001,ACC001,ACC002,100.00,USD,DOMESTIC_TRANSFER,COMPLETED,2020-01-15T12:00:00\n",
+            "TXN-002,ACC001,ACC002,100.00,USD,DOMESTIC_TRANSFER,COMPLETED,2020-02-15T12:00:00\n"));
+
+        assertEquals(1, result.rowsImported());
+        assertEquals(1, result.rowsRejected());
+        assertEquals(1L, result.rejections().get(0).row());
+        assertEquals("auditedAt 2020-01-15T12:00 is not after the archive watermark 2020-01-31T23:59",
+            result.rejections().get(0).reason());
+        InOrder inOrder = inOrder(auditRepository, importRepository);
+        inOrder.verify(auditRepository).holdArchivedThrough();
+        inOrder.verify(importRepository).copy(eq("payment_audit"), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail instead of copying audits when an archive run moved the watermark")
+    void testFailsWhenWatermarkMoves() {
+        when(auditRepository.findArchivedThrough()).thenReturn(Optional.empty());
+        when(auditRepository.holdArchivedThrough())
+            .thenReturn(Optional.of(new ArchiveKey(LocalDateTime.of(2020, 1, 31, 23, 59), 42)));
+
+        ImportFailedException e = assertThrows(ImportFailedException.class, () -> importService.importAudits(
+            ImportFormat.CSV, input(
+                "transactionId,fromAccount,toAccount,amount,currency,paymentType,finalStatus,auditedAt\n",
+                "TXN-001,ACC001,ACC002,100.00,USD,DOMESTIC_TRANSFER,COMPLETED,2020-01-15T12:00:00\n")));
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(0, e.getResult().rowsImported());
+        verifyNoInteractions(importRepository);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should fail before copying when a staging table is left by an earlier import")
+    void testFailsOnLeftoverStagingTable() {
+        String leftover = MonthlyPartitionRepository.stagingTableName(PartitionedTable.PAYMENTS, currentMonth.minusMonths(2));
+        when(partitionRepository.findPartitionMonths(PartitionedTable.PAYMENTS)).thenReturn(List.of(currentMonth));
+        when(partitionRepository.findStagingTables(PartitionedTable.PAYMENTS)).thenReturn(List.of(leftover));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+            importService.importPayments(ImportFormat.NDJSON, input(payment("TXN-001", currentMonth.minusMonths(2)))));
+
+        assertTrue(e.getMessage().endsWith(": " + leftover));
+        verifyNoInteractions(importRepository);
+        verify(partitionRepository, never()).createStagingTable(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should attach staged months copied before a failed chunk and report the rows copied")
+    void testAttachesStagedMonthsOnFailure() {
+        properties.getBulkImport().setChunkSize(1);
+        properties.getBulkImport().setParallelism(1);
+        YearMonth past = currentMonth.minusMonths(2);
+        when(partitionRepository.findPartitionMonths(PartitionedTable.PAYMENTS)).thenReturn(List.of(currentMonth));
+        when(importRepository.copy(anyString(), anyList(), any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0).equals("payments")) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return 1L;
+        });
+
+        ImportFailedException e = assertThrows(ImportFailedException.class, () -> importService.importPayments(
+            ImportFormat.NDJSON, input(payment("TXN-001", past), payment("TXN-002", currentMonth), payment("TXN-003", past))));
+
+        assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+        assertEquals(1, e.getResult().rowsRead());
+        assertEquals(1, e.getResult().rowsImported());
+
+        verify(partitionRepository).attachStagingTable(PartitionedTable.PAYMENTS, past);
+        verify(importRepository, times(1)).copy(eq(MonthlyPartitionRepository.stagingTableName(PartitionedTable.PAYMENTS,
+            past)), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a CSV header that lacks a required field")
+    void testMissingRequiredField() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importPayments(ImportFormat.CSV,
+            input("transactionId,amount\n", "TXN-001,100.00\n")));
+
+        verifyNoInteractions(importRepository);
+    }
+
+    private static String payment(String transactionId, YearMonth month) {
+        return "{\"transactionId\":\"" + transactionId + "\",\"fromAccount\":\"ACC001\",\"toAccount\":\"ACC002\","
+            + "\"amount\":100.00,\"currency\":\"USD\",\"paymentType\":\"DOMESTIC_TRANSFER\",\"status\":\"COMPLETED\","
+            + "\"createdAt\":\"" + month.atDay(15).atTime(12, 0, 0) + "\"}\n";
+    }
+
+    private static InputStream input(String... lines) {
+        return new ByteArrayInputStream(String.join("", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,128 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.archive.AuditArchive;
+import com.alok.payment.paymentprocessor.export.ExportFilter;
+import com.alok.payment.paymentprocessor.export.ExportFormat;
+import com.alok.payment.paymentprocessor.export.ExportTable;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.repository.ExportRepository;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.alok.payment.paymentprocessor.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportService Unit Tests")
+class ExportServiceTest {
+
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2025, 1, 31, 23, 59);
+
+    @Mock
+    private ExportRepository exportRepository;
+
+    @Mock
+    private PaymentAuditRepository auditRepository;
+
+    @Mock
+    private AuditArchive auditArchive;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService(exportRepository, auditRepository, auditArchive, new ObjectMapper(),
+            transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should export archived audits through the watermark ahead of the audits after it")
+    void testExportsArchiveThenDatabase() throws IOException {
+        ArchiveKey watermark = new ArchiveKey(WATERMARK, 42);
+        when(auditRepository.findArchivedThrough()).thenReturn(Optional.of(watermark));
+        ExportFilter filter = new ExportFilter(null, null, "ACC001", PaymentStatus.COMPLETED);
+        when(auditArchive.streamAuditedIn(isNull(), isNull(), any())).thenReturn(Stream.empty());
+        when(exportRepository.exportAudits(eq(filter), eq(watermark), any(), any())).thenReturn(5L);
+
+        assertEquals(5, exportService.exportAudits(filter, ExportFormat.NDJSON, new ByteArrayOutputStream()));
+
+        ArgumentCaptor<Predicate<PaymentAudit>> matches = ArgumentCaptor.captor();
+        verify(auditArchive).checkCovers(watermark);
+        verify(auditArchive).streamAuditedIn(isNull(), isNull(), matches.capture());
+        assertTrue(matches.getValue().test(audit(42, "ACC002", "ACC001", PaymentStatus.COMPLETED)));
+        assertFalse(matches.getValue().test(audit(43, "ACC002", "ACC001", PaymentStatus.COMPLETED)));
+        assertFalse(matches.getValue().test(audit(41, "ACC002", "ACC003", PaymentStatus.COMPLETED)));
+        assertFalse(matches.getValue().test(audit(41, "ACC001", "ACC002", PaymentStatus.FAILED)));
+        verify(exportRepository, never()).export(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should export from the database alone while nothing is archived")
+    void testNothingArchived() throws IOException {
+        ExportFilter filter = new ExportFilter(null, null, null, null);
+        when(exportRepository.export(eq(ExportTable.PAYMENT_AUDIT), eq(filter), any())).thenReturn(3L);
+
+        assertEquals(3, exportService.exportAudits(filter, ExportFormat.NDJSON, new ByteArrayOutputStream()));
+
+        verifyNoInteractions(auditArchive);
+    }
+
+    @Test
+    @DisplayName("Should export from the database alone when the range starts after the watermark")
+    void testRangeAfterWatermark() throws IOException {
+        when(auditRepository.findArchivedThrough()).thenReturn(Optional.of(new ArchiveKey(WATERMARK, 42)));
+        ExportFilter filter = new ExportFilter(WATERMARK.plusSeconds(1), null, null, null);
+        when(exportRepository.export(eq(ExportTable.PAYMENT_AUDIT), eq(filter), any())).thenReturn(3L);
+
+        assertEquals(3, exportService.exportAudits(filter, ExportFormat.NDJSON, new ByteArrayOutputStream()));
+
+        verifyNoInteractions(auditArchive);
+    }
+
+    @Test
+    @DisplayName("Should fail rather than leave out archived audits this instance cannot read")
+    void testFailsWithoutArchive() {
+        ArchiveKey watermark = new ArchiveKey(WATERMARK, 42);
+        when(auditRepository.findArchivedThrough()).thenReturn(Optional.of(watermark));
+        doThrow(new IllegalStateException("archive disabled")).when(auditArchive).checkCovers(watermark);
+
+        assertThrows(IllegalStateException.class, () -> exportService.exportAudits(
+            new ExportFilter(null, null, null, null), ExportFormat.NDJSON, new ByteArrayOutputStream()));
+
+        verifyNoInteractions(exportRepository);
+    }
+
+    private static PaymentAudit audit(long id, String fromAccount, String toAccount, PaymentStatus status) {
+        PaymentAudit audit = new PaymentAudit();
+        audit.setId(id);
+        audit.setAuditedAt(WATERMARK);
+        audit.setFromAccount(fromAccount);
+        audit.setToAccount(toAccount);
+        audit.setFinalStatus(status);
+        return audit;
+    }
+}
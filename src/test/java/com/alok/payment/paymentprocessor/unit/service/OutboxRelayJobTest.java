@@ -0,0 +1,121 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.outbox.OutboxMessage;
+import com.alok.payment.paymentprocessor.outbox.OutboxPublisher;
+import com.alok.payment.paymentprocessor.repository.PaymentRepository;
+import com.alok.payment.paymentprocessor.service.OutboxRelayJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelayJob Unit Tests")
+class OutboxRelayJobTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private OutboxPublisher publisher;
+
+    @Mock
+    private ObjectProvider<OutboxPublisher> publisherProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentProcessorProperties properties;
+    private OutboxRelayJob job;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentProcessorProperties();
+        properties.getOutbox().setBatchSize(2);
+        properties.getOutbox().setInterval(Duration.ofMillis(20));
+        job = new OutboxRelayJob(paymentRepository, publisherProvider, properties, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.stop();
+    }
+
+    @Test
+    @DisplayName("Should publish and delete full batches until the outbox is drained")
+    void testRelayDrainsOutbox() {
+        when(publisherProvider.getObject()).thenReturn(publisher);
+        when(paymentRepository.claimOutcomes(2)).thenReturn(messages(1, 2), messages(3, 4), messages(5));
+
+        long published = job.relayOutcomes();
+
+        assertEquals(5, published);
+        verify(publisher).publish(messages(1, 2));
+        verify(publisher).publish(messages(5));
+        verify(paymentRepository).deleteOutcomes(List.of(1L, 2L));
+        verify(paymentRepository).deleteOutcomes(List.of(5L));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should keep messages whose publication failed")
+    void testFailedPublishKeepsMessages() {
+        when(publisherProvider.getObject()).thenReturn(publisher);
+        when(paymentRepository.claimOutcomes(2)).thenReturn(messages(1, 2));
+        doThrow(new IllegalStateException("Downstream unavailable")).when(publisher).publish(any());
+
+        assertThrows(IllegalStateException.class, () -> job.relayOutcomes());
+
+        verify(paymentRepository, never()).deleteOutcomes(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should not start when the outbox is disabled")
+    void testNotStartedWhenDisabled() {
+        job.start();
+
+        assertFalse(job.isRunning());
+        verifyNoInteractions(paymentRepository, publisherProvider);
+    }
+
+    @Test
+    @DisplayName("Should relay on schedule when enabled and survive failures")
+    void testScheduledRelay() {
+        properties.getOutbox().setEnabled(true);
+        when(publisherProvider.getObject()).thenReturn(publisher);
+        when(paymentRepository.claimOutcomes(anyInt()))
+            .thenThrow(new RuntimeException("Database unavailable"))
+            .thenReturn(messages(1))
+            .thenReturn(List.of());
+
+        job.start();
+
+        assertTrue(job.isRunning());
+        verify(publisher, timeout(2000)).publish(messages(1));
+        verify(paymentRepository, timeout(2000)).deleteOutcomes(List.of(1L));
+    }
+
+    private static List<OutboxMessage> messages(long... ids) {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 9, 0);
+        return LongStream.of(ids)
+            .mapToObj(id -> new OutboxMessage(id, "TXN-" + id, "{\"transactionId\":\"TXN-" + id + "\"}", createdAt))
+            .toList();
+    }
+}
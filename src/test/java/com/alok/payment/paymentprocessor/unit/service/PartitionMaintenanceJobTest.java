@@ -0,0 +1,146 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.repository.MonthlyPartitionRepository;
+import com.alok.payment.paymentprocessor.repository.MonthlyPartitionRepository.PartitionedTable;
+import com.alok.payment.paymentprocessor.service.PartitionMaintenanceJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PartitionMaintenanceJob Unit Tests")
+class PartitionMaintenanceJobTest {
+
+    @Mock
+    private MonthlyPartitionRepository partitionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentProcessorProperties properties;
+    private PartitionMaintenanceJob job;
+    private YearMonth currentMonth;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentProcessorProperties();
+        properties.getPartitioning().setMonthsAhead(2);
+        properties.getPartitioning().setInterval(Duration.ofMillis(20));
+        job = new PartitionMaintenanceJob(partitionRepository, properties, transactionManager);
+        currentMonth = YearMonth.now();
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.stop();
+    }
+
+    @Test
+    @DisplayName("Should create only the missing partitions from the current month through the months ahead")
+    void testCreatesMissingPartitions() {
+        when(partitionRepository.isPartitioned(any())).thenReturn(true);
+        when(partitionRepository.findPartitionMonths(any())).thenReturn(List.of(currentMonth));
+        when(partitionRepository.createPartition(any(), any())).thenReturn(true);
+
+        job.maintainPartitions();
+
+        for (PartitionedTable table : PartitionedTable.values()) {
+            verify(partitionRepository, never()).createPartition(table, currentMonth);
+            verify(partitionRepository).createPartition(table, currentMonth.plusMonths(1));
+            verify(partitionRepository).createPartition(table, currentMonth.plusMonths(2));
+        }
+        verify(partitionRepository, never()).detachPartition(any(), any());
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should detach partitions older than the retention period")
+    void testDetachesExpiredPartitions() {
+        properties.getPartitioning().setRetentionMonths(2);
+        when(partitionRepository.isPartitioned(any())).thenReturn(true);
+        List<YearMonth> attached = List.of(currentMonth.minusMonths(4), currentMonth.minusMonths(3),
+            currentMonth.minusMonths(2), currentMonth, currentMonth.plusMonths(1), currentMonth.plusMonths(2));
+        when(partitionRepository.findPartitionMonths(any())).thenReturn(attached);
+        when(partitionRepository.detachPartition(any(), any())).thenReturn(true);
+
+        job.maintainPartitions();
+
+        for (PartitionedTable table : PartitionedTable.values()) {
+            verify(partitionRepository).detachPartition(table, currentMonth.minusMonths(4));
+            verify(partitionRepository).detachPartition(table, currentMonth.minusMonths(3));
+            verify(partitionRepository, never()).detachPartition(table, currentMonth.minusMonths(2));
+        }
+        verify(partitionRepository, never()).createPartition(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should skip tables that are not partitioned in the database")
+    void testSkipsUnpartitionedTable() {
+        when(partitionRepository.isPartitioned(PartitionedTable.PAYMENTS)).thenReturn(true);
+        when(partitionRepository.isPartitioned(PartitionedTable.PAYMENT_AUDIT)).thenReturn(false);
+        when(partitionRepository.findPartitionMonths(PartitionedTable.PAYMENTS))
+            .thenReturn(List.of(currentMonth, currentMonth.plusMonths(1), currentMonth.plusMonths(2)));
+
+        job.maintainPartitions();
+
+        verify(partitionRepository, never()).findPartitionMonths(PartitionedTable.PAYMENT_AUDIT);
+        verify(partitionRepository, never()).createPartition(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should maintain the other tables when one fails and name the failed table")
+    void testFailureNamesTable() {
+        when(partitionRepository.isPartitioned(any())).thenReturn(true);
+        when(partitionRepository.findPartitionMonths(PartitionedTable.PAYMENTS))
+            .thenThrow(new RuntimeException("Database unavailable"));
+        when(partitionRepository.findPartitionMonths(PartitionedTable.PAYMENT_AUDIT)).thenReturn(List.of());
+        when(partitionRepository.createPartition(eq(PartitionedTable.PAYMENT_AUDIT), any())).thenReturn(true);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> job.maintainPartitions());
+
+        assertEquals("Partition maintenance failed for payments: Database unavailable", failure.getMessage());
+        verify(partitionRepository, times(3)).createPartition(eq(PartitionedTable.PAYMENT_AUDIT), any());
+    }
+
+    @Test
+    @DisplayName("Should not start when partitioning is disabled")
+    void testNotStartedWhenDisabled() {
+        job.start();
+
+        assertFalse(job.isRunning());
+        verifyNoInteractions(partitionRepository);
+    }
+
+    @Test
+    @DisplayName("Should maintain partitions at startup and on schedule, surviving failures")
+    void testScheduledMaintenance() {
+        properties.getPartitioning().setEnabled(true);
+        when(partitionRepository.isPartitioned(any())).thenReturn(true);
+        List<YearMonth> attached = List.of(currentMonth, currentMonth.plusMonths(1), currentMonth.plusMonths(2));
+        when(partitionRepository.findPartitionMonths(any()))
+            .thenReturn(attached, attached)
+            .thenThrow(new RuntimeException("Database unavailable"))
+            .thenReturn(attached);
+
+        job.start();
+
+        assertTrue(job.isRunning());
+        verify(partitionRepository, timeout(2000).atLeast(5)).findPartitionMonths(any());
+        verify(partitionRepository, never()).createPartition(any(), any());
+    }
+}
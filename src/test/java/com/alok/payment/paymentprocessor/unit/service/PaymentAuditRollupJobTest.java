@@ -0,0 +1,82 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.alok.payment.paymentprocessor.service.PaymentAuditRollupJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentAuditRollupJob Unit Tests")
+class PaymentAuditRollupJobTest {
+
+    @Mock
+    private PaymentAuditRepository auditRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentProcessorProperties properties;
+    private PaymentAuditRollupJob job;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentProcessorProperties();
+        properties.getAudit().getRollup().setBatchSize(100);
+        properties.getAudit().getRollup().setInterval(Duration.ofMillis(20));
+        job = new PaymentAuditRollupJob(auditRepository, properties, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.stop();
+    }
+
+    @Test
+    @DisplayName("Should keep folding full batches until caught up")
+    void testFoldCatchesUp() {
+        when(auditRepository.foldNewAudits(100)).thenReturn(100, 100, 40);
+
+        long advanced = job.foldNewAudits();
+
+        assertEquals(240, advanced);
+        verify(auditRepository, times(3)).foldNewAudits(100);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should not start in SCAN mode")
+    void testNotStartedInScanMode() {
+        job.start();
+
+        assertFalse(job.isRunning());
+        verifyNoInteractions(auditRepository);
+    }
+
+    @Test
+    @DisplayName("Should fold on schedule in ROLLUP mode and survive failures")
+    void testScheduledFold() {
+        properties.getAudit().setDailySummary(PaymentProcessorProperties.DailySummarySource.ROLLUP);
+        when(auditRepository.foldNewAudits(anyInt()))
+            .thenThrow(new RuntimeException("Database unavailable"))
+            .thenReturn(0);
+
+        job.start();
+
+        assertTrue(job.isRunning());
+        verify(auditRepository, timeout(2000).atLeast(3)).foldNewAudits(anyInt());
+    }
+}
@@ -5,13 +5,23 @@
  */
 package com.alok.payment.paymentprocessor.unit.service;
 
+import com.alok.payment.paymentprocessor.archive.ArchiveKey;
+import com.alok.payment.paymentprocessor.archive.AuditArchive;
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
 import com.alok.payment.paymentprocessor.dto.FraudCheckResponse;
 import com.alok.payment.paymentprocessor.model.Payment;
 import com.alok.payment.paymentprocessor.model.PaymentAudit;
 import com.alok.payment.paymentprocessor.model.PaymentStatus;
 import com.alok.payment.paymentprocessor.model.PaymentType;
 import com.alok.payment.paymentprocessor.repository.PaymentAuditRepository;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditRollupRepository.DailyTotals;
+import com.alok.payment.paymentprocessor.repository.PaymentAuditStatisticsRepository.StatusTotals;
+import com.alok.payment.paymentprocessor.service.AsyncAuditWriter;
+import com.alok.payment.paymentprocessor.service.AuditStatistics;
 import com.alok.payment.paymentprocessor.service.PaymentAuditService;
+import com.alok.payment.paymentprocessor.service.PaymentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,17 +29,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +55,21 @@ class PaymentAuditServiceTest {
     @Mock
     private PaymentAuditRepository auditRepository;
 
+    @Mock
+    private AsyncAuditWriter asyncAuditWriter;
+
+    @Mock
+    private AuditStatistics auditStatistics;
+
+    @Mock
+    private AuditArchive auditArchive;
+
+    @Spy
+    private PaymentProcessorProperties properties = new PaymentProcessorProperties();
+
+    @Spy
+    private PaymentMetrics paymentMetrics = new PaymentMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private PaymentAuditService paymentAuditService;
 
@@ -108,6 +139,7 @@ class PaymentAuditServiceTest {
         assertTrue(capturedAudit.getFraudCheckPassed());
         assertEquals("Low risk", capturedAudit.getFraudReason());
         assertEquals("0.2", capturedAudit.getFraudRiskScore());
+        assertEquals(0.2, capturedAudit.getRiskScore(), 0.0001);
         assertTrue(capturedAudit.getSourceAccountValid());
         assertTrue(capturedAudit.getDestinationAccountValid());
         assertTrue(capturedAudit.getSufficientBalance());
@@ -341,16 +373,15 @@ class PaymentAuditServiceTest {
         audit2.setId(2L);
         audit2.setToAccount("ACC001");
         
-        // Use mutable lists to support addAll operation in service
-        when(auditRepository.findByFromAccount("ACC001")).thenReturn(new java.util.ArrayList<>(List.of(audit1)));
-        when(auditRepository.findByToAccount("ACC001")).thenReturn(new java.util.ArrayList<>(List.of(audit2)));
+        when(auditRepository.findByAccountAfter(eq("ACC001"), any(LocalDateTime.class), eq(0L),
+            any(LocalDateTime.class), eq(PaymentAuditService.MAX_PAGE_SIZE))).thenReturn(List.of(audit1, audit2));
 
         List<PaymentAudit> result = paymentAuditService.getAuditsByAccount("ACC001");
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(auditRepository, times(1)).findByFromAccount("ACC001");
-        verify(auditRepository, times(1)).findByToAccount("ACC001");
+        verify(auditRepository, never()).findByFromAccount(any());
+        verify(auditRepository, never()).findByToAccount(any());
     }
 
     @Test
@@ -360,8 +391,7 @@ class PaymentAuditServiceTest {
             paymentAuditService.getAuditsByAccount(null);
         });
         
-        verify(auditRepository, never()).findByFromAccount(any());
-        verify(auditRepository, never()).findByToAccount(any());
+        verifyNoInteractions(auditRepository);
     }
 
     @Test
@@ -371,8 +401,7 @@ class PaymentAuditServiceTest {
             paymentAuditService.getAuditsByAccount("  ");
         });
         
-        verify(auditRepository, never()).findByFromAccount(any());
-        verify(auditRepository, never()).findByToAccount(any());
+        verifyNoInteractions(auditRepository);
     }
 
     @Test
@@ -471,26 +500,20 @@ class PaymentAuditServiceTest {
     @Test
     @DisplayName("Should calculate average processing time")
     void testCalculateAverageProcessingTime() {
-        PaymentAudit audit1 = new PaymentAudit();
-        audit1.setProcessingTimeMs(1000L);
-        
-        PaymentAudit audit2 = new PaymentAudit();
-        audit2.setProcessingTimeMs(2000L);
-        
-        List<PaymentAudit> audits = Arrays.asList(audit1, audit2);
-        when(auditRepository.findByFinalStatus(PaymentStatus.COMPLETED)).thenReturn(audits);
+        when(auditRepository.calculateAverageProcessingTime(PaymentStatus.COMPLETED)).thenReturn(1500.0);
 
         Double result = paymentAuditService.calculateAverageProcessingTime();
 
         assertNotNull(result);
         assertEquals(1500.0, result, 0.01);
-        verify(auditRepository, times(1)).findByFinalStatus(PaymentStatus.COMPLETED);
+        verify(auditRepository, times(1)).calculateAverageProcessingTime(PaymentStatus.COMPLETED);
+        verify(auditRepository, never()).findByFinalStatus(any());
     }
 
     @Test
     @DisplayName("Should return 0.0 when no successful audits exist")
     void testCalculateAverageProcessingTimeWithNoAudits() {
-        when(auditRepository.findByFinalStatus(PaymentStatus.COMPLETED)).thenReturn(Collections.emptyList());
+        when(auditRepository.calculateAverageProcessingTime(PaymentStatus.COMPLETED)).thenReturn(0.0);
 
         Double result = paymentAuditService.calculateAverageProcessingTime();
 
@@ -499,55 +522,33 @@ class PaymentAuditServiceTest {
     }
 
     @Test
-    @DisplayName("Should handle audits with null processing time")
+    @DisplayName("Should return 0.0 when average processing time aggregate is null")
     void testCalculateAverageProcessingTimeWithNullValues() {
-        PaymentAudit audit1 = new PaymentAudit();
-        audit1.setProcessingTimeMs(1000L);
-        
-        PaymentAudit audit2 = new PaymentAudit();
-        audit2.setProcessingTimeMs(null);
-        
-        PaymentAudit audit3 = new PaymentAudit();
-        audit3.setProcessingTimeMs(3000L);
-        
-        List<PaymentAudit> audits = Arrays.asList(audit1, audit2, audit3);
-        when(auditRepository.findByFinalStatus(PaymentStatus.COMPLETED)).thenReturn(audits);
+        when(auditRepository.calculateAverageProcessingTime(PaymentStatus.COMPLETED)).thenReturn(null);
 
         Double result = paymentAuditService.calculateAverageProcessingTime();
 
         assertNotNull(result);
-        assertEquals(2000.0, result, 0.01);
+        assertEquals(0.0, result, 0.01);
     }
 
     @Test
     @DisplayName("Should calculate fraud detection rate")
     void testGetFraudDetectionRate() {
-        PaymentAudit audit1 = new PaymentAudit();
-        audit1.setFraudCheckPassed(true);
-        
-        PaymentAudit audit2 = new PaymentAudit();
-        audit2.setFraudCheckPassed(false);
-        
-        PaymentAudit audit3 = new PaymentAudit();
-        audit3.setFraudCheckPassed(false);
-        
-        PaymentAudit audit4 = new PaymentAudit();
-        audit4.setFraudCheckPassed(true);
-        
-        List<PaymentAudit> audits = Arrays.asList(audit1, audit2, audit3, audit4);
-        when(auditRepository.findAll()).thenReturn(audits);
+        when(auditRepository.calculateFraudDetectionRate()).thenReturn(50.0);
 
         Double result = paymentAuditService.getFraudDetectionRate();
 
         assertNotNull(result);
         assertEquals(50.0, result, 0.01);
-        verify(auditRepository, times(1)).findAll();
+        verify(auditRepository, times(1)).calculateFraudDetectionRate();
+        verify(auditRepository, never()).findAll();
     }
 
     @Test
     @DisplayName("Should return 0.0 fraud rate when no audits exist")
     void testGetFraudDetectionRateWithNoAudits() {
-        when(auditRepository.findAll()).thenReturn(Collections.emptyList());
+        when(auditRepository.calculateFraudDetectionRate()).thenReturn(0.0);
 
         Double result = paymentAuditService.getFraudDetectionRate();
 
@@ -556,23 +557,311 @@ class PaymentAuditServiceTest {
     }
 
     @Test
-    @DisplayName("Should handle audits with null fraud check passed")
+    @DisplayName("Should return 0.0 when fraud rate aggregate is null")
     void testGetFraudDetectionRateWithNullValues() {
-        PaymentAudit audit1 = new PaymentAudit();
-        audit1.setFraudCheckPassed(true);
-        
-        PaymentAudit audit2 = new PaymentAudit();
-        audit2.setFraudCheckPassed(null);
-        
-        PaymentAudit audit3 = new PaymentAudit();
-        audit3.setFraudCheckPassed(false);
-        
-        List<PaymentAudit> audits = Arrays.asList(audit1, audit2, audit3);
-        when(auditRepository.findAll()).thenReturn(audits);
+        when(auditRepository.calculateFraudDetectionRate()).thenReturn(null);
 
         Double result = paymentAuditService.getFraudDetectionRate();
 
         assertNotNull(result);
-        assertEquals(33.33, result, 0.01);
+        assertEquals(0.0, result, 0.01);
+    }
+
+    @Test
+    @DisplayName("Should report processing time percentiles from the summarized histogram")
+    void testGetProcessingTimePercentiles() {
+        LocalDateTime from = LocalDateTime.of(2025, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 8, 0, 0);
+        Histogram histogram = new Histogram(3);
+        for (long ms = 1; ms <= 100; ms++) {
+            histogram.recordValue(ms);
+        }
+        when(auditRepository.summarizeProcessingTimes(from, to, PaymentType.DOMESTIC_TRANSFER, PaymentStatus.COMPLETED))
+            .thenReturn(histogram);
+
+        Map<String, Object> percentiles = paymentAuditService.getProcessingTimePercentiles(from, to,
+            PaymentType.DOMESTIC_TRANSFER, PaymentStatus.COMPLETED);
+
+        assertEquals(100L, percentiles.get("count"));
+        assertEquals(50L, percentiles.get("p50ProcessingTimeMs"));
+        assertEquals(95L, percentiles.get("p95ProcessingTimeMs"));
+        assertEquals(99L, percentiles.get("p99ProcessingTimeMs"));
+        assertEquals(100L, percentiles.get("maxProcessingTimeMs"));
+        assertEquals(50.5, (Double) percentiles.get("averageProcessingTimeMs"), 0.1);
+    }
+
+    @Test
+    @DisplayName("Should reject missing or inverted percentile windows")
+    void testGetProcessingTimePercentilesWithInvalidWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThrows(IllegalArgumentException.class,
+            () -> paymentAuditService.getProcessingTimePercentiles(null, now, null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> paymentAuditService.getProcessingTimePercentiles(now, now.minusHours(1), null, null));
+        verifyNoInteractions(auditRepository);
+    }
+
+    @Test
+    @DisplayName("Should answer analytics from in-memory statistics when enabled")
+    void testAnalyticsFromInMemoryStatistics() {
+        when(auditStatistics.isEnabled()).thenReturn(true);
+        when(auditStatistics.getFraudDetectionRate()).thenReturn(12.5);
+        when(auditStatistics.getAverageProcessingTime(PaymentStatus.COMPLETED)).thenReturn(250.0);
+
+        assertEquals(12.5, paymentAuditService.getFraudDetectionRate(), 0.01);
+        assertEquals(250.0, paymentAuditService.calculateAverageProcessingTime(), 0.01);
+        verify(auditRepository, never()).calculateFraudDetectionRate();
+        verify(auditRepository, never()).calculateAverageProcessingTime(any());
+    }
+
+    @Test
+    @DisplayName("Should feed written audit records to in-memory statistics when enabled")
+    void testAuditPaymentRecordsStatistics() {
+        when(auditStatistics.isEnabled()).thenReturn(true);
+        when(auditRepository.save(any(PaymentAudit.class))).thenReturn(savedAudit);
+
+        paymentAuditService.auditPayment(payment, fraudCheckResponse, true, true, true, processingStartTime);
+
+        verify(auditStatistics, times(1)).record(savedAudit);
+    }
+
+    @Test
+    @DisplayName("Should build daily summary from rollup without loading audit rows")
+    void testDailyAuditSummaryFromRollup() {
+        properties.getAudit().setDailySummary(PaymentProcessorProperties.DailySummarySource.ROLLUP);
+        LocalDate day = LocalDate.of(2025, 3, 14);
+        when(auditRepository.summarizeDay(day)).thenReturn(new DailyTotals(10, 8, 1, 2000, 10));
+        when(auditRepository.countFailureReasons(day)).thenReturn(Map.of("Insufficient balance", 2L));
+
+        Map<String, Object> summary = paymentAuditService.getDailyAuditSummary(day.atTime(15, 30));
+
+        assertEquals(day, summary.get("date"));
+        assertEquals(10, summary.get("totalTransactions"));
+        assertEquals(8L, summary.get("successfulTransactions"));
+        assertEquals(2L, summary.get("failedTransactions"));
+        assertEquals(80.0, (Double) summary.get("successRate"), 0.01);
+        assertEquals(1L, summary.get("fraudDetectedCount"));
+        assertEquals(200.0, (Double) summary.get("averageProcessingTimeMs"), 0.01);
+        assertEquals(Map.of("Insufficient balance", 2L), summary.get("topFailureReasons"));
+        verify(auditRepository, never()).findByAuditedAtBetween(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should page high-risk audits after the given ID")
+    void testGetHighRiskTransactionAuditPage() {
+        List<PaymentAudit> page = List.of(auditWithId(11L), auditWithId(12L));
+        when(auditRepository.findHighRiskAfter(10L, 2)).thenReturn(page);
+
+        List<PaymentAudit> result = paymentAuditService.getHighRiskTransactionAudits(10L, 2);
+
+        assertEquals(page, result);
+        verify(auditRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should reject high-risk page sizes outside the allowed range")
+    void testGetHighRiskTransactionAuditPageSizeBounds() {
+        assertThrows(IllegalArgumentException.class,
+            () -> paymentAuditService.getHighRiskTransactionAudits(null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> paymentAuditService.getHighRiskTransactionAudits(null, PaymentAuditService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(auditRepository);
+    }
+
+    @Test
+    @DisplayName("Should stream high-risk audits page by page until a short page")
+    void testStreamHighRiskTransactionAudits() {
+        when(auditRepository.findHighRiskAfter(0L, 2)).thenReturn(List.of(auditWithId(3L), auditWithId(5L)));
+        when(auditRepository.findHighRiskAfter(5L, 2)).thenReturn(List.of(auditWithId(8L), auditWithId(9L)));
+        when(auditRepository.findHighRiskAfter(9L, 2)).thenReturn(List.of(auditWithId(12L)));
+
+        List<Long> ids = paymentAuditService.streamHighRiskTransactionAudits(2)
+            .map(PaymentAudit::getId)
+            .toList();
+
+        assertEquals(List.of(3L, 5L, 8L, 9L, 12L), ids);
+        verify(auditRepository, times(3)).findHighRiskAfter(anyLong(), eq(2));
+    }
+
+    @Test
+    @DisplayName("Should page account audits within the window after the given audit")
+    void testGetAuditsByAccountPage() {
+        LocalDateTime from = LocalDateTime.of(2025, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 4, 1, 0, 0);
+        PaymentAudit last = auditWithId(40L);
+        last.setAuditedAt(LocalDateTime.of(2025, 3, 10, 9, 0));
+        List<PaymentAudit> page = List.of(auditWithId(41L), auditWithId(43L));
+        when(auditRepository.findByAccountAfter("ACC001", last.getAuditedAt(), 40L, to, 2)).thenReturn(page);
+
+        List<PaymentAudit> result = paymentAuditService.getAuditsByAccount("ACC001", from, to, last, 2);
+
+        assertEquals(page, result);
+    }
+
+    @Test
+    @DisplayName("Should start the first account audit page at the window start")
+    void testGetAuditsByAccountFirstPage() {
+        LocalDateTime from = LocalDateTime.of(2025, 3, 1, 0, 0);
+        when(auditRepository.findByAccountAfter(eq("ACC001"), eq(from), eq(0L), any(LocalDateTime.class), eq(10)))
+            .thenReturn(List.of());
+
+        assertTrue(paymentAuditService.getAuditsByAccount("ACC001", from, null, null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject account page sizes outside the allowed range and inverted windows")
+    void testGetAuditsByAccountPageBounds() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThrows(IllegalArgumentException.class,
+            () -> paymentAuditService.getAuditsByAccount("ACC001", null, null, null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> paymentAuditService.getAuditsByAccount("ACC001", null, null, null, PaymentAuditService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> paymentAuditService.getAuditsByAccount("ACC001", now, now.minusDays(1), null, 10));
+        verifyNoInteractions(auditRepository);
+    }
+
+    @Test
+    @DisplayName("Should stream account audits page by page until a short page")
+    void testStreamAuditsByAccount() {
+        PaymentAudit second = auditWithId(5L);
+        second.setAuditedAt(LocalDateTime.of(2025, 3, 1, 10, 0));
+        when(auditRepository.findByAccountAfter(eq("ACC001"), any(LocalDateTime.class), eq(0L), any(LocalDateTime.class), eq(2)))
+            .thenReturn(List.of(auditWithId(3L), second));
+        when(auditRepository.findByAccountAfter(eq("ACC001"), eq(second.getAuditedAt()), eq(5L), any(LocalDateTime.class), eq(2)))
+            .thenReturn(List.of(auditWithId(8L)));
+
+        List<Long> ids = paymentAuditService.streamAuditsByAccount("ACC001", null, null, 2)
+            .map(PaymentAudit::getId)
+            .toList();
+
+        assertEquals(List.of(3L, 5L, 8L), ids);
+    }
+
+    @Test
+    @DisplayName("Should serve an account page from the archive and continue in the database after the watermark")
+    void testGetAuditsByAccountFromArchive() {
+        LocalDateTime watermarkAt = LocalDateTime.of(2025, 1, 31, 12, 0);
+        ArchiveKey watermark = new ArchiveKey(watermarkAt, 20L);
+        when(auditRepository.findArchivedThrough()).thenReturn(Optional.of(watermark));
+        // The last one is in a file written by an archive run that rolled back
+        when(auditArchive.findByAccountAfter(eq("ACC001"), any(LocalDateTime.class), eq(0L), any(LocalDateTime.class), eq(3)))
+            .thenReturn(List.of(auditWithId(4L, watermarkAt.minusDays(2)), auditWithId(9L, watermarkAt.minusDays(1)),
+                auditWithId(25L, watermarkAt.plusDays(1))));
+        when(auditRepository.findByAccountAfter(eq("ACC001"), eq(watermarkAt), eq(20L), any(LocalDateTime.class), eq(1)))
+            .thenReturn(List.of(auditWithId(25L, watermarkAt.plusDays(1))));
+
+        List<PaymentAudit> result = paymentAuditService.getAuditsByAccount("ACC001", null, null, null, 3);
+
+        assertEquals(List.of(4L, 9L, 25L), result.stream().map(PaymentAudit::getId).toList());
+        verify(auditArchive).checkCovers(watermark);
+    }
+
+    @Test
+    @DisplayName("Should fail an account page that needs archived audits this instance cannot read")
+    void testGetAuditsByAccountWithoutArchive() {
+        ArchiveKey watermark = new ArchiveKey(LocalDateTime.of(2025, 1, 31, 12, 0), 20L);
+        when(auditRepository.findArchivedThrough()).thenReturn(Optional.of(watermark));
+        doThrow(new IllegalStateException("archive disabled")).when(auditArchive).checkCovers(watermark);
+
+        assertThrows(IllegalStateException.class, () ->
+            paymentAuditService.getAuditsByAccount("ACC001", null, null, null, 3));
+        verify(auditRepository, never()).findByAccountAfter(any(), any(), anyLong(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should merge archived audits with database rows past the watermark for a date range")
+    void testGetAuditsByDateRangeFromArchive() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 3, 1, 0, 0);
+        LocalDateTime watermarkAt = LocalDateTime.of(2025, 1, 31, 12, 0);
+        PaymentAudit archived = auditWithId(7L);
+        archived.setAuditedAt(watermarkAt);
+        PaymentAudit notYetDeleted = auditWithId(7L);
+        notYetDeleted.setAuditedAt(watermarkAt);
+        PaymentAudit hot = auditWithId(30L);
+        hot.setAuditedAt(watermarkAt.plusDays(1));
+        when(auditRepository.findArchivedThrough()).thenReturn(Optional.of(ArchiveKey.of(archived)));
+        when(auditArchive.findByAuditedAtBetween(startDate, endDate)).thenReturn(List.of(archived));
+        when(auditRepository.findByAuditedAtBetween(startDate, endDate)).thenReturn(List.of(notYetDeleted, hot));
+
+        List<PaymentAudit> result = paymentAuditService.getAuditsByDateRange(startDate, endDate);
+
+        assertEquals(List.of(archived, hot), result);
+    }
+
+    @Test
+    @DisplayName("Should not query the database for a date range entirely before the watermark")
+    void testGetAuditsByDateRangeOnlyArchived() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 1, 2, 0, 0);
+        when(auditRepository.findArchivedThrough())
+            .thenReturn(Optional.of(new ArchiveKey(LocalDateTime.of(2025, 1, 31, 0, 0), 50L)));
+        when(auditArchive.findByAuditedAtBetween(startDate, endDate)).thenReturn(List.of(auditWithId(1L, startDate)));
+
+        assertEquals(1, paymentAuditService.getAuditsByDateRange(startDate, endDate).size());
+        verify(auditRepository, never()).findByAuditedAtBetween(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should build account analytics from grouped totals without loading audit rows")
+    void testAccountAuditAnalyticsFromGroupedTotals() {
+        when(auditRepository.summarizeAccountByStatus("ACC001")).thenReturn(List.of(
+            new StatusTotals(PaymentStatus.COMPLETED, 6, 0, 0, 0, 0, 1200, 6, 400),
+            new StatusTotals(PaymentStatus.INSUFFICIENT_BALANCE, 3, 0, 0, 0, 3, 300, 2, 900),
+            new StatusTotals(PaymentStatus.FRAUD_CHECK_FAILED, 1, 1, 0, 0, 0, 0, 0, 0)));
+
+        Map<String, Object> analytics = paymentAuditService.getAccountAuditAnalytics("ACC001");
+
+        assertEquals(10, analytics.get("totalTransactions"));
+        assertEquals(Map.of(PaymentStatus.COMPLETED, 6L, PaymentStatus.INSUFFICIENT_BALANCE, 3L,
+            PaymentStatus.FRAUD_CHECK_FAILED, 1L), analytics.get("statusBreakdown"));
+        assertEquals(1L, analytics.get("fraudDetectedCount"));
+        assertEquals(10.0, (Double) analytics.get("fraudPercentage"), 0.01);
+        assertEquals(3L, analytics.get("insufficientBalanceCount"));
+        assertEquals(187.5, (Double) analytics.get("averageProcessingTimeMs"), 0.01);
+        assertEquals(900L, analytics.get("maxProcessingTimeMs"));
+        verify(auditRepository, never()).findByAccountAfter(any(), any(), anyLong(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should hand audit record to async writer in ASYNC mode")
+    void testAuditPaymentAsync() {
+        properties.getAudit().setWriteMode(PaymentProcessorProperties.AuditWriteMode.ASYNC);
+        when(asyncAuditWriter.submit(any(PaymentAudit.class))).thenReturn(true);
+
+        PaymentAudit result = paymentAuditService.auditPayment(
+            payment, fraudCheckResponse, true, true, true, processingStartTime);
+
+        assertNotNull(result);
+        assertNull(result.getId());
+        assertEquals(PaymentStatus.COMPLETED, result.getFinalStatus());
+        verify(asyncAuditWriter, times(1)).submit(result);
+        verify(auditRepository, never()).save(any(PaymentAudit.class));
+    }
+
+    @Test
+    @DisplayName("Should write audit record directly when async queue is full")
+    void testAuditFailedPaymentAsyncBackpressure() {
+        properties.getAudit().setWriteMode(PaymentProcessorProperties.AuditWriteMode.ASYNC);
+        payment.setStatus(PaymentStatus.ACCOUNT_VALIDATION_FAILED);
+        when(asyncAuditWriter.submit(any(PaymentAudit.class))).thenReturn(false);
+
+        paymentAuditService.auditFailedPayment(payment, false, false, processingStartTime);
+
+        verify(asyncAuditWriter, times(1)).submit(any(PaymentAudit.class));
+        verify(auditRepository, times(1)).save(any(PaymentAudit.class));
+    }
+
+    private static PaymentAudit auditWithId(Long id) {
+        PaymentAudit audit = new PaymentAudit();
+        audit.setId(id);
+        return audit;
+    }
+
+    private static PaymentAudit auditWithId(Long id, LocalDateTime auditedAt) {
+        PaymentAudit audit = auditWithId(id);
+        audit.setAuditedAt(auditedAt);
+        return audit;
     }
 }
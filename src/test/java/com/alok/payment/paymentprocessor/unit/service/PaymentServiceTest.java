@@ -1,29 +1,49 @@
 package com.alok.payment.paymentprocessor.unit.service;
 
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
 import com.alok.payment.paymentprocessor.dto.AccountBalanceResponse;
+import com.alok.payment.paymentprocessor.dto.BatchPaymentResponse;
 import com.alok.payment.paymentprocessor.dto.FraudCheckResponse;
+import com.alok.payment.paymentprocessor.dto.PaymentCursor;
+import com.alok.payment.paymentprocessor.dto.PaymentFilter;
 import com.alok.payment.paymentprocessor.dto.PaymentRequest;
 import com.alok.payment.paymentprocessor.dto.PaymentResponse;
 import com.alok.payment.paymentprocessor.model.Payment;
+import com.alok.payment.paymentprocessor.model.PaymentAudit;
 import com.alok.payment.paymentprocessor.model.PaymentStatus;
 import com.alok.payment.paymentprocessor.model.PaymentType;
 import com.alok.payment.paymentprocessor.repository.PaymentRepository;
 import com.alok.payment.paymentprocessor.service.AccountService;
 import com.alok.payment.paymentprocessor.service.FraudService;
 import com.alok.payment.paymentprocessor.service.PaymentAuditService;
+import com.alok.payment.paymentprocessor.service.PaymentMetrics;
 import com.alok.payment.paymentprocessor.service.PaymentService;
+import com.alok.payment.paymentprocessor.service.PaymentStatusCache;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -46,6 +66,17 @@ class PaymentServiceTest {
     @Mock
     private PaymentAuditService auditService;
 
+    @Spy
+    private PaymentProcessorProperties properties = new PaymentProcessorProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PaymentMetrics paymentMetrics = new PaymentMetrics(meterRegistry);
+
+    @Spy
+    private PaymentStatusCache statusCache = new PaymentStatusCache(properties, meterRegistry);
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -101,7 +132,7 @@ class PaymentServiceTest {
         AccountBalanceResponse balanceResponse = new AccountBalanceResponse();
         balanceResponse.setValid(true);
         balanceResponse.setSufficientBalance(true);
-        when(accountService.checkBalance(any())).thenReturn(balanceResponse);
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
 
         // Mock repository save
         when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
@@ -111,9 +142,14 @@ class PaymentServiceTest {
         assertNotNull(response);
         assertEquals(PaymentStatus.COMPLETED, response.getStatus());
         assertNotNull(response.getTransactionId());
-        verify(accountService, times(1)).deductBalance(eq("ACC001"), any(BigDecimal.class));
-        verify(accountService, times(1)).addBalance(eq("ACC002"), any(BigDecimal.class));
+        verify(accountService, times(1)).transfer(eq("ACC001"), eq("ACC002"), any(BigDecimal.class));
         verify(paymentRepository, atLeast(2)).save(any(Payment.class));
+
+        assertEquals(1, stepTimer("source_validation", "success").count());
+        assertEquals(1, stepTimer("destination_validation", "success").count());
+        assertEquals(1, stepTimer("fraud_check", "success").count());
+        assertEquals(1, stepTimer("ledger_transfer", "success").count());
+        assertEquals(3, stepTimer("status_persistence", "success").count());
     }
 
     @Test
@@ -142,8 +178,7 @@ class PaymentServiceTest {
         assertEquals(PaymentStatus.FRAUD_CHECK_FAILED, response.getStatus());
         assertNotNull(response.getFailureReason());
         assertTrue(response.getFailureReason().toLowerCase().contains("fraud"));
-        verify(accountService, never()).deductBalance(anyString(), any(BigDecimal.class));
-        verify(accountService, never()).addBalance(anyString(), any(BigDecimal.class));
+        verify(accountService, never()).transfer(anyString(), anyString(), any(BigDecimal.class));
     }
 
     @Test
@@ -169,7 +204,7 @@ class PaymentServiceTest {
         balanceResponse.setValid(true);
         balanceResponse.setSufficientBalance(false);
         balanceResponse.setMessage("Insufficient balance");
-        when(accountService.checkBalance(any())).thenReturn(balanceResponse);
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
 
         when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
 
@@ -177,8 +212,35 @@ class PaymentServiceTest {
 
         assertEquals(PaymentStatus.INSUFFICIENT_BALANCE, response.getStatus());
         assertNotNull(response.getFailureReason());
+        verify(accountService, times(1)).transfer(eq("ACC001"), eq("ACC002"), any(BigDecimal.class));
         verify(accountService, never()).deductBalance(anyString(), any(BigDecimal.class));
         verify(accountService, never()).addBalance(anyString(), any(BigDecimal.class));
+        assertEquals(1, stepTimer("ledger_transfer", "failure").count());
+    }
+
+    @Test
+    @DisplayName("Should fail payment as FAILED when the transfer rejects the amount")
+    void testPaymentFailsOnRejectedAmount() {
+        FraudCheckResponse fraudResponse = new FraudCheckResponse();
+        fraudResponse.setFraudulent(false);
+        when(fraudService.checkFraud(any())).thenReturn(fraudResponse);
+
+        AccountBalanceResponse validAccount = new AccountBalanceResponse();
+        validAccount.setValid(true);
+        when(accountService.validateAccount(anyString())).thenReturn(validAccount);
+
+        AccountBalanceResponse balanceResponse = new AccountBalanceResponse();
+        balanceResponse.setValid(false);
+        balanceResponse.setSufficientBalance(false);
+        balanceResponse.setMessage("Amount has more than 2 decimal places: 1000.004");
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
+
+        when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
+
+        PaymentResponse response = paymentService.processPayment(validPaymentRequest);
+
+        assertEquals(PaymentStatus.FAILED, response.getStatus());
+        assertEquals("Amount has more than 2 decimal places: 1000.004", response.getFailureReason());
     }
 
     @Test
@@ -197,7 +259,7 @@ class PaymentServiceTest {
         assertEquals(PaymentStatus.ACCOUNT_VALIDATION_FAILED, response.getStatus());
         assertNotNull(response.getFailureReason());
         verify(fraudService, never()).checkFraud(any());
-        verify(accountService, never()).deductBalance(anyString(), any(BigDecimal.class));
+        verify(accountService, never()).transfer(anyString(), anyString(), any(BigDecimal.class));
     }
 
     @Test
@@ -245,36 +307,81 @@ class PaymentServiceTest {
         Optional<PaymentResponse> payment = paymentService.getPaymentStatus("INVALID");
 
         assertFalse(payment.isPresent());
+        verify(paymentRepository, times(1)).findByTransactionId("INVALID");
     }
 
     @Test
-    @DisplayName("Should retrieve payments by account number")
-    void testGetPaymentsByAccount() {
-        List<Payment> payments = new ArrayList<>();
-        payments.add(savedPayment);
+    @DisplayName("Should retry a status lookup on the primary when the read replica misses")
+    void testGetPaymentStatusReplicaMiss() {
+        properties.getReadReplica().setEnabled(true);
+        savedPayment.setStatus(PaymentStatus.PROCESSING);
+        when(paymentRepository.findByTransactionId("TXN-001"))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(savedPayment));
+
+        Optional<PaymentResponse> payment = paymentService.getPaymentStatus("TXN-001");
+
+        assertTrue(payment.isPresent());
+        assertEquals(PaymentStatus.PROCESSING, payment.get().getStatus());
+        verify(paymentRepository, times(2)).findByTransactionId("TXN-001");
+    }
 
-        when(paymentRepository.findByAccount("ACC001")).thenReturn(payments);
+    @Test
+    @DisplayName("Should serve a status written through by processing from the cache")
+    void testGetPaymentStatusFromCache() {
+        properties.getStatusCache().setEnabled(true);
+        PaymentStatusCache enabledCache = new PaymentStatusCache(properties, meterRegistry);
+        PaymentService cachingService = new PaymentService(paymentRepository, fraudService, accountService,
+            auditService, properties, paymentMetrics, enabledCache, null);
+
+        AccountBalanceResponse invalidSource = new AccountBalanceResponse();
+        invalidSource.setValid(false);
+        invalidSource.setMessage("Account not found");
+        when(accountService.validateAccount("ACC001")).thenReturn(invalidSource);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PaymentResponse processed = cachingService.processPayment(validPaymentRequest);
+        Optional<PaymentResponse> status = cachingService.getPaymentStatus(processed.getTransactionId());
+
+        assertTrue(status.isPresent());
+        assertEquals(PaymentStatus.ACCOUNT_VALIDATION_FAILED, status.get().getStatus());
+        assertEquals(processed.getFailureReason(), status.get().getFailureReason());
+        verify(paymentRepository, never()).findByTransactionId(anyString());
+    }
 
-        List<Payment> result = paymentService.getPaymentsByAccount("ACC001");
+    @Test
+    @DisplayName("Should retrieve a page of payments by account number")
+    void testGetPaymentsByAccount() {
+        PaymentFilter filter = new PaymentFilter(PaymentStatus.COMPLETED, null, "USD", null, null);
+        PaymentCursor after = new PaymentCursor(LocalDateTime.of(2025, 3, 1, 9, 0), 40L);
+        when(paymentRepository.findAccountPage("ACC001", filter, after, 50)).thenReturn(List.of(savedPayment));
+
+        List<Payment> result = paymentService.getPaymentsByAccount("ACC001", filter, after, 50);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(paymentRepository, times(1)).findByAccount("ACC001");
+        assertEquals(List.of(savedPayment), result);
+        verify(paymentRepository, never()).findAll();
     }
 
     @Test
-    @DisplayName("Should retrieve all payments")
-    void testGetAllPayments() {
-        List<Payment> payments = new ArrayList<>();
-        payments.add(savedPayment);
+    @DisplayName("Should retrieve a page of all payments")
+    void testGetPayments() {
+        when(paymentRepository.findPage(PaymentFilter.NONE, null, 100)).thenReturn(List.of(savedPayment));
 
-        when(paymentRepository.findAll()).thenReturn(payments);
+        List<Payment> result = paymentService.getPayments(PaymentFilter.NONE, null, 100);
 
-        List<Payment> result = paymentService.getAllPayments();
+        assertEquals(List.of(savedPayment), result);
+        verify(paymentRepository, never()).findAll();
+    }
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(paymentRepository, times(1)).findAll();
+    @Test
+    @DisplayName("Should reject page sizes outside the allowed range and missing accounts")
+    void testGetPaymentsPageBounds() {
+        assertThrows(IllegalArgumentException.class, () -> paymentService.getPayments(PaymentFilter.NONE, null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> paymentService.getPayments(PaymentFilter.NONE, null, PaymentService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> paymentService.getPaymentsByAccount(" ", PaymentFilter.NONE, null, 10));
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
@@ -287,5 +394,430 @@ class PaymentServiceTest {
         assertThrows(RuntimeException.class, () -> {
             paymentService.processPayment(validPaymentRequest);
         });
+        assertEquals(1, stepTimer("status_persistence", "error").count());
+    }
+
+    @Test
+    @DisplayName("Should process payment batch with JDBC batched writes")
+    void testProcessPaymentBatch() {
+        FraudCheckResponse fraudResponse = new FraudCheckResponse();
+        fraudResponse.setFraudulent(false);
+        when(fraudService.checkFraud(any())).thenReturn(fraudResponse);
+
+        AccountBalanceResponse validAccount = new AccountBalanceResponse();
+        validAccount.setValid(true);
+        when(accountService.validateAccount(anyString())).thenReturn(validAccount);
+
+        AccountBalanceResponse balanceResponse = new AccountBalanceResponse();
+        balanceResponse.setValid(true);
+        balanceResponse.setSufficientBalance(true);
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
+
+        when(auditService.createAuditRecord(any(), any(), anyBoolean(), anyBoolean(), anyBoolean(), any()))
+            .thenReturn(new PaymentAudit());
+
+        PaymentRequest invalidRequest = new PaymentRequest();
+        invalidRequest.setFromAccount("ACC001");
+
+        BatchPaymentResponse response = paymentService.processPayments(
+            List.of(validPaymentRequest, validPaymentRequest, invalidRequest));
+
+        assertEquals(3, response.getTotalCount());
+        assertEquals(2, response.getSuccessfulCount());
+        assertEquals(1, response.getFailedCount());
+        assertEquals(PaymentStatus.COMPLETED, response.getResults().get(0).getStatus());
+        assertEquals(PaymentStatus.FAILED, response.getResults().get(2).getStatus());
+        assertTrue(response.getResults().get(2).getFailureReason().startsWith("Invalid payment request"));
+
+        verify(paymentRepository, times(1)).batchInsert(argThat(payments -> payments.size() == 2));
+        verify(auditService, times(1)).saveAuditRecords(argThat(audits -> audits.size() == 2));
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(accountService, times(2)).transfer(eq("ACC001"), anyString(), any(BigDecimal.class));
+    }
+
+    @Test
+    @DisplayName("Should audit batch item as failed when source account invalid")
+    void testProcessPaymentBatchWithInvalidAccount() {
+        AccountBalanceResponse sourceResponse = new AccountBalanceResponse();
+        sourceResponse.setValid(false);
+        sourceResponse.setMessage("Account not found");
+        when(accountService.validateAccount("ACC001")).thenReturn(sourceResponse);
+
+        when(auditService.createFailedAuditRecord(any(), anyBoolean(), anyBoolean(), any()))
+            .thenReturn(new PaymentAudit());
+
+        BatchPaymentResponse response = paymentService.processPayments(List.of(validPaymentRequest));
+
+        assertEquals(PaymentStatus.ACCOUNT_VALIDATION_FAILED, response.getResults().get(0).getStatus());
+        verify(auditService, times(1)).createFailedAuditRecord(any(), eq(false), eq(false), any());
+        verify(fraudService, never()).checkFraud(any());
+        verify(paymentRepository, times(1)).batchInsert(argThat(payments -> 
+            payments.get(0).getStatus() == PaymentStatus.ACCOUNT_VALIDATION_FAILED));
+    }
+
+    @Test
+    @DisplayName("Should reject batch larger than configured maximum")
+    void testProcessPaymentBatchTooLarge() {
+        properties.getBatch().setMaxSize(1);
+
+        assertThrows(IllegalArgumentException.class, () -> 
+            paymentService.processPayments(List.of(validPaymentRequest, validPaymentRequest)));
+
+        verify(paymentRepository, never()).batchInsert(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reverse the batch's ledger transfers when its writes roll back")
+    void testProcessPaymentBatchRollbackReversesTransfers() {
+        FraudCheckResponse fraudResponse = new FraudCheckResponse();
+        fraudResponse.setFraudulent(false);
+        when(fraudService.checkFraud(any())).thenReturn(fraudResponse);
+
+        AccountBalanceResponse validAccount = new AccountBalanceResponse();
+        validAccount.setValid(true);
+        when(accountService.validateAccount(anyString())).thenReturn(validAccount);
+
+        AccountBalanceResponse balanceResponse = new AccountBalanceResponse();
+        balanceResponse.setValid(true);
+        balanceResponse.setSufficientBalance(true);
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
+
+        when(auditService.createAuditRecord(any(), any(), anyBoolean(), anyBoolean(), anyBoolean(), any()))
+            .thenReturn(new PaymentAudit());
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(paymentRepository).batchInsert(anyList());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(DataIntegrityViolationException.class, () ->
+                paymentService.processPayments(List.of(validPaymentRequest, validPaymentRequest)));
+            verify(accountService, never()).reverseTransfer(anyString(), anyString(), any(BigDecimal.class));
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(accountService, times(2)).reverseTransfer("ACC001", "ACC002", new BigDecimal("1000.00"));
+        verify(auditService, never()).saveAuditRecords(anyList());
+    }
+
+    @Test
+    @DisplayName("Should append an outcome event only for the final status when the outbox is enabled")
+    void testOutboxAppendsFinalStatus() {
+        properties.getOutbox().setEnabled(true);
+
+        AccountBalanceResponse sourceResponse = new AccountBalanceResponse();
+        sourceResponse.setValid(false);
+        sourceResponse.setMessage("Account not found");
+        when(accountService.validateAccount("ACC001")).thenReturn(sourceResponse);
+
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        paymentService.processPayment(validPaymentRequest);
+
+        verify(paymentRepository, times(1)).appendOutcomes(argThat(payments -> payments.size() == 1
+            && payments.get(0).getStatus() == PaymentStatus.ACCOUNT_VALIDATION_FAILED));
+    }
+
+    @Test
+    @DisplayName("Should append outcome events for a whole batch when the outbox is enabled")
+    void testOutboxAppendsBatchOutcomes() {
+        properties.getOutbox().setEnabled(true);
+
+        AccountBalanceResponse sourceResponse = new AccountBalanceResponse();
+        sourceResponse.setValid(false);
+        when(accountService.validateAccount("ACC001")).thenReturn(sourceResponse);
+
+        when(auditService.createFailedAuditRecord(any(), anyBoolean(), anyBoolean(), any()))
+            .thenReturn(new PaymentAudit());
+
+        paymentService.processPayments(List.of(validPaymentRequest, validPaymentRequest));
+
+        verify(paymentRepository, times(1)).appendOutcomes(argThat(payments -> payments.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should not append outcome events when the outbox is disabled")
+    void testOutboxDisabled() {
+        AccountBalanceResponse sourceResponse = new AccountBalanceResponse();
+        sourceResponse.setValid(false);
+        when(accountService.validateAccount("ACC001")).thenReturn(sourceResponse);
+
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        paymentService.processPayment(validPaymentRequest);
+
+        verify(paymentRepository, never()).appendOutcomes(anyList());
+    }
+
+    @Test
+    @DisplayName("Should write payment once in terminal status in single-write mode")
+    void testSingleWriteModePersistsTerminalStatusOnce() {
+        properties.getProcessing().setWriteMode(PaymentProcessorProperties.WriteMode.SINGLE_WRITE);
+
+        FraudCheckResponse fraudResponse = new FraudCheckResponse();
+        fraudResponse.setFraudulent(false);
+        when(fraudService.checkFraud(any())).thenReturn(fraudResponse);
+
+        AccountBalanceResponse validAccount = new AccountBalanceResponse();
+        validAccount.setValid(true);
+        when(accountService.validateAccount(anyString())).thenReturn(validAccount);
+
+        AccountBalanceResponse balanceResponse = new AccountBalanceResponse();
+        balanceResponse.setSufficientBalance(true);
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
+
+        PaymentResponse response = paymentService.processPayment(validPaymentRequest);
+
+        assertEquals(PaymentStatus.COMPLETED, response.getStatus());
+        verify(paymentRepository, times(1)).save(argThat(payment -> 
+            payment.getStatus() == PaymentStatus.COMPLETED && payment.getId() == null));
+        verify(auditService, times(1)).auditPayment(any(Payment.class), eq(fraudResponse), 
+            eq(true), eq(true), eq(true), any());
+    }
+
+    @Test
+    @DisplayName("Should reverse the ledger transfer when a staged payment rolls back after the transfer")
+    void testProcessPaymentRollbackReversesTransfer() {
+        FraudCheckResponse fraudResponse = new FraudCheckResponse();
+        fraudResponse.setFraudulent(false);
+        when(fraudService.checkFraud(any())).thenReturn(fraudResponse);
+
+        AccountBalanceResponse validAccount = new AccountBalanceResponse();
+        validAccount.setValid(true);
+        when(accountService.validateAccount(anyString())).thenReturn(validAccount);
+
+        AccountBalanceResponse balanceResponse = new AccountBalanceResponse();
+        balanceResponse.setSufficientBalance(true);
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
+        // The PENDING insert succeeds; the aborted transaction fails every later status write
+        when(paymentRepository.save(any(Payment.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0))
+            .thenThrow(new DataIntegrityViolationException("current transaction is aborted"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(DataIntegrityViolationException.class, () -> paymentService.processPayment(validPaymentRequest));
+            verify(accountService, never()).reverseTransfer(anyString(), anyString(), any(BigDecimal.class));
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(accountService, times(1)).reverseTransfer("ACC001", "ACC002", new BigDecimal("1000.00"));
+    }
+
+    @Test
+    @DisplayName("Should keep the ledger transfer when a staged payment commits")
+    void testProcessPaymentCommitKeepsTransfer() {
+        FraudCheckResponse fraudResponse = new FraudCheckResponse();
+        fraudResponse.setFraudulent(false);
+        when(fraudService.checkFraud(any())).thenReturn(fraudResponse);
+
+        AccountBalanceResponse validAccount = new AccountBalanceResponse();
+        validAccount.setValid(true);
+        when(accountService.validateAccount(anyString())).thenReturn(validAccount);
+
+        AccountBalanceResponse balanceResponse = new AccountBalanceResponse();
+        balanceResponse.setSufficientBalance(true);
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(PaymentStatus.COMPLETED, paymentService.processPayment(validPaymentRequest).getStatus());
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(accountService, never()).reverseTransfer(anyString(), anyString(), any(BigDecimal.class));
+    }
+
+    @Test
+    @DisplayName("Should reverse the ledger transfer when a single-write payment rolls back")
+    void testSingleWriteModeRollbackReversesTransfer() {
+        properties.getProcessing().setWriteMode(PaymentProcessorProperties.WriteMode.SINGLE_WRITE);
+
+        FraudCheckResponse fraudResponse = new FraudCheckResponse();
+        fraudResponse.setFraudulent(false);
+        when(fraudService.checkFraud(any())).thenReturn(fraudResponse);
+
+        AccountBalanceResponse validAccount = new AccountBalanceResponse();
+        validAccount.setValid(true);
+        when(accountService.validateAccount(anyString())).thenReturn(validAccount);
+
+        AccountBalanceResponse balanceResponse = new AccountBalanceResponse();
+        balanceResponse.setSufficientBalance(true);
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
+        when(paymentRepository.save(any(Payment.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(DataIntegrityViolationException.class, () -> paymentService.processPayment(validPaymentRequest));
+            verify(accountService, never()).reverseTransfer(anyString(), anyString(), any(BigDecimal.class));
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(accountService, times(1)).reverseTransfer("ACC001", "ACC002", new BigDecimal("1000.00"));
+    }
+
+    @Test
+    @DisplayName("Should write failed payment once in single-write mode")
+    void testSingleWriteModePersistsFailureOnce() {
+        properties.getProcessing().setWriteMode(PaymentProcessorProperties.WriteMode.SINGLE_WRITE);
+
+        AccountBalanceResponse sourceResponse = new AccountBalanceResponse();
+        sourceResponse.setValid(false);
+        sourceResponse.setMessage("Account not found");
+        when(accountService.validateAccount("ACC001")).thenReturn(sourceResponse);
+
+        PaymentResponse response = paymentService.processPayment(validPaymentRequest);
+
+        assertEquals(PaymentStatus.ACCOUNT_VALIDATION_FAILED, response.getStatus());
+        verify(paymentRepository, times(1)).save(argThat(payment -> 
+            payment.getStatus() == PaymentStatus.ACCOUNT_VALIDATION_FAILED));
+        verify(auditService, times(1)).auditFailedPayment(any(Payment.class), eq(false), eq(false), any());
+    }
+
+    @Test
+    @DisplayName("Should run validation and fraud check concurrently")
+    void testConcurrentOrchestrationSuccess() {
+        FraudCheckResponse fraudResponse = new FraudCheckResponse();
+        fraudResponse.setFraudulent(false);
+        when(fraudService.checkFraud(any())).thenReturn(fraudResponse);
+
+        AccountBalanceResponse validAccount = new AccountBalanceResponse();
+        validAccount.setValid(true);
+        when(accountService.validateAccount(anyString())).thenReturn(validAccount);
+
+        AccountBalanceResponse balanceResponse = new AccountBalanceResponse();
+        balanceResponse.setSufficientBalance(true);
+        when(accountService.transfer(anyString(), anyString(), any(BigDecimal.class))).thenReturn(balanceResponse);
+
+        when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
+
+        try (ExecutorService executor = Executors.newCachedThreadPool()) {
+            PaymentResponse response = concurrentPaymentService(executor).processPayment(validPaymentRequest);
+
+            assertEquals(PaymentStatus.COMPLETED, response.getStatus());
+            verify(accountService, times(1)).validateAccount("ACC001");
+            verify(accountService, times(1)).validateAccount("ACC002");
+            verify(fraudService, times(1)).checkFraud(any());
+            verify(auditService, times(1)).auditPayment(any(Payment.class), eq(fraudResponse), 
+                eq(true), eq(true), eq(true), any());
+        }
+    }
+
+    @Test
+    @DisplayName("Should short-circuit on first failed check without waiting for fraud check")
+    void testConcurrentOrchestrationShortCircuits() {
+        CountDownLatch fraudCheckRelease = new CountDownLatch(1);
+        // The short-circuit may return before the fraud task is scheduled
+        lenient().when(fraudService.checkFraud(any())).thenAnswer(invocation -> {
+            fraudCheckRelease.await();
+            return new FraudCheckResponse();
+        });
+
+        AccountBalanceResponse sourceResponse = new AccountBalanceResponse();
+        sourceResponse.setValid(true);
+        when(accountService.validateAccount("ACC001")).thenReturn(sourceResponse);
+
+        AccountBalanceResponse destResponse = new AccountBalanceResponse();
+        destResponse.setValid(false);
+        destResponse.setMessage("Account not found");
+        when(accountService.validateAccount("ACC002")).thenReturn(destResponse);
+
+        when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
+        properties.getOrchestration().setDeadline(Duration.ofSeconds(30));
+
+        // One thread runs the steps in submission order, so the source check has completed when the
+        // destination check fails, while the fraud check is still blocked
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            PaymentResponse response = concurrentPaymentService(executor).processPayment(validPaymentRequest);
+
+            assertEquals(PaymentStatus.ACCOUNT_VALIDATION_FAILED, response.getStatus());
+            assertTrue(response.getFailureReason().startsWith("Destination account validation failed"));
+            verify(auditService, times(1)).auditFailedPayment(any(Payment.class), eq(true), eq(false), any());
+            verify(accountService, never()).transfer(anyString(), anyString(), any(BigDecimal.class));
+        } finally {
+            fraudCheckRelease.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail payment when concurrent checks exceed deadline")
+    void testConcurrentOrchestrationDeadline() {
+        CountDownLatch validationRelease = new CountDownLatch(1);
+        when(accountService.validateAccount(anyString())).thenAnswer(invocation -> {
+            validationRelease.await();
+            return new AccountBalanceResponse();
+        });
+        lenient().when(fraudService.checkFraud(any())).thenReturn(new FraudCheckResponse());
+
+        when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
+        properties.getOrchestration().setDeadline(Duration.ofMillis(50));
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            PaymentResponse response = concurrentPaymentService(executor).processPayment(validPaymentRequest);
+
+            assertEquals(PaymentStatus.FAILED, response.getStatus());
+            assertTrue(response.getFailureReason().contains("deadline"));
+            verify(auditService, times(1)).auditFailedPayment(any(Payment.class), eq(false), eq(false), any());
+        } finally {
+            validationRelease.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should interrupt checks still running when the deadline expires")
+    void testConcurrentOrchestrationDeadlineInterruptsChecks() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(2);
+        when(accountService.validateAccount(anyString())).thenAnswer(invocation -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return new AccountBalanceResponse();
+        });
+        lenient().when(fraudService.checkFraud(any())).thenReturn(new FraudCheckResponse());
+
+        when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
+        properties.getOrchestration().setDeadline(Duration.ofMillis(50));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            PaymentResponse response = concurrentPaymentService(executor).processPayment(validPaymentRequest);
+
+            assertEquals(PaymentStatus.FAILED, response.getStatus());
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS), "Timed out checks were not interrupted");
+            verify(auditService, times(1)).auditFailedPayment(any(Payment.class), eq(false), eq(false), any());
+        }
+    }
+
+    private Timer stepTimer(String step, String outcome) {
+        Timer timer = meterRegistry.find(PaymentMetrics.STEP_TIMER)
+            .tags("step", step, "type", PaymentType.DOMESTIC_TRANSFER.name(), "outcome", outcome)
+            .timer();
+        assertNotNull(timer, "No timer for step " + step + " with outcome " + outcome);
+        return timer;
+    }
+
+    private PaymentService concurrentPaymentService(ExecutorService executor) {
+        properties.getOrchestration().setMode(PaymentProcessorProperties.OrchestrationMode.CONCURRENT);
+        return new PaymentService(paymentRepository, fraudService, accountService, auditService, properties,
+            paymentMetrics, statusCache, executor);
     }
 }
@@ -0,0 +1,136 @@
+package com.alok.payment.paymentprocessor.unit.service;
+
+import com.alok.payment.paymentprocessor.config.PaymentProcessorProperties;
+import com.alok.payment.paymentprocessor.dto.PaymentResponse;
+import com.alok.payment.paymentprocessor.model.PaymentStatus;
+import com.alok.payment.paymentprocessor.service.PaymentStatusCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PaymentStatusCache Unit Tests")
+class PaymentStatusCacheTest {
+
+    private PaymentProcessorProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentProcessorProperties();
+        properties.getStatusCache().setEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should read through on a miss and count hits and misses")
+    void testReadThrough() {
+        PaymentStatusCache cache = new PaymentStatusCache(properties, meterRegistry);
+
+        assertEquals(PaymentStatus.COMPLETED, cache.get("TXN-001", loader(PaymentStatus.COMPLETED)).orElseThrow().getStatus());
+        assertEquals(PaymentStatus.COMPLETED, cache.get("TXN-001", loader(PaymentStatus.COMPLETED)).orElseThrow().getStatus());
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, cacheGets("hit"), 0.0);
+        assertEquals(1.0, cacheGets("miss"), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should not cache a transaction that does not exist")
+    void testMissingTransactionNotCached() {
+        PaymentStatusCache cache = new PaymentStatusCache(properties, meterRegistry);
+        Function<String, Optional<PaymentResponse>> notFound = id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertTrue(cache.get("TXN-404", notFound).isEmpty());
+        assertTrue(cache.get("TXN-404", notFound).isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should expire in-flight statuses after their TTL and keep terminal ones")
+    void testStatusTtl() {
+        properties.getStatusCache().setInFlightTtl(Duration.ZERO);
+        PaymentStatusCache cache = new PaymentStatusCache(properties, meterRegistry);
+
+        cache.put(response("TXN-001", PaymentStatus.PROCESSING));
+        assertEquals(PaymentStatus.COMPLETED, cache.get("TXN-001", loader(PaymentStatus.COMPLETED)).orElseThrow().getStatus());
+        assertEquals(1, loads.get());
+
+        cache.put(response("TXN-002", PaymentStatus.FRAUD_CHECK_FAILED));
+        assertEquals(PaymentStatus.FRAUD_CHECK_FAILED,
+            cache.get("TXN-002", loader(PaymentStatus.COMPLETED)).orElseThrow().getStatus());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should only write a status through once its transaction commits")
+    void testWriteThroughAfterCommit() {
+        PaymentStatusCache cache = new PaymentStatusCache(properties, meterRegistry);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.put(response("TXN-001", PaymentStatus.COMPLETED));
+        assertEquals(PaymentStatus.PENDING, cache.get("TXN-001", loader(PaymentStatus.PENDING)).orElseThrow().getStatus());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(PaymentStatus.COMPLETED, cache.get("TXN-001", loader(PaymentStatus.PENDING)).orElseThrow().getStatus());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should always load from the database when disabled")
+    void testDisabled() {
+        properties.getStatusCache().setEnabled(false);
+        PaymentStatusCache cache = new PaymentStatusCache(properties, meterRegistry);
+
+        cache.put(response("TXN-001", PaymentStatus.COMPLETED));
+        cache.get("TXN-001", loader(PaymentStatus.COMPLETED));
+        cache.get("TXN-001", loader(PaymentStatus.COMPLETED));
+
+        assertFalse(cache.isEnabled());
+        assertEquals(2, loads.get());
+        assertNull(meterRegistry.find("cache.gets").functionCounter());
+    }
+
+    private Function<String, Optional<PaymentResponse>> loader(PaymentStatus status) {
+        return id -> {
+            loads.incrementAndGet();
+            return Optional.of(response(id, status));
+        };
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+            .tags("cache", PaymentStatusCache.CACHE_NAME, "result", result)
+            .functionCounter()
+            .count();
+    }
+
+    private static PaymentResponse response(String transactionId, PaymentStatus status) {
+        PaymentResponse response = new PaymentResponse();
+        response.setTransactionId(transactionId);
+        response.setStatus(status);
+        return response;
+    }
+}